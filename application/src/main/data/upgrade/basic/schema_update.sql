@@ -93,3 +93,43 @@ WHERE
     OR (profile_data->'configuration'->>'maxDebugModeDurationMinutes')::int = 0;
 
 -- UPDATE TENANT PROFILE DEBUG DURATION END
+
+-- TIME SERIES ROLLUPS START
+
+CREATE TABLE IF NOT EXISTS ts_rollup
+(
+    entity_id   uuid   NOT NULL,
+    key         int    NOT NULL,
+    granularity bigint NOT NULL,
+    ts          bigint NOT NULL,
+    long_sum    bigint,
+    dbl_sum     double precision,
+    long_count  bigint NOT NULL,
+    dbl_count   bigint NOT NULL,
+    long_min    bigint,
+    long_max    bigint,
+    dbl_min     double precision,
+    dbl_max     double precision,
+    bool_count  bigint NOT NULL,
+    str_count   bigint NOT NULL,
+    json_count  bigint NOT NULL,
+    last_ts     bigint,
+    CONSTRAINT ts_rollup_pkey PRIMARY KEY (entity_id, key, granularity, ts)
+);
+
+CREATE TABLE IF NOT EXISTS ts_rollup_dirty
+(
+    entity_id uuid   NOT NULL,
+    key       int    NOT NULL,
+    ts        bigint NOT NULL,
+    CONSTRAINT ts_rollup_dirty_pkey PRIMARY KEY (entity_id, key, ts)
+);
+
+CREATE TABLE IF NOT EXISTS ts_rollup_coverage
+(
+    id       int    NOT NULL,
+    start_ts bigint NOT NULL,
+    CONSTRAINT ts_rollup_coverage_pkey PRIMARY KEY (id)
+);
+
+-- TIME SERIES ROLLUPS END
@@ -22,24 +22,31 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.stereotype.Service;
-import org.thingsboard.common.util.ThingsBoardExecutors;
-import org.thingsboard.common.util.ThingsBoardThreadFactory;
 import org.thingsboard.server.actors.ActorSystemContext;
 import org.thingsboard.server.actors.DefaultTbActorSystem;
+import org.thingsboard.server.actors.DispatcherType;
+import org.thingsboard.server.actors.TbActorDispatcherSettings;
+import org.thingsboard.server.actors.TbActorDispatcherStats;
+import org.thingsboard.server.actors.TbActorMailboxOverflowPolicy;
+import org.thingsboard.server.actors.TbActorMailboxSettings;
+import org.thingsboard.server.actors.TbActorMailboxStats;
 import org.thingsboard.server.actors.TbActorRef;
 import org.thingsboard.server.actors.TbActorSystem;
 import org.thingsboard.server.actors.TbActorSystemSettings;
 import org.thingsboard.server.actors.app.AppActor;
 import org.thingsboard.server.actors.app.AppInitMsg;
 import org.thingsboard.server.actors.stats.StatsActor;
+import org.thingsboard.server.common.data.EntityType;
+import org.thingsboard.server.common.data.StringUtils;
 import org.thingsboard.server.common.msg.queue.PartitionChangeMsg;
 import org.thingsboard.server.common.msg.queue.ServiceType;
+import org.thingsboard.server.common.stats.StatsFactory;
 import org.thingsboard.server.queue.discovery.TbApplicationEventListener;
 import org.thingsboard.server.queue.discovery.event.PartitionChangeEvent;
 import org.thingsboard.server.queue.util.AfterStartUp;
 
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.EnumMap;
+import java.util.Map;
 
 @Service
 @Slf4j
@@ -52,9 +59,15 @@ public class DefaultActorService extends TbApplicationEventListener<PartitionCha
     public static final String CF_MANAGER_DISPATCHER_NAME = "cf-manager-dispatcher";
     public static final String CF_ENTITY_DISPATCHER_NAME = "cf-entity-dispatcher";
 
+    private static final String DISPATCHER_STATS_KEY = "actorDispatcher";
+    private static final String MAILBOX_STATS_KEY = "actorMailbox";
+
     @Autowired
     private ActorSystemContext actorContext;
 
+    @Autowired
+    private StatsFactory statsFactory;
+
     private TbActorSystem system;
 
     private TbActorRef appActor;
@@ -86,20 +99,44 @@ public class DefaultActorService extends TbApplicationEventListener<PartitionCha
     @Value("${actors.system.cfe_dispatcher_pool_size:8}")
     private int calculatedFieldEntityDispatcherSize;
 
+    @Value("${actors.system.app_dispatcher_type:WORK_STEALING}")
+    private DispatcherType appDispatcherType;
+
+    @Value("${actors.system.tenant_dispatcher_type:WORK_STEALING}")
+    private DispatcherType tenantDispatcherType;
+
+    @Value("${actors.system.device_dispatcher_type:WORK_STEALING}")
+    private DispatcherType deviceDispatcherType;
+
+    @Value("${actors.system.rule_dispatcher_type:WORK_STEALING}")
+    private DispatcherType ruleDispatcherType;
+
+    @Value("${actors.system.cfm_dispatcher_type:WORK_STEALING}")
+    private DispatcherType calculatedFieldManagerDispatcherType;
+
+    @Value("${actors.system.cfe_dispatcher_type:WORK_STEALING}")
+    private DispatcherType calculatedFieldEntityDispatcherType;
+
+    @Value("${actors.system.dispatcher_stats_enabled:false}")
+    private boolean dispatcherStatsEnabled;
+
+    @Value("${actors.system.mailbox_limits:}")
+    private String mailboxLimits;
 
     @PostConstruct
     public void initActorSystem() {
         log.info("Initializing actor system.");
         actorContext.setActorService(this);
-        TbActorSystemSettings settings = new TbActorSystemSettings(actorThroughput, schedulerPoolSize, maxActorInitAttempts);
+        TbActorSystemSettings settings = new TbActorSystemSettings(actorThroughput, schedulerPoolSize, maxActorInitAttempts, parseMailboxSettings());
         system = new DefaultTbActorSystem(settings);
+        system.getMailboxStats().values().forEach(this::registerMailboxStats);
 
-        system.createDispatcher(APP_DISPATCHER_NAME, initDispatcherExecutor(APP_DISPATCHER_NAME, appDispatcherSize));
-        system.createDispatcher(TENANT_DISPATCHER_NAME, initDispatcherExecutor(TENANT_DISPATCHER_NAME, tenantDispatcherSize));
-        system.createDispatcher(DEVICE_DISPATCHER_NAME, initDispatcherExecutor(DEVICE_DISPATCHER_NAME, deviceDispatcherSize));
-        system.createDispatcher(RULE_DISPATCHER_NAME, initDispatcherExecutor(RULE_DISPATCHER_NAME, ruleDispatcherSize));
-        system.createDispatcher(CF_MANAGER_DISPATCHER_NAME, initDispatcherExecutor(CF_MANAGER_DISPATCHER_NAME, calculatedFieldManagerDispatcherSize));
-        system.createDispatcher(CF_ENTITY_DISPATCHER_NAME, initDispatcherExecutor(CF_ENTITY_DISPATCHER_NAME, calculatedFieldEntityDispatcherSize));
+        initDispatcher(APP_DISPATCHER_NAME, appDispatcherType, appDispatcherSize);
+        initDispatcher(TENANT_DISPATCHER_NAME, tenantDispatcherType, tenantDispatcherSize);
+        initDispatcher(DEVICE_DISPATCHER_NAME, deviceDispatcherType, deviceDispatcherSize);
+        initDispatcher(RULE_DISPATCHER_NAME, ruleDispatcherType, ruleDispatcherSize);
+        initDispatcher(CF_MANAGER_DISPATCHER_NAME, calculatedFieldManagerDispatcherType, calculatedFieldManagerDispatcherSize);
+        initDispatcher(CF_ENTITY_DISPATCHER_NAME, calculatedFieldEntityDispatcherType, calculatedFieldEntityDispatcherSize);
 
         actorContext.setActorSystem(system);
 
@@ -112,16 +149,51 @@ public class DefaultActorService extends TbApplicationEventListener<PartitionCha
         log.info("Actor system initialized.");
     }
 
-    private ExecutorService initDispatcherExecutor(String dispatcherName, int poolSize) {
-        if (poolSize == 0) {
-            int cores = Runtime.getRuntime().availableProcessors();
-            poolSize = Math.max(1, cores / 2);
-        }
-        if (poolSize == 1) {
-            return Executors.newSingleThreadExecutor(ThingsBoardThreadFactory.forName(dispatcherName));
+    private void initDispatcher(String dispatcherName, DispatcherType type, int poolSize) {
+        TbActorDispatcherSettings dispatcherSettings = new TbActorDispatcherSettings(type, poolSize);
+        if (dispatcherStatsEnabled) {
+            TbActorDispatcherStats stats = new TbActorDispatcherStats(dispatcherName, actorTypeStats -> {
+                String actorType = actorTypeStats.getActorType();
+                statsFactory.createGauge(DISPATCHER_STATS_KEY, "mailboxRuns", actorTypeStats, TbActorDispatcherStats.ActorTypeStats::getMailboxRuns, "dispatcher", dispatcherName, "actorType", actorType);
+                statsFactory.createGauge(DISPATCHER_STATS_KEY, "processedMsgs", actorTypeStats, TbActorDispatcherStats.ActorTypeStats::getProcessedMsgs, "dispatcher", dispatcherName, "actorType", actorType);
+                statsFactory.createGauge(DISPATCHER_STATS_KEY, "mailboxWaitTimeMs", actorTypeStats, TbActorDispatcherStats.ActorTypeStats::getWaitTimeMs, "dispatcher", dispatcherName, "actorType", actorType);
+                statsFactory.createGauge(DISPATCHER_STATS_KEY, "runTimeMs", actorTypeStats, TbActorDispatcherStats.ActorTypeStats::getRunTimeMs, "dispatcher", dispatcherName, "actorType", actorType);
+            });
+            statsFactory.createGauge(DISPATCHER_STATS_KEY, "queueDepth", stats, TbActorDispatcherStats::getQueueDepth, "dispatcher", dispatcherName);
+            system.createDispatcher(dispatcherName, dispatcherSettings, stats);
         } else {
-            return ThingsBoardExecutors.newWorkStealingPool(poolSize, dispatcherName);
+            system.createDispatcher(dispatcherName, dispatcherSettings);
+        }
+        log.info("[{}] Created {} dispatcher with pool size {}", dispatcherName, type, poolSize);
+    }
+
+    private Map<EntityType, TbActorMailboxSettings> parseMailboxSettings() {
+        Map<EntityType, TbActorMailboxSettings> result = new EnumMap<>(EntityType.class);
+        if (StringUtils.isBlank(mailboxLimits)) {
+            return result;
+        }
+        for (String limit : mailboxLimits.split(",")) {
+            String[] parts = limit.trim().split(":");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Invalid actor mailbox limit '" + limit + "', expected format is ACTOR_TYPE:CAPACITY:POLICY");
+            }
+            EntityType actorType = EntityType.valueOf(parts[0].trim());
+            int capacity = Integer.parseInt(parts[1].trim());
+            if (capacity <= 0) {
+                throw new IllegalArgumentException("Actor mailbox capacity must be positive: '" + limit + "'");
+            }
+            TbActorMailboxOverflowPolicy policy = TbActorMailboxOverflowPolicy.valueOf(parts[2].trim());
+            result.put(actorType, new TbActorMailboxSettings(capacity, policy));
+            log.info("[{}] Using bounded actor mailbox with capacity {} and overflow policy {}", actorType, capacity, policy);
         }
+        return result;
+    }
+
+    private void registerMailboxStats(TbActorMailboxStats stats) {
+        String actorType = stats.getActorType();
+        statsFactory.createGauge(MAILBOX_STATS_KEY, "queuedMsgs", stats, TbActorMailboxStats::getQueuedMsgs, "actorType", actorType);
+        statsFactory.createGauge(MAILBOX_STATS_KEY, "droppedMsgs", stats, TbActorMailboxStats::getDroppedMsgs, "actorType", actorType);
+        statsFactory.createGauge(MAILBOX_STATS_KEY, "rejectedMsgs", stats, TbActorMailboxStats::getRejectedMsgs, "actorType", actorType);
     }
 
     @AfterStartUp(order = AfterStartUp.ACTOR_SYSTEM)
@@ -31,6 +31,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.annotation.Nullable;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -80,6 +81,7 @@ import org.thingsboard.server.common.data.kv.KvEntry;
 import org.thingsboard.server.common.data.kv.LongDataEntry;
 import org.thingsboard.server.common.data.kv.ReadTsKvQuery;
 import org.thingsboard.server.common.data.kv.StringDataEntry;
+import org.thingsboard.server.common.data.kv.TimeseriesExportFormat;
 import org.thingsboard.server.common.data.kv.TsKvEntry;
 import org.thingsboard.server.common.data.tenant.profile.DefaultTenantProfileConfiguration;
 import org.thingsboard.server.common.msg.rule.engine.DeviceAttributesEventNotificationMsg;
@@ -92,8 +94,12 @@ import org.thingsboard.server.service.security.AccessValidator;
 import org.thingsboard.server.service.security.model.SecurityUser;
 import org.thingsboard.server.service.security.permission.Operation;
 import org.thingsboard.server.service.telemetry.AttributeData;
+import org.thingsboard.server.service.telemetry.TimeseriesExportWriter;
 import org.thingsboard.server.service.telemetry.TsData;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.LinkedHashMap;
@@ -158,6 +164,9 @@ public class TelemetryController extends BaseController {
     @Value("${transport.json.max_string_value_length:0}")
     private int maxStringValueLength;
 
+    @Value("${server.rest.timeseries_export.chunk_size:1000}")
+    private int exportChunkSize;
+
     private ExecutorService executor;
 
     @PostConstruct
@@ -339,6 +348,61 @@ public class TelemetryController extends BaseController {
                 });
     }
 
+    @ApiOperation(value = "Export time series data (exportTimeseries)",
+            notes = "Streams the raw (not aggregated) time series values of the specified entity for the whole time range. " +
+                    "Unlike 'getTimeseries', the values are not collected in memory but written to the response as they are read from the database, " +
+                    "so the endpoint is suitable for exports of very large time ranges. " +
+                    "The keys are exported one after another, in the order of the 'keys' parameter. \n\n" +
+                    "The 'NDJSON' format produces one JSON object per line: \n\n"
+                    + MARKDOWN_CODE_BLOCK_START
+                    + "{\"key\":\"temperature\",\"ts\":1609459200000,\"value\":\"22.5\"}"
+                    + MARKDOWN_CODE_BLOCK_END
+                    + "\n\n The 'CSV' format produces 'key,ts,value' lines preceded by the header line."
+                    + "\n\n" + INVALID_ENTITY_ID_OR_ENTITY_TYPE_DESCRIPTION + TENANT_OR_CUSTOMER_AUTHORITY_PARAGRAPH)
+    @PreAuthorize("hasAnyAuthority('SYS_ADMIN', 'TENANT_ADMIN', 'CUSTOMER_USER')")
+    @RequestMapping(value = "/{entityType}/{entityId}/values/timeseries/export", method = RequestMethod.GET, params = {"keys", "startTs", "endTs"})
+    public void exportTimeseries(
+            @Parameter(description = ENTITY_TYPE_PARAM_DESCRIPTION, required = true, schema = @Schema(defaultValue = "DEVICE")) @PathVariable("entityType") String entityType,
+            @Parameter(description = ENTITY_ID_PARAM_DESCRIPTION, required = true) @PathVariable("entityId") String entityIdStr,
+            @Parameter(description = TELEMETRY_KEYS_BASE_DESCRIPTION, required = true) @RequestParam(name = "keys") String keys,
+            @Parameter(description = "A long value representing the start timestamp of the time range in milliseconds, UTC.")
+            @RequestParam(name = "startTs") Long startTs,
+            @Parameter(description = "A long value representing the end timestamp of the time range in milliseconds, UTC.")
+            @RequestParam(name = "endTs") Long endTs,
+            @Parameter(description = "An integer value that represents a max number of time series data points to export per key. Not limited by default.")
+            @RequestParam(name = "limit", required = false) Integer limit,
+            @Parameter(description = SORT_ORDER_DESCRIPTION, schema = @Schema(allowableValues = {"ASC", "DESC"}))
+            @RequestParam(name = "orderBy", defaultValue = "ASC") String orderBy,
+            @Parameter(description = "A string value representing the format of the exported data.", schema = @Schema(allowableValues = {"NDJSON", "CSV"}))
+            @RequestParam(name = "format", defaultValue = "NDJSON") TimeseriesExportFormat format,
+            @Parameter(description = STRICT_DATA_TYPES_DESCRIPTION)
+            @RequestParam(name = "useStrictDataTypes", required = false, defaultValue = "false") Boolean useStrictDataTypes,
+            HttpServletResponse response) throws Exception {
+        EntityId entityId = EntityIdFactory.getByTypeAndId(entityType, entityIdStr);
+        checkEntityId(entityId, Operation.READ_TELEMETRY);
+        List<String> keyList = toKeysList(keys);
+        if (keyList == null) {
+            throw new InvalidParametersException("Parameter 'keys' can't be empty");
+        }
+        TenantId tenantId = getTenantId();
+        int maxDataPoints = limit != null ? limit : Integer.MAX_VALUE;
+
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        TimeseriesExportWriter writer = new TimeseriesExportWriter(response.getOutputStream(), format, useStrictDataTypes);
+        for (String key : keyList) {
+            ReadTsKvQuery query = new BaseReadTsKvQuery(key, startTs, endTs, maxDataPoints, orderBy);
+            tsService.exportAll(tenantId, entityId, query, exportChunkSize, entries -> {
+                try {
+                    writer.write(entries);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        writer.flush();
+    }
+
     @ApiOperation(value = "Save device attributes (saveDeviceAttributes)",
             notes = "Creates or updates the device attributes based on device id and specified attribute scope. " +
                     SAVE_ATTRIBUTES_REQUEST_PAYLOAD
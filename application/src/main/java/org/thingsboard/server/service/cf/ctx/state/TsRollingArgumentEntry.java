@@ -16,47 +16,59 @@
 package org.thingsboard.server.service.cf.ctx.state;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
-import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
 import org.thingsboard.script.api.tbel.TbelCfArg;
-import org.thingsboard.script.api.tbel.TbelCfTsDoubleVal;
 import org.thingsboard.script.api.tbel.TbelCfTsRollingArg;
 import org.thingsboard.server.common.data.kv.KvEntry;
 import org.thingsboard.server.common.data.kv.TsKvEntry;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.TreeMap;
 
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
 @Slf4j
 public class TsRollingArgumentEntry implements ArgumentEntry {
 
     private Integer limit;
     private Long timeWindow;
-    private TreeMap<Long, Double> tsRecords = new TreeMap<>();
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private TsRollingBuffer records = new TsRollingBuffer();
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private long[] snapshotTs;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private double[] snapshotValues;
 
     private boolean forceResetPrevious;
 
     public TsRollingArgumentEntry(List<TsKvEntry> kvEntries, int limit, long timeWindow) {
-        this.limit = limit;
-        this.timeWindow = timeWindow;
+        this(limit, timeWindow);
         kvEntries.forEach(tsKvEntry -> addTsRecord(tsKvEntry.getTs(), tsKvEntry));
     }
 
     public TsRollingArgumentEntry(TreeMap<Long, Double> tsRecords, int limit, long timeWindow) {
-        this.tsRecords = tsRecords;
-        this.limit = limit;
-        this.timeWindow = timeWindow;
+        this(limit, timeWindow);
+        setTsRecords(tsRecords);
     }
 
     public TsRollingArgumentEntry(int limit, long timeWindow) {
-        this.tsRecords = new TreeMap<>();
         this.limit = limit;
         this.timeWindow = timeWindow;
     }
@@ -64,7 +76,7 @@ public class TsRollingArgumentEntry implements ArgumentEntry {
     public TsRollingArgumentEntry(Integer limit, Long timeWindow, TreeMap<Long, Double> tsRecords) {
         this.limit = limit;
         this.timeWindow = timeWindow;
-        this.tsRecords = tsRecords;
+        setTsRecords(tsRecords);
     }
 
     @Override
@@ -74,22 +86,58 @@ public class TsRollingArgumentEntry implements ArgumentEntry {
 
     @Override
     public boolean isEmpty() {
-        return tsRecords.isEmpty();
+        return records.isEmpty();
     }
 
     @JsonIgnore
     @Override
     public Object getValue() {
+        return getTsRecords();
+    }
+
+    /**
+     * Returns a copy of the records. Kept for JSON state compatibility, prefer {@link #forEachTsRecord} on hot paths.
+     */
+    public TreeMap<Long, Double> getTsRecords() {
+        TreeMap<Long, Double> tsRecords = new TreeMap<>();
+        records.forEach(tsRecords::put);
         return tsRecords;
     }
 
+    /**
+     * Replaces the records as is, without applying the limit and the time window.
+     */
+    public void setTsRecords(TreeMap<Long, Double> tsRecords) {
+        records.clear();
+        invalidateSnapshot();
+        if (tsRecords != null) {
+            tsRecords.forEach(records::put);
+        }
+    }
+
+    /**
+     * Restores a record as is, without applying the limit and the time window.
+     */
+    public void restoreTsRecord(long ts, double value) {
+        records.put(ts, value);
+        invalidateSnapshot();
+    }
+
+    public void forEachTsRecord(TsRecordConsumer consumer) {
+        records.forEach(consumer);
+    }
+
+    /**
+     * The records are copied into primitive arrays once per update of this entry,
+     * arguments created before the next update share the same immutable snapshot.
+     */
     @Override
     public TbelCfArg toTbelCfArg() {
-        List<TbelCfTsDoubleVal> values = new ArrayList<>(tsRecords.size());
-        for (var e : tsRecords.entrySet()) {
-            values.add(new TbelCfTsDoubleVal(e.getKey(), e.getValue()));
+        if (snapshotTs == null) {
+            snapshotTs = records.copyTimestamps();
+            snapshotValues = records.copyValues();
         }
-        return new TbelCfTsRollingArg(timeWindow, values);
+        return new TbelCfTsRollingArg(timeWindow, snapshotTs, snapshotValues);
     }
 
     @Override
@@ -105,42 +153,54 @@ public class TsRollingArgumentEntry implements ArgumentEntry {
     }
 
     private void updateTsRollingEntry(TsRollingArgumentEntry tsRollingEntry) {
-        for (Map.Entry<Long, Double> tsRecordEntry : tsRollingEntry.getTsRecords().entrySet()) {
-            addTsRecord(tsRecordEntry.getKey(), tsRecordEntry.getValue());
-        }
+        tsRollingEntry.forEachTsRecord(this::addTsRecord);
     }
 
     private void updateSingleValueEntry(SingleValueArgumentEntry singleValueEntry) {
         addTsRecord(singleValueEntry.getTs(), singleValueEntry.getKvEntryValue());
     }
 
-    private void addTsRecord(Long ts, KvEntry value) {
+    private void addTsRecord(long ts, KvEntry value) {
         try {
             switch (value.getDataType()) {
-                case LONG -> value.getLongValue().ifPresent(aLong -> tsRecords.put(ts, aLong.doubleValue()));
-                case DOUBLE -> value.getDoubleValue().ifPresent(aDouble -> tsRecords.put(ts, aDouble));
-                case BOOLEAN -> value.getBooleanValue().ifPresent(aBoolean -> tsRecords.put(ts, aBoolean ? 1.0 : 0.0));
-                case STRING -> value.getStrValue().ifPresent(aString -> tsRecords.put(ts, Double.parseDouble(aString)));
-                case JSON -> value.getJsonValue().ifPresent(aString -> tsRecords.put(ts, Double.parseDouble(aString)));
+                case LONG -> value.getLongValue().ifPresent(aLong -> records.put(ts, aLong.doubleValue()));
+                case DOUBLE -> value.getDoubleValue().ifPresent(aDouble -> records.put(ts, aDouble));
+                case BOOLEAN -> value.getBooleanValue().ifPresent(aBoolean -> records.put(ts, aBoolean ? 1.0 : 0.0));
+                case STRING -> value.getStrValue().ifPresent(aString -> records.put(ts, Double.parseDouble(aString)));
+                case JSON -> value.getJsonValue().ifPresent(aString -> records.put(ts, Double.parseDouble(aString)));
             }
         } catch (Exception e) {
-            tsRecords.put(ts, Double.NaN);
+            records.put(ts, Double.NaN);
             log.debug("Invalid value '{}' for time series rolling arguments. Only numeric values are supported.", value.getValue());
         } finally {
+            invalidateSnapshot();
             cleanupExpiredRecords();
         }
     }
 
-    private void addTsRecord(Long ts, double value) {
-        tsRecords.put(ts, value);
+    private void addTsRecord(long ts, double value) {
+        records.put(ts, value);
+        invalidateSnapshot();
         cleanupExpiredRecords();
     }
 
+    private void invalidateSnapshot() {
+        snapshotTs = null;
+        snapshotValues = null;
+    }
+
     private void cleanupExpiredRecords() {
-        if (tsRecords.size() > limit) {
-            tsRecords.pollFirstEntry();
+        if (records.size() > limit) {
+            records.removeFirst();
         }
-        tsRecords.entrySet().removeIf(tsRecord -> tsRecord.getKey() < System.currentTimeMillis() - timeWindow);
+        records.removeOlderThan(System.currentTimeMillis() - timeWindow);
+    }
+
+    @FunctionalInterface
+    public interface TsRecordConsumer {
+
+        void accept(long ts, double value);
+
     }
 
 }
@@ -0,0 +1,210 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.service.cf.ctx.state;
+
+import java.util.Arrays;
+
+/**
+ * Time-ordered circular buffer of primitive (ts, value) pairs used by rolling arguments.
+ * Appending a newer record and evicting the oldest ones are O(1), an out-of-order record is
+ * inserted by shifting the tail. A record with an already present timestamp replaces the value.
+ * The buffer grows when full, so the caller is responsible for enforcing the limit.
+ * */
+final class TsRollingBuffer {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private long[] timestamps;
+    private double[] values;
+    private int head;
+    private int size;
+
+    TsRollingBuffer() {
+        this.timestamps = new long[DEFAULT_CAPACITY];
+        this.values = new double[DEFAULT_CAPACITY];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    long tsAt(int i) {
+        return timestamps[index(i)];
+    }
+
+    double valueAt(int i) {
+        return values[index(i)];
+    }
+
+    void put(long ts, double value) {
+        if (size == 0 || ts > timestamps[index(size - 1)]) {
+            ensureCapacity();
+            int idx = index(size);
+            timestamps[idx] = ts;
+            values[idx] = value;
+            size++;
+            return;
+        }
+        int pos = search(ts);
+        if (pos >= 0) {
+            values[index(pos)] = value;
+            return;
+        }
+        insertAt(-(pos + 1), ts, value);
+    }
+
+    void removeFirst() {
+        if (size == 0) {
+            return;
+        }
+        head = index(1);
+        size--;
+        if (size == 0) {
+            head = 0;
+        }
+    }
+
+    /**
+     * Evicts all records older than the given timestamp.
+     */
+    void removeOlderThan(long ts) {
+        while (size > 0 && timestamps[head] < ts) {
+            removeFirst();
+        }
+    }
+
+    void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    void forEach(TsRollingArgumentEntry.TsRecordConsumer consumer) {
+        for (int i = 0; i < size; i++) {
+            int idx = index(i);
+            consumer.accept(timestamps[idx], values[idx]);
+        }
+    }
+
+    long[] copyTimestamps() {
+        long[] result = new long[size];
+        int firstChunk = Math.min(size, timestamps.length - head);
+        System.arraycopy(timestamps, head, result, 0, firstChunk);
+        System.arraycopy(timestamps, 0, result, firstChunk, size - firstChunk);
+        return result;
+    }
+
+    double[] copyValues() {
+        double[] result = new double[size];
+        int firstChunk = Math.min(size, values.length - head);
+        System.arraycopy(values, head, result, 0, firstChunk);
+        System.arraycopy(values, 0, result, firstChunk, size - firstChunk);
+        return result;
+    }
+
+    private int index(int i) {
+        int idx = head + i;
+        return idx < timestamps.length ? idx : idx - timestamps.length;
+    }
+
+    /**
+     * @return logical position of the timestamp, or (-(insertion point) - 1) if it is absent
+     */
+    private int search(long ts) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midTs = timestamps[index(mid)];
+            if (midTs < ts) {
+                low = mid + 1;
+            } else if (midTs > ts) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private void insertAt(int pos, long ts, double value) {
+        ensureCapacity();
+        for (int i = size; i > pos; i--) {
+            int to = index(i);
+            int from = index(i - 1);
+            timestamps[to] = timestamps[from];
+            values[to] = values[from];
+        }
+        int idx = index(pos);
+        timestamps[idx] = ts;
+        values[idx] = value;
+        size++;
+    }
+
+    private void ensureCapacity() {
+        if (size < timestamps.length) {
+            return;
+        }
+        int newCapacity = timestamps.length << 1;
+        long[] newTimestamps = copyTimestamps();
+        double[] newValues = copyValues();
+        timestamps = Arrays.copyOf(newTimestamps, newCapacity);
+        values = Arrays.copyOf(newValues, newCapacity);
+        head = 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TsRollingBuffer that) || size != that.size) {
+            return false;
+        }
+        for (int i = 0; i < size; i++) {
+            if (tsAt(i) != that.tsAt(i) || Double.compare(valueAt(i), that.valueAt(i)) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = 1;
+        for (int i = 0; i < size; i++) {
+            result = 31 * result + Long.hashCode(tsAt(i));
+            result = 31 * result + Double.hashCode(valueAt(i));
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(tsAt(i)).append('=').append(valueAt(i));
+        }
+        return sb.append('}').toString();
+    }
+
+}
@@ -49,6 +49,10 @@ public class TbRuleEngineConsumerContext {
     private int topicDeletionDelayInSec;
     @Value("${queue.rule-engine.management-thread-pool-size:12}")
     private int mgmtThreadPoolSize;
+    @Value("${queue.rule-engine.pipelining.enabled:false}")
+    private boolean pipeliningEnabled;
+    @Value("${queue.rule-engine.pipelining.max-in-flight-packs:4}")
+    private int maxInFlightPacks;
 
     private final ActorSystemContext actorContext;
     private final StatsFactory statsFactory;
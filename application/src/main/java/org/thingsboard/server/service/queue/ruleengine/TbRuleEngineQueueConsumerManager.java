@@ -22,6 +22,7 @@ import org.thingsboard.server.common.data.id.EntityId;
 import org.thingsboard.server.common.data.id.EntityIdFactory;
 import org.thingsboard.server.common.data.id.TenantId;
 import org.thingsboard.server.common.data.queue.Queue;
+import org.thingsboard.server.common.data.queue.SubmitStrategyType;
 import org.thingsboard.server.common.msg.TbMsg;
 import org.thingsboard.server.common.msg.gen.MsgProtos;
 import org.thingsboard.server.common.msg.queue.QueueToRuleEngineMsg;
@@ -32,6 +33,7 @@ import org.thingsboard.server.common.msg.queue.TbMsgCallback;
 import org.thingsboard.server.common.msg.queue.TopicPartitionInfo;
 import org.thingsboard.server.gen.transport.TransportProtos.ToRuleEngineMsg;
 import org.thingsboard.server.queue.TbQueueConsumer;
+import org.thingsboard.server.queue.TbQueueConsumerPosition;
 import org.thingsboard.server.queue.common.TbProtoQueueMsg;
 import org.thingsboard.server.queue.common.consumer.MainQueueConsumerManager;
 import org.thingsboard.server.queue.common.consumer.TbQueueConsumerManagerTask;
@@ -46,13 +48,19 @@ import org.thingsboard.server.service.queue.processing.TbRuleEngineProcessingRes
 import org.thingsboard.server.service.queue.processing.TbRuleEngineProcessingStrategy;
 import org.thingsboard.server.service.queue.processing.TbRuleEngineSubmitStrategy;
 
+import java.util.ArrayDeque;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
@@ -65,6 +73,7 @@ public class TbRuleEngineQueueConsumerManager extends MainQueueConsumerManager<T
 
     private final TbRuleEngineConsumerContext ctx;
     private final TbRuleEngineConsumerStats stats;
+    private final ConcurrentMap<TbQueueConsumer<TbProtoQueueMsg<ToRuleEngineMsg>>, Deque<InFlightPack>> inFlightPacks = new ConcurrentHashMap<>();
 
     @Builder(builderMethodName = "create") // not to conflict with super.builder()
     public TbRuleEngineQueueConsumerManager(TbRuleEngineConsumerContext ctx,
@@ -127,6 +136,82 @@ public class TbRuleEngineQueueConsumerManager extends MainQueueConsumerManager<T
     protected void processMsgs(List<TbProtoQueueMsg<ToRuleEngineMsg>> msgs,
                                TbQueueConsumer<TbProtoQueueMsg<ToRuleEngineMsg>> consumer,
                                Queue queue) throws Exception {
+        TbQueueConsumerPosition position = isPipelined(queue) ? consumer.getPosition() : null;
+        if (position != null) {
+            Deque<InFlightPack> packs = inFlightPacks.computeIfAbsent(consumer, c -> new ArrayDeque<>());
+            packs.add(new InFlightPack(position, consumerExecutor.submit(() -> processPack(msgs, consumer, queue))));
+            commitProcessedPacks(consumer, ctx.getMaxInFlightPacks());
+        } else if (processPack(msgs, consumer, queue)) {
+            consumer.commit();
+        }
+    }
+
+    @Override
+    protected void onEmptyPoll(TbQueueConsumer<TbProtoQueueMsg<ToRuleEngineMsg>> consumer) throws Exception {
+        commitProcessedPacks(consumer, Integer.MAX_VALUE);
+    }
+
+    @Override
+    protected void onConsumerLoopEnd(TbQueueConsumer<TbProtoQueueMsg<ToRuleEngineMsg>> consumer) throws Exception {
+        commitProcessedPacks(consumer, 0);
+        inFlightPacks.remove(consumer);
+    }
+
+    private boolean isPipelined(Queue queue) {
+        if (!ctx.isPipeliningEnabled()) {
+            return false;
+        }
+        // packs processed at the same time would break the order of the sequential submit strategies
+        SubmitStrategyType submitStrategyType = queue.getSubmitStrategy().getType();
+        return submitStrategyType == SubmitStrategyType.BURST || submitStrategyType == SubmitStrategyType.BATCH;
+    }
+
+    /**
+     * Commits the position of the last pack in the contiguous sequence of processed packs, starting from the oldest in-flight pack.
+     * Waits for the oldest pack to be processed while the number of in-flight packs is not less than the specified limit.
+     * */
+    private void commitProcessedPacks(TbQueueConsumer<TbProtoQueueMsg<ToRuleEngineMsg>> consumer, int maxInFlightPacks) throws InterruptedException {
+        Deque<InFlightPack> packs = inFlightPacks.get(consumer);
+        if (packs == null) {
+            return;
+        }
+        TbQueueConsumerPosition watermark = null;
+        while (!packs.isEmpty()) {
+            InFlightPack pack = packs.peek();
+            if (!pack.future().isDone() && packs.size() < maxInFlightPacks) {
+                break;
+            }
+            if (!isCommitAllowed(pack.future())) {
+                // the consumer is stopped, so the following packs are not processed either
+                packs.clear();
+                break;
+            }
+            packs.poll();
+            watermark = pack.position();
+        }
+        if (watermark != null) {
+            consumer.commit(watermark);
+        }
+    }
+
+    private boolean isCommitAllowed(Future<Boolean> packFuture) throws InterruptedException {
+        try {
+            return packFuture.get();
+        } catch (ExecutionException e) {
+            // the same as for the pack processed by the consumer thread, the failed pack is committed with the next pack
+            log.warn("Failed to process messages from queue", e.getCause());
+            return true;
+        }
+    }
+
+    /**
+     * Processes the pack according to the submit and processing strategies of the queue.
+     *
+     * @return true if the pack can be committed, false if the consumer was stopped before the pack was processed
+     * */
+    private boolean processPack(List<TbProtoQueueMsg<ToRuleEngineMsg>> msgs,
+                                TbQueueConsumer<TbProtoQueueMsg<ToRuleEngineMsg>> consumer,
+                                Queue queue) throws Exception {
         TbRuleEngineSubmitStrategy submitStrategy = getSubmitStrategy(queue);
         TbRuleEngineProcessingStrategy ackStrategy = getProcessingStrategy(queue);
         submitStrategy.init(msgs);
@@ -154,12 +239,12 @@ public class TbRuleEngineQueueConsumerManager extends MainQueueConsumerManager<T
 
             if (decision.isCommit()) {
                 submitStrategy.stop();
-                consumer.commit();
-                break;
+                return true;
             } else {
                 submitStrategy.update(decision.getReprocessMap());
             }
         }
+        return false;
     }
 
     private TbRuleEngineSubmitStrategy getSubmitStrategy(Queue queue) {
@@ -224,6 +309,8 @@ public class TbRuleEngineQueueConsumerManager extends MainQueueConsumerManager<T
         stats.reset();
     }
 
+    private record InFlightPack(TbQueueConsumerPosition position, Future<Boolean> future) {}
+
     private void drainQueue(List<TbQueueConsumer<TbProtoQueueMsg<ToRuleEngineMsg>>> consumers) {
         long finishTs = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(ctx.getTopicDeletionDelayInSec());
         try {
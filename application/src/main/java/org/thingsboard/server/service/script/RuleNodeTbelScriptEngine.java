@@ -123,8 +123,10 @@ public class RuleNodeTbelScriptEngine extends RuleNodeScriptEngine<TbelInvokeSer
     @Override
     protected Object[] prepareArgs(TbMsg msg) {
         Object[] args = new Object[3];
-        if (msg.getData() != null) {
-            args[0] = JacksonUtil.fromString(msg.getData(), Object.class);
+        // the parsed data is shared with the message, so it is converted to new maps and lists that the script may modify
+        JsonNode data = msg.getDataAsJson();
+        if (data != null) {
+            args[0] = JacksonUtil.treeToValue(data, Object.class);
         } else {
             args[0] = new HashMap<>();
         }
@@ -17,6 +17,8 @@ package org.thingsboard.server.service.state;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.base.Function;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import com.google.common.collect.Lists;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
@@ -31,7 +33,6 @@ import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.tuple.Pair;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
@@ -48,6 +49,7 @@ import org.thingsboard.server.common.data.DeviceIdInfo;
 import org.thingsboard.server.common.data.EntityType;
 import org.thingsboard.server.common.data.StringUtils;
 import org.thingsboard.server.common.data.exception.TenantNotFoundException;
+import org.thingsboard.server.common.data.id.CustomerId;
 import org.thingsboard.server.common.data.id.DeviceId;
 import org.thingsboard.server.common.data.id.EntityId;
 import org.thingsboard.server.common.data.id.TenantId;
@@ -157,6 +159,9 @@ public class DefaultDeviceStateService extends AbstractPartitionBasedService<Dev
             new EntityKey(EntityKeyType.ENTITY_FIELD, "label"),
             new EntityKey(EntityKeyType.ENTITY_FIELD, "createdTime"));
 
+    private static final long INACTIVITY_WHEEL_TICK_MS = TimeUnit.SECONDS.toMillis(1);
+    private static final int INACTIVITY_WHEEL_SIZE = 4096;
+
     private final DeviceService deviceService;
     private final AttributesService attributesService;
     private final TimeseriesService tsService;
@@ -184,6 +189,10 @@ public class DefaultDeviceStateService extends AbstractPartitionBasedService<Dev
     @Getter
     private int defaultStateCheckIntervalInSec;
 
+    @Value("${state.unscheduledStateCheckIntervalInSec:600}")
+    @Getter
+    private int unscheduledStateCheckIntervalInSec;
+
     @Value("${usage.stats.devices.report_interval:60}")
     @Getter
     private int defaultActivityStatsIntervalInSec;
@@ -205,6 +214,11 @@ public class DefaultDeviceStateService extends AbstractPartitionBasedService<Dev
     private ListeningExecutorService deviceStateCallbackExecutor;
 
     final ConcurrentMap<DeviceId, DeviceStateData> deviceStates = new ConcurrentHashMap<>();
+    final DeviceActivityStats activityStats = new DeviceActivityStats();
+    // customer ids and device types repeat across the device states, so the states share a single instance of each
+    private final Interner<CustomerId> customerIds = Interners.newWeakInterner();
+    private final Interner<String> deviceTypes = Interners.newWeakInterner();
+    final DeviceInactivityTimingWheel inactivityTimeouts = new DeviceInactivityTimingWheel(INACTIVITY_WHEEL_TICK_MS, INACTIVITY_WHEEL_SIZE);
 
     @PostConstruct
     public void init() {
@@ -214,6 +228,7 @@ public class DefaultDeviceStateService extends AbstractPartitionBasedService<Dev
         deviceStateCallbackExecutor = MoreExecutors.listeningDecorator(ThingsBoardExecutors.newWorkStealingPool(
                 Math.max(4, Runtime.getRuntime().availableProcessors()), "device-state-callback"));
         scheduledExecutor.scheduleWithFixedDelay(this::checkStates, new Random().nextInt(defaultStateCheckIntervalInSec), defaultStateCheckIntervalInSec, TimeUnit.SECONDS);
+        scheduledExecutor.scheduleWithFixedDelay(this::checkUnscheduledStates, unscheduledStateCheckIntervalInSec, unscheduledStateCheckIntervalInSec, TimeUnit.SECONDS);
         scheduledExecutor.scheduleWithFixedDelay(this::reportActivityStats, defaultActivityStatsIntervalInSec, defaultActivityStatsIntervalInSec, TimeUnit.SECONDS);
     }
 
@@ -280,8 +295,9 @@ public class DefaultDeviceStateService extends AbstractPartitionBasedService<Dev
             save(stateData.getTenantId(), deviceId, LAST_ACTIVITY_TIME, lastReportedActivity);
             DeviceState state = stateData.getState();
             state.setLastActivityTime(lastReportedActivity);
+            scheduleInactivityCheck(stateData);
             if (!state.isActive()) {
-                state.setActive(true);
+                setActive(deviceId, stateData, true);
                 if (lastReportedActivity <= state.getLastInactivityAlarmTime()) {
                     state.setLastInactivityAlarmTime(0);
                     save(stateData.getTenantId(), deviceId, INACTIVITY_ALARM_TIME, 0);
@@ -397,7 +413,7 @@ public class DefaultDeviceStateService extends AbstractPartitionBasedService<Dev
                         TbMsgMetaData md = new TbMsgMetaData();
                         md.putValue("deviceName", device.getName());
                         md.putValue("deviceLabel", device.getLabel());
-                        md.putValue("deviceType", device.getType());
+                        md.putValue("deviceType", internDeviceType(device.getType()));
                         stateData.setMetaData(md);
                         callback.onSuccess();
                     }
@@ -422,8 +438,7 @@ public class DefaultDeviceStateService extends AbstractPartitionBasedService<Dev
     }
 
     private void initializeActivityState(DeviceId deviceId, DeviceStateData fetchedState) {
-        DeviceStateData cachedState = deviceStates.putIfAbsent(fetchedState.getDeviceId(), fetchedState);
-        boolean activityState = Objects.requireNonNullElse(cachedState, fetchedState).getState().isActive();
+        boolean activityState = putIfAbsent(fetchedState).getState().isActive();
         save(fetchedState.getTenantId(), deviceId, ACTIVITY_STATE, activityState);
     }
 
@@ -468,7 +483,7 @@ public class DefaultDeviceStateService extends AbstractPartitionBasedService<Dev
                                 boolean isMyPartition = deviceIds != null;
                                 if (isMyPartition) {
                                     deviceIds.add(state.getDeviceId());
-                                    deviceStates.putIfAbsent(state.getDeviceId(), state);
+                                    putIfAbsent(state);
                                     checkAndUpdateState(state.getDeviceId(), state);
                                 } else {
                                     log.debug("[{}] Device belongs to external partition {}", state.getDeviceId(), tpi.getFullTopicName());
@@ -506,55 +521,114 @@ public class DefaultDeviceStateService extends AbstractPartitionBasedService<Dev
                 }
             }
         }
+        scheduleInactivityCheck(state);
     }
 
     void checkStates() {
         try {
             final long ts = getCurrentTimeMillis();
-            partitionedEntities.forEach((tpi, deviceIds) -> {
-                log.debug("Calculating state updates. tpi {} for {} devices", tpi.getFullTopicName(), deviceIds.size());
-                Set<DeviceId> idsFromRemovedTenant = new HashSet<>();
+            List<DeviceStateData> expired = inactivityTimeouts.advance(ts);
+            if (log.isDebugEnabled()) {
+                log.debug("Calculating state updates for {} expired out of {} scheduled devices", expired.size(), expired.size() + inactivityTimeouts.size());
+            }
+            Set<DeviceId> idsFromRemovedTenant = new HashSet<>();
+            for (DeviceStateData stateData : expired) {
+                DeviceId deviceId = stateData.getDeviceId();
+                if (deviceStates.get(deviceId) != stateData) {
+                    // the state was removed while scheduled
+                    continue;
+                }
+                long deadline = getInactivityDeadline(stateData);
+                if (deadline > ts) {
+                    // the state was updated without rescheduling, e.g. the persisted state was fetched once again
+                    inactivityTimeouts.schedule(stateData, deadline);
+                    continue;
+                }
+                try {
+                    updateInactivityStateIfExpired(ts, deviceId, stateData);
+                } catch (Exception e) {
+                    if (e instanceof TenantNotFoundException) {
+                        idsFromRemovedTenant.add(deviceId);
+                    } else {
+                        log.warn("[{}] Failed to update inactivity state [{}]", deviceId, e.getMessage());
+                        // the device is already removed from the wheel, so retry on the next check
+                        inactivityTimeouts.schedule(stateData, ts + INACTIVITY_WHEEL_TICK_MS);
+                    }
+                }
+            }
+            removeDevicesOfRemovedTenant(idsFromRemovedTenant);
+        } catch (Throwable t) {
+            log.warn("Failed to check devices states", t);
+        }
+    }
+
+    /**
+     * Slow fallback for the partitioned devices that are not tracked by the inactivity wheel:
+     * fetches the devices which state failed to load on the partition change and schedules the active devices that are not scheduled.
+     * */
+    void checkUnscheduledStates() {
+        try {
+            Set<DeviceId> idsFromRemovedTenant = new HashSet<>();
+            int fetched = 0;
+            int scheduled = 0;
+            for (Set<DeviceId> deviceIds : partitionedEntities.values()) {
                 for (DeviceId deviceId : deviceIds) {
-                    DeviceStateData stateData;
-                    try {
-                        stateData = getOrFetchDeviceStateData(deviceId);
-                    } catch (Exception e) {
-                        log.error("[{}] Failed to get or fetch device state data", deviceId, e);
+                    DeviceStateData stateData = deviceStates.get(deviceId);
+                    if (stateData != null && inactivityTimeouts.isScheduled(stateData)) {
                         continue;
                     }
                     try {
-                        updateInactivityStateIfExpired(ts, deviceId, stateData);
+                        if (stateData == null) {
+                            // scheduled when added to the device states
+                            getOrFetchDeviceStateData(deviceId);
+                            fetched++;
+                        } else if (stateData.getState().isActive()) {
+                            scheduleInactivityCheck(stateData);
+                            scheduled++;
+                        }
                     } catch (Exception e) {
                         if (e instanceof TenantNotFoundException) {
                             idsFromRemovedTenant.add(deviceId);
                         } else {
-                            log.warn("[{}] Failed to update inactivity state [{}]", deviceId, e.getMessage());
+                            log.warn("[{}] Failed to fetch device state [{}]", deviceId, e.getMessage());
                         }
                     }
                 }
-                deviceIds.removeAll(idsFromRemovedTenant);
-            });
+            }
+            if (fetched > 0 || scheduled > 0) {
+                log.info("Fetched {} and scheduled {} devices missing from the inactivity checks", fetched, scheduled);
+            }
+            removeDevicesOfRemovedTenant(idsFromRemovedTenant);
         } catch (Throwable t) {
-            log.warn("Failed to check devices states", t);
+            log.warn("Failed to check unscheduled devices states", t);
         }
     }
 
+    private void removeDevicesOfRemovedTenant(Set<DeviceId> idsFromRemovedTenant) {
+        if (!idsFromRemovedTenant.isEmpty()) {
+            idsFromRemovedTenant.forEach(this::cleanupEntity);
+            partitionedEntities.values().forEach(deviceIds -> deviceIds.removeAll(idsFromRemovedTenant));
+        }
+    }
+
+    private void scheduleInactivityCheck(DeviceStateData stateData) {
+        inactivityTimeouts.schedule(stateData, getInactivityDeadline(stateData));
+    }
+
+    private long getInactivityDeadline(DeviceStateData stateData) {
+        DeviceState state = stateData.getState();
+        return Math.max(state.getLastActivityTime(), stateData.getDeviceCreationTime()) + state.getInactivityTimeout();
+    }
+
     void reportActivityStats() {
         try {
-            Map<TenantId, Pair<AtomicInteger, AtomicInteger>> stats = new HashMap<>();
-            for (DeviceStateData stateData : deviceStates.values()) {
-                Pair<AtomicInteger, AtomicInteger> tenantDevicesActivity = stats.computeIfAbsent(stateData.getTenantId(),
-                        tenantId -> Pair.of(new AtomicInteger(), new AtomicInteger()));
-                if (stateData.getState().isActive()) {
-                    tenantDevicesActivity.getLeft().incrementAndGet();
-                } else {
-                    tenantDevicesActivity.getRight().incrementAndGet();
+            activityStats.getTenantStats().forEach(tenantStats -> {
+                TenantId tenantId = tenantStats.getTenantId();
+                int active = tenantStats.getActive();
+                int inactive = tenantStats.getInactive();
+                if (active == 0 && inactive == 0) {
+                    return;
                 }
-            }
-
-            stats.forEach((tenantId, tenantDevicesActivity) -> {
-                int active = tenantDevicesActivity.getLeft().get();
-                int inactive = tenantDevicesActivity.getRight().get();
                 apiUsageReportClient.report(tenantId, null, ApiUsageRecordKey.ACTIVE_DEVICES, active);
                 apiUsageReportClient.report(tenantId, null, ApiUsageRecordKey.INACTIVE_DEVICES, inactive);
                 if (active > 0) {
@@ -587,7 +661,7 @@ public class DefaultDeviceStateService extends AbstractPartitionBasedService<Dev
 
     private void reportInactivity(long ts, DeviceId deviceId, DeviceStateData stateData) {
         DeviceState state = stateData.getState();
-        state.setActive(false);
+        setActive(deviceId, stateData, false);
         state.setLastInactivityAlarmTime(ts);
         save(stateData.getTenantId(), deviceId, INACTIVITY_ALARM_TIME, ts);
         onDeviceActivityStatusChange(deviceId, false, stateData);
@@ -599,7 +673,34 @@ public class DefaultDeviceStateService extends AbstractPartitionBasedService<Dev
 
     @Nonnull
     DeviceStateData getOrFetchDeviceStateData(DeviceId deviceId) {
-        return deviceStates.computeIfAbsent(deviceId, this::fetchDeviceStateDataUsingSeparateRequests);
+        return deviceStates.computeIfAbsent(deviceId, id -> onDeviceStateAdded(fetchDeviceStateDataUsingSeparateRequests(id)));
+    }
+
+    private DeviceStateData putIfAbsent(DeviceStateData stateData) {
+        return deviceStates.computeIfAbsent(stateData.getDeviceId(), id -> onDeviceStateAdded(stateData));
+    }
+
+    private DeviceStateData onDeviceStateAdded(DeviceStateData stateData) {
+        activityStats.onDeviceAdded(stateData.getTenantId(), stateData.getState().isActive());
+        scheduleInactivityCheck(stateData);
+        return stateData;
+    }
+
+    /**
+     * Changes the activity of the device under the lock of the device states map,
+     * so the activity stats stay consistent with the concurrent removal of the device state.
+     * */
+    private void setActive(DeviceId deviceId, DeviceStateData stateData, boolean active) {
+        DeviceStateData current = deviceStates.computeIfPresent(deviceId, (id, tracked) -> {
+            if (tracked == stateData && tracked.getState().isActive() != active) {
+                tracked.getState().setActive(active);
+                activityStats.onActivityChanged(tracked.getTenantId(), active);
+            }
+            return tracked;
+        });
+        if (current != stateData) {
+            stateData.getState().setActive(active);
+        }
     }
 
     DeviceStateData fetchDeviceStateDataUsingSeparateRequests(final DeviceId deviceId) {
@@ -646,7 +747,11 @@ public class DefaultDeviceStateService extends AbstractPartitionBasedService<Dev
     }
 
     private void cleanupEntity(DeviceId deviceId) {
-        deviceStates.remove(deviceId);
+        deviceStates.computeIfPresent(deviceId, (id, stateData) -> {
+            activityStats.onDeviceRemoved(stateData.getTenantId(), stateData.getState().isActive());
+            inactivityTimeouts.cancel(stateData);
+            return null;
+        });
     }
 
     private ListenableFuture<DeviceStateData> fetchDeviceState(Device device) {
@@ -703,10 +808,10 @@ public class DefaultDeviceStateService extends AbstractPartitionBasedService<Dev
                     TbMsgMetaData md = new TbMsgMetaData();
                     md.putValue("deviceName", device.getName());
                     md.putValue("deviceLabel", device.getLabel());
-                    md.putValue("deviceType", device.getType());
+                    md.putValue("deviceType", internDeviceType(device.getType()));
                     DeviceStateData deviceStateData = DeviceStateData.builder()
-                            .customerId(device.getCustomerId())
-                            .tenantId(device.getTenantId())
+                            .customerId(internCustomerId(device.getCustomerId()))
+                            .tenantId(activityStats.intern(device.getTenantId()))
                             .deviceId(device.getId())
                             .deviceCreationTime(device.getCreatedTime())
                             .metaData(md)
@@ -783,16 +888,24 @@ public class DefaultDeviceStateService extends AbstractPartitionBasedService<Dev
         TbMsgMetaData md = new TbMsgMetaData();
         md.putValue("deviceName", getEntryValue(ed, EntityKeyType.ENTITY_FIELD, "name", ""));
         md.putValue("deviceLabel", getEntryValue(ed, EntityKeyType.ENTITY_FIELD, "label", ""));
-        md.putValue("deviceType", getEntryValue(ed, EntityKeyType.ENTITY_FIELD, "type", ""));
+        md.putValue("deviceType", internDeviceType(getEntryValue(ed, EntityKeyType.ENTITY_FIELD, "type", "")));
         return DeviceStateData.builder()
-                .customerId(deviceIdInfo.getCustomerId())
-                .tenantId(deviceIdInfo.getTenantId())
+                .customerId(internCustomerId(deviceIdInfo.getCustomerId()))
+                .tenantId(activityStats.intern(deviceIdInfo.getTenantId()))
                 .deviceId(deviceIdInfo.getDeviceId())
                 .deviceCreationTime(getEntryValue(ed, EntityKeyType.ENTITY_FIELD, "createdTime", 0L))
                 .metaData(md)
                 .state(deviceState).build();
     }
 
+    private CustomerId internCustomerId(CustomerId customerId) {
+        return customerId != null ? customerIds.intern(customerId) : null;
+    }
+
+    private String internDeviceType(String deviceType) {
+        return deviceType != null ? deviceTypes.intern(deviceType) : null;
+    }
+
     private EntityKeyType getKeyType() {
         return persistToTelemetry ? EntityKeyType.TIME_SERIES : EntityKeyType.SERVER_ATTRIBUTE;
     }
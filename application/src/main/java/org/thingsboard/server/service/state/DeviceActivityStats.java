@@ -0,0 +1,100 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.service.state;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.thingsboard.server.common.data.id.TenantId;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Running per-tenant counters of the active and inactive devices in the device states,
+ * updated when the device state is added, removed or changes its activity.
+ * The counters of a tenant are removed with its last device state, e.g. on tenant deletion or partition loss.
+ * Also keeps a single instance of the tenant id shared by the device states of the tenant.
+ * */
+class DeviceActivityStats {
+
+    private final ConcurrentMap<TenantId, TenantStats> tenants = new ConcurrentHashMap<>();
+
+    TenantId intern(TenantId tenantId) {
+        if (tenantId == null) {
+            return null;
+        }
+        TenantStats stats = tenants.get(tenantId);
+        return stats != null ? stats.getTenantId() : tenantId;
+    }
+
+    void onDeviceAdded(TenantId tenantId, boolean active) {
+        tenants.compute(tenantId, (id, stats) -> {
+            if (stats == null) {
+                stats = new TenantStats(id);
+            }
+            stats.counter(active).incrementAndGet();
+            return stats;
+        });
+    }
+
+    void onDeviceRemoved(TenantId tenantId, boolean active) {
+        tenants.computeIfPresent(tenantId, (id, stats) -> {
+            stats.counter(active).decrementAndGet();
+            return stats.isEmpty() ? null : stats;
+        });
+    }
+
+    void onActivityChanged(TenantId tenantId, boolean active) {
+        tenants.computeIfPresent(tenantId, (id, stats) -> {
+            stats.counter(active).incrementAndGet();
+            stats.counter(!active).decrementAndGet();
+            return stats;
+        });
+    }
+
+    Collection<TenantStats> getTenantStats() {
+        return tenants.values();
+    }
+
+    @RequiredArgsConstructor
+    static class TenantStats {
+
+        @Getter
+        private final TenantId tenantId;
+        private final AtomicInteger active = new AtomicInteger();
+        private final AtomicInteger inactive = new AtomicInteger();
+
+        int getActive() {
+            return active.get();
+        }
+
+        int getInactive() {
+            return inactive.get();
+        }
+
+        private boolean isEmpty() {
+            return active.get() <= 0 && inactive.get() <= 0;
+        }
+
+        private AtomicInteger counter(boolean active) {
+            return active ? this.active : inactive;
+        }
+
+    }
+
+}
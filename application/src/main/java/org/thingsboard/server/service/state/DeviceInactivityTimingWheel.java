@@ -0,0 +1,142 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.service.state;
+
+import org.thingsboard.server.common.data.id.DeviceId;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Hashed timing wheel of the device inactivity deadlines.
+ * Each device is placed into the bucket of the tick its deadline falls into, so advancing the wheel
+ * visits only the buckets of the elapsed ticks instead of all the devices.
+ * Deadlines further than one rotation of the wheel stay in their bucket until the rotation they belong to.
+ * <p>
+ * The deadline and the bucket of the device are kept in its {@link DeviceStateData}, so rescheduling the device
+ * touches only its previous and its new bucket. The buckets are concurrent maps and the changes of the same device
+ * are serialized by its state, so there is no lock shared by all the devices.
+ * The wheel is advanced by a single thread.
+ */
+class DeviceInactivityTimingWheel {
+
+    static final int NOT_SCHEDULED = -1;
+
+    private final long tickMs;
+    private final int mask;
+    private final ConcurrentMap<DeviceId, DeviceStateData>[] buckets;
+    private volatile long processedTick;
+
+    @SuppressWarnings("unchecked")
+    DeviceInactivityTimingWheel(long tickMs, int wheelSize) {
+        if (tickMs <= 0) {
+            throw new IllegalArgumentException("Tick duration must be positive: " + tickMs);
+        }
+        if (wheelSize <= 0 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("Wheel size must be a power of two: " + wheelSize);
+        }
+        this.tickMs = tickMs;
+        this.mask = wheelSize - 1;
+        this.buckets = new ConcurrentMap[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new ConcurrentHashMap<>();
+        }
+    }
+
+    /**
+     * Schedules the device to expire at the deadline, replacing the previously scheduled deadline if any.
+     * */
+    void schedule(DeviceStateData stateData, long deadline) {
+        DeviceId deviceId = stateData.getDeviceId();
+        synchronized (stateData) {
+            stateData.setInactivityDeadline(deadline);
+            // deadlines in the past go to the current tick that is visited by the next advance
+            long tick = Math.max(deadline / tickMs, processedTick);
+            while (true) {
+                int bucket = (int) (tick & mask);
+                int previous = stateData.getInactivityBucket();
+                if (previous != bucket && previous != NOT_SCHEDULED) {
+                    buckets[previous].remove(deviceId, stateData);
+                }
+                stateData.setInactivityBucket(bucket);
+                buckets[bucket].put(deviceId, stateData);
+                // the concurrent advance could have passed the tick before the device was added to its bucket
+                long processed = processedTick;
+                if (tick >= processed) {
+                    return;
+                }
+                tick = processed;
+            }
+        }
+    }
+
+    boolean isScheduled(DeviceStateData stateData) {
+        int bucket = stateData.getInactivityBucket();
+        return bucket != NOT_SCHEDULED && buckets[bucket].get(stateData.getDeviceId()) == stateData;
+    }
+
+    void cancel(DeviceStateData stateData) {
+        synchronized (stateData) {
+            int bucket = stateData.getInactivityBucket();
+            if (bucket != NOT_SCHEDULED) {
+                buckets[bucket].remove(stateData.getDeviceId(), stateData);
+                stateData.setInactivityBucket(NOT_SCHEDULED);
+            }
+        }
+    }
+
+    /**
+     * Advances the wheel to the specified time and removes the devices with the deadline that is not after it.
+     * The bucket of the current tick is visited once again by the next advance, since it may hold the later deadlines of the same tick.
+     *
+     * @return states of the devices that have expired
+     * */
+    List<DeviceStateData> advance(long ts) {
+        long tick = ts / tickMs;
+        long fromTick = processedTick;
+        long ticks = Math.min(tick - fromTick + 1, buckets.length);
+        // published before the buckets are visited, so the devices scheduled concurrently to the elapsed ticks are moved forward
+        processedTick = Math.max(fromTick, tick);
+        List<DeviceStateData> expired = new ArrayList<>();
+        for (long t = tick - ticks + 1; t <= tick; t++) {
+            int bucket = (int) (t & mask);
+            for (DeviceStateData stateData : buckets[bucket].values()) {
+                if (stateData.getInactivityDeadline() > ts) {
+                    continue;
+                }
+                synchronized (stateData) {
+                    if (stateData.getInactivityBucket() == bucket && stateData.getInactivityDeadline() <= ts
+                            && buckets[bucket].remove(stateData.getDeviceId(), stateData)) {
+                        stateData.setInactivityBucket(NOT_SCHEDULED);
+                        expired.add(stateData);
+                    }
+                }
+            }
+        }
+        return expired;
+    }
+
+    int size() {
+        int size = 0;
+        for (ConcurrentMap<DeviceId, DeviceStateData> bucket : buckets) {
+            size += bucket.size();
+        }
+        return size;
+    }
+
+}
@@ -17,6 +17,8 @@ package org.thingsboard.server.service.state;
 
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import org.thingsboard.server.common.data.id.CustomerId;
 import org.thingsboard.server.common.data.id.DeviceId;
 import org.thingsboard.server.common.data.id.TenantId;
@@ -35,5 +37,14 @@ class DeviceStateData {
     private final long deviceCreationTime;
     private TbMsgMetaData metaData;
     private final DeviceState state;
-    
+
+    // position in the inactivity timing wheel, changed only by the wheel
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private volatile long inactivityDeadline;
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    @Builder.Default
+    private volatile int inactivityBucket = DeviceInactivityTimingWheel.NOT_SCHEDULED;
+
 }
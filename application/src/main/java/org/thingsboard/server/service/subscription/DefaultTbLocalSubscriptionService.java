@@ -76,7 +76,6 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
-import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -338,45 +337,34 @@ public class DefaultTbLocalSubscriptionService implements TbLocalSubscriptionSer
 
     private void onTimeSeriesUpdate(UUID entityId, List<TsKvEntry> data, TbCallback callback) {
         getEntityUpdatesInfo(entityId).timeSeriesUpdateTs = System.currentTimeMillis();
-        processSubscriptionData(entityId,
-                sub -> TbSubscriptionType.TIMESERIES.equals(sub.getType()),
-                s -> {
-                    TbTimeSeriesSubscription sub = (TbTimeSeriesSubscription) s;
-                    List<TsKvEntry> updateData = null;
+        var subs = subscriptionsByEntityId.get(entityId);
+        if (subs != null) {
+            TbSubscriptionKeyIndex<TbTimeSeriesSubscription> index = subs.getTsSubsIndex();
+            Map<TbTimeSeriesSubscription, List<TsKvEntry>> updates = new HashMap<>();
+            for (TsKvEntry kv : data) {
+                for (TbTimeSeriesSubscription sub : index.getSubs(kv.getKey())) {
+                    Long stateTs = sub.getKeyStates().get(kv.getKey());
+                    if (stateTs != null && (!sub.isLatestValues() || kv.getTs() > stateTs)) {
+                        updates.computeIfAbsent(sub, k -> new ArrayList<>()).add(kv);
+                    }
+                }
+            }
+            for (TbTimeSeriesSubscription sub : index.getAllKeysSubs()) {
+                if (sub.isLatestValues()) {
                     Map<String, Long> keyStates = sub.getKeyStates();
-                    if (sub.isAllKeys()) {
-                        if (sub.isLatestValues()) {
-                            for (TsKvEntry kv : data) {
-                                Long stateTs = keyStates.get(kv.getKey());
-                                if (stateTs == null || kv.getTs() > stateTs) {
-                                    if (updateData == null) {
-                                        updateData = new ArrayList<>();
-                                    }
-                                    updateData.add(kv);
-                                }
-                            }
-                        } else {
-                            updateData = data;
-                        }
-                    } else {
-                        for (TsKvEntry kv : data) {
-                            Long stateTs = keyStates.get(kv.getKey());
-                            if (stateTs != null) {
-                                if (!sub.isLatestValues() || kv.getTs() > stateTs) {
-                                    if (updateData == null) {
-                                        updateData = new ArrayList<>();
-                                    }
-                                    updateData.add(kv);
-                                }
-                            }
+                    for (TsKvEntry kv : data) {
+                        Long stateTs = keyStates.get(kv.getKey());
+                        if (stateTs == null || kv.getTs() > stateTs) {
+                            updates.computeIfAbsent(sub, k -> new ArrayList<>()).add(kv);
                         }
                     }
-                    if (updateData != null) {
-                        TelemetrySubscriptionUpdate update = new TelemetrySubscriptionUpdate(sub.getSubscriptionId(), updateData);
-                        update.getLatestValues().forEach((key, value) -> sub.getKeyStates().put(key, value));
-                        subscriptionUpdateExecutor.submit(() -> sub.getUpdateProcessor().accept(sub, update));
-                    }
-                }, callback);
+                } else {
+                    updates.put(sub, data);
+                }
+            }
+            updates.forEach((sub, updateData) -> sendTelemetryUpdate(sub, sub.getKeyStates(), updateData));
+        }
+        callback.onSuccess();
     }
 
     @Override
@@ -391,31 +379,35 @@ public class DefaultTbLocalSubscriptionService implements TbLocalSubscriptionSer
 
     private void onAttributesUpdate(UUID entityId, String scope, List<TsKvEntry> data, TbCallback callback) {
         getEntityUpdatesInfo(entityId).attributesUpdateTs = System.currentTimeMillis();
-        processSubscriptionData(entityId,
-                sub -> TbSubscriptionType.ATTRIBUTES.equals(sub.getType()),
-                s -> {
-                    TbAttributeSubscription sub = (TbAttributeSubscription) s;
-                    if (sub.getScope() == null || TbAttributeSubscriptionScope.ANY_SCOPE.equals(sub.getScope()) || sub.getScope().name().equals(scope)) {
-                        List<TsKvEntry> updateData = null;
-                        if (sub.isAllKeys()) {
-                            updateData = data;
-                        } else {
-                            for (TsKvEntry kv : data) {
-                                if (sub.getKeyStates().containsKey((kv.getKey()))) {
-                                    if (updateData == null) {
-                                        updateData = new ArrayList<>();
-                                    }
-                                    updateData.add(kv);
-                                }
-                            }
-                        }
-                        if (updateData != null) {
-                            TelemetrySubscriptionUpdate update = new TelemetrySubscriptionUpdate(sub.getSubscriptionId(), updateData);
-                            update.getLatestValues().forEach((key, value) -> sub.getKeyStates().put(key, value));
-                            subscriptionUpdateExecutor.submit(() -> sub.getUpdateProcessor().accept(sub, update));
-                        }
+        var subs = subscriptionsByEntityId.get(entityId);
+        if (subs != null) {
+            TbSubscriptionKeyIndex<TbAttributeSubscription> index = subs.getAttrSubsIndex();
+            Map<TbAttributeSubscription, List<TsKvEntry>> updates = new HashMap<>();
+            for (TsKvEntry kv : data) {
+                for (TbAttributeSubscription sub : index.getSubs(kv.getKey())) {
+                    if (isScopeMatches(sub, scope)) {
+                        updates.computeIfAbsent(sub, k -> new ArrayList<>()).add(kv);
                     }
-                }, callback);
+                }
+            }
+            for (TbAttributeSubscription sub : index.getAllKeysSubs()) {
+                if (isScopeMatches(sub, scope)) {
+                    updates.put(sub, data);
+                }
+            }
+            updates.forEach((sub, updateData) -> sendTelemetryUpdate(sub, sub.getKeyStates(), updateData));
+        }
+        callback.onSuccess();
+    }
+
+    private static boolean isScopeMatches(TbAttributeSubscription sub, String scope) {
+        return sub.getScope() == null || TbAttributeSubscriptionScope.ANY_SCOPE.equals(sub.getScope()) || sub.getScope().name().equals(scope);
+    }
+
+    private void sendTelemetryUpdate(TbSubscription<TelemetrySubscriptionUpdate> sub, Map<String, Long> keyStates, List<TsKvEntry> updateData) {
+        TelemetrySubscriptionUpdate update = new TelemetrySubscriptionUpdate(sub.getSubscriptionId(), updateData);
+        update.getLatestValues().forEach(keyStates::put);
+        subscriptionUpdateExecutor.submit(() -> sub.getUpdateProcessor().accept(sub, update));
     }
 
     @Override
@@ -486,21 +478,6 @@ public class DefaultTbLocalSubscriptionService implements TbLocalSubscriptionSer
         callback.onSuccess();
     }
 
-    private void processSubscriptionData(UUID entityId,
-                                         Predicate<TbSubscription<?>> filter,
-                                         Consumer<TbSubscription<?>> processor,
-                                         TbCallback callback) {
-        var subs = subscriptionsByEntityId.get(entityId);
-        if (subs != null) {
-            subs.getSubs().forEach(s -> {
-                if (filter.test(s)) {
-                    processor.accept(s);
-                }
-            });
-        }
-        callback.onSuccess();
-    }
-
     private SubscriptionModificationResult modifySubscription(TenantId tenantId, EntityId entityId, TbSubscription<?> subscription, boolean add) {
         TbSubscription<?> missedUpdatesCandidate = null;
         TbEntitySubEvent event = null;
@@ -42,6 +42,10 @@ public class TbEntityLocalSubsInfo {
     private final EntityId entityId;
     @Getter
     private final Set<TbSubscription<?>> subs = ConcurrentHashMap.newKeySet();
+    @Getter
+    private final TbSubscriptionKeyIndex<TbTimeSeriesSubscription> tsSubsIndex = new TbSubscriptionKeyIndex<>();
+    @Getter
+    private final TbSubscriptionKeyIndex<TbAttributeSubscription> attrSubsIndex = new TbSubscriptionKeyIndex<>();
     private volatile TbSubscriptionsInfo state = new TbSubscriptionsInfo();
 
     private final Map<Integer, Set<TbSubscription<?>>> pendingSubs = new ConcurrentHashMap<>();
@@ -63,7 +67,9 @@ public class TbEntityLocalSubsInfo {
     public TbEntitySubEvent add(TbSubscription<?> subscription) {
         log.trace("[{}][{}][{}] Adding: {}", tenantId, entityId, subscription.getSubscriptionId(), subscription);
         boolean created = subs.isEmpty();
-        subs.add(subscription);
+        if (subs.add(subscription)) {
+            addToIndex(subscription);
+        }
         TbSubscriptionsInfo newState = created ? state : state.copy();
         boolean stateChanged = false;
         switch (subscription.getType()) {
@@ -130,6 +136,7 @@ public class TbEntityLocalSubsInfo {
         if (!subs.remove(sub)) {
             return null;
         }
+        removeFromIndex(sub);
         if (isEmpty()) {
             return toEvent(ComponentLifecycleEvent.DELETED);
         }
@@ -147,6 +154,7 @@ public class TbEntityLocalSubsInfo {
             if (!subs.remove(sub)) {
                 continue;
             }
+            removeFromIndex(sub);
             if (isEmpty()) {
                 return toEvent(ComponentLifecycleEvent.DELETED);
             }
@@ -162,6 +170,22 @@ public class TbEntityLocalSubsInfo {
         return updateState(changedTypes, newState);
     }
 
+    private void addToIndex(TbSubscription<?> subscription) {
+        if (subscription instanceof TbTimeSeriesSubscription tsSub) {
+            tsSubsIndex.add(tsSub, tsSub.isAllKeys(), tsSub.getKeyStates());
+        } else if (subscription instanceof TbAttributeSubscription attrSub) {
+            attrSubsIndex.add(attrSub, attrSub.isAllKeys(), attrSub.getKeyStates());
+        }
+    }
+
+    private void removeFromIndex(TbSubscription<?> subscription) {
+        if (subscription instanceof TbTimeSeriesSubscription tsSub) {
+            tsSubsIndex.remove(tsSub, tsSub.isAllKeys(), tsSub.getKeyStates());
+        } else if (subscription instanceof TbAttributeSubscription attrSub) {
+            attrSubsIndex.remove(attrSub, attrSub.isAllKeys(), attrSub.getKeyStates());
+        }
+    }
+
     private void clearState(TbSubscriptionsInfo state, TbSubscriptionType type) {
         switch (type) {
             case NOTIFICATIONS:
@@ -0,0 +1,73 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.service.subscription;
+
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Inverted index of the entity subscriptions by key, so the update of a key is forwarded only to the subscriptions of that key.
+ * Subscriptions to all keys are kept separately.
+ * Modified under the tenant subscriptions lock, read concurrently by the update processing threads.
+ */
+public class TbSubscriptionKeyIndex<T extends TbSubscription<?>> {
+
+    private final Map<String, Set<T>> subsByKey = new ConcurrentHashMap<>();
+    @Getter
+    private final Set<T> allKeysSubs = ConcurrentHashMap.newKeySet();
+
+    public void add(T subscription, boolean allKeys, Map<String, Long> keyStates) {
+        if (allKeys) {
+            allKeysSubs.add(subscription);
+        } else {
+            for (String key : keyStates.keySet()) {
+                subsByKey.compute(key, (k, subs) -> {
+                    if (subs == null) {
+                        subs = ConcurrentHashMap.newKeySet();
+                    }
+                    subs.add(subscription);
+                    return subs;
+                });
+            }
+        }
+    }
+
+    public void remove(T subscription, boolean allKeys, Map<String, Long> keyStates) {
+        if (allKeys) {
+            allKeysSubs.remove(subscription);
+        } else {
+            for (String key : keyStates.keySet()) {
+                subsByKey.computeIfPresent(key, (k, subs) -> {
+                    subs.remove(subscription);
+                    return subs.isEmpty() ? null : subs;
+                });
+            }
+        }
+    }
+
+    public Set<T> getSubs(String key) {
+        return subsByKey.getOrDefault(key, Collections.emptySet());
+    }
+
+    public boolean isEmpty() {
+        return subsByKey.isEmpty() && allKeysSubs.isEmpty();
+    }
+
+}
@@ -0,0 +1,118 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.service.telemetry;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.thingsboard.common.util.JacksonUtil;
+import org.thingsboard.server.common.data.kv.TimeseriesExportFormat;
+import org.thingsboard.server.common.data.kv.TsKvEntry;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Writes exported time series record by record, so that nothing but the current chunk is kept in memory.
+ * NDJSON records are {"key":...,"ts":...,"value":...} objects, one per line.
+ * CSV records are "key,ts,value" lines preceded by the header line.
+ */
+public class TimeseriesExportWriter {
+
+    private static final String CSV_HEADER = "key,ts,value\n";
+
+    private final boolean useStrictDataTypes;
+    private final Writer writer;
+    private final JsonGenerator generator;
+
+    public TimeseriesExportWriter(OutputStream out, TimeseriesExportFormat format, boolean useStrictDataTypes) throws IOException {
+        this.useStrictDataTypes = useStrictDataTypes;
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == TimeseriesExportFormat.NDJSON) {
+            this.generator = JacksonUtil.OBJECT_MAPPER.getFactory().createGenerator(writer);
+            this.generator.setRootValueSeparator(null);
+        } else {
+            this.generator = null;
+            writer.write(CSV_HEADER);
+        }
+    }
+
+    /**
+     * Writes the entries and flushes them to the client. Blocks while the client is not able to receive more data,
+     * which in turn holds off reading of the next chunk.
+     */
+    public void write(List<TsKvEntry> entries) throws IOException {
+        for (TsKvEntry entry : entries) {
+            if (generator != null) {
+                writeJson(entry);
+            } else {
+                writeCsv(entry);
+            }
+        }
+        flush();
+    }
+
+    public void flush() throws IOException {
+        if (generator != null) {
+            generator.flush();
+        } else {
+            writer.flush();
+        }
+    }
+
+    private void writeJson(TsKvEntry entry) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("key", entry.getKey());
+        generator.writeNumberField("ts", entry.getTs());
+        generator.writeFieldName("value");
+        if (useStrictDataTypes) {
+            switch (entry.getDataType()) {
+                case BOOLEAN -> generator.writeBoolean(entry.getBooleanValue().get());
+                case LONG -> generator.writeNumber(entry.getLongValue().get());
+                case DOUBLE -> generator.writeNumber(entry.getDoubleValue().get());
+                case JSON -> generator.writeTree(JacksonUtil.toJsonNode(entry.getJsonValue().get()));
+                default -> generator.writeString(entry.getValueAsString());
+            }
+        } else {
+            generator.writeString(entry.getValueAsString());
+        }
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    private void writeCsv(TsKvEntry entry) throws IOException {
+        writer.write(escapeCsv(entry.getKey()));
+        writer.write(',');
+        writer.write(Long.toString(entry.getTs()));
+        writer.write(',');
+        writer.write(escapeCsv(entry.getValueAsString()));
+        writer.write('\n');
+    }
+
+    static String escapeCsv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+}
@@ -0,0 +1,51 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.service.ttl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.thingsboard.server.dao.timeseries.TimeseriesRollupDao;
+import org.thingsboard.server.queue.discovery.PartitionService;
+import org.thingsboard.server.queue.util.TbCoreComponent;
+
+@TbCoreComponent
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "sql.ts.rollup", value = "enabled", havingValue = "true")
+public class TimeseriesRollupBackfillService extends AbstractCleanUpService {
+
+    @Autowired(required = false)
+    private TimeseriesRollupDao timeseriesRollupDao;
+
+    public TimeseriesRollupBackfillService(PartitionService partitionService) {
+        super(partitionService);
+    }
+
+    @Scheduled(initialDelayString = "${sql.ts.rollup.backfill_interval_ms:60000}", fixedDelayString = "${sql.ts.rollup.backfill_interval_ms:60000}")
+    public void backfill() {
+        if (timeseriesRollupDao != null && isSystemTenantPartitionMine()) {
+            try {
+                timeseriesRollupDao.backfill();
+            } catch (Exception e) {
+                log.warn("Failed to backfill time series rollups", e);
+            }
+        }
+    }
+
+}
@@ -21,6 +21,7 @@ import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.MoreExecutors;
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.Nullable;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
@@ -49,6 +50,8 @@ import org.thingsboard.server.common.data.kv.ReadTsKvQuery;
 import org.thingsboard.server.common.data.kv.TsKvEntry;
 import org.thingsboard.server.common.data.tenant.profile.DefaultTenantProfileConfiguration;
 import org.thingsboard.server.common.msg.tools.TbRateLimitsException;
+import org.thingsboard.server.common.stats.DefaultCounter;
+import org.thingsboard.server.common.stats.StatsFactory;
 import org.thingsboard.server.dao.attributes.AttributesService;
 import org.thingsboard.server.dao.tenant.TbTenantProfileCache;
 import org.thingsboard.server.dao.timeseries.TimeseriesService;
@@ -90,6 +93,7 @@ import java.util.Collections;
 import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -137,18 +141,28 @@ public class DefaultWebSocketService implements WebSocketService {
     private final TimeseriesService tsService;
     private final TbServiceInfoProvider serviceInfoProvider;
     private final TbTenantProfileCache tenantProfileCache;
+    private final StatsFactory statsFactory;
 
     @Value("${server.ws.ping_timeout:30000}")
     private long pingTimeout;
+    @Value("${server.ws.coalescing.enabled:false}")
+    private boolean coalescingEnabled;
+    @Value("${server.ws.coalescing.window_ms:100}")
+    private long coalescingWindowMs;
 
     private final ConcurrentMap<TenantId, Set<String>> tenantSubscriptionsMap = new ConcurrentHashMap<>();
     private final ConcurrentMap<CustomerId, Set<String>> customerSubscriptionsMap = new ConcurrentHashMap<>();
     private final ConcurrentMap<UserId, Set<String>> regularUserSubscriptionsMap = new ConcurrentHashMap<>();
     private final ConcurrentMap<UserId, Set<String>> publicUserSubscriptionsMap = new ConcurrentHashMap<>();
     private final ConcurrentMap<String, Map<Integer, Integer>> sessionCmdMap = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, WsUpdateBuffer> updateBuffers = new ConcurrentHashMap<>();
+    private final Set<String> sessionsToFlush = ConcurrentHashMap.newKeySet();
 
     private ExecutorService executor;
     private ScheduledExecutorService pingExecutor;
+    private ScheduledExecutorService flushExecutor;
+    private DefaultCounter framesSavedCounter;
+    private Timer deliveryLatencyTimer;
     private String serviceId;
 
     private Map<WsCmdType, WsCmdHandler<? extends WsCmd>> cmdsHandlers;
@@ -161,6 +175,13 @@ public class DefaultWebSocketService implements WebSocketService {
         pingExecutor = ThingsBoardExecutors.newSingleThreadScheduledExecutor("telemetry-web-socket-ping");
         pingExecutor.scheduleWithFixedDelay(this::sendPing, pingTimeout / NUMBER_OF_PING_ATTEMPTS, pingTimeout / NUMBER_OF_PING_ATTEMPTS, TimeUnit.MILLISECONDS);
 
+        if (coalescingEnabled) {
+            framesSavedCounter = statsFactory.createDefaultCounter("wsFramesSaved");
+            deliveryLatencyTimer = statsFactory.createTimer("wsUpdatesDeliveryLatency");
+            flushExecutor = ThingsBoardExecutors.newSingleThreadScheduledExecutor("telemetry-web-socket-flush");
+            flushExecutor.scheduleWithFixedDelay(this::flushUpdates, coalescingWindowMs, coalescingWindowMs, TimeUnit.MILLISECONDS);
+        }
+
         cmdsHandlers = new EnumMap<>(WsCmdType.class);
         cmdsHandlers.put(WsCmdType.ATTRIBUTES, newCmdHandler(this::handleWsAttributesSubscriptionCmd));
         cmdsHandlers.put(WsCmdType.TIMESERIES, newCmdHandler(this::handleWsTimeseriesSubscriptionCmd));
@@ -188,6 +209,10 @@ public class DefaultWebSocketService implements WebSocketService {
             pingExecutor.shutdownNow();
         }
 
+        if (flushExecutor != null) {
+            flushExecutor.shutdownNow();
+        }
+
         if (executor != null) {
             executor.shutdownNow();
         }
@@ -207,6 +232,7 @@ public class DefaultWebSocketService implements WebSocketService {
                         event.getError().orElse(new RuntimeException("No error specified")));
                 break;
             case CLOSED:
+                updateBuffers.remove(sessionId);
                 cleanupSessionById(tenantId, sessionId);
                 processSessionClose(sessionRef);
                 break;
@@ -273,13 +299,17 @@ public class DefaultWebSocketService implements WebSocketService {
 
     @Override
     public void sendUpdate(String sessionId, int cmdId, TelemetrySubscriptionUpdate update) {
+        sendUpdate(sessionId, cmdId, update, false);
+    }
+
+    private void sendUpdate(String sessionId, int cmdId, TelemetrySubscriptionUpdate update, boolean latestOnly) {
         // We substitute the subscriptionId with cmdId for old-style subscriptions.
-        doSendUpdate(sessionId, cmdId, update.copyWithNewSubscriptionId(cmdId));
+        doSendUpdate(sessionId, cmdId, update.copyWithNewSubscriptionId(cmdId), latestOnly);
     }
 
     @Override
     public void sendUpdate(String sessionId, CmdUpdate update) {
-        doSendUpdate(sessionId, update.getCmdId(), update);
+        doSendUpdate(sessionId, update.getCmdId(), update, false);
     }
 
     @Override
@@ -288,13 +318,57 @@ public class DefaultWebSocketService implements WebSocketService {
         sendUpdate(sessionRef, update);
     }
 
-    private <T> void doSendUpdate(String sessionId, int cmdId, T update) {
+    private <T> void doSendUpdate(String sessionId, int cmdId, T update, boolean latestOnly) {
         WsSessionMetaData md = wsSessionsMap.get(sessionId);
         if (md != null) {
+            if (coalescingEnabled) {
+                WsUpdateBuffer buffer = updateBuffers.computeIfAbsent(sessionId, id -> new WsUpdateBuffer());
+                if (WsUpdateBuffer.isMergeable(update)) {
+                    if (buffer.add(cmdId, update, latestOnly, System.currentTimeMillis())) {
+                        sessionsToFlush.add(sessionId);
+                    }
+                    return;
+                }
+                // the pending update of the command must not be delivered after the non mergeable one, e.g. after the new data page
+                Object pending = buffer.remove(cmdId, update);
+                if (pending != null) {
+                    sendUpdates(md.getSessionRef(), List.of(Map.<Integer, Object>entry(cmdId, pending), Map.<Integer, Object>entry(cmdId, update)));
+                    return;
+                }
+            }
             sendUpdate(md.getSessionRef(), cmdId, update);
         }
     }
 
+    private void flushUpdates() {
+        long now = System.currentTimeMillis();
+        for (Iterator<String> iterator = sessionsToFlush.iterator(); iterator.hasNext(); ) {
+            String sessionId = iterator.next();
+            iterator.remove();
+            WsUpdateBuffer buffer = updateBuffers.get(sessionId);
+            WsSessionMetaData md = wsSessionsMap.get(sessionId);
+            if (buffer == null || md == null) {
+                continue;
+            }
+            WsUpdateBuffer.Flush flush = buffer.drain();
+            if (flush.updates().isEmpty()) {
+                continue;
+            }
+            deliveryLatencyTimer.record(now - flush.firstUpdateTs(), TimeUnit.MILLISECONDS);
+            WebSocketSessionRef sessionRef = md.getSessionRef();
+            int frames;
+            if (sessionRef.isBatchUpdates()) {
+                List<Object> updates = flush.updates().stream().map(Map.Entry::getValue).toList();
+                sendUpdate(sessionRef, flush.updates().get(0).getKey(), updates);
+                frames = 1;
+            } else {
+                sendUpdates(sessionRef, flush.updates());
+                frames = flush.updates().size();
+            }
+            framesSavedCounter.add(flush.updates().size() + flush.mergedCount() - frames);
+        }
+    }
+
     @Override
     public void close(String sessionId, CloseStatus status) {
         WsSessionMetaData md = wsSessionsMap.get(sessionId);
@@ -471,7 +545,7 @@ public class DefaultWebSocketService implements WebSocketService {
                         .updateProcessor((subscription, update) -> {
                             subLock.lock();
                             try {
-                                sendUpdate(subscription.getSessionId(), cmd.getCmdId(), update);
+                                sendUpdate(subscription.getSessionId(), cmd.getCmdId(), update, true);
                             } finally {
                                 subLock.unlock();
                             }
@@ -583,7 +657,7 @@ public class DefaultWebSocketService implements WebSocketService {
                         .updateProcessor((subscription, update) -> {
                             subLock.lock();
                             try {
-                                sendUpdate(subscription.getSessionId(), cmd.getCmdId(), update);
+                                sendUpdate(subscription.getSessionId(), cmd.getCmdId(), update, true);
                             } finally {
                                 subLock.unlock();
                             }
@@ -707,7 +781,7 @@ public class DefaultWebSocketService implements WebSocketService {
                 .updateProcessor((subscription, update) -> {
                     subLock.lock();
                     try {
-                        sendUpdate(subscription.getSessionId(), cmd.getCmdId(), update);
+                        sendUpdate(subscription.getSessionId(), cmd.getCmdId(), update, LATEST_TELEMETRY_SCOPE.equals(cmd.getScope()));
                     } finally {
                         subLock.unlock();
                     }
@@ -860,6 +934,33 @@ public class DefaultWebSocketService implements WebSocketService {
         }
     }
 
+    /**
+     * Sends the updates one by one from a single task, so that they are delivered in the given order.
+     */
+    private void sendUpdates(WebSocketSessionRef sessionRef, List<Map.Entry<Integer, Object>> updates) {
+        List<String> msgs = new ArrayList<>(updates.size());
+        for (Map.Entry<Integer, Object> update : updates) {
+            try {
+                msgs.add(JacksonUtil.OBJECT_MAPPER.writeValueAsString(update.getValue()));
+            } catch (JsonProcessingException e) {
+                log.warn("[{}] Failed to encode reply: {}", sessionRef.getSessionId(), update.getValue(), e);
+                msgs.add(null);
+            }
+        }
+        executor.submit(() -> {
+            for (int i = 0; i < msgs.size(); i++) {
+                if (msgs.get(i) == null) {
+                    continue;
+                }
+                try {
+                    msgEndpoint.send(sessionRef, updates.get(i).getKey(), msgs.get(i));
+                } catch (IOException e) {
+                    log.warn("[{}] Failed to send reply: {}", sessionRef.getSessionId(), updates.get(i).getValue(), e);
+                }
+            }
+        });
+    }
+
     private void sendPing() {
         long currentTime = System.currentTimeMillis();
         wsSessionsMap.values().forEach(md ->
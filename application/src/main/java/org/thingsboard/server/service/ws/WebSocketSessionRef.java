@@ -38,6 +38,10 @@ public class WebSocketSessionRef {
     private final InetSocketAddress localAddress;
     private final InetSocketAddress remoteAddress;
     private final WebSocketSessionType sessionType;
+    /**
+     * Whether the coalesced updates are delivered as a single frame containing the JSON array of updates
+     */
+    private final boolean batchUpdates;
     private final AtomicInteger sessionSubIdSeq = new AtomicInteger();
 
     public TenantId getTenantId() {
@@ -0,0 +1,171 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.service.ws;
+
+import org.thingsboard.server.common.data.id.EntityId;
+import org.thingsboard.server.common.data.query.EntityData;
+import org.thingsboard.server.common.data.query.EntityKeyType;
+import org.thingsboard.server.common.data.query.TsValue;
+import org.thingsboard.server.service.subscription.SubscriptionErrorCode;
+import org.thingsboard.server.service.ws.telemetry.cmd.v2.EntityDataUpdate;
+import org.thingsboard.server.service.ws.telemetry.sub.TelemetrySubscriptionUpdate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Telemetry updates of a single WebSocket session that are waiting for the next flush tick.
+ * <p>
+ * Subsequent updates of the same command are merged into one: latest values are replaced by the newer ones per key,
+ * while time series values are appended, so a command produces at most one update per tick regardless of the update rate.
+ * Pending updates are keyed by the command id and the update type, since subscription ids of the telemetry commands
+ * and ids of the entity data commands may collide within a session.
+ * The updates passed to the buffer are never modified, the merged updates are new objects.
+ */
+public class WsUpdateBuffer {
+
+    private final Map<UpdateKey, Object> updates = new LinkedHashMap<>();
+    private long firstUpdateTs;
+    private int mergedCount;
+
+    /**
+     * @return true if the buffer was empty, i.e. the session has to be scheduled for the flush
+     */
+    public synchronized boolean add(int cmdId, Object update, boolean latestOnly, long ts) {
+        boolean wasEmpty = updates.isEmpty();
+        if (wasEmpty) {
+            firstUpdateTs = ts;
+        }
+        UpdateKey key = new UpdateKey(cmdId, update.getClass());
+        Object pending = updates.get(key);
+        if (pending == null) {
+            updates.put(key, update);
+        } else {
+            updates.put(key, merge(pending, update, latestOnly));
+            mergedCount++;
+        }
+        return wasEmpty;
+    }
+
+    /**
+     * Removes the pending update of the command that has the same type as the given update.
+     */
+    public synchronized Object remove(int cmdId, Object update) {
+        return updates.remove(new UpdateKey(cmdId, update.getClass()));
+    }
+
+    public synchronized Flush drain() {
+        List<Map.Entry<Integer, Object>> drained = new ArrayList<>(updates.size());
+        updates.forEach((key, update) -> drained.add(Map.entry(key.cmdId(), update)));
+        Flush flush = new Flush(drained, firstUpdateTs, mergedCount);
+        updates.clear();
+        mergedCount = 0;
+        return flush;
+    }
+
+    public record Flush(List<Map.Entry<Integer, Object>> updates, long firstUpdateTs, int mergedCount) {}
+
+    private record UpdateKey(int cmdId, Class<?> type) {}
+
+    public static boolean isMergeable(Object update) {
+        if (update instanceof TelemetrySubscriptionUpdate tsUpdate) {
+            return tsUpdate.getErrorCode() == SubscriptionErrorCode.NO_ERROR.getCode() && tsUpdate.getData() != null;
+        } else if (update instanceof EntityDataUpdate dataUpdate) {
+            return dataUpdate.getErrorCode() == SubscriptionErrorCode.NO_ERROR.getCode() && dataUpdate.getData() == null && dataUpdate.getUpdate() != null
+                    && dataUpdate.getUpdate().stream().allMatch(entityData -> entityData.getAggLatest() == null || entityData.getAggLatest().isEmpty());
+        }
+        return false;
+    }
+
+    static Object merge(Object pending, Object update, boolean latestOnly) {
+        if (pending instanceof TelemetrySubscriptionUpdate pendingTsUpdate && update instanceof TelemetrySubscriptionUpdate tsUpdate) {
+            return merge(pendingTsUpdate, tsUpdate, latestOnly);
+        } else if (pending instanceof EntityDataUpdate pendingDataUpdate && update instanceof EntityDataUpdate dataUpdate) {
+            return merge(pendingDataUpdate, dataUpdate);
+        }
+        throw new IllegalArgumentException("Can't merge " + pending.getClass().getSimpleName() + " with " + update.getClass().getSimpleName());
+    }
+
+    static TelemetrySubscriptionUpdate merge(TelemetrySubscriptionUpdate pending, TelemetrySubscriptionUpdate update, boolean latestOnly) {
+        Map<String, List<Object>> data = new TreeMap<>(pending.getData());
+        update.getData().forEach((key, values) -> {
+            List<Object> pendingValues = data.get(key);
+            if (pendingValues == null || pendingValues.isEmpty()) {
+                data.put(key, values);
+            } else if (latestOnly) {
+                if (getTs(values.get(values.size() - 1)) >= getTs(pendingValues.get(pendingValues.size() - 1))) {
+                    data.put(key, values);
+                }
+            } else {
+                List<Object> merged = new ArrayList<>(pendingValues.size() + values.size());
+                merged.addAll(pendingValues);
+                merged.addAll(values);
+                data.put(key, merged);
+            }
+        });
+        return new TelemetrySubscriptionUpdate(update.getSubscriptionId(), data);
+    }
+
+    static EntityDataUpdate merge(EntityDataUpdate pending, EntityDataUpdate update) {
+        Map<EntityId, EntityData> entities = new LinkedHashMap<>();
+        pending.getUpdate().forEach(entityData -> entities.put(entityData.getEntityId(), entityData));
+        update.getUpdate().forEach(entityData -> entities.merge(entityData.getEntityId(), entityData, WsUpdateBuffer::merge));
+        return new EntityDataUpdate(update.getCmdId(), null, new ArrayList<>(entities.values()), update.getAllowedEntities());
+    }
+
+    static EntityData merge(EntityData pending, EntityData update) {
+        return new EntityData(update.getEntityId(), mergeLatest(pending.getLatest(), update.getLatest()),
+                mergeTimeseries(pending.getTimeseries(), update.getTimeseries()));
+    }
+
+    private static Map<EntityKeyType, Map<String, TsValue>> mergeLatest(Map<EntityKeyType, Map<String, TsValue>> pending,
+                                                                        Map<EntityKeyType, Map<String, TsValue>> update) {
+        if (pending == null || update == null) {
+            return update != null ? update : pending;
+        }
+        Map<EntityKeyType, Map<String, TsValue>> latest = new EnumMap<>(EntityKeyType.class);
+        pending.forEach((keyType, values) -> latest.put(keyType, new HashMap<>(values)));
+        update.forEach((keyType, values) -> {
+            Map<String, TsValue> merged = latest.computeIfAbsent(keyType, k -> new HashMap<>());
+            values.forEach((key, value) -> merged.merge(key, value, (oldValue, newValue) -> newValue.getTs() >= oldValue.getTs() ? newValue : oldValue));
+        });
+        return latest;
+    }
+
+    private static Map<String, TsValue[]> mergeTimeseries(Map<String, TsValue[]> pending, Map<String, TsValue[]> update) {
+        if (pending == null || update == null) {
+            return update != null ? update : pending;
+        }
+        Map<String, TsValue[]> timeseries = new HashMap<>(pending);
+        update.forEach((key, values) -> timeseries.merge(key, values, (oldValues, newValues) -> {
+            TsValue[] merged = Arrays.copyOf(oldValues, oldValues.length + newValues.length);
+            System.arraycopy(newValues, 0, merged, oldValues.length, newValues.length);
+            return merged;
+        }));
+        return timeseries;
+    }
+
+    private static long getTs(Object value) {
+        return (long) ((Object[]) value)[0];
+    }
+
+}
@@ -38,7 +38,6 @@ import org.thingsboard.server.service.cf.ctx.state.SingleValueArgumentEntry;
 import org.thingsboard.server.service.cf.ctx.state.TsRollingArgumentEntry;
 
 import java.util.Optional;
-import java.util.TreeMap;
 import java.util.UUID;
 
 public class CalculatedFieldUtils {
@@ -103,7 +102,7 @@ public class CalculatedFieldUtils {
                 .setLimit(entry.getLimit())
                 .setTimeWindow(entry.getTimeWindow());
 
-        entry.getTsRecords().forEach((ts, value) -> builder.addTsValue(TsDoubleValProto.newBuilder().setTs(ts).setValue(value).build()));
+        entry.forEachTsRecord((ts, value) -> builder.addTsValue(TsDoubleValProto.newBuilder().setTs(ts).setValue(value).build()));
 
         return builder.build();
     }
@@ -144,9 +143,9 @@ public class CalculatedFieldUtils {
     }
 
     public static TsRollingArgumentEntry fromRollingArgumentProto(TsRollingArgumentProto proto) {
-        TreeMap<Long, Double> tsRecords = new TreeMap<>();
-        proto.getTsValueList().forEach(tsValueProto -> tsRecords.put(tsValueProto.getTs(), tsValueProto.getValue()));
-        return new TsRollingArgumentEntry(tsRecords, proto.getLimit(), proto.getTimeWindow());
+        TsRollingArgumentEntry entry = new TsRollingArgumentEntry(proto.getLimit(), proto.getTimeWindow());
+        proto.getTsValueList().forEach(tsValueProto -> entry.restoreTsRecord(tsValueProto.getTs(), tsValueProto.getValue()));
+        return entry;
     }
 
 }
@@ -17,8 +17,11 @@ package org.thingsboard.server.service.cf.ctx.state;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.thingsboard.script.api.tbel.TbelCfTsDoubleVal;
+import org.thingsboard.script.api.tbel.TbelCfTsRollingArg;
 import org.thingsboard.server.common.data.kv.DoubleDataEntry;
 import org.thingsboard.server.common.data.kv.StringDataEntry;
+import org.thingsboard.server.utils.CalculatedFieldUtils;
 
 import java.util.Map;
 import java.util.TreeMap;
@@ -120,4 +123,41 @@ public class TsRollingArgumentEntryTest {
         ));
     }
 
-}
\ No newline at end of file
+    @Test
+    void testUpdateEntryWhenOutOfOrderAndDuplicateTs() {
+        entry.updateEntry(new SingleValueArgumentEntry(ts - 35, new DoubleDataEntry("key", 11.0), 124L));
+        entry.updateEntry(new SingleValueArgumentEntry(ts - 20, new DoubleDataEntry("key", 18.0), 125L));
+
+        assertThat(entry.getTsRecords()).containsExactly(
+                Map.entry(ts - 40, 10.0),
+                Map.entry(ts - 35, 11.0),
+                Map.entry(ts - 30, 12.0),
+                Map.entry(ts - 20, 18.0)
+        );
+    }
+
+    @Test
+    void testToTbelCfArgKeepsSnapshotAfterUpdate() {
+        TbelCfTsRollingArg before = (TbelCfTsRollingArg) entry.toTbelCfArg();
+        entry.updateEntry(new SingleValueArgumentEntry(ts - 10, new DoubleDataEntry("key", 23.0), 123L));
+        TbelCfTsRollingArg after = (TbelCfTsRollingArg) entry.toTbelCfArg();
+
+        assertThat(before.getValues()).containsExactly(
+                new TbelCfTsDoubleVal(ts - 40, 10.0),
+                new TbelCfTsDoubleVal(ts - 30, 12.0),
+                new TbelCfTsDoubleVal(ts - 20, 17.0)
+        );
+        assertThat(after.getSize()).isEqualTo(4);
+        assertThat(after.sum()).isEqualTo(62.0);
+        assertThat(after.last()).isEqualTo(23.0);
+    }
+
+    @Test
+    void testProtoSerialization() {
+        entry.updateEntry(new SingleValueArgumentEntry(ts - 10, new StringDataEntry("key", "string"), 123L));
+        TsRollingArgumentEntry fromProto = CalculatedFieldUtils.fromRollingArgumentProto(CalculatedFieldUtils.toRollingArgumentProto("key", entry));
+        assertThat(fromProto).isEqualTo(entry);
+        assertThat(fromProto.getTsRecords().get(ts - 10)).isNaN();
+    }
+
+}
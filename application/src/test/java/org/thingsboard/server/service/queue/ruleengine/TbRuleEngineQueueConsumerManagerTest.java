@@ -45,10 +45,12 @@ import org.thingsboard.server.common.msg.TbMsg;
 import org.thingsboard.server.common.msg.TbMsgMetaData;
 import org.thingsboard.server.common.msg.queue.QueueToRuleEngineMsg;
 import org.thingsboard.server.common.msg.queue.ServiceType;
+import org.thingsboard.server.common.msg.queue.TbMsgCallback;
 import org.thingsboard.server.common.msg.queue.TopicPartitionInfo;
 import org.thingsboard.server.common.stats.StatsFactory;
 import org.thingsboard.server.gen.transport.TransportProtos.ToRuleEngineMsg;
 import org.thingsboard.server.queue.TbQueueAdmin;
+import org.thingsboard.server.queue.TbQueueConsumerPosition;
 import org.thingsboard.server.queue.TbQueueProducer;
 import org.thingsboard.server.queue.common.AbstractTbQueueConsumerTemplate;
 import org.thingsboard.server.queue.common.TbProtoQueueMsg;
@@ -71,11 +73,14 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -621,6 +626,44 @@ public class TbRuleEngineQueueConsumerManagerTest {
         });
     }
 
+    @Test
+    public void testPipelining_commitsContiguousProcessedPacks() {
+        generateQueueMsgs = false;
+        ruleEngineConsumerContext.setPipeliningEnabled(true);
+        ruleEngineConsumerContext.setMaxInFlightPacks(4);
+        queue.setPackProcessingTimeout(10000);
+        TbMsg slowMsg = newTestMsg();
+        TbMsg fastMsg = newTestMsg();
+        AtomicReference<TbMsgCallback> slowMsgCallback = new AtomicReference<>();
+        doAnswer(inv -> {
+            QueueToRuleEngineMsg msg = inv.getArgument(0);
+            if (msg.getMsg().getId().equals(slowMsg.getId())) {
+                slowMsgCallback.set(msg.getMsg().getCallback());
+            } else {
+                msg.getMsg().getCallback().onSuccess();
+            }
+            return null;
+        }).when(actorContext).tell(any());
+        PipelinedTestConsumer consumer = new PipelinedTestConsumer(queue.getTopic(), slowMsg, fastMsg);
+        doAnswer(i -> {
+            consumers.add(consumer);
+            return consumer;
+        }).when(queueFactory).createToRuleEngineMsgConsumer(any(), any());
+
+        queue.setConsumerPerPartition(true);
+        consumerManager.init(queue);
+        consumerManager.update(createTpis(1));
+
+        verifyMsgProcessed(fastMsg);
+        await().atMost(5, TimeUnit.SECONDS).until(() -> slowMsgCallback.get() != null);
+        // the processed pack is not committed while the previous pack is in flight
+        await().pollDelay(500, TimeUnit.MILLISECONDS).until(() -> consumer.committedPositions.isEmpty());
+
+        slowMsgCallback.get().onSuccess();
+        await().atMost(5, TimeUnit.SECONDS).until(() -> !consumer.committedPositions.isEmpty());
+        assertThat(consumer.committedPositions).containsExactly(new TestPosition(2));
+    }
+
     private void verifySubscribedAndLaunched(TestConsumer consumer, Set<TopicPartitionInfo> expectedPartitions) {
         await().atMost(2, TimeUnit.SECONDS)
                 .until(() -> consumer.subscribed && consumer.getPartitions().equals(expectedPartitions) && consumer.pollingStarted);
@@ -783,13 +826,51 @@ public class TbRuleEngineQueueConsumerManagerTest {
         }
 
         public void setUpTestMsg() {
-            testMsg = TbMsg.newMsg()
-                    .type(TbMsgType.POST_TELEMETRY_REQUEST)
-                    .originator(new DeviceId(UUID.randomUUID()))
-                    .copyMetaData(new TbMsgMetaData())
-                    .data("{}")
-                    .build();
+            testMsg = newTestMsg();
+        }
+    }
+
+    class PipelinedTestConsumer extends TestConsumer {
+
+        private final java.util.Queue<TbMsg> packs;
+        private final List<TestPosition> committedPositions = new CopyOnWriteArrayList<>();
+        private int polledPacks;
+
+        public PipelinedTestConsumer(String topic, TbMsg... msgs) {
+            super(topic);
+            this.packs = new ConcurrentLinkedQueue<>(List.of(msgs));
+        }
+
+        @Override
+        protected List<TbMsg> doPoll(long durationInMillis) {
+            TbMsg msg = packs.poll();
+            if (msg == null) {
+                return Collections.emptyList();
+            }
+            polledPacks++;
+            return List.of(msg);
         }
+
+        @Override
+        protected TbQueueConsumerPosition doGetPosition() {
+            return new TestPosition(polledPacks);
+        }
+
+        @Override
+        protected void doCommit(TbQueueConsumerPosition position) {
+            committedPositions.add((TestPosition) position);
+        }
+    }
+
+    private record TestPosition(int polledPacks) implements TbQueueConsumerPosition {}
+
+    private static TbMsg newTestMsg() {
+        return TbMsg.newMsg()
+                .type(TbMsgType.POST_TELEMETRY_REQUEST)
+                .originator(new DeviceId(UUID.randomUUID()))
+                .copyMetaData(new TbMsgMetaData())
+                .data("{}")
+                .build();
     }
 
 }
@@ -17,6 +17,8 @@ package org.thingsboard.server.service.script;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.github.benmanes.caffeine.cache.Cache;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 import org.junit.Assert;
 import org.junit.Ignore;
 import org.junit.jupiter.api.Test;
@@ -25,6 +27,7 @@ import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.thingsboard.common.util.JacksonUtil;
 import org.thingsboard.script.api.tbel.TbelScript;
+import org.thingsboard.server.common.data.id.TenantId;
 
 import java.io.Serializable;
 import java.util.ArrayList;
@@ -37,6 +40,7 @@ import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.thingsboard.server.common.data.msg.TbMsgType.POST_TELEMETRY_REQUEST;
 
 @TestPropertySource(properties = {
         "tbel.max_script_body_size=100",
@@ -74,6 +78,42 @@ class TbelInvokeServiceTest extends AbstractTbelInvokeTest {
         Assert.assertTrue(duration < TimeUnit.MINUTES.toMillis(1));
     }
 
+    @Test
+    void givenManyConcurrentInvocationsOfSameScript_thenEachInvocationGetsItsOwnResult() throws Exception {
+        UUID scriptId = evalScript("return msg.temperature > 20");
+        List<ListenableFuture<Object>> futures = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            Object msg = JacksonUtil.fromString("{\"temperature\":" + i + "}", Map.class);
+            futures.add(invokeService.invokeScript(TenantId.SYS_TENANT_ID, null, scriptId, msg, "{}", POST_TELEMETRY_REQUEST.name()));
+        }
+
+        List<Object> results = Futures.allAsList(futures).get(30, TimeUnit.SECONDS);
+        for (int i = 0; i < results.size(); i++) {
+            assertThat(results.get(i)).isEqualTo(i > 20);
+        }
+    }
+
+    @Test
+    void givenStatsEnabled_whenScriptInvoked_thenInvocationsAreCounted() throws Exception {
+        UUID scriptId = evalScript("return msg.temperature > 20");
+        Map<UUID, String> scriptIdToHash = (Map<UUID, String>) ReflectionTestUtils.getField(invokeService, "scriptIdToHash");
+        Map<String, TbelScript> scriptMap = (Map<String, TbelScript>) ReflectionTestUtils.getField(invokeService, "scriptMap");
+        TbelScript script = scriptMap.get(scriptIdToHash.get(scriptId));
+
+        invokeScript(scriptId, "{\"temperature\":10}");
+        assertThat(script.getInvocations().sum()).isZero();
+
+        ReflectionTestUtils.setField(invokeService, "statsEnabled", true);
+        try {
+            for (int i = 0; i < 10; i++) {
+                invokeScript(scriptId, "{\"temperature\":" + i + "}");
+            }
+            assertThat(script.getInvocations().sum()).isEqualTo(10);
+        } finally {
+            ReflectionTestUtils.setField(invokeService, "statsEnabled", false);
+        }
+    }
+
     @Test
     void givenTooBigScriptForEval_thenReturnError() {
         String hugeScript = "var a = 'qwertyqwertywertyqwabababerqwertyqwertywertyqwabababerqwertyqwertywertyqwabababerqwertyqwertywertyqwabababerqwertyqwertywertyqwabababer'; return {a: a};";
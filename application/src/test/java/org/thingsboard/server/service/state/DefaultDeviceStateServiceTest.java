@@ -29,6 +29,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.thingsboard.rule.engine.api.AttributesSaveRequest;
 import org.thingsboard.server.cluster.TbClusterService;
+import org.thingsboard.server.common.data.ApiUsageRecordKey;
 import org.thingsboard.server.common.data.AttributeScope;
 import org.thingsboard.server.common.data.Device;
 import org.thingsboard.server.common.data.DeviceIdInfo;
@@ -38,6 +39,9 @@ import org.thingsboard.server.common.data.id.TenantId;
 import org.thingsboard.server.common.data.msg.TbMsgType;
 import org.thingsboard.server.common.data.notification.rule.trigger.DeviceActivityTrigger;
 import org.thingsboard.server.common.data.page.PageData;
+import org.thingsboard.server.common.data.query.EntityData;
+import org.thingsboard.server.common.data.query.EntityKeyType;
+import org.thingsboard.server.common.data.query.TsValue;
 import org.thingsboard.server.common.msg.TbMsg;
 import org.thingsboard.server.common.msg.TbMsgMetaData;
 import org.thingsboard.server.common.msg.notification.NotificationRuleProcessor;
@@ -55,10 +59,13 @@ import org.thingsboard.server.queue.discovery.event.PartitionChangeEvent;
 import org.thingsboard.server.queue.usagestats.DefaultTbApiUsageReportClient;
 import org.thingsboard.server.service.telemetry.TelemetrySubscriptionService;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -70,11 +77,13 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.awaitility.Awaitility.await;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.then;
 import static org.mockito.BDDMockito.willReturn;
+import static org.mockito.BDDMockito.willThrow;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.never;
@@ -125,6 +134,7 @@ public class DefaultDeviceStateServiceTest {
         ReflectionTestUtils.setField(service, "tsSubService", telemetrySubscriptionService);
         ReflectionTestUtils.setField(service, "defaultStateCheckIntervalInSec", 60);
         ReflectionTestUtils.setField(service, "defaultActivityStatsIntervalInSec", 60);
+        ReflectionTestUtils.setField(service, "unscheduledStateCheckIntervalInSec", 600);
         ReflectionTestUtils.setField(service, "initFetchPackSize", 10);
 
         tpi = TopicPartitionInfo.builder().myPartition(true).build();
@@ -498,12 +508,108 @@ public class DefaultDeviceStateServiceTest {
     @Test
     public void givenDeviceIdWithoutDeviceStateInMap_whenGetOrFetchDeviceStateData_thenFetchDeviceStateData() {
         service.deviceStates.clear();
-        willReturn(deviceStateDataMock).given(service).fetchDeviceStateDataUsingSeparateRequests(deviceId);
+        DeviceStateData fetchedStateData = DeviceStateData.builder()
+                .tenantId(tenantId)
+                .deviceId(deviceId)
+                .state(DeviceState.builder().build())
+                .metaData(new TbMsgMetaData())
+                .build();
+        willReturn(fetchedStateData).given(service).fetchDeviceStateDataUsingSeparateRequests(deviceId);
         DeviceStateData deviceStateData = service.getOrFetchDeviceStateData(deviceId);
-        assertThat(deviceStateData).isEqualTo(deviceStateDataMock);
+        assertThat(deviceStateData).isSameAs(fetchedStateData);
         verify(service).fetchDeviceStateDataUsingSeparateRequests(deviceId);
     }
 
+    @Test
+    public void givenInactivityUpdateFails_whenCheckStates_thenDeviceIsRescheduled() {
+        DeviceStateData stateData = DeviceStateData.builder()
+                .tenantId(tenantId)
+                .deviceId(deviceId)
+                .state(DeviceState.builder().active(true).inactivityTimeout(1).build())
+                .metaData(new TbMsgMetaData())
+                .build();
+        service.deviceStates.put(deviceId, stateData);
+        service.inactivityTimeouts.schedule(stateData, 1);
+        willThrow(new RuntimeException("Failed to save")).given(service).updateInactivityStateIfExpired(anyLong(), eq(deviceId), eq(stateData));
+
+        service.checkStates();
+
+        verify(service).updateInactivityStateIfExpired(anyLong(), eq(deviceId), eq(stateData));
+        assertThat(service.inactivityTimeouts.isScheduled(stateData)).isTrue();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void givenPartitionedDeviceWithoutState_whenCheckUnscheduledStates_thenFetchesAndSchedulesDeviceState() {
+        service.deviceStates.clear();
+        Map<TopicPartitionInfo, Set<DeviceId>> partitionedEntities = (Map<TopicPartitionInfo, Set<DeviceId>>) ReflectionTestUtils.getField(service, "partitionedEntities");
+        partitionedEntities.put(tpi, ConcurrentHashMap.newKeySet());
+        partitionedEntities.get(tpi).add(deviceId);
+        DeviceStateData fetchedStateData = DeviceStateData.builder()
+                .tenantId(tenantId)
+                .deviceId(deviceId)
+                .state(DeviceState.builder().build())
+                .metaData(new TbMsgMetaData())
+                .build();
+        willReturn(fetchedStateData).given(service).fetchDeviceStateDataUsingSeparateRequests(deviceId);
+
+        service.checkUnscheduledStates();
+
+        assertThat(service.deviceStates).containsEntry(deviceId, fetchedStateData);
+        assertThat(service.inactivityTimeouts.isScheduled(fetchedStateData)).isTrue();
+    }
+
+    @Test
+    public void givenDeviceStateChanges_whenReportActivityStats_thenReportsRunningCounters() {
+        // GIVEN
+        service.deviceStates.clear();
+        DeviceStateData fetchedStateData = DeviceStateData.builder()
+                .tenantId(tenantId)
+                .deviceId(deviceId)
+                .state(DeviceState.builder().build())
+                .metaData(new TbMsgMetaData())
+                .build();
+        willReturn(fetchedStateData).given(service).fetchDeviceStateDataUsingSeparateRequests(deviceId);
+        DeviceStateData stateData = service.getOrFetchDeviceStateData(deviceId);
+
+        // WHEN
+        service.updateActivityState(deviceId, stateData, System.currentTimeMillis());
+        service.reportActivityStats();
+
+        // THEN
+        then(defaultTbApiUsageReportClient).should().report(tenantId, null, ApiUsageRecordKey.ACTIVE_DEVICES, 1);
+        then(defaultTbApiUsageReportClient).should().report(tenantId, null, ApiUsageRecordKey.INACTIVE_DEVICES, 0);
+
+        // WHEN
+        reset(defaultTbApiUsageReportClient);
+        service.cleanupEntityOnPartitionRemoval(deviceId);
+        service.reportActivityStats();
+
+        // THEN
+        then(defaultTbApiUsageReportClient).shouldHaveNoInteractions();
+        assertThat(service.activityStats.getTenantStats()).isEmpty();
+    }
+
+    @Test
+    public void givenDevicesOfSameCustomerAndType_whenToDeviceStateData_thenSharesCustomerIdAndDeviceType() {
+        // GIVEN
+        UUID customerUuid = UUID.randomUUID();
+        List<DeviceStateData> states = new ArrayList<>();
+
+        // WHEN
+        for (int i = 0; i < 2; i++) {
+            DeviceId id = new DeviceId(UUID.randomUUID());
+            EntityData ed = new EntityData(id, Map.of(EntityKeyType.ENTITY_FIELD,
+                    Map.of("type", new TsValue(0, new String("thermostat")))), null);
+            states.add(service.toDeviceStateData(ed, new DeviceIdInfo(tenantId.getId(), customerUuid, id.getId())));
+        }
+
+        // THEN
+        assertThat(states.get(0).getCustomerId()).isSameAs(states.get(1).getCustomerId());
+        assertThat(states.get(0).getMetaData().getValue("deviceType")).isEqualTo("thermostat")
+                .isSameAs(states.get(1).getMetaData().getValue("deviceType"));
+    }
+
     private void initStateService(long timeout) throws InterruptedException {
         service.stop();
         reset(service, telemetrySubscriptionService);
@@ -706,6 +812,9 @@ public class DefaultDeviceStateServiceTest {
     public void givenStateDataIsNull_whenUpdateActivityState_thenShouldCleanupDevice() {
         // GIVEN
         service.deviceStates.put(deviceId, deviceStateDataMock);
+        given(deviceStateDataMock.getTenantId()).willReturn(tenantId);
+        given(deviceStateDataMock.getState()).willReturn(DeviceState.builder().build());
+        given(deviceStateDataMock.getInactivityBucket()).willReturn(DeviceInactivityTimingWheel.NOT_SCHEDULED);
 
         // WHEN
         service.updateActivityState(deviceId, null, System.currentTimeMillis());
@@ -864,6 +973,9 @@ public class DefaultDeviceStateServiceTest {
     public void givenStateDataIsNull_whenUpdateInactivityTimeoutIfExpired_thenShouldCleanupDevice() {
         // GIVEN
         service.deviceStates.put(deviceId, deviceStateDataMock);
+        given(deviceStateDataMock.getTenantId()).willReturn(tenantId);
+        given(deviceStateDataMock.getState()).willReturn(DeviceState.builder().build());
+        given(deviceStateDataMock.getInactivityBucket()).willReturn(DeviceInactivityTimingWheel.NOT_SCHEDULED);
 
         // WHEN
         service.updateInactivityStateIfExpired(System.currentTimeMillis(), deviceId, null);
@@ -1034,9 +1146,15 @@ public class DefaultDeviceStateServiceTest {
 
     @Test
     public void givenConcurrentAccess_whenGetOrFetchDeviceStateData_thenFetchDeviceStateDataInvokedOnce() {
+        DeviceStateData fetchedStateData = DeviceStateData.builder()
+                .tenantId(tenantId)
+                .deviceId(deviceId)
+                .state(DeviceState.builder().build())
+                .metaData(new TbMsgMetaData())
+                .build();
         doAnswer(invocation -> {
             Thread.sleep(100);
-            return deviceStateDataMock;
+            return fetchedStateData;
         }).when(service).fetchDeviceStateDataUsingSeparateRequests(deviceId);
 
         int numberOfThreads = 10;
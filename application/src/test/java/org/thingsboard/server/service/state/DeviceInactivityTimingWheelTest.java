@@ -0,0 +1,156 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.service.state;
+
+import org.junit.jupiter.api.Test;
+import org.thingsboard.server.common.data.id.DeviceId;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class DeviceInactivityTimingWheelTest {
+
+    private final DeviceStateData device1 = newStateData();
+    private final DeviceStateData device2 = newStateData();
+
+    @Test
+    public void givenDeadlinesWithinSameTick_whenAdvance_thenOnlyExpiredDevicesAreReturned() {
+        DeviceInactivityTimingWheel wheel = new DeviceInactivityTimingWheel(1000, 8);
+        wheel.advance(10_000);
+        wheel.schedule(device1, 10_100);
+        wheel.schedule(device2, 10_900);
+
+        assertThat(wheel.advance(10_050)).isEmpty();
+        assertThat(wheel.advance(10_500)).containsExactly(device1);
+        assertThat(wheel.advance(11_000)).containsExactly(device2);
+        assertThat(wheel.size()).isZero();
+        assertThat(wheel.isScheduled(device1)).isFalse();
+    }
+
+    @Test
+    public void givenRescheduledDevice_whenAdvance_thenOnlyLatestDeadlineIsUsed() {
+        DeviceInactivityTimingWheel wheel = new DeviceInactivityTimingWheel(1000, 8);
+        wheel.advance(0);
+        wheel.schedule(device1, 2_000);
+        wheel.schedule(device1, 5_000);
+
+        assertThat(wheel.advance(3_000)).isEmpty();
+        assertThat(wheel.size()).isOne();
+        assertThat(wheel.isScheduled(device1)).isTrue();
+        assertThat(wheel.advance(5_000)).containsExactly(device1);
+        assertThat(wheel.advance(6_000)).isEmpty();
+    }
+
+    @Test
+    public void givenDeadlineAfterSeveralRotations_whenAdvance_thenDeviceExpiresInItsRotation() {
+        DeviceInactivityTimingWheel wheel = new DeviceInactivityTimingWheel(1000, 4);
+        wheel.advance(0);
+        wheel.schedule(device1, 10_500);
+
+        for (long ts = 1_000; ts <= 10_000; ts += 1_000) {
+            assertThat(wheel.advance(ts)).isEmpty();
+        }
+        assertThat(wheel.advance(10_500)).containsExactly(device1);
+    }
+
+    @Test
+    public void givenPastDeadlineAndElapsedTicks_whenAdvance_thenAllExpiredDevicesAreReturned() {
+        DeviceInactivityTimingWheel wheel = new DeviceInactivityTimingWheel(1000, 4);
+        wheel.advance(100_000);
+        wheel.schedule(device1, 50_000);
+        wheel.schedule(device2, 101_000);
+
+        assertThat(wheel.advance(200_000)).containsExactlyInAnyOrder(device1, device2);
+    }
+
+    @Test
+    public void givenCancelledDevice_whenAdvance_thenDeviceIsNotReturned() {
+        DeviceInactivityTimingWheel wheel = new DeviceInactivityTimingWheel(1000, 8);
+        wheel.schedule(device1, 1_000);
+        wheel.schedule(device2, 1_000);
+        wheel.cancel(device1);
+
+        assertThat(wheel.isScheduled(device1)).isFalse();
+        assertThat(wheel.advance(2_000)).containsExactly(device2);
+    }
+
+    @Test
+    public void givenReplacedStateOfSameDevice_whenAdvance_thenOnlyLatestStateIsReturned() {
+        DeviceInactivityTimingWheel wheel = new DeviceInactivityTimingWheel(1000, 8);
+        DeviceStateData replaced = DeviceStateData.builder().deviceId(device1.getDeviceId()).build();
+        wheel.schedule(replaced, 1_000);
+        wheel.schedule(device1, 1_000);
+
+        assertThat(wheel.isScheduled(replaced)).isFalse();
+        assertThat(wheel.advance(2_000)).containsExactly(device1);
+    }
+
+    @Test
+    public void givenConcurrentSchedulesAndAdvances_whenAdvance_thenEachDeviceExpiresOnce() throws Exception {
+        DeviceInactivityTimingWheel wheel = new DeviceInactivityTimingWheel(1, 16);
+        int threads = 4;
+        int devicesPerThread = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch started = new CountDownLatch(threads);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    started.countDown();
+                    for (int j = 0; j < devicesPerThread; j++) {
+                        // the deadlines are in the past of the concurrent advances
+                        wheel.schedule(newStateData(), j);
+                    }
+                }));
+            }
+            started.await();
+            List<DeviceStateData> expired = new ArrayList<>();
+            long ts = 0;
+            while (!futures.stream().allMatch(Future::isDone)) {
+                expired.addAll(wheel.advance(++ts));
+            }
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+            // the devices scheduled after the last advance are in the buckets visited by the next one
+            expired.addAll(wheel.advance(Math.max(ts, devicesPerThread)));
+
+            assertThat(expired).hasSize(threads * devicesPerThread).doesNotHaveDuplicates();
+            assertThat(wheel.size()).isZero();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void givenWheelSizeIsNotPowerOfTwo_whenCreate_thenExceptionIsThrown() {
+        assertThatThrownBy(() -> new DeviceInactivityTimingWheel(1000, 10)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static DeviceStateData newStateData() {
+        return DeviceStateData.builder().deviceId(new DeviceId(UUID.randomUUID())).build();
+    }
+
+}
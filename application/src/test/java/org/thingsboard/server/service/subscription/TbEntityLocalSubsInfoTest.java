@@ -160,6 +160,50 @@ public class TbEntityLocalSubsInfoTest {
         assertTrue(subsInfo.isEmpty());
     }
 
+    @Test
+    public void keyIndexTest() {
+        TbEntityLocalSubsInfo subsInfo = createSubsInfo();
+        TenantId tenantId = subsInfo.getTenantId();
+        EntityId entityId = subsInfo.getEntityId();
+        TbTimeSeriesSubscription tsSubscription1 = TbTimeSeriesSubscription.builder()
+                .sessionId("session1")
+                .tenantId(tenantId)
+                .entityId(entityId)
+                .keyStates(Map.of("key1", 1L, "key2", 2L))
+                .build();
+        TbTimeSeriesSubscription tsSubscription2 = TbTimeSeriesSubscription.builder()
+                .sessionId("session2")
+                .tenantId(tenantId)
+                .entityId(entityId)
+                .keyStates(Map.of("key2", 2L))
+                .build();
+        TbTimeSeriesSubscription allKeysSubscription = TbTimeSeriesSubscription.builder()
+                .sessionId("session3")
+                .tenantId(tenantId)
+                .entityId(entityId)
+                .allKeys(true)
+                .keyStates(Map.of())
+                .build();
+
+        subsInfo.add(tsSubscription1);
+        subsInfo.add(tsSubscription2);
+        subsInfo.add(allKeysSubscription);
+
+        TbSubscriptionKeyIndex<TbTimeSeriesSubscription> index = subsInfo.getTsSubsIndex();
+        assertEquals(Set.of(tsSubscription1), index.getSubs("key1"));
+        assertEquals(Set.of(tsSubscription1, tsSubscription2), index.getSubs("key2"));
+        assertEquals(Set.of(allKeysSubscription), index.getAllKeysSubs());
+        assertTrue(index.getSubs("key3").isEmpty());
+        assertTrue(subsInfo.getAttrSubsIndex().isEmpty());
+
+        subsInfo.remove(tsSubscription1);
+        assertTrue(index.getSubs("key1").isEmpty());
+        assertEquals(Set.of(tsSubscription2), index.getSubs("key2"));
+
+        subsInfo.removeAll(List.of(tsSubscription2, allKeysSubscription));
+        assertTrue(index.isEmpty());
+    }
+
     private TbEntityLocalSubsInfo createSubsInfo() {
         return new TbEntityLocalSubsInfo(new TenantId(UUID.randomUUID()), new DeviceId(UUID.randomUUID()));
     }
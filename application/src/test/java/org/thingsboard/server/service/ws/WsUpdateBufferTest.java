@@ -0,0 +1,125 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.service.ws;
+
+import org.junit.jupiter.api.Test;
+import org.thingsboard.server.common.data.id.DeviceId;
+import org.thingsboard.server.common.data.kv.BasicTsKvEntry;
+import org.thingsboard.server.common.data.kv.LongDataEntry;
+import org.thingsboard.server.common.data.query.EntityData;
+import org.thingsboard.server.common.data.query.EntityKeyType;
+import org.thingsboard.server.common.data.query.TsValue;
+import org.thingsboard.server.service.subscription.SubscriptionErrorCode;
+import org.thingsboard.server.service.ws.telemetry.cmd.v2.EntityDataUpdate;
+import org.thingsboard.server.service.ws.telemetry.sub.TelemetrySubscriptionUpdate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class WsUpdateBufferTest {
+
+    @Test
+    public void testLatestValuesAreReplaced() {
+        WsUpdateBuffer buffer = new WsUpdateBuffer();
+        assertThat(buffer.add(1, tsUpdate(1, "temperature", 100L, 20L), true, 1000L)).isTrue();
+        assertThat(buffer.add(1, tsUpdate(1, "temperature", 200L, 21L), true, 1010L)).isFalse();
+        assertThat(buffer.add(1, tsUpdate(1, "humidity", 150L, 50L), true, 1020L)).isFalse();
+        // out of order update must not override the newer value
+        assertThat(buffer.add(1, tsUpdate(1, "temperature", 50L, 19L), true, 1030L)).isFalse();
+
+        WsUpdateBuffer.Flush flush = buffer.drain();
+        assertThat(flush.firstUpdateTs()).isEqualTo(1000L);
+        assertThat(flush.mergedCount()).isEqualTo(3);
+        assertThat(flush.updates()).hasSize(1);
+        TelemetrySubscriptionUpdate update = (TelemetrySubscriptionUpdate) flush.updates().get(0).getValue();
+        assertThat(update.getLatestValues()).isEqualTo(Map.of("temperature", 200L, "humidity", 150L));
+        assertThat(update.getData().get("temperature")).hasSize(1);
+
+        assertThat(buffer.drain().updates()).isEmpty();
+        assertThat(buffer.add(1, tsUpdate(1, "temperature", 300L, 22L), true, 2000L)).isTrue();
+    }
+
+    @Test
+    public void testTimeseriesValuesAreAppended() {
+        WsUpdateBuffer buffer = new WsUpdateBuffer();
+        TelemetrySubscriptionUpdate first = tsUpdate(1, "temperature", 100L, 20L);
+        buffer.add(1, first, false, 1000L);
+        buffer.add(1, tsUpdate(1, "temperature", 200L, 21L), false, 1010L);
+        buffer.add(2, tsUpdate(2, "temperature", 200L, 21L), false, 1020L);
+
+        WsUpdateBuffer.Flush flush = buffer.drain();
+        assertThat(flush.updates()).extracting(Map.Entry::getKey).containsExactly(1, 2);
+        TelemetrySubscriptionUpdate update = (TelemetrySubscriptionUpdate) flush.updates().get(0).getValue();
+        assertThat(update.getData().get("temperature")).extracting(value -> ((Object[]) value)[0]).containsExactly(100L, 200L);
+        assertThat(first.getData().get("temperature")).hasSize(1);
+    }
+
+    @Test
+    public void testEntityDataUpdatesAreMerged() {
+        DeviceId deviceId = new DeviceId(UUID.randomUUID());
+        WsUpdateBuffer buffer = new WsUpdateBuffer();
+        buffer.add(1, entityDataUpdate(new EntityData(deviceId,
+                Map.of(EntityKeyType.TIME_SERIES, Map.of("temperature", new TsValue(100L, "20"), "humidity", new TsValue(100L, "50"))),
+                Map.of("power", new TsValue[]{new TsValue(100L, "1")}))), false, 1000L);
+        buffer.add(1, entityDataUpdate(new EntityData(deviceId,
+                Map.of(EntityKeyType.TIME_SERIES, Map.of("temperature", new TsValue(200L, "21"))),
+                Map.of("power", new TsValue[]{new TsValue(200L, "2")}))), false, 1010L);
+
+        EntityDataUpdate update = (EntityDataUpdate) buffer.drain().updates().get(0).getValue();
+        assertThat(update.getUpdate()).hasSize(1);
+        EntityData entityData = update.getUpdate().get(0);
+        assertThat(entityData.getLatest().get(EntityKeyType.TIME_SERIES)).isEqualTo(Map.of(
+                "temperature", new TsValue(200L, "21"), "humidity", new TsValue(100L, "50")));
+        assertThat(entityData.getTimeseries().get("power")).extracting(TsValue::getTs).containsExactly(100L, 200L);
+    }
+
+    @Test
+    public void testUpdatesOfDifferentTypesWithSameCmdIdAreNotMerged() {
+        DeviceId deviceId = new DeviceId(UUID.randomUUID());
+        WsUpdateBuffer buffer = new WsUpdateBuffer();
+        TelemetrySubscriptionUpdate tsUpdate = tsUpdate(1, "temperature", 100L, 20L);
+        EntityDataUpdate dataUpdate = entityDataUpdate(new EntityData(deviceId,
+                Map.of(EntityKeyType.TIME_SERIES, Map.of("temperature", new TsValue(100L, "20"))), null));
+        buffer.add(1, tsUpdate, false, 1000L);
+        buffer.add(1, dataUpdate, false, 1010L);
+
+        assertThat(buffer.remove(1, tsUpdate)).isSameAs(tsUpdate);
+        buffer.add(1, tsUpdate, false, 1020L);
+        WsUpdateBuffer.Flush flush = buffer.drain();
+        assertThat(flush.updates()).extracting(Map.Entry::getKey).containsExactly(1, 1);
+        assertThat(flush.updates()).extracting(Map.Entry::getValue).containsExactly(dataUpdate, tsUpdate);
+        assertThat(flush.mergedCount()).isZero();
+    }
+
+    @Test
+    public void testErrorsAreNotMergeable() {
+        assertThat(WsUpdateBuffer.isMergeable(tsUpdate(1, "temperature", 100L, 20L))).isTrue();
+        assertThat(WsUpdateBuffer.isMergeable(new TelemetrySubscriptionUpdate(1, SubscriptionErrorCode.UNAUTHORIZED))).isFalse();
+        assertThat(WsUpdateBuffer.isMergeable(new EntityDataUpdate(1, SubscriptionErrorCode.BAD_REQUEST.getCode(), "error"))).isFalse();
+    }
+
+    private static TelemetrySubscriptionUpdate tsUpdate(int subscriptionId, String key, long ts, long value) {
+        return new TelemetrySubscriptionUpdate(subscriptionId, List.of(new BasicTsKvEntry(ts, new LongDataEntry(key, value))));
+    }
+
+    private static EntityDataUpdate entityDataUpdate(EntityData entityData) {
+        return new EntityDataUpdate(1, null, List.of(entityData), 0L);
+    }
+
+}
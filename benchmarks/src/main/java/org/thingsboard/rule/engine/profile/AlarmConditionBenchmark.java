@@ -0,0 +1,190 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.rule.engine.profile;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.thingsboard.server.common.data.device.profile.AlarmCondition;
+import org.thingsboard.server.common.data.device.profile.AlarmConditionFilter;
+import org.thingsboard.server.common.data.device.profile.AlarmConditionFilterKey;
+import org.thingsboard.server.common.data.device.profile.AlarmConditionKeyType;
+import org.thingsboard.server.common.data.query.BooleanFilterPredicate;
+import org.thingsboard.server.common.data.query.ComplexFilterPredicate;
+import org.thingsboard.server.common.data.query.EntityKeyValueType;
+import org.thingsboard.server.common.data.query.FilterPredicateValue;
+import org.thingsboard.server.common.data.query.KeyFilterPredicate;
+import org.thingsboard.server.common.data.query.NumericFilterPredicate;
+import org.thingsboard.server.common.data.query.StringFilterPredicate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.thingsboard.server.common.data.StringUtils.equalsAny;
+import static org.thingsboard.server.common.data.StringUtils.splitByCommaWithoutQuotes;
+
+/**
+ * Evaluation of an alarm condition compiled by {@link AlarmConditionEvaluator} compared to the interpretation of the filters,
+ * the way the conditions were evaluated before they were compiled. The expensive string filter goes first in the condition
+ * and the last numeric filter is false, so the compiled condition benefits from the ordering of the filters.
+ * Placed in the package of the device profile rule node to access the package-private alarm rules state.
+ * */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AlarmConditionBenchmark {
+
+    @Param({"4", "16"})
+    private int filters;
+
+    private AlarmCondition condition;
+    private AlarmConditionEvaluator evaluator;
+    private DataSnapshot data;
+
+    @Setup
+    public void setup() {
+        List<AlarmConditionFilter> conditionFilters = new ArrayList<>();
+        Set<AlarmConditionFilterKey> keys = new HashSet<>();
+        data = new DataSnapshot(keys);
+
+        AlarmConditionFilterKey stateKey = new AlarmConditionFilterKey(AlarmConditionKeyType.ATTRIBUTE, "state");
+        StringFilterPredicate state = new StringFilterPredicate();
+        state.setOperation(StringFilterPredicate.StringOperation.IN);
+        state.setIgnoreCase(true);
+        state.setValue(new FilterPredicateValue<>("active, running, \"stand by\""));
+        conditionFilters.add(filter(stateKey, EntityKeyValueType.STRING, state));
+        keys.add(stateKey);
+
+        AlarmConditionFilterKey enabledKey = new AlarmConditionFilterKey(AlarmConditionKeyType.ATTRIBUTE, "enabled");
+        BooleanFilterPredicate enabled = new BooleanFilterPredicate();
+        enabled.setOperation(BooleanFilterPredicate.BooleanOperation.EQUAL);
+        enabled.setValue(new FilterPredicateValue<>(true));
+        conditionFilters.add(filter(enabledKey, EntityKeyValueType.BOOLEAN, enabled));
+        keys.add(enabledKey);
+
+        for (int i = 0; i < filters - 2; i++) {
+            AlarmConditionFilterKey key = new AlarmConditionFilterKey(AlarmConditionKeyType.TIME_SERIES, "temperature" + i);
+            NumericFilterPredicate greater = new NumericFilterPredicate();
+            greater.setOperation(NumericFilterPredicate.NumericOperation.GREATER);
+            greater.setValue(new FilterPredicateValue<>(20.0));
+            NumericFilterPredicate less = new NumericFilterPredicate();
+            less.setOperation(NumericFilterPredicate.NumericOperation.LESS);
+            less.setValue(new FilterPredicateValue<>(80.0));
+            ComplexFilterPredicate range = new ComplexFilterPredicate();
+            range.setOperation(ComplexFilterPredicate.ComplexOperation.AND);
+            range.setPredicates(List.of(greater, less));
+            conditionFilters.add(filter(key, EntityKeyValueType.NUMERIC, range));
+            keys.add(key);
+        }
+
+        condition = new AlarmCondition();
+        condition.setCondition(conditionFilters);
+        evaluator = AlarmConditionEvaluator.compile(condition);
+
+        data.putValue(stateKey, 1L, EntityKeyValue.fromString("Running"));
+        data.putValue(enabledKey, 1L, EntityKeyValue.fromBool(true));
+        for (int i = 0; i < filters - 2; i++) {
+            long value = i == filters - 3 ? 100 : 50;
+            data.putValue(new AlarmConditionFilterKey(AlarmConditionKeyType.TIME_SERIES, "temperature" + i), 1L, EntityKeyValue.fromLong(value));
+        }
+    }
+
+    @Benchmark
+    public boolean compiled() {
+        return evaluator.eval(data, null);
+    }
+
+    @Benchmark
+    public boolean interpreted() {
+        boolean eval = true;
+        for (AlarmConditionFilter filter : condition.getCondition()) {
+            EntityKeyValue value = data.getValue(filter.getKey());
+            if (value == null) {
+                return false;
+            }
+            eval = eval && eval(value, filter.getPredicate());
+        }
+        return eval;
+    }
+
+    private static AlarmConditionFilter filter(AlarmConditionFilterKey key, EntityKeyValueType valueType, KeyFilterPredicate predicate) {
+        AlarmConditionFilter filter = new AlarmConditionFilter();
+        filter.setKey(key);
+        filter.setValueType(valueType);
+        filter.setPredicate(predicate);
+        return filter;
+    }
+
+    private static boolean eval(EntityKeyValue value, KeyFilterPredicate predicate) {
+        switch (predicate.getType()) {
+            case STRING:
+                StringFilterPredicate strPredicate = (StringFilterPredicate) predicate;
+                String val = AlarmRuleState.getStrValue(value);
+                String predicateValue = strPredicate.getValue().getDefaultValue();
+                if (val == null || predicateValue == null) {
+                    return false;
+                }
+                if (strPredicate.isIgnoreCase()) {
+                    val = val.toLowerCase();
+                    predicateValue = predicateValue.toLowerCase();
+                }
+                return equalsAny(val, splitByCommaWithoutQuotes(predicateValue));
+            case NUMERIC:
+                NumericFilterPredicate numPredicate = (NumericFilterPredicate) predicate;
+                Double dblValue = AlarmRuleState.getDblValue(value);
+                Double dblPredicateValue = numPredicate.getValue().getDefaultValue();
+                if (dblValue == null || dblPredicateValue == null) {
+                    return false;
+                }
+                switch (numPredicate.getOperation()) {
+                    case GREATER:
+                        return dblValue > dblPredicateValue;
+                    case LESS:
+                        return dblValue < dblPredicateValue;
+                    default:
+                        return dblValue.equals(dblPredicateValue);
+                }
+            case BOOLEAN:
+                Boolean boolValue = AlarmRuleState.getBoolValue(value);
+                Boolean boolPredicateValue = ((BooleanFilterPredicate) predicate).getValue().getDefaultValue();
+                return boolValue != null && boolValue.equals(boolPredicateValue);
+            case COMPLEX:
+                for (KeyFilterPredicate child : ((ComplexFilterPredicate) predicate).getPredicates()) {
+                    if (!eval(value, child)) {
+                        return false;
+                    }
+                }
+                return true;
+            default:
+                return false;
+        }
+    }
+
+}
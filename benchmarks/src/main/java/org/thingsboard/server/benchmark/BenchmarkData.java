@@ -0,0 +1,61 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.benchmark;
+
+/**
+ * Deterministic payloads shared by the benchmark suites.
+ * */
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Flat telemetry object with the given number of keys, a mix of numeric, boolean and string values.
+     */
+    static String telemetryJson(int keys) {
+        StringBuilder sb = new StringBuilder("{");
+        for (int i = 0; i < keys; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append("\"key").append(i).append("\":");
+            switch (i % 4) {
+                case 0 -> sb.append(i);
+                case 1 -> sb.append(i + 0.5);
+                case 2 -> sb.append(i % 8 == 2);
+                default -> sb.append("\"value").append(i).append('"');
+            }
+        }
+        return sb.append('}').toString();
+    }
+
+    /**
+     * Array of timestamped telemetry objects, the way devices push historical values.
+     */
+    static String telemetryWithTsJson(int keys, int points) {
+        StringBuilder sb = new StringBuilder("[");
+        long ts = 1_700_000_000_000L;
+        for (int i = 0; i < points; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append("{\"ts\":").append(ts + i * 1000L).append(",\"values\":").append(telemetryJson(keys)).append('}');
+        }
+        return sb.append(']').toString();
+    }
+
+}
@@ -0,0 +1,166 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.thingsboard.server.common.data.EntityType;
+import org.thingsboard.server.common.data.edqs.Entity;
+import org.thingsboard.server.common.data.edqs.LatestTsKv;
+import org.thingsboard.server.common.data.edqs.fields.DeviceFields;
+import org.thingsboard.server.common.data.edqs.query.QueryResult;
+import org.thingsboard.server.common.data.id.DeviceId;
+import org.thingsboard.server.common.data.id.TenantId;
+import org.thingsboard.server.common.data.page.PageData;
+import org.thingsboard.server.common.data.query.DeviceTypeFilter;
+import org.thingsboard.server.common.data.query.EntityCountQuery;
+import org.thingsboard.server.common.data.query.EntityDataPageLink;
+import org.thingsboard.server.common.data.query.EntityDataQuery;
+import org.thingsboard.server.common.data.query.EntityDataSortOrder;
+import org.thingsboard.server.common.data.query.EntityKey;
+import org.thingsboard.server.common.data.query.EntityKeyType;
+import org.thingsboard.server.common.stats.DummyEdqsStatsService;
+import org.thingsboard.server.edqs.data.dp.DoubleDataPoint;
+import org.thingsboard.server.edqs.data.dp.LongDataPoint;
+import org.thingsboard.server.edqs.data.ts.LatestValuesStorageSettings;
+import org.thingsboard.server.edqs.data.ts.LatestValuesStorageType;
+import org.thingsboard.server.edqs.query.EdqsQueryExecutor;
+import org.thingsboard.server.edqs.repo.TenantRepo;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity data and count queries against an in-memory EDQS {@link TenantRepo} filled with devices and their latest telemetry.
+ * Setup prints the memory taken per device for the selected latest values storage.
+ * */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EdqsTenantRepoBenchmark {
+
+    private static final String TEMPERATURE = "temperature";
+    private static final int EXTRA_KEYS = 20;
+
+    @Param({"10000", "100000"})
+    private int devices;
+
+    @Param({"MAP", "COLUMNAR", "COLUMNAR_OFF_HEAP"})
+    private String storage;
+
+    @Param({"1", "4"})
+    private int queryParallelism;
+
+    private EdqsQueryExecutor queryExecutor;
+    private TenantRepo repo;
+    private EntityDataQuery sortByNameQuery;
+    private EntityDataQuery sortByTelemetryQuery;
+    private EntityDataQuery textSearchQuery;
+    private EntityCountQuery countQuery;
+
+    @Setup
+    public void setup() {
+        TenantId tenantId = TenantId.fromUUID(UUID.randomUUID());
+        LatestValuesStorageSettings storageSettings = new LatestValuesStorageSettings(
+                storage.equals("MAP") ? LatestValuesStorageType.MAP : LatestValuesStorageType.COLUMNAR, storage.equals("COLUMNAR_OFF_HEAP"), 4096);
+        long heapBefore = usedHeap();
+        DummyEdqsStatsService statsService = new DummyEdqsStatsService();
+        queryExecutor = EdqsQueryExecutor.create(queryParallelism, 10000, 4096, 0, statsService);
+        repo = new TenantRepo(tenantId, statsService, storageSettings, queryExecutor);
+        UUID thermostatProfileId = UUID.randomUUID();
+        UUID sensorProfileId = UUID.randomUUID();
+        long ts = System.currentTimeMillis();
+        for (int i = 0; i < devices; i++) {
+            boolean thermostat = i % 2 == 0;
+            DeviceId deviceId = new DeviceId(UUID.randomUUID());
+            DeviceFields fields = new DeviceFields(deviceId.getId(), ts - i, tenantId.getId(), null, "Device " + i, 1L,
+                    thermostat ? "thermostat" : "sensor", "Label " + i, thermostat ? thermostatProfileId : sensorProfileId, null);
+            repo.addOrUpdate(new Entity(EntityType.DEVICE, fields));
+            LatestTsKv latestTsKv = new LatestTsKv(deviceId, TEMPERATURE, 1L);
+            latestTsKv.setDataPoint(new DoubleDataPoint(ts, i % 500 / 10.0));
+            repo.addOrUpdate(latestTsKv);
+            for (int k = 0; k < EXTRA_KEYS; k++) {
+                LatestTsKv extraKv = new LatestTsKv(deviceId, "key" + k, 1L);
+                extraKv.setDataPoint(new LongDataPoint(ts, i + k));
+                repo.addOrUpdate(extraKv);
+            }
+        }
+        long heapPerDevice = (usedHeap() - heapBefore) / devices;
+        long offHeapPerDevice = repo.getLatestValuesStore() != null && repo.getLatestValuesStore().isOffHeap() ?
+                repo.getLatestValuesStore().getColumnsSizeInBytes() / devices : 0;
+        System.out.printf("%n%s storage, %d devices with %d latest values each: %d bytes of heap and %d bytes off-heap per device%n",
+                storage, devices, EXTRA_KEYS + 1, heapPerDevice, offHeapPerDevice);
+
+        DeviceTypeFilter filter = new DeviceTypeFilter(List.of("thermostat"), null);
+        List<EntityKey> entityFields = List.of(new EntityKey(EntityKeyType.ENTITY_FIELD, "name"), new EntityKey(EntityKeyType.ENTITY_FIELD, "label"));
+        List<EntityKey> latestValues = List.of(new EntityKey(EntityKeyType.TIME_SERIES, TEMPERATURE));
+        EntityDataSortOrder byName = new EntityDataSortOrder(new EntityKey(EntityKeyType.ENTITY_FIELD, "name"), EntityDataSortOrder.Direction.ASC);
+        EntityDataSortOrder byTelemetry = new EntityDataSortOrder(new EntityKey(EntityKeyType.TIME_SERIES, TEMPERATURE), EntityDataSortOrder.Direction.DESC);
+        sortByNameQuery = new EntityDataQuery(filter, new EntityDataPageLink(20, 0, null, byName), entityFields, latestValues, Collections.emptyList());
+        sortByTelemetryQuery = new EntityDataQuery(filter, new EntityDataPageLink(20, 0, null, byTelemetry), entityFields, latestValues, Collections.emptyList());
+        textSearchQuery = new EntityDataQuery(filter, new EntityDataPageLink(20, 0, "Device 12", byName), entityFields, latestValues, Collections.emptyList());
+        countQuery = new EntityCountQuery(filter);
+    }
+
+    @TearDown
+    public void tearDown() {
+        queryExecutor.shutdown();
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    @Benchmark
+    public PageData<QueryResult> findSortedByName() {
+        return repo.findEntityDataByQuery(null, sortByNameQuery, false);
+    }
+
+    @Benchmark
+    public PageData<QueryResult> findSortedByTelemetry() {
+        return repo.findEntityDataByQuery(null, sortByTelemetryQuery, false);
+    }
+
+    @Benchmark
+    public PageData<QueryResult> findWithTextSearch() {
+        return repo.findEntityDataByQuery(null, textSearchQuery, false);
+    }
+
+    @Benchmark
+    public long count() {
+        return repo.countEntitiesByQuery(null, countQuery, false);
+    }
+
+}
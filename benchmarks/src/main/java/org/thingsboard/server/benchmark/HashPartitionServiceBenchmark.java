@@ -0,0 +1,181 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thingsboard.server.common.data.DataConstants;
+import org.thingsboard.server.common.data.id.DeviceId;
+import org.thingsboard.server.common.data.id.QueueId;
+import org.thingsboard.server.common.data.id.TenantId;
+import org.thingsboard.server.common.data.id.TenantProfileId;
+import org.thingsboard.server.common.data.queue.Queue;
+import org.thingsboard.server.common.msg.queue.ServiceType;
+import org.thingsboard.server.common.msg.queue.TopicPartitionInfo;
+import org.thingsboard.server.gen.transport.TransportProtos.ServiceInfo;
+import org.thingsboard.server.queue.discovery.HashPartitionService;
+import org.thingsboard.server.queue.discovery.QueueRoutingInfo;
+import org.thingsboard.server.queue.discovery.TbServiceInfoProvider;
+import org.thingsboard.server.queue.discovery.TenantRoutingInfo;
+import org.thingsboard.server.queue.discovery.TopicService;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HashPartitionServiceBenchmark {
+
+    private static final int ENTITIES = 4096;
+    private static final int TENANTS = 64;
+
+    @Param({"1", "5"})
+    private int servers;
+
+    @Param({"murmur3_128", "sha256"})
+    private String hashFunctionName;
+
+    private HashPartitionService partitionService;
+    private TenantId[] tenantIds;
+    private DeviceId[] deviceIds;
+    private int idx;
+
+    @Setup
+    public void setup() {
+        ServiceInfo currentService = serviceInfo("tb-node-0");
+        List<ServiceInfo> otherServices = new ArrayList<>();
+        for (int i = 1; i < servers; i++) {
+            otherServices.add(serviceInfo("tb-node-" + i));
+        }
+
+        Queue mainQueue = new Queue(new QueueId(UUID.randomUUID()));
+        mainQueue.setTenantId(TenantId.SYS_TENANT_ID);
+        mainQueue.setName(DataConstants.MAIN_QUEUE_NAME);
+        mainQueue.setTopic(DataConstants.MAIN_QUEUE_TOPIC);
+        mainQueue.setPartitions(10);
+        List<QueueRoutingInfo> queues = List.of(new QueueRoutingInfo(mainQueue));
+        TenantProfileId tenantProfileId = new TenantProfileId(UUID.randomUUID());
+
+        TopicService topicService = new TopicService();
+        ReflectionTestUtils.setField(topicService, "prefix", "");
+        partitionService = new HashPartitionService(new StubServiceInfoProvider(currentService),
+                tenantId -> new TenantRoutingInfo(tenantId, tenantProfileId, false),
+                event -> {},
+                () -> queues,
+                topicService);
+        ReflectionTestUtils.setField(partitionService, "coreTopic", "tb_core");
+        ReflectionTestUtils.setField(partitionService, "corePartitions", 10);
+        ReflectionTestUtils.setField(partitionService, "cfEventTopic", "tb_cf_event");
+        ReflectionTestUtils.setField(partitionService, "cfStateTopic", "tb_cf_state");
+        ReflectionTestUtils.setField(partitionService, "vcTopic", "tb_version_control");
+        ReflectionTestUtils.setField(partitionService, "vcPartitions", 10);
+        ReflectionTestUtils.setField(partitionService, "hashFunctionName", hashFunctionName);
+        ReflectionTestUtils.setField(partitionService, "edgeTopic", "tb_edge");
+        ReflectionTestUtils.setField(partitionService, "edgePartitions", 10);
+        ReflectionTestUtils.setField(partitionService, "edqsPartitions", 12);
+        partitionService.init();
+        partitionService.partitionsInit();
+        partitionService.recalculatePartitions(currentService, otherServices);
+
+        tenantIds = new TenantId[TENANTS];
+        for (int i = 0; i < TENANTS; i++) {
+            tenantIds[i] = TenantId.fromUUID(UUID.randomUUID());
+        }
+        deviceIds = new DeviceId[ENTITIES];
+        for (int i = 0; i < ENTITIES; i++) {
+            deviceIds[i] = new DeviceId(UUID.randomUUID());
+        }
+    }
+
+    @Benchmark
+    public TopicPartitionInfo resolveCore() {
+        int i = nextIdx();
+        return partitionService.resolve(ServiceType.TB_CORE, tenantIds[i % TENANTS], deviceIds[i]);
+    }
+
+    @Benchmark
+    public TopicPartitionInfo resolveRuleEngine() {
+        int i = nextIdx();
+        return partitionService.resolve(ServiceType.TB_RULE_ENGINE, DataConstants.MAIN_QUEUE_NAME, tenantIds[i % TENANTS], deviceIds[i]);
+    }
+
+    private int nextIdx() {
+        int i = idx;
+        idx = (i + 1) % ENTITIES;
+        return i;
+    }
+
+    private static ServiceInfo serviceInfo(String serviceId) {
+        return ServiceInfo.newBuilder()
+                .setServiceId(serviceId)
+                .addServiceTypes(ServiceType.TB_CORE.name())
+                .addServiceTypes(ServiceType.TB_RULE_ENGINE.name())
+                .build();
+    }
+
+    private record StubServiceInfoProvider(ServiceInfo serviceInfo) implements TbServiceInfoProvider {
+
+        @Override
+        public String getServiceId() {
+            return serviceInfo.getServiceId();
+        }
+
+        @Override
+        public String getServiceType() {
+            return "monolith";
+        }
+
+        @Override
+        public ServiceInfo getServiceInfo() {
+            return serviceInfo;
+        }
+
+        @Override
+        public boolean isService(ServiceType serviceType) {
+            return serviceType == ServiceType.TB_CORE || serviceType == ServiceType.TB_RULE_ENGINE;
+        }
+
+        @Override
+        public ServiceInfo generateNewServiceInfoWithCurrentSystemInfo() {
+            return serviceInfo;
+        }
+
+        @Override
+        public Set<UUID> getAssignedTenantProfiles() {
+            return Collections.emptySet();
+        }
+
+    }
+
+}
@@ -0,0 +1,118 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.benchmark;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thingsboard.server.common.data.id.AssetId;
+import org.thingsboard.server.common.data.id.TenantId;
+import org.thingsboard.server.common.data.kv.BasicTsKvEntry;
+import org.thingsboard.server.common.data.kv.LongDataEntry;
+import org.thingsboard.server.common.data.kv.TsKvEntry;
+import org.thingsboard.server.common.msg.queue.TbCallback;
+import org.thingsboard.server.service.subscription.DefaultTbLocalSubscriptionService;
+import org.thingsboard.server.service.subscription.TbEntityLocalSubsInfo;
+import org.thingsboard.server.service.subscription.TbTimeSeriesSubscription;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of forwarding a single time series update of a shared entity to the local subscriptions,
+ * where each subscription watches a few keys out of many and a small share of subscriptions watches all keys.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LocalSubscriptionFanOutBenchmark {
+
+    private static final int KEYS = 1000;
+    private static final int KEYS_PER_SUBSCRIPTION = 3;
+    private static final int ALL_KEYS_SUBSCRIPTION_EACH = 1000;
+
+    @Param({"1000", "10000"})
+    private int subscriptions;
+
+    private DefaultTbLocalSubscriptionService subscriptionService;
+    private AssetId assetId;
+    private long ts;
+    private int keyIdx;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        subscriptionService = new DefaultTbLocalSubscriptionService(null, null, null, null, null, null, null, null);
+        ReflectionTestUtils.setField(subscriptionService, "subscriptionUpdateExecutor", MoreExecutors.newDirectExecutorService());
+
+        TenantId tenantId = TenantId.fromUUID(UUID.randomUUID());
+        assetId = new AssetId(UUID.randomUUID());
+        TbEntityLocalSubsInfo subsInfo = new TbEntityLocalSubsInfo(tenantId, assetId);
+        for (int i = 0; i < subscriptions; i++) {
+            boolean allKeys = i % ALL_KEYS_SUBSCRIPTION_EACH == 0;
+            Map<String, Long> keyStates = new ConcurrentHashMap<>();
+            if (!allKeys) {
+                for (int k = 0; k < KEYS_PER_SUBSCRIPTION; k++) {
+                    keyStates.put("key" + ((i + k * 7) % KEYS), 0L);
+                }
+            }
+            subsInfo.add(TbTimeSeriesSubscription.builder()
+                    .sessionId(UUID.randomUUID().toString())
+                    .subscriptionId(i)
+                    .tenantId(tenantId)
+                    .entityId(assetId)
+                    .allKeys(allKeys)
+                    .keyStates(keyStates)
+                    .latestValues(true)
+                    .updateProcessor((sub, update) -> {})
+                    .build());
+        }
+        var subscriptionsByEntityId = (ConcurrentMap<UUID, TbEntityLocalSubsInfo>) ReflectionTestUtils.getField(subscriptionService, "subscriptionsByEntityId");
+        subscriptionsByEntityId.put(assetId.getId(), subsInfo);
+    }
+
+    @Benchmark
+    public void onTimeSeriesUpdate(Blackhole bh) {
+        List<TsKvEntry> data = List.of(new BasicTsKvEntry(++ts, new LongDataEntry("key" + nextKeyIdx(), ts)));
+        subscriptionService.onTimeSeriesUpdate(assetId, data, TbCallback.EMPTY);
+        bh.consume(data);
+    }
+
+    private int nextKeyIdx() {
+        int i = keyIdx;
+        keyIdx = (i + 1) % KEYS;
+        return i;
+    }
+
+}
@@ -0,0 +1,116 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.thingsboard.common.util.JacksonUtil;
+import org.thingsboard.server.common.data.Device;
+import org.thingsboard.server.common.data.id.CustomerId;
+import org.thingsboard.server.common.data.id.DeviceId;
+import org.thingsboard.server.common.data.id.DeviceProfileId;
+import org.thingsboard.server.common.data.id.TenantId;
+import org.thingsboard.server.common.data.kv.BasicTsKvEntry;
+import org.thingsboard.server.common.data.kv.BooleanDataEntry;
+import org.thingsboard.server.common.data.kv.DoubleDataEntry;
+import org.thingsboard.server.common.data.kv.LongDataEntry;
+import org.thingsboard.server.common.data.kv.StringDataEntry;
+import org.thingsboard.server.common.data.kv.TsKvEntry;
+import org.thingsboard.server.common.util.ProtoUtils;
+import org.thingsboard.server.gen.transport.TransportProtos;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProtoUtilsBenchmark {
+
+    private static final int TS_KV_ENTRIES = 32;
+
+    private List<TsKvEntry> tsKvEntries;
+    private List<TransportProtos.TsKvProto> tsKvProtos;
+    private Device device;
+    private TransportProtos.DeviceProto deviceProto;
+
+    @Setup
+    public void setup() {
+        long ts = System.currentTimeMillis();
+        tsKvEntries = new ArrayList<>(TS_KV_ENTRIES);
+        for (int i = 0; i < TS_KV_ENTRIES; i++) {
+            String key = "key" + i;
+            tsKvEntries.add(switch (i % 4) {
+                case 0 -> new BasicTsKvEntry(ts, new LongDataEntry(key, (long) i));
+                case 1 -> new BasicTsKvEntry(ts, new DoubleDataEntry(key, i + 0.5));
+                case 2 -> new BasicTsKvEntry(ts, new BooleanDataEntry(key, i % 8 == 2));
+                default -> new BasicTsKvEntry(ts, new StringDataEntry(key, "value" + i));
+            });
+        }
+        tsKvProtos = tsKvEntries.stream().map(ProtoUtils::toTsKvProto).toList();
+
+        device = new Device(new DeviceId(UUID.randomUUID()));
+        device.setCreatedTime(ts);
+        device.setTenantId(TenantId.fromUUID(UUID.randomUUID()));
+        device.setCustomerId(new CustomerId(UUID.randomUUID()));
+        device.setDeviceProfileId(new DeviceProfileId(UUID.randomUUID()));
+        device.setName("Thermostat A1");
+        device.setType("thermostat");
+        device.setLabel("Room 101");
+        device.setAdditionalInfo(JacksonUtil.newObjectNode().put("description", "Benchmark device"));
+        device.setVersion(1L);
+        deviceProto = ProtoUtils.toProto(device);
+    }
+
+    @Benchmark
+    public void toTsKvProto(Blackhole blackhole) {
+        for (TsKvEntry entry : tsKvEntries) {
+            blackhole.consume(ProtoUtils.toTsKvProto(entry));
+        }
+    }
+
+    @Benchmark
+    public void fromTsKvProto(Blackhole blackhole) {
+        for (TransportProtos.TsKvProto proto : tsKvProtos) {
+            blackhole.consume(ProtoUtils.fromProto(proto));
+        }
+    }
+
+    @Benchmark
+    public TransportProtos.DeviceProto deviceToProto() {
+        return ProtoUtils.toProto(device);
+    }
+
+    @Benchmark
+    public Device deviceFromProto() {
+        return ProtoUtils.fromProto(deviceProto);
+    }
+
+}
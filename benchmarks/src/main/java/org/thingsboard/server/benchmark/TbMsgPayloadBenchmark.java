@@ -0,0 +1,102 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.thingsboard.common.util.JacksonUtil;
+import org.thingsboard.server.common.data.id.DeviceId;
+import org.thingsboard.server.common.data.msg.TbMsgType;
+import org.thingsboard.server.common.msg.TbMsg;
+import org.thingsboard.server.common.msg.TbMsgMetaData;
+import org.thingsboard.server.common.msg.queue.TbMsgCallback;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulates a rule chain where every node reads the message data as JSON and passes a transformed message
+ * to the next node, with the message going through the queue in the middle of the chain.
+ * Compares parsing the data string on every hop with the parsed data cached in the message.
+ * Run with {@code -prof gc} to see the allocation rate per operation.
+ * */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TbMsgPayloadBenchmark {
+
+    @Param({"16", "64"})
+    private int keys;
+
+    @Param({"5"})
+    private int hops;
+
+    private TbMsg msg;
+
+    @Setup
+    public void setup() {
+        TbMsgMetaData metaData = new TbMsgMetaData();
+        metaData.putValue("deviceName", "Thermostat A1");
+        metaData.putValue("ts", String.valueOf(System.currentTimeMillis()));
+        msg = TbMsg.newMsg()
+                .type(TbMsgType.POST_TELEMETRY_REQUEST)
+                .originator(new DeviceId(UUID.randomUUID()))
+                .metaData(metaData)
+                .data(BenchmarkData.telemetryJson(keys))
+                .build();
+    }
+
+    @Benchmark
+    public void parsePerHop(Blackhole bh) {
+        TbMsg current = queueHop(msg);
+        for (int i = 0; i < hops; i++) {
+            JsonNode data = JacksonUtil.toJsonNode(current.getData());
+            bh.consume(data.get("key0"));
+            current = current.transform().build();
+        }
+        bh.consume(TbMsg.toByteArray(current));
+    }
+
+    @Benchmark
+    public void cachedPayload(Blackhole bh) {
+        TbMsg current = queueHop(msg);
+        for (int i = 0; i < hops; i++) {
+            JsonNode data = current.getDataAsJson();
+            bh.consume(data.get("key0"));
+            current = current.transform().build();
+        }
+        bh.consume(TbMsg.toByteArray(current));
+    }
+
+    private static TbMsg queueHop(TbMsg msg) {
+        return TbMsg.fromBytes("Main", TbMsg.toByteArray(msg), TbMsgCallback.EMPTY);
+    }
+
+}
@@ -0,0 +1,115 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.thingsboard.common.util.JacksonUtil;
+import org.thingsboard.script.api.ScriptType;
+import org.thingsboard.script.api.tbel.DefaultTbelInvokeService;
+import org.thingsboard.script.api.tbel.TbelCfTsDoubleVal;
+import org.thingsboard.script.api.tbel.TbelCfTsRollingArg;
+import org.thingsboard.script.api.tbel.TbelInvokeService;
+import org.thingsboard.server.common.data.id.TenantId;
+import org.thingsboard.server.common.data.msg.TbMsgType;
+import org.thingsboard.server.common.stats.DefaultStatsFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Invokes precompiled TBEL scripts through {@link TbelInvokeService}, including the executor hand-off,
+ * argument size checks and stats accounting that every rule node and calculated field invocation pays.
+ * */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TbelInvokeBenchmark {
+
+    private static final String TRANSFORM_SCRIPT = """
+            var newMsg = {};
+            newMsg.temperature = msg.key0 * 1.8 + 32;
+            newMsg.humidity = msg.key1;
+            newMsg.alarm = msg.key0 > 50;
+            metadata.processed = "true";
+            return {msg: newMsg, metadata: metadata, msgType: msgType};
+            """;
+
+    private static final String ROLLING_SCRIPT = """
+            return {avg: temperature.mean(), min: temperature.min(), max: temperature.max(), std: temperature.std()};
+            """;
+
+    private AnnotationConfigApplicationContext context;
+    private TbelInvokeService invokeService;
+    private UUID transformScriptId;
+    private UUID rollingScriptId;
+    private Map<?, ?> msg;
+    private Map<String, String> metadata;
+    private TbelCfTsRollingArg rollingArg;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        context = new AnnotationConfigApplicationContext(SimpleMeterRegistry.class, DefaultStatsFactory.class, DefaultTbelInvokeService.class);
+        invokeService = context.getBean(TbelInvokeService.class);
+        transformScriptId = invokeService.eval(TenantId.SYS_TENANT_ID, ScriptType.RULE_NODE_SCRIPT, TRANSFORM_SCRIPT, "msg", "metadata", "msgType").get();
+        rollingScriptId = invokeService.eval(TenantId.SYS_TENANT_ID, ScriptType.CALCULATED_FIELD_SCRIPT, ROLLING_SCRIPT, "temperature").get();
+
+        msg = JacksonUtil.fromString(BenchmarkData.telemetryJson(16), Map.class);
+        metadata = new HashMap<>();
+        metadata.put("deviceName", "Thermostat A1");
+        long ts = System.currentTimeMillis();
+        List<TbelCfTsDoubleVal> values = new ArrayList<>(1000);
+        for (int i = 0; i < 1000; i++) {
+            values.add(new TbelCfTsDoubleVal(ts - i * 1000L, 20 + (i % 100) / 10.0));
+        }
+        rollingArg = new TbelCfTsRollingArg(TimeUnit.DAYS.toMillis(1), values);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object invokeTransformScript() throws Exception {
+        return invokeService.invokeScript(TenantId.SYS_TENANT_ID, null, transformScriptId, msg, metadata, TbMsgType.POST_TELEMETRY_REQUEST.name()).get();
+    }
+
+    @Benchmark
+    public Object invokeRollingAggregationScript() throws Exception {
+        return invokeService.invokeScript(TenantId.SYS_TENANT_ID, null, rollingScriptId, rollingArg).get();
+    }
+
+}
@@ -0,0 +1,73 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.thingsboard.script.api.tbel.TbelCfArg;
+import org.thingsboard.server.common.data.kv.DoubleDataEntry;
+import org.thingsboard.server.service.cf.ctx.state.SingleValueArgumentEntry;
+import org.thingsboard.server.service.cf.ctx.state.TsRollingArgumentEntry;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Steady-state updates of a full rolling argument: every new value evicts the oldest one.
+ * */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TsRollingArgumentEntryBenchmark {
+
+    @Param({"100", "1000"})
+    private int limit;
+
+    private TsRollingArgumentEntry entry;
+    private long ts;
+
+    @Setup
+    public void setup() {
+        entry = new TsRollingArgumentEntry(limit, TimeUnit.DAYS.toMillis(1));
+        ts = System.currentTimeMillis();
+        for (int i = 0; i < limit; i++) {
+            update();
+        }
+    }
+
+    @Benchmark
+    public boolean update() {
+        long nextTs = ts++;
+        return entry.updateEntry(new SingleValueArgumentEntry(nextTs, new DoubleDataEntry("temperature", (double) (nextTs % 100)), null));
+    }
+
+    @Benchmark
+    public TbelCfArg toTbelCfArg() {
+        return entry.toTbelCfArg();
+    }
+
+}
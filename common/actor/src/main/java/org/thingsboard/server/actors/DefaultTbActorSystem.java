@@ -19,10 +19,13 @@ import lombok.Data;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.thingsboard.common.util.ThingsBoardExecutors;
+import org.thingsboard.server.common.data.EntityType;
 import org.thingsboard.server.common.msg.TbActorMsg;
 
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -47,18 +50,46 @@ public class DefaultTbActorSystem implements TbActorSystem {
     private final TbActorSystemSettings settings;
     @Getter
     private final ScheduledExecutorService scheduler;
+    @Getter
+    private final Map<EntityType, TbActorMailboxStats> mailboxStats;
 
     public DefaultTbActorSystem(TbActorSystemSettings settings) {
         this.settings = settings;
         this.scheduler = ThingsBoardExecutors.newScheduledThreadPool(settings.getSchedulerPoolSize(), "actor-system-scheduler");
+        Map<EntityType, TbActorMailboxStats> mailboxStats = new EnumMap<>(EntityType.class);
+        settings.getMailboxSettings().keySet().forEach(actorType -> mailboxStats.put(actorType, new TbActorMailboxStats(actorType.name())));
+        this.mailboxStats = Collections.unmodifiableMap(mailboxStats);
     }
 
     @Override
     public void createDispatcher(String dispatcherId, ExecutorService executor) {
-        Dispatcher current = dispatchers.putIfAbsent(dispatcherId, new Dispatcher(dispatcherId, executor));
-        if (current != null) {
+        registerDispatcher(new Dispatcher(dispatcherId, executor));
+    }
+
+    @Override
+    public void createDispatcher(String dispatcherId, TbActorDispatcherSettings settings) {
+        createDispatcher(dispatcherId, settings, null);
+    }
+
+    @Override
+    public void createDispatcher(String dispatcherId, TbActorDispatcherSettings settings, TbActorDispatcherStats stats) {
+        if (dispatchers.containsKey(dispatcherId)) {
             throw new RuntimeException("Dispatcher with id [" + dispatcherId + "] is already registered!");
         }
+        ExecutorService executor = TbActorDispatchers.newExecutor(dispatcherId, settings.getType(), settings.getPoolSize());
+        try {
+            registerDispatcher(new Dispatcher(dispatcherId, executor, settings.getType(), stats));
+        } catch (RuntimeException e) {
+            executor.shutdownNow();
+            throw e;
+        }
+    }
+
+    private void registerDispatcher(Dispatcher dispatcher) {
+        Dispatcher current = dispatchers.putIfAbsent(dispatcher.getDispatcherId(), dispatcher);
+        if (current != null) {
+            throw new RuntimeException("Dispatcher with id [" + dispatcher.getDispatcherId() + "] is already registered!");
+        }
     }
 
     @Override
@@ -112,7 +143,10 @@ public class DefaultTbActorSystem implements TbActorSystem {
                             throw new TbActorNotRegisteredException(parent, "Parent Actor with id [" + parent + "] is not registered!");
                         }
                     }
-                    TbActorMailbox mailbox = new TbActorMailbox(this, settings, actorId, parentRef, actor, dispatcher);
+                    EntityType actorType = actorId.getEntityType();
+                    TbActorMailboxSettings mailboxSettings = actorType != null ? settings.getMailboxSettings().get(actorType) : null;
+                    TbActorMailboxStats actorTypeMailboxStats = mailboxSettings != null ? mailboxStats.get(actorType) : null;
+                    TbActorMailbox mailbox = new TbActorMailbox(this, settings, actorId, parentRef, actor, dispatcher, mailboxSettings, actorTypeMailboxStats);
                     actors.put(actorId, mailbox);
                     mailbox.initActor();
                     actorMailbox = mailbox;
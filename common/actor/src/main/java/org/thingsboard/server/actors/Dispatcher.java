@@ -18,11 +18,46 @@ package org.thingsboard.server.actors;
 import lombok.Data;
 
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
 
 @Data
 class Dispatcher {
 
     private final String dispatcherId;
     private final ExecutorService executor;
+    private final DispatcherType type;
+    private final TbActorDispatcherStats stats;
+
+    Dispatcher(String dispatcherId, ExecutorService executor) {
+        this(dispatcherId, executor, executor instanceof ForkJoinPool ? DispatcherType.WORK_STEALING : DispatcherType.FIXED, null);
+    }
+
+    Dispatcher(String dispatcherId, ExecutorService executor, DispatcherType type, TbActorDispatcherStats stats) {
+        this.dispatcherId = dispatcherId;
+        this.executor = executor;
+        this.type = type;
+        this.stats = stats;
+    }
+
+    void execute(Runnable task) {
+        executor.execute(task);
+    }
+
+    /**
+     * Schedules the mailbox processing task. Keeps actor affinity for the work-stealing pool:
+     * a mailbox re-scheduled by one of the pool workers goes to the local queue of that worker.
+     */
+    void executeMailbox(Runnable task) {
+        if (stats != null) {
+            stats.onMailboxScheduled();
+        }
+        if (type == DispatcherType.WORK_STEALING && Thread.currentThread() instanceof ForkJoinWorkerThread worker && worker.getPool() == executor) {
+            ForkJoinTask.adapt(task).fork();
+        } else {
+            executor.execute(task);
+        }
+    }
 
 }
@@ -0,0 +1,34 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.actors;
+
+public enum DispatcherType {
+
+    /**
+     * Fixed thread pool with a single shared task queue.
+     */
+    FIXED,
+    /**
+     * ForkJoin pool where mailboxes re-scheduled from a worker thread are pushed to that worker's local queue,
+     * so an actor with a backlog keeps running on the same thread unless its batch is stolen by an idle worker.
+     */
+    WORK_STEALING,
+    /**
+     * Each mailbox run gets its own virtual thread. Requires Java 21+, falls back to {@link #WORK_STEALING} otherwise.
+     */
+    VIRTUAL
+
+}
@@ -0,0 +1,130 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.actors;
+
+import lombok.Getter;
+import org.thingsboard.server.common.data.EntityType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+public class TbActorDispatcherStats {
+
+    private static final String OTHER_ACTOR_TYPE = "OTHER";
+    private static final EntityType[] ENTITY_TYPES = EntityType.values();
+
+    @Getter
+    private final String dispatcherId;
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final AtomicReferenceArray<ActorTypeStats> actorTypeStats = new AtomicReferenceArray<>(ENTITY_TYPES.length + 1);
+    private final Consumer<ActorTypeStats> onNewActorType;
+
+    public TbActorDispatcherStats(String dispatcherId) {
+        this(dispatcherId, stats -> {});
+    }
+
+    public TbActorDispatcherStats(String dispatcherId, Consumer<ActorTypeStats> onNewActorType) {
+        this.dispatcherId = dispatcherId;
+        this.onNewActorType = onNewActorType;
+    }
+
+    /**
+     * Number of mailboxes scheduled on the dispatcher that did not start processing yet.
+     */
+    public int getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    public List<ActorTypeStats> getActorTypeStats() {
+        List<ActorTypeStats> result = new ArrayList<>();
+        for (int i = 0; i < actorTypeStats.length(); i++) {
+            ActorTypeStats stats = actorTypeStats.get(i);
+            if (stats != null) {
+                result.add(stats);
+            }
+        }
+        return result;
+    }
+
+    void onMailboxScheduled() {
+        queueDepth.incrementAndGet();
+    }
+
+    void onMailboxStarted(EntityType actorType, long waitTimeNanos) {
+        queueDepth.decrementAndGet();
+        ActorTypeStats stats = getOrCreate(actorType);
+        stats.mailboxRuns.increment();
+        stats.waitTimeNanos.add(waitTimeNanos);
+    }
+
+    void onMailboxProcessed(EntityType actorType, int processedMsgs, long runTimeNanos) {
+        ActorTypeStats stats = getOrCreate(actorType);
+        stats.processedMsgs.add(processedMsgs);
+        stats.runTimeNanos.add(runTimeNanos);
+    }
+
+    private ActorTypeStats getOrCreate(EntityType actorType) {
+        int idx = actorType != null ? actorType.ordinal() : ENTITY_TYPES.length;
+        ActorTypeStats stats = actorTypeStats.get(idx);
+        if (stats == null) {
+            ActorTypeStats newStats = new ActorTypeStats(actorType != null ? actorType.name() : OTHER_ACTOR_TYPE);
+            if (actorTypeStats.compareAndSet(idx, null, newStats)) {
+                onNewActorType.accept(newStats);
+                stats = newStats;
+            } else {
+                stats = actorTypeStats.get(idx);
+            }
+        }
+        return stats;
+    }
+
+    public static class ActorTypeStats {
+
+        @Getter
+        private final String actorType;
+        private final LongAdder mailboxRuns = new LongAdder();
+        private final LongAdder processedMsgs = new LongAdder();
+        private final LongAdder waitTimeNanos = new LongAdder();
+        private final LongAdder runTimeNanos = new LongAdder();
+
+        ActorTypeStats(String actorType) {
+            this.actorType = actorType;
+        }
+
+        public long getMailboxRuns() {
+            return mailboxRuns.sum();
+        }
+
+        public long getProcessedMsgs() {
+            return processedMsgs.sum();
+        }
+
+        public long getWaitTimeMs() {
+            return TimeUnit.NANOSECONDS.toMillis(waitTimeNanos.sum());
+        }
+
+        public long getRunTimeMs() {
+            return TimeUnit.NANOSECONDS.toMillis(runTimeNanos.sum());
+        }
+
+    }
+
+}
@@ -0,0 +1,69 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.actors;
+
+import lombok.extern.slf4j.Slf4j;
+import org.thingsboard.common.util.ThingsBoardExecutors;
+import org.thingsboard.common.util.ThingsBoardThreadFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Slf4j
+public final class TbActorDispatchers {
+
+    private TbActorDispatchers() {
+    }
+
+    public static ExecutorService newExecutor(String dispatcherId, DispatcherType type, int poolSize) {
+        if (poolSize <= 0) {
+            int cores = Runtime.getRuntime().availableProcessors();
+            poolSize = Math.max(1, cores / 2);
+        }
+        switch (type) {
+            case VIRTUAL:
+                ExecutorService virtualExecutor = newVirtualThreadPerTaskExecutor();
+                if (virtualExecutor != null) {
+                    return virtualExecutor;
+                }
+                log.warn("[{}] Virtual threads are not supported by the current JVM, falling back to the work-stealing dispatcher", dispatcherId);
+                return newWorkStealingExecutor(dispatcherId, poolSize);
+            case FIXED:
+                if (poolSize == 1) {
+                    return Executors.newSingleThreadExecutor(ThingsBoardThreadFactory.forName(dispatcherId));
+                }
+                return Executors.newFixedThreadPool(poolSize, ThingsBoardThreadFactory.forName(dispatcherId));
+            default:
+                return newWorkStealingExecutor(dispatcherId, poolSize);
+        }
+    }
+
+    private static ExecutorService newWorkStealingExecutor(String dispatcherId, int poolSize) {
+        if (poolSize == 1) {
+            return Executors.newSingleThreadExecutor(ThingsBoardThreadFactory.forName(dispatcherId));
+        }
+        return ThingsBoardExecutors.newWorkStealingPool(poolSize, dispatcherId);
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+}
@@ -15,6 +15,7 @@
  */
 package org.thingsboard.server.actors;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -28,6 +29,7 @@ import java.util.List;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 
@@ -50,15 +52,21 @@ public final class TbActorMailbox implements TbActorCtx {
     private final TbActorRef parentRef;
     private final TbActor actor;
     private final Dispatcher dispatcher;
+    private final TbActorMailboxSettings mailboxSettings;
+    private final TbActorMailboxStats mailboxStats;
     private final ConcurrentLinkedQueue<TbActorMsg> highPriorityMsgs = new ConcurrentLinkedQueue<>();
     private final ConcurrentLinkedQueue<TbActorMsg> normalPriorityMsgs = new ConcurrentLinkedQueue<>();
+    // used only for bounded mailboxes
+    private final AtomicInteger normalPriorityMsgsCount = new AtomicInteger();
     private final AtomicBoolean busy = new AtomicBoolean(FREE);
     private final AtomicBoolean ready = new AtomicBoolean(NOT_READY);
     private final AtomicBoolean destroyInProgress = new AtomicBoolean();
     private volatile TbActorStopReason stopReason;
+    @Getter(AccessLevel.NONE)
+    private long mailboxScheduledTs;
 
     public void initActor() {
-        dispatcher.getExecutor().execute(() -> tryInit(1));
+        dispatcher.execute(() -> tryInit(1));
     }
 
     private void tryInit(int attempt) {
@@ -87,11 +95,11 @@ public final class TbActorMailbox implements TbActorCtx {
             } else if (strategy.getRetryDelay() > 0) {
                 log.info("[{}] Failed to init actor, attempt {}, going to retry in attempts in {}ms", selfId, attempt, strategy.getRetryDelay());
                 log.debug("[{}] Error", selfId, t);
-                system.getScheduler().schedule(() -> dispatcher.getExecutor().execute(() -> tryInit(attemptIdx)), strategy.getRetryDelay(), TimeUnit.MILLISECONDS);
+                system.getScheduler().schedule(() -> dispatcher.execute(() -> tryInit(attemptIdx)), strategy.getRetryDelay(), TimeUnit.MILLISECONDS);
             } else {
                 log.info("[{}] Failed to init actor, attempt {}, going to retry immediately", selfId, attempt);
                 log.debug("[{}] Error", selfId, t);
-                dispatcher.getExecutor().execute(() -> tryInit(attemptIdx));
+                dispatcher.execute(() -> tryInit(attemptIdx));
             }
         }
     }
@@ -107,8 +115,10 @@ public final class TbActorMailbox implements TbActorCtx {
         if (!destroyInProgress.get()) {
             if (highPriority) {
                 highPriorityMsgs.add(msg);
-            } else {
+            } else if (mailboxSettings == null) {
                 normalPriorityMsgs.add(msg);
+            } else if (!offerBounded(msg)) {
+                return;
             }
             tryProcessQueue(true);
         } else {
@@ -128,11 +138,62 @@ public final class TbActorMailbox implements TbActorCtx {
         }
     }
 
+    private boolean offerBounded(TbActorMsg msg) {
+        if (tryAddBounded(msg)) {
+            return true;
+        }
+        switch (mailboxSettings.getOverflowPolicy()) {
+            case DROP_NEWEST:
+                drop(msg, "new");
+                return false;
+            case DROP_OLDEST:
+                while (true) {
+                    TbActorMsg oldest = normalPriorityMsgs.poll();
+                    if (oldest != null) {
+                        // the message count stays the same: one message is replaced with another
+                        normalPriorityMsgs.add(msg);
+                        drop(oldest, "oldest");
+                        return true;
+                    } else if (tryAddBounded(msg)) {
+                        return true;
+                    }
+                }
+            default:
+                log.debug("[{}] Mailbox is full, rejecting message: {}", selfId, msg);
+                mailboxStats.onRejected();
+                msg.onTbActorMailboxOverflow();
+                return false;
+        }
+    }
+
+    private boolean tryAddBounded(TbActorMsg msg) {
+        if (normalPriorityMsgsCount.incrementAndGet() <= mailboxSettings.getCapacity()) {
+            normalPriorityMsgs.add(msg);
+            mailboxStats.onEnqueued();
+            return true;
+        }
+        normalPriorityMsgsCount.decrementAndGet();
+        return false;
+    }
+
+    private void drop(TbActorMsg msg, String which) {
+        log.debug("[{}] Mailbox is full, dropping {} message: {}", selfId, which, msg);
+        mailboxStats.onDropped();
+        msg.onTbActorMailboxOverflow();
+    }
+
+    private void onNormalPriorityMsgPolled() {
+        if (mailboxSettings != null) {
+            normalPriorityMsgsCount.decrementAndGet();
+            mailboxStats.onDequeued(1);
+        }
+    }
+
     private void tryProcessQueue(boolean newMsg) {
         if (ready.get() == READY) {
             if (newMsg || !highPriorityMsgs.isEmpty() || !normalPriorityMsgs.isEmpty()) {
                 if (busy.compareAndSet(FREE, BUSY)) {
-                    dispatcher.getExecutor().execute(this::processMailbox);
+                    scheduleMailbox();
                 } else {
                     log.trace("[{}] MessageBox is busy, new msg: {}", selfId, newMsg);
                 }
@@ -144,14 +205,32 @@ public final class TbActorMailbox implements TbActorCtx {
         }
     }
 
+    private void scheduleMailbox() {
+        if (dispatcher.getStats() != null) {
+            mailboxScheduledTs = System.nanoTime();
+        }
+        dispatcher.executeMailbox(this::processMailbox);
+    }
+
     private void processMailbox() {
+        TbActorDispatcherStats stats = dispatcher.getStats();
+        long startTs = 0;
+        if (stats != null) {
+            startTs = System.nanoTime();
+            stats.onMailboxStarted(selfId.getEntityType(), startTs - mailboxScheduledTs);
+        }
         boolean noMoreElements = false;
+        int processed = 0;
         for (int i = 0; i < settings.getActorThroughput(); i++) {
             TbActorMsg msg = highPriorityMsgs.poll();
             if (msg == null) {
                 msg = normalPriorityMsgs.poll();
+                if (msg != null) {
+                    onNormalPriorityMsgPolled();
+                }
             }
             if (msg != null) {
+                processed++;
                 try {
                     log.trace("[{}] Going to process message: {}", selfId, msg);
                     actor.process(msg);
@@ -170,11 +249,15 @@ public final class TbActorMailbox implements TbActorCtx {
                 break;
             }
         }
+        if (stats != null) {
+            stats.onMailboxProcessed(selfId.getEntityType(), processed, System.nanoTime() - startTs);
+        }
         if (noMoreElements) {
             busy.set(FREE);
-            dispatcher.getExecutor().execute(() -> tryProcessQueue(false));
+            // tryProcessQueue only schedules the mailbox, so there is no need to submit a separate task for it
+            tryProcessQueue(false);
         } else {
-            dispatcher.getExecutor().execute(this::processMailbox);
+            scheduleMailbox();
         }
     }
 
@@ -233,12 +316,16 @@ public final class TbActorMailbox implements TbActorCtx {
             stopReason = TbActorStopReason.STOPPED;
         }
         destroyInProgress.set(true);
-        dispatcher.getExecutor().execute(() -> {
+        dispatcher.execute(() -> {
             try {
                 ready.set(NOT_READY);
                 actor.destroy(stopReason, cause);
                 highPriorityMsgs.forEach(msg -> msg.onTbActorStopped(stopReason));
                 normalPriorityMsgs.forEach(msg -> msg.onTbActorStopped(stopReason));
+                if (mailboxSettings != null) {
+                    mailboxStats.onDequeued(normalPriorityMsgsCount.getAndSet(0));
+                    normalPriorityMsgs.clear();
+                }
             } catch (Throwable t) {
                 log.warn("[{}] Failed to destroy actor: ", selfId, t);
             }
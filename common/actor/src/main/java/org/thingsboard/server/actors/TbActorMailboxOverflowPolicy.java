@@ -0,0 +1,35 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.actors;
+
+public enum TbActorMailboxOverflowPolicy {
+
+    /**
+     * The oldest queued message is discarded to make room for the new one.
+     * {@link org.thingsboard.server.common.msg.TbActorMsg#onTbActorMailboxOverflow()} is called for the discarded message.
+     */
+    DROP_OLDEST,
+    /**
+     * The new message is discarded and {@link org.thingsboard.server.common.msg.TbActorMsg#onTbActorMailboxOverflow()} is called for it.
+     */
+    DROP_NEWEST,
+    /**
+     * The new message is rejected and {@link org.thingsboard.server.common.msg.TbActorMsg#onTbActorMailboxOverflow()} is called,
+     * so the rule engine message callback is failed immediately instead of waiting for the pack timeout.
+     */
+    FAIL
+
+}
@@ -0,0 +1,69 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.actors;
+
+import lombok.Getter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Aggregated counters of the bounded mailboxes of a single actor type.
+ */
+public class TbActorMailboxStats {
+
+    @Getter
+    private final String actorType;
+    private final AtomicInteger queuedMsgs = new AtomicInteger();
+    private final LongAdder droppedMsgs = new LongAdder();
+    private final LongAdder rejectedMsgs = new LongAdder();
+
+    public TbActorMailboxStats(String actorType) {
+        this.actorType = actorType;
+    }
+
+    /**
+     * Total number of normal priority messages queued in the mailboxes of this actor type.
+     */
+    public int getQueuedMsgs() {
+        return queuedMsgs.get();
+    }
+
+    public long getDroppedMsgs() {
+        return droppedMsgs.sum();
+    }
+
+    public long getRejectedMsgs() {
+        return rejectedMsgs.sum();
+    }
+
+    void onEnqueued() {
+        queuedMsgs.incrementAndGet();
+    }
+
+    void onDequeued(int count) {
+        queuedMsgs.addAndGet(-count);
+    }
+
+    void onDropped() {
+        droppedMsgs.increment();
+    }
+
+    void onRejected() {
+        rejectedMsgs.increment();
+    }
+
+}
@@ -15,9 +15,11 @@
  */
 package org.thingsboard.server.actors;
 
+import org.thingsboard.server.common.data.EntityType;
 import org.thingsboard.server.common.msg.TbActorMsg;
 
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.function.Predicate;
@@ -28,10 +30,16 @@ public interface TbActorSystem {
 
     void createDispatcher(String dispatcherId, ExecutorService executor);
 
+    void createDispatcher(String dispatcherId, TbActorDispatcherSettings settings);
+
+    void createDispatcher(String dispatcherId, TbActorDispatcherSettings settings, TbActorDispatcherStats stats);
+
     void destroyDispatcher(String dispatcherId);
 
     TbActorRef getActor(TbActorId actorId);
 
+    Map<EntityType, TbActorMailboxStats> getMailboxStats();
+
     TbActorRef createRootActor(String dispatcherId, TbActorCreator creator);
 
     TbActorRef createChildActor(String dispatcherId, TbActorCreator creator, TbActorId parent);
@@ -16,6 +16,10 @@
 package org.thingsboard.server.actors;
 
 import lombok.Data;
+import org.thingsboard.server.common.data.EntityType;
+
+import java.util.Collections;
+import java.util.Map;
 
 @Data
 public class TbActorSystemSettings {
@@ -23,5 +27,20 @@ public class TbActorSystemSettings {
     private final int actorThroughput;
     private final int schedulerPoolSize;
     private final int maxActorInitAttempts;
+    /**
+     * Bounded mailbox settings per actor type. Mailboxes of the actor types that are not present here are unbounded.
+     */
+    private final Map<EntityType, TbActorMailboxSettings> mailboxSettings;
+
+    public TbActorSystemSettings(int actorThroughput, int schedulerPoolSize, int maxActorInitAttempts) {
+        this(actorThroughput, schedulerPoolSize, maxActorInitAttempts, Collections.emptyMap());
+    }
+
+    public TbActorSystemSettings(int actorThroughput, int schedulerPoolSize, int maxActorInitAttempts, Map<EntityType, TbActorMailboxSettings> mailboxSettings) {
+        this.actorThroughput = actorThroughput;
+        this.schedulerPoolSize = schedulerPoolSize;
+        this.maxActorInitAttempts = maxActorInitAttempts;
+        this.mailboxSettings = mailboxSettings;
+    }
 
 }
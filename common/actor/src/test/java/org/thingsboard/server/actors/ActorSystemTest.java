@@ -23,10 +23,12 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.thingsboard.common.util.ThingsBoardExecutors;
 import org.thingsboard.common.util.ThingsBoardThreadFactory;
+import org.thingsboard.server.common.data.EntityType;
 import org.thingsboard.server.common.data.id.DeviceId;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 import java.util.UUID;
 import java.util.concurrent.CountDownLatch;
@@ -111,6 +113,108 @@ public class ActorSystemTest {
         testActorsAndMessages(1000, 1000, 10);
     }
 
+    @Test
+    public void test1KActorsAnd1KMessagesFixedDispatcher() throws InterruptedException {
+        actorSystem.createDispatcher(ROOT_DISPATCHER, new TbActorDispatcherSettings(DispatcherType.FIXED, parallelism));
+        testActorsAndMessages(1000, 1000, 1);
+    }
+
+    @Test
+    public void test1KActorsAnd1KMessagesVirtualDispatcher() throws InterruptedException {
+        actorSystem.createDispatcher(ROOT_DISPATCHER, new TbActorDispatcherSettings(DispatcherType.VIRTUAL, parallelism));
+        testActorsAndMessages(1000, 1000, 1);
+    }
+
+    @Test
+    public void testDispatcherStats() throws InterruptedException {
+        List<String> actorTypes = new ArrayList<>();
+        TbActorDispatcherStats stats = new TbActorDispatcherStats(ROOT_DISPATCHER, typeStats -> actorTypes.add(typeStats.getActorType()));
+        actorSystem.createDispatcher(ROOT_DISPATCHER, new TbActorDispatcherSettings(DispatcherType.WORK_STEALING, parallelism), stats);
+        testActorsAndMessages(10, 1000, 1);
+
+        assertThat(actorTypes).containsExactly("DEVICE");
+        TbActorDispatcherStats.ActorTypeStats deviceStats = stats.getActorTypeStats().get(0);
+        Awaitility.await("all scheduled mailboxes processed").atMost(TIMEOUT_AWAIT_MAX_SEC, TimeUnit.SECONDS)
+                .until(() -> stats.getQueueDepth() == 0 && deviceStats.getProcessedMsgs() == 10 * 1000);
+        assertThat(deviceStats.getMailboxRuns()).isGreaterThanOrEqualTo(10 * 1000 / 5);
+    }
+
+    @Test
+    public void testBoundedMailboxDropNewest() throws InterruptedException {
+        TbActorMailboxStats stats = initBoundedActorSystem(TbActorMailboxOverflowPolicy.DROP_NEWEST);
+        ActorTestCtx testCtx = getActorTestCtx(10);
+        AtomicInteger overflows = new AtomicInteger();
+        TbActorRef actorRef = actorSystem.createRootActor(ROOT_DISPATCHER, new SlowInitActor.SlowInitActorCreator(
+                new TbEntityActorId(new DeviceId(UUID.randomUUID())), testCtx));
+        for (int i = 0; i < 20; i++) {
+            actorRef.tell(new IntTbActorMsg(i) {
+                @Override
+                public void onTbActorMailboxOverflow() {
+                    overflows.incrementAndGet();
+                }
+            });
+        }
+
+        Assertions.assertTrue(testCtx.getLatch().await(TIMEOUT_AWAIT_MAX_SEC, TimeUnit.SECONDS));
+        assertThat(testCtx.getActual().get()).isEqualTo(45);
+        assertThat(stats.getDroppedMsgs()).isEqualTo(10);
+        assertThat(overflows.get()).isEqualTo(10);
+        assertThat(stats.getQueuedMsgs()).isZero();
+    }
+
+    @Test
+    public void testBoundedMailboxDropOldest() throws InterruptedException {
+        TbActorMailboxStats stats = initBoundedActorSystem(TbActorMailboxOverflowPolicy.DROP_OLDEST);
+        ActorTestCtx testCtx = getActorTestCtx(10);
+        AtomicInteger overflows = new AtomicInteger();
+        TbActorRef actorRef = actorSystem.createRootActor(ROOT_DISPATCHER, new SlowInitActor.SlowInitActorCreator(
+                new TbEntityActorId(new DeviceId(UUID.randomUUID())), testCtx));
+        for (int i = 0; i < 20; i++) {
+            actorRef.tell(new IntTbActorMsg(i) {
+                @Override
+                public void onTbActorMailboxOverflow() {
+                    overflows.incrementAndGet();
+                }
+            });
+        }
+
+        Assertions.assertTrue(testCtx.getLatch().await(TIMEOUT_AWAIT_MAX_SEC, TimeUnit.SECONDS));
+        assertThat(testCtx.getActual().get()).isEqualTo(145);
+        assertThat(stats.getDroppedMsgs()).isEqualTo(10);
+        assertThat(overflows.get()).isEqualTo(10);
+    }
+
+    @Test
+    public void testBoundedMailboxFail() throws InterruptedException {
+        TbActorMailboxStats stats = initBoundedActorSystem(TbActorMailboxOverflowPolicy.FAIL);
+        ActorTestCtx testCtx = getActorTestCtx(10);
+        AtomicInteger overflows = new AtomicInteger();
+        TbActorRef actorRef = actorSystem.createRootActor(ROOT_DISPATCHER, new SlowInitActor.SlowInitActorCreator(
+                new TbEntityActorId(new DeviceId(UUID.randomUUID())), testCtx));
+        for (int i = 0; i < 15; i++) {
+            actorRef.tell(new IntTbActorMsg(i) {
+                @Override
+                public void onTbActorMailboxOverflow() {
+                    overflows.incrementAndGet();
+                }
+            });
+        }
+
+        Assertions.assertTrue(testCtx.getLatch().await(TIMEOUT_AWAIT_MAX_SEC, TimeUnit.SECONDS));
+        assertThat(overflows.get()).isEqualTo(5);
+        assertThat(stats.getRejectedMsgs()).isEqualTo(5);
+    }
+
+    private TbActorMailboxStats initBoundedActorSystem(TbActorMailboxOverflowPolicy policy) {
+        actorSystem.stop();
+        TbActorSystemSettings settings = new TbActorSystemSettings(5, parallelism, 42,
+                Map.of(EntityType.DEVICE, new TbActorMailboxSettings(10, policy)));
+        actorSystem = new DefaultTbActorSystem(settings);
+        executor = ThingsBoardExecutors.newWorkStealingPool(parallelism, getClass());
+        actorSystem.createDispatcher(ROOT_DISPATCHER, executor);
+        return actorSystem.getMailboxStats().get(EntityType.DEVICE);
+    }
+
     @Test
     public void testNoMessagesAfterDestroy() throws InterruptedException {
         executor = ThingsBoardExecutors.newWorkStealingPool(parallelism, getClass());
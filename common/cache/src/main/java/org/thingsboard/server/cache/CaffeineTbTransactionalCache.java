@@ -19,6 +19,7 @@ import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.NullValue;
 
 import java.io.Serializable;
 import java.util.Collection;
@@ -54,6 +55,27 @@ public abstract class CaffeineTbTransactionalCache<K extends Serializable, V ext
         return SimpleTbCacheValueWrapper.wrap(cache.get(key));
     }
 
+    @Override
+    public Map<K, TbCacheValueWrapper<V>> getAll(Collection<K> keys) {
+        if (!(cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?>)) {
+            return TbTransactionalCache.super.getAll(keys);
+        }
+        var nativeCache = (com.github.benmanes.caffeine.cache.Cache<Object, Object>) cache.getNativeCache();
+        Map<K, TbCacheValueWrapper<V>> result = new HashMap<>();
+        nativeCache.getAllPresent(keys).forEach((key, storeValue) -> result.put((K) key, toValueWrapper(storeValue)));
+        return result;
+    }
+
+    @Override
+    public void putAll(Map<K, V> values) {
+        lock.lock();
+        try {
+            values.forEach(this::put);
+        } finally {
+            lock.unlock();
+        }
+    }
+
     @Override
     public void put(K key, V value) {
         lock.lock();
@@ -116,6 +138,13 @@ public abstract class CaffeineTbTransactionalCache<K extends Serializable, V ext
         return newTransaction(keys);
     }
 
+    /**
+     * Converts the value stored in the native cache, where the null values are stored as {@link NullValue}
+     * */
+    TbCacheValueWrapper<V> toValueWrapper(Object storeValue) {
+        return SimpleTbCacheValueWrapper.wrap(storeValue == NullValue.INSTANCE ? null : (V) storeValue);
+    }
+
     void doPutIfAbsent(K key, V value) {
         cache.putIfAbsent(key, value);
     }
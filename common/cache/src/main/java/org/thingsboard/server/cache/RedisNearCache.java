@@ -0,0 +1,93 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.thingsboard.server.common.stats.DefaultCounter;
+import org.thingsboard.server.common.stats.StatsFactory;
+
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local cache of the values read from Redis, keyed by the string of the Redis key.
+ * The values are invalidated on the local changes and on the changes of the other nodes received via {@link RedisNearCacheInvalidationService},
+ * the time to live bounds the staleness if an invalidation message is lost.
+ * */
+class RedisNearCache<V extends Serializable> {
+
+    private static final String STATS_NAME = "redis.nearCache";
+
+    private final Cache<String, TbCacheValueWrapper<V>> cache;
+    private final AtomicLong invalidationsSeq = new AtomicLong();
+
+    private DefaultCounter hitCounter;
+    private DefaultCounter missCounter;
+    private DefaultCounter invalidationCounter;
+
+    RedisNearCache(int maxSize, int timeToLiveInSeconds) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(timeToLiveInSeconds, TimeUnit.SECONDS)
+                .build();
+    }
+
+    void initStats(StatsFactory statsFactory, String cacheName) {
+        hitCounter = statsFactory.createDefaultCounter(STATS_NAME, "cacheName", cacheName, "result", "hit");
+        missCounter = statsFactory.createDefaultCounter(STATS_NAME, "cacheName", cacheName, "result", "miss");
+        invalidationCounter = statsFactory.createDefaultCounter(STATS_NAME + ".invalidations", "cacheName", cacheName);
+        statsFactory.createGauge(STATS_NAME, "size", cache, Cache::estimatedSize, "cacheName", cacheName);
+    }
+
+    TbCacheValueWrapper<V> get(String key) {
+        TbCacheValueWrapper<V> value = cache.getIfPresent(key);
+        increment(value != null ? hitCounter : missCounter);
+        return value;
+    }
+
+    /**
+     * @return the sequence number to pass to {@link #put} for the value that is going to be read from Redis
+     * */
+    long getInvalidationsSeq() {
+        return invalidationsSeq.get();
+    }
+
+    /**
+     * Puts the value read from Redis, unless any key was invalidated since the read started:
+     * the value might be already stale in this case, since the invalidation could arrive before the put.
+     * */
+    void put(String key, TbCacheValueWrapper<V> value, long seq) {
+        cache.put(key, value);
+        if (invalidationsSeq.get() != seq) {
+            cache.invalidate(key);
+        }
+    }
+
+    void invalidate(String key) {
+        invalidationsSeq.incrementAndGet();
+        cache.invalidate(key);
+        increment(invalidationCounter);
+    }
+
+    private static void increment(DefaultCounter counter) {
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+}
@@ -0,0 +1,82 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.cache;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Propagates the changes of the Redis cache keys to the near caches of the other nodes over Redis pub/sub,
+ * using a channel per cache with the raw cache key as a message.
+ * The listener container is started on the first subscription, so no connection is held unless some near cache is enabled.
+ * */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "cache", value = "type", havingValue = "redis")
+public class RedisNearCacheInvalidationService {
+
+    static final String CHANNEL_PREFIX = "tb_cache_invalidation:";
+
+    private final RedisConnectionFactory connectionFactory;
+    private RedisMessageListenerContainer container;
+
+    synchronized void subscribe(String cacheName, Consumer<String> listener) {
+        if (container == null) {
+            container = new RedisMessageListenerContainer();
+            container.setConnectionFactory(connectionFactory);
+            container.afterPropertiesSet();
+            container.start();
+        }
+        container.addMessageListener((message, pattern) -> listener.accept(StringRedisSerializer.UTF_8.deserialize(message.getBody())),
+                new ChannelTopic(CHANNEL_PREFIX + cacheName));
+        log.info("[{}] Subscribed to the near cache invalidations", cacheName);
+    }
+
+    void publish(String cacheName, List<byte[]> rawKeys) {
+        byte[] channel = StringRedisSerializer.UTF_8.serialize(CHANNEL_PREFIX + cacheName);
+        try (var connection = connectionFactory.getConnection()) {
+            for (byte[] rawKey : rawKeys) {
+                connection.publish(channel, rawKey);
+            }
+        } catch (Exception e) {
+            // the near caches of the other nodes expire the stale values by the time to live
+            log.warn("[{}] Failed to publish the invalidation of {} keys", cacheName, rawKeys.size(), e);
+        }
+    }
+
+    @PreDestroy
+    synchronized void destroy() {
+        if (container != null) {
+            try {
+                container.destroy();
+            } catch (Exception e) {
+                log.warn("Failed to stop the near cache invalidation listener", e);
+            }
+        }
+    }
+
+}
@@ -20,6 +20,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.redis.connection.RedisConnection;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 
 @Slf4j
@@ -28,21 +30,27 @@ public class RedisTbCacheTransaction<K extends Serializable, V extends Serializa
 
     private final RedisTbTransactionalCache<K, V> cache;
     private final RedisConnection connection;
+    private final List<K> keys = new ArrayList<>();
 
     @Override
     public void put(K key, V value) {
         cache.put(key, value, connection);
+        keys.add(key);
     }
 
     @Override
     public boolean commit() {
+        boolean result;
         try {
             var execResult = connection.exec();
-            var result = execResult != null && execResult.stream().anyMatch(Objects::nonNull);
-            return result;
+            result = execResult != null && execResult.stream().anyMatch(Objects::nonNull);
         } finally {
             connection.close();
         }
+        if (result) {
+            cache.invalidateNearCache(keys);
+        }
+        return result;
     }
 
     @Override
@@ -15,6 +15,7 @@
  */
 package org.thingsboard.server.cache;
 
+import jakarta.annotation.PostConstruct;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -22,6 +23,7 @@ import org.springframework.cache.support.NullValue;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.data.redis.connection.RedisConnection;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisPipelineException;
 import org.springframework.data.redis.connection.RedisStringCommands;
 import org.springframework.data.redis.connection.ReturnType;
 import org.springframework.data.redis.connection.jedis.JedisClusterConnection;
@@ -31,14 +33,19 @@ import org.springframework.data.redis.core.types.Expiration;
 import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 import org.thingsboard.server.common.data.FstStatsService;
+import org.thingsboard.server.common.stats.StatsFactory;
 import redis.clients.jedis.Jedis;
 import redis.clients.jedis.JedisPool;
 import redis.clients.jedis.util.JedisClusterCRC16;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
@@ -50,8 +57,14 @@ public abstract class RedisTbTransactionalCache<K extends Serializable, V extend
     static final byte[] BINARY_NULL_VALUE = RedisSerializer.java().serialize(NullValue.INSTANCE);
     static final JedisPool MOCK_POOL = new JedisPool(); //non-null pool required for JedisConnection to trigger closing jedis connection
 
+    static final int DEFAULT_NEAR_CACHE_TTL_IN_SECONDS = 60;
+
     @Autowired
     private FstStatsService fstStatsService;
+    @Autowired(required = false)
+    private StatsFactory statsFactory;
+    @Autowired(required = false)
+    private RedisNearCacheInvalidationService nearCacheInvalidationService;
 
     @Getter
     private final String cacheName;
@@ -62,6 +75,7 @@ public abstract class RedisTbTransactionalCache<K extends Serializable, V extend
     protected final Expiration evictExpiration;
     protected final Expiration cacheTtl;
     protected final boolean cacheEnabled;
+    private final RedisNearCache<V> nearCache;
 
     public RedisTbTransactionalCache(String cacheName,
                                      CacheSpecsMap cacheSpecsMap,
@@ -85,6 +99,29 @@ public abstract class RedisTbTransactionalCache<K extends Serializable, V extend
                 .map(CacheSpecs::getMaxSize)
                 .map(size -> size > 0)
                 .orElse(false);
+        this.nearCache = Optional.ofNullable(cacheSpecsMap)
+                .map(CacheSpecsMap::getSpecs)
+                .map(x -> x.get(cacheName))
+                .filter(specs -> cacheEnabled && specs.getNearCacheMaxSize() != null && specs.getNearCacheMaxSize() > 0)
+                .map(specs -> new RedisNearCache<V>(specs.getNearCacheMaxSize(),
+                        Optional.ofNullable(specs.getNearCacheTimeToLiveInSeconds()).orElse(DEFAULT_NEAR_CACHE_TTL_IN_SECONDS)))
+                .orElse(null);
+    }
+
+    @PostConstruct
+    public void initNearCache() {
+        if (nearCache == null) {
+            return;
+        }
+        if (statsFactory != null) {
+            nearCache.initStats(statsFactory, cacheName);
+        }
+        if (nearCacheInvalidationService != null) {
+            nearCacheInvalidationService.subscribe(cacheName, nearCache::invalidate);
+        } else {
+            log.warn("[{}] Near cache invalidation service is not available, the changes made by other nodes are visible after the near cache TTL", cacheName);
+        }
+        log.info("[{}] Near cache is enabled", cacheName);
     }
 
     @Override
@@ -92,26 +129,97 @@ public abstract class RedisTbTransactionalCache<K extends Serializable, V extend
         if (!cacheEnabled) {
             return null;
         }
+        if (nearCache == null) {
+            return getFromRedis(key);
+        }
+        String keyString = getKeyString(key);
+        TbCacheValueWrapper<V> value = nearCache.get(keyString);
+        if (value == null) {
+            long seq = nearCache.getInvalidationsSeq();
+            value = getFromRedis(key);
+            if (value != null) {
+                nearCache.put(keyString, value, seq);
+            }
+        }
+        return value;
+    }
+
+    private TbCacheValueWrapper<V> getFromRedis(K key) {
         try (var connection = connectionFactory.getConnection()) {
             byte[] rawValue = doGet(key, connection);
-            if (rawValue == null || rawValue.length == 0) {
-                return null;
-            } else if (Arrays.equals(rawValue, BINARY_NULL_VALUE)) {
-                return SimpleTbCacheValueWrapper.empty();
-            } else {
-                long startTime = System.nanoTime();
-                V value = valueSerializer.deserialize(key, rawValue);
+            return toValueWrapper(key, rawValue);
+        }
+    }
+
+    protected byte[] doGet(K key, RedisConnection connection) {
+        return connection.stringCommands().get(getRawKey(key));
+    }
+
+    @Override
+    public Map<K, TbCacheValueWrapper<V>> getAll(Collection<K> keys) {
+        if (!cacheEnabled || keys.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<K, TbCacheValueWrapper<V>> result = new HashMap<>();
+        List<K> keysList = new ArrayList<>(keys.size());
+        long seq = 0;
+        if (nearCache != null) {
+            seq = nearCache.getInvalidationsSeq();
+            for (K key : keys) {
+                TbCacheValueWrapper<V> value = nearCache.get(getKeyString(key));
                 if (value != null) {
-                    fstStatsService.recordDecodeTime(value.getClass(), startTime);
-                    fstStatsService.incrementDecode(value.getClass());
+                    result.put(key, value);
+                } else {
+                    keysList.add(key);
+                }
+            }
+            if (keysList.isEmpty()) {
+                return result;
+            }
+        } else {
+            keysList.addAll(keys);
+        }
+        List<byte[]> rawValues;
+        try (var connection = connectionFactory.getConnection()) {
+            rawValues = doGetAll(keysList, connection);
+        }
+        if (rawValues == null) {
+            return result;
+        }
+        for (int i = 0; i < keysList.size(); i++) {
+            K key = keysList.get(i);
+            TbCacheValueWrapper<V> value = toValueWrapper(key, rawValues.get(i));
+            if (value != null) {
+                result.put(key, value);
+                if (nearCache != null) {
+                    nearCache.put(getKeyString(key), value, seq);
                 }
-                return SimpleTbCacheValueWrapper.wrap(value);
             }
         }
+        return result;
     }
 
-    protected byte[] doGet(K key, RedisConnection connection) {
-        return connection.stringCommands().get(getRawKey(key));
+    /**
+     * Single MGET for all the keys. The cluster connection splits it by the hash slots of the keys.
+     * */
+    protected List<byte[]> doGetAll(List<K> keys, RedisConnection connection) {
+        return connection.stringCommands().mGet(keys.stream().map(this::getRawKey).toArray(byte[][]::new));
+    }
+
+    private TbCacheValueWrapper<V> toValueWrapper(K key, byte[] rawValue) {
+        if (rawValue == null || rawValue.length == 0) {
+            return null;
+        } else if (Arrays.equals(rawValue, BINARY_NULL_VALUE)) {
+            return SimpleTbCacheValueWrapper.empty();
+        } else {
+            long startTime = System.nanoTime();
+            V value = valueSerializer.deserialize(key, rawValue);
+            if (value != null) {
+                fstStatsService.recordDecodeTime(value.getClass(), startTime);
+                fstStatsService.incrementDecode(value.getClass());
+            }
+            return SimpleTbCacheValueWrapper.wrap(value);
+        }
     }
 
     @Override
@@ -122,12 +230,35 @@ public abstract class RedisTbTransactionalCache<K extends Serializable, V extend
         try (var connection = connectionFactory.getConnection()) {
             put(key, value, connection);
         }
+        invalidateNearCache(List.of(key));
     }
 
     public void put(K key, V value, RedisConnection connection) {
         put(connection, key, value, RedisStringCommands.SetOption.UPSERT);
     }
 
+    @Override
+    public void putAll(Map<K, V> values) {
+        if (!cacheEnabled || values.isEmpty()) {
+            return;
+        }
+        if (connectionFactory.isRedisClusterAware()) {
+            // pipelining is not supported by the cluster connection
+            values.forEach(this::put);
+            return;
+        }
+        try (var connection = connectionFactory.getConnection()) {
+            connection.openPipeline();
+            values.forEach((key, value) -> put(key, value, connection));
+            connection.closePipeline();
+        } catch (RedisPipelineException e) {
+            log.debug("[{}] Failed to put {} values in pipeline, putting them one by one", cacheName, values.size(), e);
+            values.forEach(this::put);
+            return;
+        }
+        invalidateNearCache(values.keySet());
+    }
+
     @Override
     public void putIfAbsent(K key, V value) {
         if (!cacheEnabled) {
@@ -136,6 +267,7 @@ public abstract class RedisTbTransactionalCache<K extends Serializable, V extend
         try (var connection = connectionFactory.getConnection()) {
             put(connection, key, value, RedisStringCommands.SetOption.SET_IF_ABSENT);
         }
+        invalidateNearCache(List.of(key));
     }
 
     @Override
@@ -146,6 +278,7 @@ public abstract class RedisTbTransactionalCache<K extends Serializable, V extend
         try (var connection = connectionFactory.getConnection()) {
             connection.keyCommands().del(getRawKey(key));
         }
+        invalidateNearCache(List.of(key));
     }
 
     @Override
@@ -160,6 +293,7 @@ public abstract class RedisTbTransactionalCache<K extends Serializable, V extend
         try (var connection = connectionFactory.getConnection()) {
             connection.keyCommands().del(keys.stream().map(this::getRawKey).toArray(byte[][]::new));
         }
+        invalidateNearCache(keys);
     }
 
     @Override
@@ -175,6 +309,26 @@ public abstract class RedisTbTransactionalCache<K extends Serializable, V extend
                 connection.stringCommands().set(rawKey, getRawValue(value), evictExpiration, RedisStringCommands.SetOption.UPSERT);
             }
         }
+        invalidateNearCache(List.of(key));
+    }
+
+    /**
+     * Invalidates the changed keys in the near cache of this node and publishes the invalidation to the other nodes.
+     * Should be called after the change is written to Redis, so the next read of the key gets the new value.
+     * */
+    protected void invalidateNearCache(Collection<K> keys) {
+        if (nearCache == null) {
+            return;
+        }
+        List<byte[]> rawKeys = new ArrayList<>(keys.size());
+        for (K key : keys) {
+            String keyString = getKeyString(key);
+            nearCache.invalidate(keyString);
+            rawKeys.add(keySerializer.serialize(keyString));
+        }
+        if (nearCacheInvalidationService != null) {
+            nearCacheInvalidationService.publish(cacheName, rawKeys);
+        }
     }
 
     @Override
@@ -225,8 +379,12 @@ public abstract class RedisTbTransactionalCache<K extends Serializable, V extend
         return connection;
     }
 
+    private String getKeyString(K key) {
+        return cacheName + key.toString();
+    }
+
     protected byte[] getRawKey(K key) {
-        String keyString = cacheName + key.toString();
+        String keyString = getKeyString(key);
         byte[] rawKey;
         try {
             rawKey = keySerializer.serialize(keyString);
@@ -59,6 +59,11 @@ public abstract class VersionedCaffeineTbCache<K extends VersionedCacheKey, V ex
         }
     }
 
+    @Override
+    TbCacheValueWrapper<V> toValueWrapper(Object storeValue) {
+        return SimpleTbCacheValueWrapper.wrap(((TbPair<Long, V>) storeValue).getSecond());
+    }
+
     private TbPair<Long, V> doGet(K key) {
         Cache.ValueWrapper source = cache.get(key);
         return source == null ? null : (TbPair<Long, V>) source.get();
@@ -25,6 +25,9 @@ import org.springframework.data.redis.serializer.StringRedisSerializer;
 import org.thingsboard.server.common.data.HasVersion;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 @Slf4j
 public abstract class VersionedRedisTbCache<K extends VersionedCacheKey, V extends Serializable & HasVersion> extends RedisTbTransactionalCache<K, V> implements VersionedTbCache<K, V> {
@@ -71,6 +74,24 @@ public abstract class VersionedRedisTbCache<K extends VersionedCacheKey, V exten
         return connection.stringCommands().getRange(rawKey, VERSION_SIZE, VALUE_END_OFFSET);
     }
 
+    @Override
+    protected List<byte[]> doGetAll(List<K> keys, RedisConnection connection) {
+        List<byte[]> rawValues = super.doGetAll(keys, connection);
+        if (rawValues == null) {
+            return null;
+        }
+        // MGET returns the whole values, so the version prefix is stripped the same way GETRANGE does for a single key
+        List<byte[]> values = new ArrayList<>(rawValues.size());
+        for (int i = 0; i < rawValues.size(); i++) {
+            byte[] rawValue = rawValues.get(i);
+            if (rawValue != null && keys.get(i).isVersioned()) {
+                rawValue = rawValue.length > VERSION_SIZE ? Arrays.copyOfRange(rawValue, VERSION_SIZE, rawValue.length) : null;
+            }
+            values.add(rawValue);
+        }
+        return values;
+    }
+
     @Override
     public void put(K key, V value) {
         if (!key.isVersioned()) {
@@ -82,6 +103,7 @@ public abstract class VersionedRedisTbCache<K extends VersionedCacheKey, V exten
             return;
         }
         doPut(key, value, version, cacheTtl);
+        invalidateNearCache(List.of(key));
     }
 
     @Override
@@ -121,6 +143,7 @@ public abstract class VersionedRedisTbCache<K extends VersionedCacheKey, V exten
         log.trace("evict [{}][{}]", key, version);
         if (version != null) {
             doPut(key, null, version, evictExpiration);
+            invalidateNearCache(List.of(key));
         }
     }
 
@@ -0,0 +1,54 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RedisNearCacheTest {
+
+    private final RedisNearCache<String> nearCache = new RedisNearCache<>(100, 60);
+
+    @Test
+    public void givenPutValue_whenGet_thenValueIsReturnedUntilInvalidated() {
+        nearCache.put("key", SimpleTbCacheValueWrapper.wrap("value"), nearCache.getInvalidationsSeq());
+        assertThat(nearCache.get("key").get()).isEqualTo("value");
+
+        nearCache.invalidate("key");
+        assertThat(nearCache.get("key")).isNull();
+    }
+
+    @Test
+    public void givenNullValue_whenGet_thenEmptyWrapperIsReturned() {
+        nearCache.put("key", SimpleTbCacheValueWrapper.empty(), nearCache.getInvalidationsSeq());
+        assertThat(nearCache.get("key")).isNotNull();
+        assertThat(nearCache.get("key").get()).isNull();
+    }
+
+    @Test
+    public void givenInvalidationDuringRead_whenPut_thenValueIsNotCached() {
+        long seq = nearCache.getInvalidationsSeq();
+        // the value might be read from Redis before the change that is invalidated
+        nearCache.invalidate("key");
+        nearCache.put("key", SimpleTbCacheValueWrapper.wrap("stale"), seq);
+        assertThat(nearCache.get("key")).isNull();
+
+        nearCache.put("key", SimpleTbCacheValueWrapper.wrap("value"), nearCache.getInvalidationsSeq());
+        assertThat(nearCache.get("key").get()).isEqualTo("value");
+    }
+
+}
@@ -0,0 +1,145 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.connection.jedis.JedisConnectionFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thingsboard.server.common.data.FstStatsService;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+
+public class RedisTbTransactionalCacheTest {
+
+    private static final String CACHE_NAME = "testCache";
+    private static final String KEY = "key";
+    private static final byte[] RAW_KEY = bytes(CACHE_NAME + KEY);
+    private static final byte[] CHANNEL = bytes(RedisNearCacheInvalidationService.CHANNEL_PREFIX + CACHE_NAME);
+
+    private RedisConnection connection;
+    private RedisStringCommands stringCommands;
+    private RedisTbTransactionalCache<String, String> cache;
+    private final AtomicReference<Consumer<String>> invalidationListener = new AtomicReference<>();
+
+    @BeforeEach
+    public void setUp() {
+        connection = mock(RedisConnection.class);
+        stringCommands = mock(RedisStringCommands.class);
+        given(connection.stringCommands()).willReturn(stringCommands);
+        JedisConnectionFactory connectionFactory = mock(JedisConnectionFactory.class);
+        given(connectionFactory.getConnection()).willReturn(connection);
+
+        CacheSpecs specs = new CacheSpecs();
+        specs.setMaxSize(100);
+        specs.setNearCacheMaxSize(100);
+        CacheSpecsMap specsMap = new CacheSpecsMap();
+        specsMap.setSpecs(Map.of(CACHE_NAME, specs));
+        TBRedisCacheConfiguration configuration = mock(TBRedisCacheConfiguration.class);
+        given(configuration.getEvictTtlInMs()).willReturn(60000);
+
+        cache = new RedisTbTransactionalCache<>(CACHE_NAME, specsMap, connectionFactory, configuration, new TbRedisSerializer<>() {
+            @Override
+            public byte[] serialize(String value) {
+                return bytes(value);
+            }
+
+            @Override
+            public String deserialize(String key, byte[] bytes) {
+                return new String(bytes, StandardCharsets.UTF_8);
+            }
+        }) {};
+
+        // the publishing goes through Redis, while the subscription of the other nodes is simulated
+        RedisNearCacheInvalidationService invalidationService = spy(new RedisNearCacheInvalidationService(connectionFactory));
+        willAnswer(invocation -> {
+            invalidationListener.set(invocation.getArgument(1));
+            return null;
+        }).given(invalidationService).subscribe(eq(CACHE_NAME), any());
+        ReflectionTestUtils.setField(cache, "fstStatsService", mock(FstStatsService.class));
+        ReflectionTestUtils.setField(cache, "nearCacheInvalidationService", invalidationService);
+        cache.initNearCache();
+    }
+
+    @Test
+    public void givenCachedValue_whenTransactionCommitted_thenNearCacheIsInvalidatedAndInvalidationIsPublished() {
+        givenRedisValue("v1");
+        assertThat(cache.get(KEY).get()).isEqualTo("v1");
+        givenRedisValue("v2");
+        assertThat(cache.get(KEY).get()).as("value from the near cache").isEqualTo("v1");
+
+        given(connection.exec()).willReturn(List.of(true));
+        TbCacheTransaction<String, String> transaction = cache.newTransactionForKey(KEY);
+        transaction.put(KEY, "v2");
+        assertThat(transaction.commit()).isTrue();
+
+        then(connection).should().publish(aryEq(CHANNEL), aryEq(RAW_KEY));
+        assertThat(cache.get(KEY).get()).isEqualTo("v2");
+    }
+
+    @Test
+    public void givenCachedValue_whenTransactionFailed_thenNothingIsInvalidated() {
+        givenRedisValue("v1");
+        assertThat(cache.get(KEY).get()).isEqualTo("v1");
+
+        given(connection.exec()).willReturn(null);
+        TbCacheTransaction<String, String> transaction = cache.newTransactionForKey(KEY);
+        transaction.put(KEY, "v2");
+        assertThat(transaction.commit()).isFalse();
+
+        then(connection).should(never()).publish(any(), any());
+        givenRedisValue("v3");
+        assertThat(cache.get(KEY).get()).isEqualTo("v1");
+    }
+
+    @Test
+    public void givenCachedValue_whenInvalidationReceived_thenValueIsReadFromRedis() {
+        givenRedisValue("v1");
+        assertThat(cache.get(KEY).get()).isEqualTo("v1");
+        givenRedisValue("v2");
+
+        assertThat(invalidationListener.get()).isNotNull();
+        invalidationListener.get().accept(CACHE_NAME + KEY);
+
+        assertThat(cache.get(KEY).get()).isEqualTo("v2");
+    }
+
+    private void givenRedisValue(String value) {
+        given(stringCommands.get(aryEq(RAW_KEY))).willReturn(bytes(value));
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+}
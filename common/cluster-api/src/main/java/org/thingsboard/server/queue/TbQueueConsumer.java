@@ -36,6 +36,19 @@ public interface TbQueueConsumer<T extends TbQueueMsg> {
 
     void commit();
 
+    /**
+     * Returns the position of the consumer after the last poll, so it can be committed by {@link #commit(TbQueueConsumerPosition)}
+     * once the polled messages are processed, while the consumer keeps polling.
+     * Returns null if the consumer is only able to commit its current position.
+     * */
+    default TbQueueConsumerPosition getPosition() {
+        return null;
+    }
+
+    default void commit(TbQueueConsumerPosition position) {
+        commit();
+    }
+
     boolean isStopped();
 
     List<String> getFullTopicNames();
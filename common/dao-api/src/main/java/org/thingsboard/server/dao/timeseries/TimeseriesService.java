@@ -29,6 +29,7 @@ import org.thingsboard.server.common.data.kv.TsKvLatestRemovingResult;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * @author Andrew Shvayka
@@ -39,6 +40,12 @@ public interface TimeseriesService {
 
     ListenableFuture<List<TsKvEntry>> findAll(TenantId tenantId, EntityId entityId, List<ReadTsKvQuery> queries);
 
+    /**
+     * Streams the raw time series of the query to the consumer in chunks, blocking the calling thread until the whole range is read.
+     * Intended for exports of ranges that are too large to be collected in memory.
+     */
+    void exportAll(TenantId tenantId, EntityId entityId, ReadTsKvQuery query, int chunkSize, Consumer<List<TsKvEntry>> consumer);
+
     ListenableFuture<Optional<TsKvEntry>> findLatest(TenantId tenantId, EntityId entityId, String key);
 
     ListenableFuture<List<TsKvEntry>> findLatest(TenantId tenantId, EntityId entityId, Collection<String> keys);
@@ -28,6 +28,8 @@ import org.thingsboard.server.edqs.data.dp.BoolDataPoint;
 import org.thingsboard.server.common.data.edqs.DataPoint;
 import org.thingsboard.server.edqs.data.dp.LongDataPoint;
 import org.thingsboard.server.edqs.data.dp.StringDataPoint;
+import org.thingsboard.server.edqs.data.ts.LatestValues;
+import org.thingsboard.server.edqs.data.ts.MapLatestValues;
 import org.thingsboard.server.edqs.query.DataKey;
 import org.thingsboard.server.edqs.repo.TenantRepo;
 
@@ -44,8 +46,7 @@ public abstract class BaseEntityData<T extends EntityFields> implements EntityDa
     private final UUID id;
     @Getter
     protected final Map<Integer, DataPoint> serverAttrMap;
-    @Getter
-    private final Map<Integer, DataPoint> tMap;
+    private volatile LatestValues latestValues;
 
     @Getter
     @Setter
@@ -61,7 +62,6 @@ public abstract class BaseEntityData<T extends EntityFields> implements EntityDa
     public BaseEntityData(UUID id) {
         this.id = id;
         this.serverAttrMap = new ConcurrentHashMap<>();
-        this.tMap = new ConcurrentHashMap<>();
     }
 
     @Override
@@ -84,17 +84,41 @@ public abstract class BaseEntityData<T extends EntityFields> implements EntityDa
 
     @Override
     public DataPoint getTs(Integer keyId) {
-        return tMap.get(keyId);
+        LatestValues values = latestValues;
+        return values != null ? values.get(keyId) : null;
     }
 
     @Override
     public boolean putTs(Integer keyId, DataPoint value) {
-        return tMap.put(keyId, value) == null;
+        return getOrCreateLatestValues().put(keyId, value);
     }
 
     @Override
     public boolean removeTs(Integer keyId) {
-        return tMap.remove(keyId) != null;
+        LatestValues values = latestValues;
+        return values != null && values.remove(keyId);
+    }
+
+    @Override
+    public void release() {
+        LatestValues values = latestValues;
+        if (values != null) {
+            values.release();
+        }
+    }
+
+    private LatestValues getOrCreateLatestValues() {
+        LatestValues values = latestValues;
+        if (values == null) {
+            synchronized (this) {
+                values = latestValues;
+                if (values == null) {
+                    values = repo != null ? repo.createLatestValues() : new MapLatestValues();
+                    latestValues = values;
+                }
+            }
+        }
+        return values;
     }
 
     @Override
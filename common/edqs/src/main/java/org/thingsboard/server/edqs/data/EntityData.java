@@ -54,6 +54,8 @@ public interface EntityData<T extends EntityFields> {
 
     boolean removeTs(Integer keyId);
 
+    void release();
+
     String getOwnerName();
 
     String getOwnerType();
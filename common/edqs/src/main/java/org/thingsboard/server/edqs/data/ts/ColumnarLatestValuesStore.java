@@ -0,0 +1,370 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.edqs.data.ts;
+
+import org.thingsboard.server.common.data.edqs.DataPoint;
+import org.thingsboard.server.edqs.data.dp.BoolDataPoint;
+import org.thingsboard.server.edqs.data.dp.DoubleDataPoint;
+import org.thingsboard.server.edqs.data.dp.LongDataPoint;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Latest values of all entities of a tenant, stored column-wise: every entity gets a dense slot index,
+ * and for every key there is a column of timestamps and values addressed by that index.
+ * Boolean, long and double values are kept as primitives (optionally in direct buffers, outside of the heap),
+ * while strings and JSON keep their {@link DataPoint} objects.
+ * <p>
+ * Slots are grouped into shards of a fixed size, so that growing the store never copies existing columns
+ * and writers of different shards do not contend with each other.
+ */
+public class ColumnarLatestValuesStore {
+
+    private static final byte ABSENT = 0;
+    private static final byte BOOL = 1;
+    private static final byte LONG = 2;
+    private static final byte DOUBLE = 3;
+    private static final byte OBJECT = 4;
+
+    private final int shardSize;
+    private final int shardBits;
+    private final boolean offHeap;
+
+    private volatile Shard[] shards = new Shard[0];
+    private int[] freeSlots = new int[16];
+    private int freeSlotsCount;
+    private int nextSlot;
+
+    public ColumnarLatestValuesStore(int shardSize, boolean offHeap) {
+        if (shardSize <= 0) {
+            throw new IllegalArgumentException("Shard size must be positive");
+        }
+        this.shardBits = 32 - Integer.numberOfLeadingZeros(shardSize - 1);
+        this.shardSize = 1 << shardBits;
+        this.offHeap = offHeap;
+    }
+
+    public synchronized LatestValues allocate() {
+        int slot = freeSlotsCount > 0 ? freeSlots[--freeSlotsCount] : nextSlot++;
+        int shardIdx = slot >>> shardBits;
+        Shard[] current = shards;
+        if (shardIdx >= current.length) {
+            Shard[] grown = Arrays.copyOf(current, shardIdx + 1);
+            grown[shardIdx] = new Shard();
+            shards = grown;
+        }
+        return new Slot(slot);
+    }
+
+    public synchronized int size() {
+        return nextSlot - freeSlotsCount;
+    }
+
+    /**
+     * @return bytes held by the primitive columns, either on heap or in direct buffers
+     */
+    public long getColumnsSizeInBytes() {
+        long size = 0;
+        for (Shard shard : shards) {
+            for (Column column : shard.columns) {
+                if (column != null) {
+                    size += column.sizeInBytes();
+                }
+            }
+        }
+        return size;
+    }
+
+    public boolean isOffHeap() {
+        return offHeap;
+    }
+
+    private synchronized void release(Slot slot) {
+        int idx = slot.idx;
+        if (idx < 0) {
+            return;
+        }
+        slot.idx = -1;
+        shard(idx).clear(idx);
+        if (freeSlotsCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeSlots.length * 2);
+        }
+        freeSlots[freeSlotsCount++] = idx;
+    }
+
+    private Shard shard(int idx) {
+        return shards[idx >>> shardBits];
+    }
+
+    private int offset(int idx) {
+        return idx & (shardSize - 1);
+    }
+
+    private final class Slot implements LatestValues {
+
+        private volatile int idx;
+
+        private Slot(int idx) {
+            this.idx = idx;
+        }
+
+        @Override
+        public DataPoint get(int keyId) {
+            int idx = this.idx;
+            if (idx < 0) {
+                return null;
+            }
+            DataPoint value = shard(idx).get(offset(idx), keyId);
+            return this.idx == idx ? value : null;
+        }
+
+        @Override
+        public boolean put(int keyId, DataPoint value) {
+            int idx = this.idx;
+            return idx >= 0 && shard(idx).put(this, idx, keyId, value);
+        }
+
+        @Override
+        public boolean remove(int keyId) {
+            int idx = this.idx;
+            return idx >= 0 && shard(idx).remove(this, idx, keyId);
+        }
+
+        @Override
+        public void release() {
+            ColumnarLatestValuesStore.this.release(this);
+        }
+
+    }
+
+    private final class Shard {
+
+        private final StampedLock lock = new StampedLock();
+        private volatile Column[] columns = new Column[0];
+
+        DataPoint get(int offset, int keyId) {
+            long stamp = lock.tryOptimisticRead();
+            DataPoint value = read(offset, keyId);
+            if (!lock.validate(stamp)) {
+                stamp = lock.readLock();
+                try {
+                    value = read(offset, keyId);
+                } finally {
+                    lock.unlockRead(stamp);
+                }
+            }
+            return value;
+        }
+
+        boolean put(Slot slot, int idx, int keyId, DataPoint value) {
+            long stamp = lock.writeLock();
+            try {
+                if (slot.idx != idx) {
+                    return false;
+                }
+                int offset = offset(idx);
+                Column column = getOrCreateColumn(keyId);
+                byte previous = column.types[offset];
+                switch (value.getType()) {
+                    case BOOLEAN -> column.set(offset, BOOL, value.getTs(), value.getBool() ? 1 : 0);
+                    case LONG -> column.set(offset, LONG, value.getTs(), value.getLong());
+                    case DOUBLE -> column.set(offset, DOUBLE, value.getTs(), Double.doubleToRawLongBits(value.getDouble()));
+                    default -> column.setObject(offset, value);
+                }
+                return previous == ABSENT;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        boolean remove(Slot slot, int idx, int keyId) {
+            long stamp = lock.writeLock();
+            try {
+                Column[] columns = this.columns;
+                if (slot.idx != idx || keyId >= columns.length || columns[keyId] == null) {
+                    return false;
+                }
+                return columns[keyId].clear(offset(idx));
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        void clear(int idx) {
+            long stamp = lock.writeLock();
+            try {
+                int offset = offset(idx);
+                for (Column column : columns) {
+                    if (column != null) {
+                        column.clear(offset);
+                    }
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        /*
+         * May be called without holding the lock: the result is discarded if a write happened concurrently,
+         * so it only must not fail on an inconsistent state.
+         * */
+        private DataPoint read(int offset, int keyId) {
+            Column[] columns = this.columns;
+            Column column = keyId < columns.length ? columns[keyId] : null;
+            if (column == null) {
+                return null;
+            }
+            return switch (column.types[offset]) {
+                case BOOL -> new BoolDataPoint(column.ts(offset), column.value(offset) != 0);
+                case LONG -> new LongDataPoint(column.ts(offset), column.value(offset));
+                case DOUBLE -> new DoubleDataPoint(column.ts(offset), Double.longBitsToDouble(column.value(offset)));
+                case OBJECT -> {
+                    Object[] objects = column.objects;
+                    yield objects != null ? (DataPoint) objects[offset] : null;
+                }
+                default -> null;
+            };
+        }
+
+        private Column getOrCreateColumn(int keyId) {
+            Column[] columns = this.columns;
+            if (keyId >= columns.length) {
+                columns = Arrays.copyOf(columns, Math.max(keyId + 1, columns.length * 2));
+                this.columns = columns;
+            }
+            Column column = columns[keyId];
+            if (column == null) {
+                column = offHeap ? new DirectColumn(shardSize) : new HeapColumn(shardSize);
+                columns[keyId] = column;
+            }
+            return column;
+        }
+
+    }
+
+    private abstract static class Column {
+
+        final byte[] types;
+        Object[] objects;
+
+        Column(int size) {
+            this.types = new byte[size];
+        }
+
+        abstract long ts(int offset);
+
+        abstract long value(int offset);
+
+        abstract void write(int offset, long ts, long value);
+
+        abstract long sizeInBytes();
+
+        void set(int offset, byte type, long ts, long value) {
+            write(offset, ts, value);
+            if (types[offset] == OBJECT) {
+                objects[offset] = null;
+            }
+            types[offset] = type;
+        }
+
+        void setObject(int offset, DataPoint value) {
+            if (objects == null) {
+                objects = new Object[types.length];
+            }
+            objects[offset] = value;
+            types[offset] = OBJECT;
+        }
+
+        boolean clear(int offset) {
+            byte previous = types[offset];
+            if (previous == OBJECT) {
+                objects[offset] = null;
+            }
+            types[offset] = ABSENT;
+            return previous != ABSENT;
+        }
+
+    }
+
+    private static class HeapColumn extends Column {
+
+        // timestamp and value of a slot are stored next to each other
+        private final long[] data;
+
+        HeapColumn(int size) {
+            super(size);
+            this.data = new long[size * 2];
+        }
+
+        @Override
+        long ts(int offset) {
+            return data[offset * 2];
+        }
+
+        @Override
+        long value(int offset) {
+            return data[offset * 2 + 1];
+        }
+
+        @Override
+        void write(int offset, long ts, long value) {
+            data[offset * 2] = ts;
+            data[offset * 2 + 1] = value;
+        }
+
+        @Override
+        long sizeInBytes() {
+            return (long) data.length * Long.BYTES + types.length;
+        }
+
+    }
+
+    private static class DirectColumn extends Column {
+
+        private final ByteBuffer data;
+
+        DirectColumn(int size) {
+            super(size);
+            this.data = ByteBuffer.allocateDirect(size * 2 * Long.BYTES).order(ByteOrder.nativeOrder());
+        }
+
+        @Override
+        long ts(int offset) {
+            return data.getLong(offset * 2 * Long.BYTES);
+        }
+
+        @Override
+        long value(int offset) {
+            return data.getLong((offset * 2 + 1) * Long.BYTES);
+        }
+
+        @Override
+        void write(int offset, long ts, long value) {
+            data.putLong(offset * 2 * Long.BYTES, ts);
+            data.putLong((offset * 2 + 1) * Long.BYTES, value);
+        }
+
+        @Override
+        long sizeInBytes() {
+            return data.capacity() + types.length;
+        }
+
+    }
+
+}
@@ -0,0 +1,42 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.edqs.data.ts;
+
+import org.thingsboard.server.common.data.edqs.DataPoint;
+
+/**
+ * Latest timeseries values of a single entity, keyed by {@link org.thingsboard.server.edqs.repo.KeyDictionary} ids.
+ */
+public interface LatestValues {
+
+    DataPoint get(int keyId);
+
+    /**
+     * @return true if there was no value for the key before
+     */
+    boolean put(int keyId, DataPoint value);
+
+    /**
+     * @return true if a value was removed
+     */
+    boolean remove(int keyId);
+
+    /**
+     * Frees the storage held by the entity. The instance must not be used afterwards.
+     */
+    void release();
+
+}
@@ -0,0 +1,47 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.edqs.data.ts;
+
+import org.thingsboard.server.common.data.edqs.DataPoint;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class MapLatestValues implements LatestValues {
+
+    private final Map<Integer, DataPoint> values = new ConcurrentHashMap<>();
+
+    @Override
+    public DataPoint get(int keyId) {
+        return values.get(keyId);
+    }
+
+    @Override
+    public boolean put(int keyId, DataPoint value) {
+        return values.put(keyId, value) == null;
+    }
+
+    @Override
+    public boolean remove(int keyId) {
+        return values.remove(keyId) != null;
+    }
+
+    @Override
+    public void release() {
+        values.clear();
+    }
+
+}
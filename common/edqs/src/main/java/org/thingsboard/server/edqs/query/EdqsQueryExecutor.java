@@ -0,0 +1,298 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.edqs.query;
+
+import org.thingsboard.common.util.ThingsBoardExecutors;
+import org.thingsboard.server.common.stats.EdqsStatsService;
+import org.thingsboard.server.edqs.data.EntityData;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Evaluates filters, counts and top-N selections over candidate entities. Large candidate sets are split into
+ * segments processed on a shared ForkJoin pool: every segment keeps its own bounded top-N heap, and the heaps
+ * are merged pairwise as the segments are joined. Each query is limited by a CPU time budget across all its segments.
+ */
+public class EdqsQueryExecutor {
+
+    private static final int BUDGET_CHECK_INTERVAL = 1024;
+    private static final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+    private final ForkJoinPool pool;
+    private final int parallelThreshold;
+    private final int segmentSize;
+    private final long cpuBudgetNanos;
+    private final EdqsStatsService statsService;
+
+    private EdqsQueryExecutor(ForkJoinPool pool, int parallelThreshold, int segmentSize, long cpuBudgetMs, EdqsStatsService statsService) {
+        this.pool = pool;
+        this.parallelThreshold = parallelThreshold;
+        this.segmentSize = Math.max(segmentSize, 1);
+        this.cpuBudgetNanos = TimeUnit.MILLISECONDS.toNanos(cpuBudgetMs);
+        this.statsService = statsService;
+    }
+
+    public static EdqsQueryExecutor serial(EdqsStatsService statsService) {
+        return new EdqsQueryExecutor(null, Integer.MAX_VALUE, Integer.MAX_VALUE, 0, statsService);
+    }
+
+    /**
+     * @param parallelism number of threads of the shared pool; values below 2 disable parallel execution
+     * @param parallelThreshold minimal number of candidate entities to process a query in parallel
+     * @param segmentSize number of candidate entities processed by a single task
+     * @param cpuBudgetMs maximum CPU time of a query, summed across segments; 0 for unlimited
+     */
+    public static EdqsQueryExecutor create(int parallelism, int parallelThreshold, int segmentSize, long cpuBudgetMs, EdqsStatsService statsService) {
+        ForkJoinPool pool = parallelism > 1 ? (ForkJoinPool) ThingsBoardExecutors.newWorkStealingPool(parallelism, "edqs-query") : null;
+        return new EdqsQueryExecutor(pool, parallelThreshold, segmentSize, cpuBudgetMs, statsService);
+    }
+
+    public long count(Collection<EntityData<?>> entities, int estimatedSize, Predicate<EntityData<?>> filter) {
+        return execute("count", entities.spliterator(), estimatedSize, new SegmentOperation<EntityData<?>, long[]>() {
+            @Override
+            public long[] newResult() {
+                return new long[1];
+            }
+
+            @Override
+            public void accept(long[] result, EntityData<?> ed) {
+                if (filter.test(ed)) {
+                    result[0]++;
+                }
+            }
+
+            @Override
+            public long[] merge(long[] a, long[] b) {
+                a[0] += b[0];
+                return a;
+            }
+        })[0];
+    }
+
+    public TopEntities top(Collection<EntityData<?>> entities, int estimatedSize, Predicate<EntityData<?>> filter,
+                           Function<EntityData<?>, SortableEntityData> mapper, int limit, Comparator<SortableEntityData> comparator) {
+        return execute("top", entities.spliterator(), estimatedSize, new TopNOperation<EntityData<?>>(limit, comparator) {
+            @Override
+            public void accept(TopN result, EntityData<?> ed) {
+                if (filter.test(ed)) {
+                    result.add(mapper.apply(ed));
+                }
+            }
+        }).toTopEntities();
+    }
+
+    public TopEntities sort(List<SortableEntityData> data, int limit, Comparator<SortableEntityData> comparator) {
+        return execute("sort", data.spliterator(), data.size(), new TopNOperation<SortableEntityData>(limit, comparator) {
+            @Override
+            public void accept(TopN result, SortableEntityData sd) {
+                result.add(sd);
+            }
+        }).toTopEntities();
+    }
+
+    public void shutdown() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    private <T, R> R execute(String operation, Spliterator<T> spliterator, int estimatedSize, SegmentOperation<T, R> op) {
+        boolean parallel = pool != null && estimatedSize >= parallelThreshold;
+        Execution execution = new Execution();
+        long startNs = System.nanoTime();
+        try {
+            SegmentTask<T, R> task = new SegmentTask<>(execution, op, spliterator, parallel ? estimatedSize : 0);
+            return parallel ? pool.invoke(task) : task.run();
+        } catch (EdqsQueryBudgetExceededException e) {
+            statsService.reportEdqsQueryBudgetExceeded();
+            throw e;
+        } finally {
+            statsService.reportEdqsQueryExecution(operation, parallel, execution.segments.get(),
+                    execution.cpuNanos.get(), System.nanoTime() - startNs);
+        }
+    }
+
+    private static long currentThreadCpuTime() {
+        return threadMXBean.isCurrentThreadCpuTimeSupported() ? threadMXBean.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+
+    private interface SegmentOperation<T, R> {
+
+        R newResult();
+
+        void accept(R result, T item);
+
+        R merge(R a, R b);
+
+    }
+
+    private abstract static class TopNOperation<T> implements SegmentOperation<T, TopN> {
+
+        private final int limit;
+        private final Comparator<SortableEntityData> comparator;
+
+        TopNOperation(int limit, Comparator<SortableEntityData> comparator) {
+            this.limit = limit;
+            this.comparator = comparator;
+        }
+
+        @Override
+        public TopN newResult() {
+            return new TopN(limit, comparator);
+        }
+
+        @Override
+        public TopN merge(TopN a, TopN b) {
+            return a.merge(b);
+        }
+
+    }
+
+    private static class TopN {
+
+        private final int limit;
+        private final Comparator<SortableEntityData> comparator;
+        // the worst of the kept entities is at the head
+        private final PriorityQueue<SortableEntityData> heap;
+        private int total;
+
+        TopN(int limit, Comparator<SortableEntityData> comparator) {
+            this.limit = limit;
+            this.comparator = comparator;
+            this.heap = new PriorityQueue<>(Math.max(Math.min(limit, 1024), 1), comparator.reversed());
+        }
+
+        void add(SortableEntityData sd) {
+            total++;
+            offer(sd);
+        }
+
+        TopN merge(TopN other) {
+            TopN target = heap.size() >= other.heap.size() ? this : other;
+            TopN source = target == this ? other : this;
+            for (SortableEntityData sd : source.heap) {
+                target.offer(sd);
+            }
+            target.total = total + other.total;
+            return target;
+        }
+
+        TopEntities toTopEntities() {
+            List<SortableEntityData> entities = new ArrayList<>(heap);
+            entities.sort(comparator);
+            return new TopEntities(entities, total);
+        }
+
+        private void offer(SortableEntityData sd) {
+            if (heap.size() < limit) {
+                heap.add(sd);
+            } else if (limit > 0 && comparator.compare(sd, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(sd);
+            }
+        }
+
+    }
+
+    private class Execution {
+
+        private final AtomicInteger segments = new AtomicInteger();
+        private final AtomicLong cpuNanos = new AtomicLong();
+
+        void addCpuTime(long nanos) {
+            long total = cpuNanos.addAndGet(nanos);
+            if (cpuBudgetNanos > 0 && total > cpuBudgetNanos) {
+                throw new EdqsQueryBudgetExceededException("Query exceeded CPU budget of " + TimeUnit.NANOSECONDS.toMillis(cpuBudgetNanos) + " ms");
+            }
+        }
+
+    }
+
+    private class SegmentTask<T, R> extends RecursiveTask<R> {
+
+        private final Execution execution;
+        private final SegmentOperation<T, R> op;
+        private final Spliterator<T> spliterator;
+        private long sizeHint;
+
+        SegmentTask(Execution execution, SegmentOperation<T, R> op, Spliterator<T> spliterator, long sizeHint) {
+            this.execution = execution;
+            this.op = op;
+            this.spliterator = spliterator;
+            this.sizeHint = sizeHint;
+        }
+
+        @Override
+        protected R compute() {
+            return run();
+        }
+
+        R run() {
+            List<SegmentTask<T, R>> forked = null;
+            Spliterator<T> split;
+            while (sizeHint > segmentSize && (split = spliterator.trySplit()) != null) {
+                sizeHint >>>= 1;
+                SegmentTask<T, R> task = new SegmentTask<>(execution, op, split, sizeHint);
+                task.fork();
+                if (forked == null) {
+                    forked = new ArrayList<>();
+                }
+                forked.add(task);
+            }
+            R result = processSegment();
+            if (forked != null) {
+                for (int i = forked.size() - 1; i >= 0; i--) {
+                    result = op.merge(result, forked.get(i).join());
+                }
+            }
+            return result;
+        }
+
+        private R processSegment() {
+            execution.segments.incrementAndGet();
+            R result = op.newResult();
+            Consumer<T> consumer = item -> op.accept(result, item);
+            long cpuTs = currentThreadCpuTime();
+            int processed = 0;
+            while (spliterator.tryAdvance(consumer)) {
+                if (++processed % BUDGET_CHECK_INTERVAL == 0) {
+                    long now = currentThreadCpuTime();
+                    execution.addCpuTime(now - cpuTs);
+                    cpuTs = now;
+                }
+            }
+            execution.addCpuTime(currentThreadCpuTime() - cpuTs);
+            return result;
+        }
+
+    }
+
+}
@@ -24,9 +24,11 @@ import org.thingsboard.server.edqs.query.DataKey;
 import org.thingsboard.server.edqs.query.EdqsDataQuery;
 import org.thingsboard.server.edqs.query.EdqsQuery;
 import org.thingsboard.server.edqs.query.SortableEntityData;
+import org.thingsboard.server.edqs.query.TopEntities;
 import org.thingsboard.server.edqs.repo.TenantRepo;
 
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.UUID;
 import java.util.function.Consumer;
 
@@ -49,6 +51,11 @@ public abstract class AbstractQueryProcessor<T extends EntityFilter> implements
         this.filter = filter;
     }
 
+    @Override
+    public TopEntities processQuery(int limit, Comparator<SortableEntityData> comparator) {
+        return repository.getQueryExecutor().sort(processQuery(), limit, comparator);
+    }
+
     protected SortableEntityData toSortData(EntityData<?> ed) {
         SortableEntityData sortData = new SortableEntityData(ed);
         sortData.setSortValue(getSortValue(ed, sortKey, ctx));
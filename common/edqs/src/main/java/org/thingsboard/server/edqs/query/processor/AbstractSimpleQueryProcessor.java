@@ -21,8 +21,14 @@ import org.thingsboard.server.common.data.query.EntityFilter;
 import org.thingsboard.server.edqs.data.CustomerData;
 import org.thingsboard.server.edqs.data.EntityData;
 import org.thingsboard.server.edqs.query.EdqsQuery;
+import org.thingsboard.server.edqs.query.SortableEntityData;
+import org.thingsboard.server.edqs.query.TopEntities;
 import org.thingsboard.server.edqs.repo.TenantRepo;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Set;
 import java.util.UUID;
 import java.util.function.Consumer;
 
@@ -35,6 +41,18 @@ public abstract class AbstractSimpleQueryProcessor<T extends EntityFilter> exten
         this.entityType = entityType;
     }
 
+    @Override
+    public TopEntities processQuery(int limit, Comparator<SortableEntityData> comparator) {
+        Collection<EntityData<?>> candidates = getCandidates(ctx.isTenantUser());
+        return repository.getQueryExecutor().top(candidates, getEstimatedSize(candidates), this::matches, this::toSortData, limit, comparator);
+    }
+
+    @Override
+    public long count() {
+        Collection<EntityData<?>> candidates = getCandidates(ctx.isIgnorePermissionCheck() || ctx.isTenantUser());
+        return repository.getQueryExecutor().count(candidates, getEstimatedSize(candidates), this::matches);
+    }
+
     @Override
     protected void processCustomerQuery(UUID customerId, Consumer<EntityData<?>> processor) {
         var customerData = (CustomerData) repository.getEntityMap(EntityType.CUSTOMER).get(customerId);
@@ -48,6 +66,19 @@ public abstract class AbstractSimpleQueryProcessor<T extends EntityFilter> exten
         process(repository.getEntitySet(entityType), processor);
     }
 
+    private Collection<EntityData<?>> getCandidates(boolean allEntities) {
+        if (allEntities) {
+            return repository.getEntitySet(entityType);
+        }
+        var customerData = (CustomerData) repository.getEntityMap(EntityType.CUSTOMER).get(ctx.getCustomerId().getId());
+        return customerData != null ? customerData.getEntities(entityType) : Collections.emptyList();
+    }
+
+    private int getEstimatedSize(Collection<EntityData<?>> candidates) {
+        // size of a skip list set is computed by traversing it, so the entity map size is used instead
+        return candidates instanceof Set ? repository.getEntityMap(entityType).size() : candidates.size();
+    }
+
     @Override
     protected int getProbableResultSize() {
         return 1024;
@@ -16,13 +16,17 @@
 package org.thingsboard.server.edqs.query.processor;
 
 import org.thingsboard.server.edqs.query.SortableEntityData;
+import org.thingsboard.server.edqs.query.TopEntities;
 
+import java.util.Comparator;
 import java.util.List;
 
 public interface EntityQueryProcessor {
 
     List<SortableEntityData> processQuery();
 
+    TopEntities processQuery(int limit, Comparator<SortableEntityData> comparator);
+
     long count();
 
 }
@@ -15,9 +15,12 @@
  */
 package org.thingsboard.server.edqs.repo;
 
-import lombok.AllArgsConstructor;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.thingsboard.server.common.data.ObjectType;
 import org.thingsboard.server.common.data.edqs.EdqsEvent;
@@ -29,6 +32,9 @@ import org.thingsboard.server.common.data.page.PageData;
 import org.thingsboard.server.common.data.query.EntityCountQuery;
 import org.thingsboard.server.common.data.query.EntityDataQuery;
 import org.thingsboard.server.common.stats.EdqsStatsService;
+import org.thingsboard.server.edqs.data.ts.LatestValuesStorageSettings;
+import org.thingsboard.server.edqs.data.ts.LatestValuesStorageType;
+import org.thingsboard.server.edqs.query.EdqsQueryExecutor;
 import org.thingsboard.server.queue.edqs.EdqsComponent;
 
 import java.util.concurrent.ConcurrentHashMap;
@@ -36,7 +42,7 @@ import java.util.concurrent.ConcurrentMap;
 import java.util.function.Predicate;
 
 @EdqsComponent
-@AllArgsConstructor
+@RequiredArgsConstructor
 @Service
 @Slf4j
 public class DefaultEdqsRepository implements EdqsRepository {
@@ -45,8 +51,43 @@ public class DefaultEdqsRepository implements EdqsRepository {
     private final static ConcurrentMap<TenantId, TenantRepo> repos = new ConcurrentHashMap<>();
     private final EdqsStatsService statsService;
 
+    @Value("#{'${queue.edqs.storage.latest_values.type:map}'.toUpperCase()}")
+    private LatestValuesStorageType latestValuesStorageType;
+    @Value("${queue.edqs.storage.latest_values.off_heap:false}")
+    private boolean latestValuesOffHeap;
+    @Value("${queue.edqs.storage.latest_values.shard_size:4096}")
+    private int latestValuesShardSize;
+
+    @Value("${queue.edqs.query.parallelism:0}")
+    private int queryParallelism;
+    @Value("${queue.edqs.query.parallel_threshold:50000}")
+    private int queryParallelThreshold;
+    @Value("${queue.edqs.query.segment_size:16384}")
+    private int querySegmentSize;
+    @Value("${queue.edqs.query.cpu_budget_ms:0}")
+    private long queryCpuBudgetMs;
+
+    private LatestValuesStorageSettings latestValuesStorageSettings = LatestValuesStorageSettings.DEFAULT;
+    private EdqsQueryExecutor queryExecutor;
+
+    @PostConstruct
+    private void init() {
+        latestValuesStorageSettings = new LatestValuesStorageSettings(latestValuesStorageType, latestValuesOffHeap, latestValuesShardSize);
+        log.info("Using {} storage for latest values{}", latestValuesStorageType,
+                latestValuesStorageType == LatestValuesStorageType.COLUMNAR && latestValuesOffHeap ? " (off-heap)" : "");
+        int parallelism = queryParallelism > 0 ? queryParallelism : Runtime.getRuntime().availableProcessors();
+        queryExecutor = EdqsQueryExecutor.create(parallelism, queryParallelThreshold, querySegmentSize, queryCpuBudgetMs, statsService);
+    }
+
+    @PreDestroy
+    private void destroy() {
+        if (queryExecutor != null) {
+            queryExecutor.shutdown();
+        }
+    }
+
     public TenantRepo get(TenantId tenantId) {
-        return repos.computeIfAbsent(tenantId, id -> new TenantRepo(id, statsService));
+        return repos.computeIfAbsent(tenantId, id -> new TenantRepo(id, statsService, latestValuesStorageSettings, queryExecutor));
     }
 
     @Override
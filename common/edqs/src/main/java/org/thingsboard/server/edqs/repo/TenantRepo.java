@@ -15,6 +15,7 @@
  */
 package org.thingsboard.server.edqs.repo;
 
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.thingsboard.server.common.data.EntityType;
 import org.thingsboard.server.common.data.ObjectType;
@@ -50,9 +51,15 @@ import org.thingsboard.server.edqs.data.EntityProfileData;
 import org.thingsboard.server.edqs.data.GenericData;
 import org.thingsboard.server.edqs.data.RelationsRepo;
 import org.thingsboard.server.edqs.data.TenantData;
+import org.thingsboard.server.edqs.data.ts.ColumnarLatestValuesStore;
+import org.thingsboard.server.edqs.data.ts.LatestValues;
+import org.thingsboard.server.edqs.data.ts.LatestValuesStorageSettings;
+import org.thingsboard.server.edqs.data.ts.MapLatestValues;
 import org.thingsboard.server.edqs.query.EdqsDataQuery;
 import org.thingsboard.server.edqs.query.EdqsQuery;
+import org.thingsboard.server.edqs.query.EdqsQueryExecutor;
 import org.thingsboard.server.edqs.query.SortableEntityData;
+import org.thingsboard.server.edqs.query.TopEntities;
 import org.thingsboard.server.edqs.query.processor.EntityQueryProcessor;
 import org.thingsboard.server.edqs.query.processor.EntityQueryProcessorFactory;
 import org.thingsboard.server.edqs.util.RepositoryUtils;
@@ -64,15 +71,12 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.TreeSet;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ConcurrentSkipListSet;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
-import java.util.stream.Collectors;
 
 import static org.thingsboard.server.edqs.util.RepositoryUtils.SORT_ASC;
 import static org.thingsboard.server.edqs.util.RepositoryUtils.SORT_DESC;
@@ -94,10 +98,21 @@ public class TenantRepo {
 
     private final TenantId tenantId;
     private final EdqsStatsService edqsStatsService;
+    @Getter
+    private final ColumnarLatestValuesStore latestValuesStore;
+    @Getter
+    private final EdqsQueryExecutor queryExecutor;
 
     public TenantRepo(TenantId tenantId, EdqsStatsService edqsStatsService) {
+        this(tenantId, edqsStatsService, LatestValuesStorageSettings.DEFAULT, EdqsQueryExecutor.serial(edqsStatsService));
+    }
+
+    public TenantRepo(TenantId tenantId, EdqsStatsService edqsStatsService,
+                      LatestValuesStorageSettings latestValuesStorageSettings, EdqsQueryExecutor queryExecutor) {
         this.tenantId = tenantId;
         this.edqsStatsService = edqsStatsService;
+        this.latestValuesStore = latestValuesStorageSettings.newStore();
+        this.queryExecutor = queryExecutor;
     }
 
     public void processEvent(EdqsEvent event) {
@@ -221,6 +236,7 @@ public class TenantRepo {
                 if (removed.getFields() != null) {
                     getEntitySet(entityType).remove(removed);
                 }
+                removed.release();
                 edqsStatsService.reportRemoved(entity.type());
 
                 UUID customerId = removed.getCustomerId();
@@ -278,6 +294,10 @@ public class TenantRepo {
         }
     }
 
+    public LatestValues createLatestValues() {
+        return latestValuesStore != null ? latestValuesStore.allocate() : new MapLatestValues();
+    }
+
     public ConcurrentMap<UUID, EntityData<?>> getEntityMap(EntityType entityType) {
         return entityMapByType.computeIfAbsent(entityType, et -> new ConcurrentHashMap<>());
     }
@@ -334,7 +354,9 @@ public class TenantRepo {
         EdqsDataQuery query = RepositoryUtils.toNewQuery(oldQuery);
         QueryContext ctx = buildContext(customerId, query.getEntityFilter(), ignorePermissionCheck);
         EntityQueryProcessor queryProcessor = EntityQueryProcessorFactory.create(this, ctx, query);
-        return sortAndConvert(query, queryProcessor.processQuery(), ctx);
+        Comparator<SortableEntityData> comparator = EntityDataSortOrder.Direction.ASC.equals(query.getSortDirection()) ? SORT_ASC : SORT_DESC;
+        int limit = (query.getPage() + 1) * query.getPageSize();
+        return toPageData(query, queryProcessor.processQuery(limit, comparator), ctx);
     }
 
     public long countEntitiesByQuery(CustomerId customerId, EntityCountQuery oldQuery, boolean ignorePermissionCheck) {
@@ -344,42 +366,16 @@ public class TenantRepo {
         return queryProcessor.count();
     }
 
-    private PageData<QueryResult> sortAndConvert(EdqsDataQuery query, List<SortableEntityData> data, QueryContext ctx) {
-        int totalSize = data.size();
+    private PageData<QueryResult> toPageData(EdqsDataQuery query, TopEntities top, QueryContext ctx) {
+        int totalSize = top.totalSize();
         int totalPages = (int) Math.ceil((float) totalSize / query.getPageSize());
         int offset = query.getPage() * query.getPageSize();
         if (offset > totalSize) {
             return new PageData<>(Collections.emptyList(), totalPages, totalSize, false);
         } else {
-            Comparator<SortableEntityData> comparator = EntityDataSortOrder.Direction.ASC.equals(query.getSortDirection()) ? SORT_ASC : SORT_DESC;
-            long startTs = System.nanoTime();
-//          IMPLEMENTATION THAT IS BASED ON PRIORITY_QUEUE
-//            var requiredSize = Math.min(offset + query.getPageSize(), totalSize);
-//            PriorityQueue<SortableEntityData> topN = new PriorityQueue<>(requiredSize, comparator.reversed());
-//            for (SortableEntityData item : data) {
-//                topN.add(item);
-//                if (topN.size() > requiredSize) {
-//                    topN.poll();
-//                }
-//            }
-//            List<SortableEntityData> result = new ArrayList<>(topN);
-//            Collections.reverse(result);
-//            result = result.subList(offset, requiredSize);
-//          IMPLEMENTATION THAT IS BASED ON TREE SET  (For offset + query.getPageSize() << totalSize)
-            var requiredSize = Math.min(offset + query.getPageSize(), totalSize);
-            TreeSet<SortableEntityData> topNSet = new TreeSet<>(comparator);
-            for (SortableEntityData sp : data) {
-                topNSet.add(sp);
-                if (topNSet.size() > requiredSize) {
-                    topNSet.pollLast();
-                }
-            }
-            var result = topNSet.stream().skip(offset).limit(query.getPageSize()).collect(Collectors.toList());
-//          IMPLEMENTATION THAT IS BASED ON TIM SORT (For offset + query.getPageSize() > totalSize / 2)
-//            data.sort(comparator);
-//            var result = data.subList(offset, endIndex);
-            log.trace("EDQ Sorted in {}", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTs));
-            return new PageData<>(toQueryResult(result, query, ctx), totalPages, totalSize, totalSize > requiredSize);
+            List<SortableEntityData> entities = top.entities();
+            var result = entities.subList(Math.min(offset, entities.size()), entities.size());
+            return new PageData<>(toQueryResult(result, query, ctx), totalPages, totalSize, totalSize > offset + query.getPageSize());
         }
     }
 
@@ -15,6 +15,7 @@
  */
 package org.thingsboard.server.edqs.stats;
 
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -53,6 +54,7 @@ public class DefaultEdqsStatsService implements EdqsStatsService {
     private final ConcurrentMap<ObjectType, AtomicInteger> objectCounters = new ConcurrentHashMap<>();
     private final ConcurrentMap<String, StatsTimer> timers = new ConcurrentHashMap<>();
     private final ConcurrentMap<String, StatsCounter> counters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Timer> histograms = new ConcurrentHashMap<>();
 
     @PostConstruct
     private void init() {
@@ -95,6 +97,21 @@ public class DefaultEdqsStatsService implements EdqsStatsService {
         getTimer("edqsCountQueryTimer").record(timingNanos, TimeUnit.NANOSECONDS);
     }
 
+    @Override
+    public void reportEdqsQueryExecution(String operation, boolean parallel, int segments, long cpuNanos, long timingNanos) {
+        String execution = parallel ? "parallel" : "serial";
+        getHistogram("edqsQueryLatency", operation, execution).record(timingNanos, TimeUnit.NANOSECONDS);
+        getHistogram("edqsQueryCpuTime", operation, execution).record(cpuNanos, TimeUnit.NANOSECONDS);
+        if (parallel) {
+            getCounter("parallelQuerySegments").add(segments);
+        }
+    }
+
+    @Override
+    public void reportEdqsQueryBudgetExceeded() {
+        getCounter("queryBudgetExceeded").increment();
+    }
+
     @Override
     public void reportStringCompressed() {
         getCounter("stringsCompressed").increment();
@@ -119,6 +136,11 @@ public class DefaultEdqsStatsService implements EdqsStatsService {
         return timers.computeIfAbsent(name, __ -> statsFactory.createStatsTimer("edqsTimers", name));
     }
 
+    private Timer getHistogram(String key, String operation, String execution) {
+        return histograms.computeIfAbsent(key + operation + execution, __ ->
+                statsFactory.createTimer(key, "operation", operation, "execution", execution));
+    }
+
     private StatsCounter getCounter(String name) {
         return counters.computeIfAbsent(name, __ -> statsFactory.createStatsCounter("edqsCounters", name));
     }
@@ -30,4 +30,11 @@ public interface TbActorMsg {
     default void onTbActorStopped(TbActorStopReason reason) {
     }
 
+    /**
+     * Executed when the message is rejected because the bounded mailbox of the target TbActor is full.
+     * Implementation should report the failure to the message originator.
+     */
+    default void onTbActorMailboxOverflow() {
+    }
+
 }
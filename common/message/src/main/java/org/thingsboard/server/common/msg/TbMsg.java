@@ -16,6 +16,7 @@
 package org.thingsboard.server.common.msg;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.google.protobuf.ByteString;
 import com.google.protobuf.InvalidProtocolBufferException;
 import lombok.AccessLevel;
@@ -60,7 +61,8 @@ public final class TbMsg implements Serializable {
     private final CustomerId customerId;
     private final TbMsgMetaData metaData;
     private final TbMsgDataType dataType;
-    private final String data;
+    @Getter(value = AccessLevel.NONE)
+    private final TbMsgPayload data;
     private final RuleChainId ruleChainId;
     private final RuleNodeId ruleNodeId;
 
@@ -116,7 +118,7 @@ public final class TbMsg implements Serializable {
                 .build();
     }
 
-    private TbMsg(String queueName, UUID id, long ts, TbMsgType internalType, String type, EntityId originator, CustomerId customerId, TbMsgMetaData metaData, TbMsgDataType dataType, String data,
+    private TbMsg(String queueName, UUID id, long ts, TbMsgType internalType, String type, EntityId originator, CustomerId customerId, TbMsgMetaData metaData, TbMsgDataType dataType, TbMsgPayload data,
                   RuleChainId ruleChainId, RuleNodeId ruleNodeId, UUID correlationId, Integer partition, List<CalculatedFieldId> previousCalculatedFieldIds, TbMsgProcessingCtx ctx, TbMsgCallback callback) {
         this.id = id != null ? id : UUID.randomUUID();
         this.queueName = queueName;
@@ -139,7 +141,7 @@ public final class TbMsg implements Serializable {
         }
         this.metaData = metaData;
         this.dataType = dataType != null ? dataType : TbMsgDataType.JSON;
-        this.data = data;
+        this.data = data != null ? data : TbMsgPayload.NULL;
         this.ruleChainId = ruleChainId;
         this.ruleNodeId = ruleNodeId;
         this.correlationId = correlationId;
@@ -151,6 +153,20 @@ public final class TbMsg implements Serializable {
         this.callback = Objects.requireNonNullElse(callback, TbMsgCallback.EMPTY);
     }
 
+    public String getData() {
+        return data.getData();
+    }
+
+    /**
+     * Returns the message data parsed as JSON. The data is parsed once per message and the result is shared
+     * with all messages transformed or copied from this one, so the returned node must not be modified.
+     * Use {@link JsonNode#deepCopy()} if you need to change it.
+     */
+    @JsonIgnore
+    public JsonNode getDataAsJson() {
+        return data.getJson();
+    }
+
     public static ByteString toByteString(TbMsg msg) {
         return ByteString.copyFrom(toByteArray(msg));
     }
@@ -184,7 +200,7 @@ public final class TbMsg implements Serializable {
         }
 
         builder.setDataType(msg.getDataType().ordinal());
-        builder.setData(msg.getData());
+        builder.setDataBytes(msg.data.getBytes());
 
         if (msg.getCorrelationId() != null) {
             builder.setCorrelationIdMSB(msg.getCorrelationId().getMostSignificantBits());
@@ -251,7 +267,7 @@ public final class TbMsg implements Serializable {
 
             TbMsgDataType dataType = TbMsgDataType.values()[proto.getDataType()];
             return new TbMsg(queueName, UUID.fromString(proto.getId()), proto.getTs(), null, proto.getType(), entityId, customerId,
-                    metaData, dataType, proto.getData(), ruleChainId, ruleNodeId, correlationId, partition, calculatedFieldIds, ctx, callback);
+                    metaData, dataType, TbMsgPayload.of(proto.getDataBytes()), ruleChainId, ruleNodeId, correlationId, partition, calculatedFieldIds, ctx, callback);
         } catch (InvalidProtocolBufferException e) {
             throw new IllegalStateException("Could not parse protobuf for TbMsg", e);
         }
@@ -366,7 +382,7 @@ public final class TbMsg implements Serializable {
         protected CustomerId customerId;
         protected TbMsgMetaData metaData;
         protected TbMsgDataType dataType;
-        protected String data;
+        protected TbMsgPayload data;
         protected RuleChainId ruleChainId;
         protected RuleNodeId ruleNodeId;
         protected UUID correlationId;
@@ -455,7 +471,15 @@ public final class TbMsg implements Serializable {
         }
 
         public TbMsgBuilder data(String data) {
-            this.data = data;
+            this.data = TbMsgPayload.of(data);
+            return this;
+        }
+
+        /*
+         * the node becomes the parsed data of the new message and must not be modified afterwards
+         * */
+        public TbMsgBuilder jsonData(JsonNode data) {
+            this.data = TbMsgPayload.of(data);
             return this;
         }
 
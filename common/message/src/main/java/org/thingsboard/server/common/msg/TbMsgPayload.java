@@ -0,0 +1,158 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.common.msg;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.protobuf.ByteString;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Holder of the {@link TbMsg} data that keeps the representations already computed for the message:
+ * the string, the UTF-8 bytes used in the queue protobuf and the parsed JSON tree.
+ * Each representation is computed lazily at most once and the holder is shared between the messages
+ * created with {@link TbMsg#transform()} and {@link TbMsg#copy()} as long as their data is not changed.
+ * <p>
+ * The parsed JSON tree is shared as well and must not be modified, use {@link JsonNode#deepCopy()} to change it.
+ */
+final class TbMsgPayload implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 2894019837261749541L;
+
+    static final TbMsgPayload NULL = new TbMsgPayload(null, null, null);
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private volatile String data;
+    private transient volatile ByteString bytes;
+    private transient volatile JsonNode json;
+
+    private TbMsgPayload(String data, ByteString bytes, JsonNode json) {
+        this.data = data;
+        this.bytes = bytes;
+        this.json = json;
+    }
+
+    static TbMsgPayload of(String data) {
+        return data != null ? new TbMsgPayload(data, null, null) : NULL;
+    }
+
+    static TbMsgPayload of(ByteString bytes) {
+        return new TbMsgPayload(null, bytes, null);
+    }
+
+    static TbMsgPayload of(JsonNode json) {
+        return json != null ? new TbMsgPayload(null, null, json) : NULL;
+    }
+
+    String getData() {
+        String data = this.data;
+        if (data == null) {
+            ByteString bytes = this.bytes;
+            if (bytes != null) {
+                data = bytes.toStringUtf8();
+            } else if (json != null) {
+                data = writeJson(json);
+            }
+            this.data = data;
+        }
+        return data;
+    }
+
+    ByteString getBytes() {
+        ByteString bytes = this.bytes;
+        if (bytes == null) {
+            String data = getData();
+            if (data == null) {
+                return ByteString.EMPTY;
+            }
+            bytes = ByteString.copyFromUtf8(data);
+            this.bytes = bytes;
+        }
+        return bytes;
+    }
+
+    JsonNode getJson() {
+        JsonNode json = this.json;
+        if (json == null) {
+            String data = this.data;
+            ByteString bytes = this.bytes;
+            if (data == null && bytes != null) {
+                json = bytes.isEmpty() ? null : readJson(bytes.newInput());
+            } else {
+                data = getData();
+                json = data == null || data.isEmpty() ? null : readJson(data);
+            }
+            this.json = json;
+        }
+        return json;
+    }
+
+    private static String writeJson(JsonNode json) {
+        try {
+            return mapper.writeValueAsString(json);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("The given Json object value cannot be transformed to a String: " + json, e);
+        }
+    }
+
+    private static JsonNode readJson(String data) {
+        try {
+            return mapper.readTree(data);
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    private static JsonNode readJson(InputStream data) {
+        try {
+            return mapper.readTree(data);
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    @Serial
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        getData();
+        out.defaultWriteObject();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return Objects.equals(getData(), ((TbMsgPayload) o).getData());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(getData());
+    }
+
+    @Override
+    public String toString() {
+        return getData();
+    }
+
+}
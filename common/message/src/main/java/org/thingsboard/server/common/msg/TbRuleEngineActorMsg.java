@@ -18,6 +18,7 @@ package org.thingsboard.server.common.msg;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.ToString;
+import org.thingsboard.server.common.msg.queue.RuleEngineException;
 
 @ToString
 @EqualsAndHashCode
@@ -29,4 +30,9 @@ public abstract class TbRuleEngineActorMsg implements TbActorMsg {
     public TbRuleEngineActorMsg(TbMsg msg) {
         this.msg = msg;
     }
+
+    @Override
+    public void onTbActorMailboxOverflow() {
+        msg.getCallback().onFailure(new RuleEngineException("Actor mailbox is full"));
+    }
 }
@@ -0,0 +1,95 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.common.msg;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+import org.thingsboard.server.common.data.id.DeviceId;
+import org.thingsboard.server.common.data.msg.TbMsgType;
+import org.thingsboard.server.common.msg.queue.TbMsgCallback;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TbMsgPayloadTest {
+
+    private static final String DATA = "{\"temperature\":42,\"humidity\":10.5}";
+
+    @Test
+    public void givenMsg_whenGetDataAsJsonTwice_thenParseOnce() {
+        TbMsg msg = newMsg(DATA);
+
+        JsonNode json = msg.getDataAsJson();
+
+        assertThat(json.get("temperature").asInt()).isEqualTo(42);
+        assertThat(msg.getDataAsJson()).isSameAs(json);
+    }
+
+    @Test
+    public void givenMsg_whenTransformOrCopyWithoutData_thenShareParsedData() {
+        TbMsg msg = newMsg(DATA);
+        JsonNode json = msg.getDataAsJson();
+
+        assertThat(msg.transform().build().getDataAsJson()).isSameAs(json);
+        assertThat(msg.copy().build().getDataAsJson()).isSameAs(json);
+        assertThat(msg.transform().data("{}").build().getDataAsJson()).isNotSameAs(json);
+    }
+
+    @Test
+    public void givenJsonData_whenGetData_thenSerializeLazily() {
+        ObjectNode json = JsonNodeFactory.instance.objectNode().put("temperature", 42);
+        TbMsg msg = newMsg(DATA).transform().jsonData(json).build();
+
+        assertThat(msg.getDataAsJson()).isSameAs(json);
+        assertThat(msg.getData()).isEqualTo("{\"temperature\":42}");
+    }
+
+    @Test
+    public void givenMsg_whenSerializeAndParse_thenDataIsPreserved() {
+        TbMsg msg = newMsg(DATA);
+
+        TbMsg restored = TbMsg.fromBytes("Main", TbMsg.toByteArray(msg), TbMsgCallback.EMPTY);
+
+        assertThat(restored.getDataAsJson()).isEqualTo(msg.getDataAsJson());
+        assertThat(restored.getData()).isEqualTo(DATA);
+        assertThat(restored.getData()).isEqualTo(msg.getData());
+    }
+
+    @Test
+    public void givenEmptyOrNullData_whenSerializeAndParse_thenDataIsEmpty() {
+        TbMsg nullDataMsg = newMsg(null);
+        assertThat(nullDataMsg.getData()).isNull();
+        assertThat(nullDataMsg.getDataAsJson()).isNull();
+
+        TbMsg restored = TbMsg.fromBytes("Main", TbMsg.toByteArray(nullDataMsg), TbMsgCallback.EMPTY);
+        assertThat(restored.getData()).isEmpty();
+        assertThat(restored.getDataAsJson()).isNull();
+        assertThat(nullDataMsg.getData()).isNull();
+    }
+
+    private static TbMsg newMsg(String data) {
+        return TbMsg.newMsg()
+                .type(TbMsgType.POST_TELEMETRY_REQUEST)
+                .originator(new DeviceId(UUID.randomUUID()))
+                .metaData(TbMsgMetaData.EMPTY)
+                .data(data)
+                .build();
+    }
+
+}
@@ -20,6 +20,7 @@ import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.thingsboard.server.common.msg.queue.TopicPartitionInfo;
 import org.thingsboard.server.queue.TbQueueConsumer;
+import org.thingsboard.server.queue.TbQueueConsumerPosition;
 import org.thingsboard.server.queue.TbQueueMsg;
 
 import java.io.IOException;
@@ -160,6 +161,32 @@ public abstract class AbstractTbQueueConsumerTemplate<R, T extends TbQueueMsg> i
         }
     }
 
+    @Override
+    public TbQueueConsumerPosition getPosition() {
+        consumerLock.lock();
+        try {
+            return doGetPosition();
+        } finally {
+            consumerLock.unlock();
+        }
+    }
+
+    @Override
+    public void commit(TbQueueConsumerPosition position) {
+        if (consumerLock.isLocked()) {
+            if (stopped) {
+                return;
+            }
+            log.error("commit. consumerLock is locked. will wait with no timeout. it looks like a race conditions or deadlock topic " + topic, new RuntimeException("stacktrace"));
+        }
+        consumerLock.lock();
+        try {
+            doCommit(position);
+        } finally {
+            consumerLock.unlock();
+        }
+    }
+
     @Override
     public void stop() {
         stopped = true;
@@ -192,6 +219,14 @@ public abstract class AbstractTbQueueConsumerTemplate<R, T extends TbQueueMsg> i
 
     abstract protected void doCommit();
 
+    protected TbQueueConsumerPosition doGetPosition() {
+        return null;
+    }
+
+    protected void doCommit(TbQueueConsumerPosition position) {
+        doCommit();
+    }
+
     abstract protected void doUnsubscribe();
 
     @Override
@@ -225,6 +225,7 @@ public class MainQueueConsumerManager<M extends TbQueueMsg, C extends QueueConfi
                 try {
                     List<M> msgs = consumer.poll(config.getPollInterval());
                     if (msgs.isEmpty()) {
+                        onEmptyPoll(consumer);
                         continue;
                     }
                     processMsgs(msgs, consumer, config);
@@ -239,6 +240,7 @@ public class MainQueueConsumerManager<M extends TbQueueMsg, C extends QueueConfi
                     }
                 }
             }
+            onConsumerLoopEnd(consumer);
             if (consumer.isStopped()) {
                 consumer.unsubscribe();
             }
@@ -257,6 +259,18 @@ public class MainQueueConsumerManager<M extends TbQueueMsg, C extends QueueConfi
         log.trace("Processed {} messages", msgs.size());
     }
 
+    /**
+     * Invoked by the consumer thread when the poll returned no messages.
+     * */
+    protected void onEmptyPoll(TbQueueConsumer<M> consumer) throws Exception {
+    }
+
+    /**
+     * Invoked by the consumer thread after the last poll, before the consumer is unsubscribed.
+     * */
+    protected void onConsumerLoopEnd(TbQueueConsumer<M> consumer) throws Exception {
+    }
+
     public void stop() {
         log.debug("[{}] Stopping consumers", queueKey);
         consumerWrapper.getConsumers().forEach(TbQueueConsumerTask::initiateStop);
@@ -24,10 +24,12 @@ import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
 import org.apache.kafka.common.TopicPartition;
 import org.springframework.util.StopWatch;
 import org.thingsboard.server.common.msg.queue.TopicPartitionInfo;
 import org.thingsboard.server.queue.TbQueueAdmin;
+import org.thingsboard.server.queue.TbQueueConsumerPosition;
 import org.thingsboard.server.queue.TbQueueMsg;
 import org.thingsboard.server.queue.common.AbstractTbQueueConsumerTemplate;
 
@@ -65,6 +67,7 @@ public class TbKafkaConsumerTemplate<T extends TbQueueMsg> extends AbstractTbQue
     private final boolean stopWhenRead; // stop consuming when reached end offset remembered on start
     private int readCount;
     private Map<Integer, Long> endOffsets; // needed if stopWhenRead is true
+    private final Map<TopicPartition, OffsetAndMetadata> polledOffsets = new HashMap<>(); // offsets next to the last polled records
 
     @Builder
     private TbKafkaConsumerTemplate(TbKafkaSettings settings, TbKafkaDecoder<T> decoder,
@@ -94,6 +97,7 @@ public class TbKafkaConsumerTemplate<T extends TbQueueMsg> extends AbstractTbQue
 
     @Override
     protected void doSubscribe(Set<TopicPartitionInfo> partitions) {
+        polledOffsets.clear();
         Map<String, List<Integer>> topics;
         if (partitions == null) {
             topics = Collections.emptyMap();
@@ -165,6 +169,10 @@ public class TbKafkaConsumerTemplate<T extends TbQueueMsg> extends AbstractTbQue
             recordList = Collections.emptyList();
         } else {
             recordList = new ArrayList<>(256);
+            for (TopicPartition topicPartition : records.partitions()) {
+                List<ConsumerRecord<String, byte[]>> partitionRecords = records.records(topicPartition);
+                polledOffsets.put(topicPartition, new OffsetAndMetadata(partitionRecords.get(partitionRecords.size() - 1).offset() + 1));
+            }
             records.forEach(record -> {
                 recordList.add(record);
                 if (stopWhenRead && endOffsets != null) {
@@ -224,6 +232,29 @@ public class TbKafkaConsumerTemplate<T extends TbQueueMsg> extends AbstractTbQue
         }
     }
 
+    @Override
+    protected TbQueueConsumerPosition doGetPosition() {
+        return groupId != null ? new TbKafkaConsumerPosition(Map.copyOf(polledOffsets)) : null;
+    }
+
+    @Override
+    protected void doCommit(TbQueueConsumerPosition position) {
+        if (groupId == null) {
+            return;
+        }
+        if (position instanceof TbKafkaConsumerPosition kafkaPosition) {
+            Set<TopicPartition> assignment = consumer.assignment();
+            Map<TopicPartition, OffsetAndMetadata> offsets = kafkaPosition.offsets().entrySet().stream()
+                    .filter(entry -> assignment.contains(entry.getKey())) // partitions revoked since the poll are committed by their new owner
+                    .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+            if (!offsets.isEmpty()) {
+                consumer.commitSync(offsets);
+            }
+        } else {
+            consumer.commitSync();
+        }
+    }
+
     @Override
     protected void doUnsubscribe() {
         if (consumer != null) {
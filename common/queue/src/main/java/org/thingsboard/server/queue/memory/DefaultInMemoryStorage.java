@@ -16,6 +16,7 @@
 package org.thingsboard.server.queue.memory;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.thingsboard.server.queue.TbQueueMsg;
 
@@ -23,60 +24,138 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
-import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
 
 @Component
 @Slf4j
 public final class DefaultInMemoryStorage implements InMemoryStorage {
-    private final ConcurrentHashMap<String, BlockingQueue<TbQueueMsg>> storage = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<String, InMemoryPartitionQueue> storage = new ConcurrentHashMap<>();
+    private final LongAdder lagTotal = new LongAdder();
+    private final LongAdder rejectedTotal = new LongAdder();
+
+    @Value("${queue.in_memory.partition_capacity:0}")
+    private int partitionCapacity;
+    @Value("${queue.in_memory.max_poll_records:1000}")
+    private int maxPollRecords = 1000;
+    @Value("${queue.in_memory.producer_block_timeout_ms:1000}")
+    private long producerBlockTimeoutMs = 1000;
 
     @Override
     public void printStats() {
         if (log.isDebugEnabled()) {
             storage.forEach((topic, queue) -> {
-                if (queue.size() > 0) {
-                    log.debug("[{}] Queue Size [{}]", topic, queue.size());
+                int size = queue.size();
+                if (size > 0) {
+                    log.debug("[{}] Queue Size [{}]", topic, size);
                 }
             });
+            long rejected = rejectedTotal.sumThenReset();
+            if (rejected > 0) {
+                log.debug("Rejected [{}] messages due to full queues", rejected);
+            }
         }
     }
 
     @Override
     public int getLagTotal() {
-        return storage.values().stream().map(BlockingQueue::size).reduce(0, Integer::sum);
+        return (int) Math.max(0, lagTotal.sum());
     }
 
     @Override
     public int getLag(String topic) {
-        return Optional.ofNullable(storage.get(topic)).map(Collection::size).orElse(0);
+        InMemoryPartitionQueue queue = storage.get(topic);
+        return queue != null ? queue.size() : 0;
+    }
+
+    @Override
+    public int getMaxPollRecords() {
+        return maxPollRecords;
     }
 
+    /**
+     * Waits for free space in a full partition queue up to the configured timeout and rejects the message after that.
+     * With zero timeout the message is rejected immediately. Partition queues are unbounded unless the capacity is configured.
+     */
     @Override
     public boolean put(String topic, TbQueueMsg msg) {
-        return storage.computeIfAbsent(topic, (t) -> new LinkedBlockingQueue<>()).add(msg);
+        InMemoryPartitionQueue queue = getOrCreateQueue(topic);
+        boolean added;
+        try {
+            added = producerBlockTimeoutMs > 0 ? queue.offer(msg, producerBlockTimeoutMs) : queue.offer(msg);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            added = false;
+        }
+        if (added) {
+            lagTotal.increment();
+        } else {
+            rejectedTotal.increment();
+            log.trace("[{}] Queue is full, capacity [{}]", topic, queue.capacity());
+        }
+        return added;
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     public <T extends TbQueueMsg> List<T> get(String topic) throws InterruptedException {
-        final BlockingQueue<TbQueueMsg> queue = storage.get(topic);
+        return get(topic, maxPollRecords);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T extends TbQueueMsg> List<T> get(String topic, int maxRecords) throws InterruptedException {
+        final InMemoryPartitionQueue queue = storage.get(topic);
         if (queue != null) {
             final TbQueueMsg firstMsg = queue.poll();
             if (firstMsg != null) {
                 final int queueSize = queue.size();
-                if (queueSize > 0) {
-                    final List<TbQueueMsg> entities = new ArrayList<>(Math.min(queueSize, 999) + 1);
+                if (queueSize > 0 && maxRecords > 1) {
+                    final List<TbQueueMsg> entities = new ArrayList<>(Math.min(queueSize, maxRecords - 1) + 1);
                     entities.add(firstMsg);
-                    queue.drainTo(entities, 999);
+                    queue.drainTo(entities, maxRecords - 1);
+                    lagTotal.add(-entities.size());
                     return (List<T>) entities;
                 }
+                lagTotal.decrement();
                 return Collections.singletonList((T) firstMsg);
             }
         }
         return Collections.emptyList();
     }
 
+    @Override
+    public boolean awaitMessages(Collection<String> topics, long timeoutMs) {
+        Thread consumer = Thread.currentThread();
+        List<InMemoryPartitionQueue> queues = new ArrayList<>(topics.size());
+        for (String topic : topics) {
+            InMemoryPartitionQueue queue = getOrCreateQueue(topic);
+            queue.addWaitingConsumer(consumer);
+            queues.add(queue);
+        }
+        try {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+            while (true) {
+                for (InMemoryPartitionQueue queue : queues) {
+                    if (queue.size() > 0) {
+                        return true;
+                    }
+                }
+                long remainingNanos = deadline - System.nanoTime();
+                if (remainingNanos <= 0 || consumer.isInterrupted()) {
+                    return false;
+                }
+                LockSupport.parkNanos(this, remainingNanos);
+            }
+        } finally {
+            queues.forEach(queue -> queue.removeWaitingConsumer(consumer));
+        }
+    }
+
+    private InMemoryPartitionQueue getOrCreateQueue(String topic) {
+        return storage.computeIfAbsent(topic, t -> InMemoryPartitionQueue.create(partitionCapacity));
+    }
+
 }
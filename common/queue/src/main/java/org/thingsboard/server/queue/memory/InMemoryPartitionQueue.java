@@ -0,0 +1,258 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.queue.memory;
+
+import org.thingsboard.server.queue.TbQueueMsg;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Queue of a single topic partition that wakes up the consumers parked in the blocking poll.
+ * The queue is unbounded unless the capacity is set: the bounded queue is a lock-free array queue (Vyukov's bounded queue),
+ * where each slot has a sequence number that tells producers and consumers whether the slot is free or holds a message,
+ * so neither side takes a lock. Capacity is rounded up to the next power of two.
+ */
+abstract class InMemoryPartitionQueue {
+
+    // consumers parked in the blocking poll
+    private final Set<Thread> waitingConsumers = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger waitingConsumersCount = new AtomicInteger();
+    // also serves as a monitor for the producers blocked on a full queue
+    private final AtomicInteger blockedProducers = new AtomicInteger();
+
+    static InMemoryPartitionQueue create(int capacity) {
+        return capacity > 0 ? new Bounded(capacity) : new Unbounded();
+    }
+
+    /**
+     * @return capacity of the queue, {@link Integer#MAX_VALUE} if the queue is unbounded
+     */
+    abstract int capacity();
+
+    abstract int size();
+
+    protected abstract boolean doOffer(TbQueueMsg msg);
+
+    protected abstract TbQueueMsg doPoll();
+
+    boolean offer(TbQueueMsg msg) {
+        if (doOffer(msg)) {
+            signalConsumers();
+            return true;
+        }
+        return false;
+    }
+
+    boolean offer(TbQueueMsg msg, long timeoutMs) throws InterruptedException {
+        if (offer(msg)) {
+            return true;
+        }
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        blockedProducers.incrementAndGet();
+        try {
+            synchronized (blockedProducers) {
+                while (!offer(msg)) {
+                    long remainingMs = deadline - System.currentTimeMillis();
+                    if (remainingMs <= 0) {
+                        return false;
+                    }
+                    blockedProducers.wait(remainingMs);
+                }
+                return true;
+            }
+        } finally {
+            blockedProducers.decrementAndGet();
+        }
+    }
+
+    TbQueueMsg poll() {
+        TbQueueMsg msg = doPoll();
+        if (msg != null) {
+            signalProducers();
+        }
+        return msg;
+    }
+
+    /**
+     * Moves up to maxMsgs messages to the target list.
+     *
+     * @return number of moved messages
+     */
+    int drainTo(List<? super TbQueueMsg> target, int maxMsgs) {
+        int drained = 0;
+        while (drained < maxMsgs) {
+            TbQueueMsg msg = doPoll();
+            if (msg == null) {
+                break;
+            }
+            target.add(msg);
+            drained++;
+        }
+        if (drained > 0) {
+            signalProducers();
+        }
+        return drained;
+    }
+
+    void addWaitingConsumer(Thread consumer) {
+        if (waitingConsumers.add(consumer)) {
+            waitingConsumersCount.incrementAndGet();
+        }
+    }
+
+    void removeWaitingConsumer(Thread consumer) {
+        if (waitingConsumers.remove(consumer)) {
+            waitingConsumersCount.decrementAndGet();
+        }
+    }
+
+    private void signalProducers() {
+        if (blockedProducers.get() > 0) {
+            synchronized (blockedProducers) {
+                blockedProducers.notifyAll();
+            }
+        }
+    }
+
+    private void signalConsumers() {
+        if (waitingConsumersCount.get() > 0) {
+            waitingConsumers.forEach(LockSupport::unpark);
+        }
+    }
+
+    private static final class Unbounded extends InMemoryPartitionQueue {
+
+        private final Queue<TbQueueMsg> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+
+        @Override
+        int capacity() {
+            return Integer.MAX_VALUE;
+        }
+
+        @Override
+        int size() {
+            // the counter is updated after the queue, so it may be negative for a moment
+            return Math.max(0, size.get());
+        }
+
+        @Override
+        protected boolean doOffer(TbQueueMsg msg) {
+            queue.add(msg);
+            size.incrementAndGet();
+            return true;
+        }
+
+        @Override
+        protected TbQueueMsg doPoll() {
+            TbQueueMsg msg = queue.poll();
+            if (msg != null) {
+                size.decrementAndGet();
+            }
+            return msg;
+        }
+
+    }
+
+    private static final class Bounded extends InMemoryPartitionQueue {
+
+        private final int capacity;
+        private final int mask;
+        private final AtomicReferenceArray<TbQueueMsg> buffer;
+        private final AtomicLongArray sequences;
+        private final AtomicLong enqueuePos = new AtomicLong();
+        private final AtomicLong dequeuePos = new AtomicLong();
+
+        Bounded(int capacity) {
+            int size = 1;
+            while (size < capacity) {
+                size <<= 1;
+            }
+            this.capacity = size;
+            this.mask = size - 1;
+            this.buffer = new AtomicReferenceArray<>(size);
+            this.sequences = new AtomicLongArray(size);
+            for (int i = 0; i < size; i++) {
+                sequences.set(i, i);
+            }
+        }
+
+        @Override
+        int capacity() {
+            return capacity;
+        }
+
+        @Override
+        int size() {
+            long size = enqueuePos.get() - dequeuePos.get();
+            return (int) Math.max(0, Math.min(size, capacity));
+        }
+
+        @Override
+        protected boolean doOffer(TbQueueMsg msg) {
+            long pos = enqueuePos.get();
+            while (true) {
+                int idx = (int) (pos & mask);
+                long diff = sequences.get(idx) - pos;
+                if (diff == 0) {
+                    if (enqueuePos.compareAndSet(pos, pos + 1)) {
+                        buffer.set(idx, msg);
+                        sequences.set(idx, pos + 1);
+                        return true;
+                    }
+                    pos = enqueuePos.get();
+                } else if (diff < 0) {
+                    return false;
+                } else {
+                    pos = enqueuePos.get();
+                }
+            }
+        }
+
+        @Override
+        protected TbQueueMsg doPoll() {
+            long pos = dequeuePos.get();
+            while (true) {
+                int idx = (int) (pos & mask);
+                long diff = sequences.get(idx) - (pos + 1);
+                if (diff == 0) {
+                    if (dequeuePos.compareAndSet(pos, pos + 1)) {
+                        TbQueueMsg msg = buffer.get(idx);
+                        buffer.set(idx, null);
+                        sequences.set(idx, pos + mask + 1);
+                        return msg;
+                    }
+                    pos = dequeuePos.get();
+                } else if (diff < 0) {
+                    return null;
+                } else {
+                    pos = dequeuePos.get();
+                }
+            }
+        }
+
+    }
+
+}
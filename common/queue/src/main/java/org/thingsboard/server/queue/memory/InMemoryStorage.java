@@ -17,6 +17,7 @@ package org.thingsboard.server.queue.memory;
 
 import org.thingsboard.server.queue.TbQueueMsg;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface InMemoryStorage {
@@ -27,8 +28,19 @@ public interface InMemoryStorage {
 
     int getLag(String topic);
 
+    int getMaxPollRecords();
+
     boolean put(String topic, TbQueueMsg msg);
 
     <T extends TbQueueMsg> List<T> get(String topic) throws InterruptedException;
 
+    <T extends TbQueueMsg> List<T> get(String topic, int maxRecords) throws InterruptedException;
+
+    /**
+     * Blocks until at least one of the topics has messages or the timeout expires.
+     *
+     * @return true if messages are available
+     */
+    boolean awaitMessages(Collection<String> topics, long timeoutMs);
+
 }
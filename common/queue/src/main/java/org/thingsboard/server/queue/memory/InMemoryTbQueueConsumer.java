@@ -20,6 +20,7 @@ import org.thingsboard.server.common.msg.queue.TopicPartitionInfo;
 import org.thingsboard.server.queue.TbQueueConsumer;
 import org.thingsboard.server.queue.TbQueueMsg;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
@@ -28,13 +29,16 @@ import java.util.stream.Collectors;
 @Slf4j
 public class InMemoryTbQueueConsumer<T extends TbQueueMsg> implements TbQueueConsumer<T> {
     private final InMemoryStorage storage;
+    private final int maxPollRecords;
     private volatile Set<TopicPartitionInfo> partitions;
     private volatile boolean stopped;
     private volatile boolean subscribed;
+    private int nextTopicIdx;
 
     public InMemoryTbQueueConsumer(InMemoryStorage storage, String topic) {
         this.storage = storage;
         this.topic = topic;
+        this.maxPollRecords = storage.getMaxPollRecords();
         stopped = false;
     }
 
@@ -71,33 +75,43 @@ public class InMemoryTbQueueConsumer<T extends TbQueueMsg> implements TbQueueCon
     @Override
     public List<T> poll(long durationInMillis) {
         if (subscribed) {
-            @SuppressWarnings("unchecked")
-            List<T> messages = partitions
-                    .stream()
-                    .map(tpi -> {
-                        try {
-                            return storage.get(tpi.getFullTopicName());
-                        } catch (InterruptedException e) {
-                            if (!stopped) {
-                                log.error("Queue was interrupted.", e);
-                            }
-                            return Collections.emptyList();
-                        }
-                    })
-                    .flatMap(List::stream)
-                    .map(msg -> (T) msg).collect(Collectors.toList());
-            if (messages.size() > 0) {
+            List<String> topics = getFullTopicNames();
+            List<T> messages = pollTopics(topics);
+            if (!messages.isEmpty()) {
                 return messages;
             }
+            if (!stopped && storage.awaitMessages(topics, durationInMillis)) {
+                return pollTopics(topics);
+            }
+        }
+        return Collections.emptyList();
+    }
+
+    private List<T> pollTopics(List<String> topics) {
+        List<T> messages = null;
+        int remaining = maxPollRecords;
+        int topicsCount = topics.size();
+        // start from a different partition on each poll, so a busy partition can't starve the others
+        int startIdx = topicsCount > 0 ? Math.floorMod(nextTopicIdx++, topicsCount) : 0;
+        for (int i = 0; i < topicsCount && remaining > 0; i++) {
+            String topic = topics.get((startIdx + i) % topicsCount);
             try {
-                Thread.sleep(durationInMillis);
+                List<T> topicMessages = storage.get(topic, remaining);
+                if (!topicMessages.isEmpty()) {
+                    if (messages == null) {
+                        messages = new ArrayList<>(topicMessages);
+                    } else {
+                        messages.addAll(topicMessages);
+                    }
+                    remaining -= topicMessages.size();
+                }
             } catch (InterruptedException e) {
                 if (!stopped) {
-                    log.error("Failed to sleep.", e);
+                    log.error("Queue was interrupted.", e);
                 }
             }
         }
-        return Collections.emptyList();
+        return messages != null ? messages : Collections.emptyList();
     }
 
     @Override
@@ -19,11 +19,14 @@ import com.google.gson.Gson;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.Test;
 import org.thingsboard.server.queue.TbQueueMsg;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.thingsboard.server.queue.common.DefaultTbQueueMsg;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
@@ -112,4 +115,70 @@ public class DefaultInMemoryStorageTest {
         testPollOnce(10);
     }
 
+    @Test
+    public void givenDefaultCapacity_whenPut_thenPartitionIsUnbounded() throws InterruptedException {
+        ReflectionTestUtils.setField(storage, "producerBlockTimeoutMs", 0L);
+        TbQueueMsg msg = mock(TbQueueMsg.class);
+        int msgCount = 100_000;
+        for (int i = 0; i < msgCount; i++) {
+            assertThat(storage.put(topic, msg)).isTrue();
+        }
+        assertThat(storage.getLag(topic)).isEqualTo(msgCount);
+    }
+
+    @Test
+    public void givenFullPartitionAndNoBlockTimeout_whenPut_thenReject() throws InterruptedException {
+        ReflectionTestUtils.setField(storage, "partitionCapacity", 4);
+        ReflectionTestUtils.setField(storage, "producerBlockTimeoutMs", 0L);
+        for (int i = 0; i < 4; i++) {
+            assertThat(storage.put(topic, mock(TbQueueMsg.class))).isTrue();
+        }
+        assertThat(storage.put(topic, mock(TbQueueMsg.class))).as("partition is full").isFalse();
+        assertThat(storage.getLag(topic)).isEqualTo(4);
+
+        assertThat(storage.get(topic, 1)).hasSize(1);
+        assertThat(storage.put(topic, mock(TbQueueMsg.class))).as("free slot after poll").isTrue();
+        assertThat(storage.getLagTotal()).isEqualTo(4);
+    }
+
+    @Test
+    public void givenFullPartition_whenPutWithBlockTimeout_thenWaitForConsumer() throws Exception {
+        ReflectionTestUtils.setField(storage, "partitionCapacity", 2);
+        ReflectionTestUtils.setField(storage, "producerBlockTimeoutMs", TimeUnit.SECONDS.toMillis(30));
+        storage.put(topic, mock(TbQueueMsg.class));
+        storage.put(topic, mock(TbQueueMsg.class));
+
+        CompletableFuture<Boolean> blockedPut = CompletableFuture.supplyAsync(() -> storage.put(topic, mock(TbQueueMsg.class)));
+        Thread.sleep(100);
+        assertThat(blockedPut).isNotDone();
+
+        assertThat(storage.get(topic)).hasSize(2);
+        assertThat(blockedPut.get(30, TimeUnit.SECONDS)).isTrue();
+        assertThat(storage.getLag(topic)).isEqualTo(1);
+    }
+
+    @Test
+    public void givenMaxRecords_whenPoll_thenReturnAtMostMaxRecords() throws InterruptedException {
+        for (int i = 0; i < 10; i++) {
+            storage.put(topic, mock(TbQueueMsg.class));
+        }
+        assertThat(storage.get(topic, 3)).hasSize(3);
+        assertThat(storage.get(topic, 100)).hasSize(7);
+        assertThat(storage.getLagTotal()).isZero();
+    }
+
+    @Test
+    public void givenEmptyTopic_whenConsumerPolls_thenWakeUpOnNewMessage() throws Exception {
+        InMemoryTbQueueConsumer<TbQueueMsg> consumer = new InMemoryTbQueueConsumer<>(storage, topic);
+        consumer.subscribe();
+
+        CompletableFuture<List<TbQueueMsg>> poll = CompletableFuture.supplyAsync(() -> consumer.poll(TimeUnit.SECONDS.toMillis(30)));
+        Thread.sleep(100);
+        assertThat(poll).isNotDone();
+
+        TbQueueMsg msg = mock(TbQueueMsg.class);
+        storage.put(topic, msg);
+        assertThat(poll.get(5, TimeUnit.SECONDS)).containsExactly(msg);
+    }
+
 }
@@ -22,9 +22,11 @@ import com.google.common.hash.Hashing;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.ListeningExecutorService;
 import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.mvel2.ExecutionContext;
@@ -54,10 +56,13 @@ import java.util.Calendar;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Queue;
 import java.util.Random;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -69,6 +74,7 @@ public class DefaultTbelInvokeService extends AbstractScriptInvokeService implem
     protected final Map<UUID, String> scriptIdToHash = new ConcurrentHashMap<>();
     protected final Map<String, TbelScript> scriptMap = new ConcurrentHashMap<>();
     protected Cache<String, Serializable> compiledScriptsCache;
+    private final Map<UUID, TbelScriptInvocations> scriptInvocations = new ConcurrentHashMap<>();
 
     private SandboxedParserConfiguration parserConfig;
     private final Optional<TbApiUsageStateClient> apiUsageStateClient;
@@ -109,6 +115,9 @@ public class DefaultTbelInvokeService extends AbstractScriptInvokeService implem
     @Value("${tbel.compiled_scripts_cache_size:1000}")
     private int compiledScriptsCacheSize;
 
+    @Value("${tbel.max_batch_size:100}")
+    private int maxBatchSize;
+
     private ListeningExecutorService executor;
 
     private final Lock lock = new ReentrantLock();
@@ -121,6 +130,12 @@ public class DefaultTbelInvokeService extends AbstractScriptInvokeService implem
     @Scheduled(fixedDelayString = "${tbel.stats.print_interval_ms:10000}")
     public void printStats() {
         super.printStats();
+        if (statsEnabled) {
+            log.info("{}: scripts [{}] compiled [{}]", getStatsName(), scriptMap.size(), compiledScriptsCache.estimatedSize());
+            if (log.isDebugEnabled()) {
+                scriptMap.forEach((scriptHash, script) -> log.debug("[{}] invocations [{}]", scriptHash, script.getInvocations().sum()));
+            }
+        }
     }
 
     @SneakyThrows
@@ -210,28 +225,68 @@ public class DefaultTbelInvokeService extends AbstractScriptInvokeService implem
         });
     }
 
+    /**
+     * Queues the invocation of the script. The queued invocations of the same script are executed in batches
+     * by at most {@code thread_pool_size} tasks, so under load the script is resolved once per batch instead of once per invocation.
+     * Each invocation still has its own execution context to enforce the memory limit and to be stopped on timeout.
+     * */
     @Override
     protected TbelScriptExecutionTask doInvokeFunction(UUID scriptId, Object[] args) {
         ExecutionContext executionContext = new ExecutionContext(this.parserConfig, maxMemoryLimitMb * 1024 * 1024);
-        return new TbelScriptExecutionTask(executionContext, executor.submit(() -> {
-            String scriptHash = scriptIdToHash.get(scriptId);
-            if (scriptHash == null) {
-                throw new TbScriptException(scriptId, TbScriptException.ErrorCode.OTHER, null, new RuntimeException("Script not found!"));
+        SettableFuture<Object> resultFuture = SettableFuture.create();
+        if (!scriptIdToHash.containsKey(scriptId)) {
+            resultFuture.setException(new TbScriptException(scriptId, TbScriptException.ErrorCode.OTHER, null, new RuntimeException("Script not found!")));
+            return new TbelScriptExecutionTask(executionContext, resultFuture);
+        }
+        TbelScriptInvocations invocations = scriptInvocations.computeIfAbsent(scriptId, TbelScriptInvocations::new);
+        invocations.queue.add(new TbelScriptInvocation(executionContext, args, resultFuture));
+        invocations.trySubmit();
+        return new TbelScriptExecutionTask(executionContext, resultFuture);
+    }
+
+    private void executeBatch(TbelScriptInvocations invocations) {
+        UUID scriptId = invocations.scriptId;
+        TbelScript script = null;
+        Serializable compiledScript = null;
+        TbelScriptInvocation invocation;
+        for (int i = 0; i < maxBatchSize && (invocation = invocations.queue.poll()) != null; i++) {
+            if (invocation.resultFuture.isDone()) {
+                // timed out while waiting in the queue
+                continue;
             }
-            TbelScript script = scriptMap.get(scriptHash);
-            Serializable compiledScript = compiledScriptsCache.get(scriptHash, k -> compileScript(script.getScriptBody()));
             try {
-                return MVEL.executeTbExpression(compiledScript, executionContext, script.createVars(args));
-            } catch (ScriptMemoryOverflowException e) {
-                throw new TbScriptException(scriptId, TbScriptException.ErrorCode.OTHER, script.getScriptBody(), new RuntimeException("Script memory overflow!"));
-            } catch (Exception e) {
-                throw new TbScriptException(scriptId, TbScriptException.ErrorCode.RUNTIME, script.getScriptBody(), e);
+                if (script == null) {
+                    String scriptHash = scriptIdToHash.get(scriptId);
+                    if (scriptHash == null) {
+                        throw new TbScriptException(scriptId, TbScriptException.ErrorCode.OTHER, null, new RuntimeException("Script not found!"));
+                    }
+                    TbelScript tbelScript = scriptMap.get(scriptHash);
+                    compiledScript = compiledScriptsCache.get(scriptHash, k -> compileScript(tbelScript.getScriptBody()));
+                    script = tbelScript;
+                }
+                if (statsEnabled) {
+                    script.getInvocations().increment();
+                }
+                invocation.resultFuture.set(execute(scriptId, script, compiledScript, invocation));
+            } catch (Throwable t) {
+                invocation.resultFuture.setException(t);
             }
-        }));
+        }
+    }
+
+    private Object execute(UUID scriptId, TbelScript script, Serializable compiledScript, TbelScriptInvocation invocation) {
+        try {
+            return MVEL.executeTbExpression(compiledScript, invocation.executionContext, script.createVars(invocation.args));
+        } catch (ScriptMemoryOverflowException e) {
+            throw new TbScriptException(scriptId, TbScriptException.ErrorCode.OTHER, script.getScriptBody(), new RuntimeException("Script memory overflow!"));
+        } catch (Exception e) {
+            throw new TbScriptException(scriptId, TbScriptException.ErrorCode.RUNTIME, script.getScriptBody(), e);
+        }
     }
 
     @Override
     protected void doRelease(UUID scriptId) {
+        scriptInvocations.remove(scriptId);
         String scriptHash = scriptIdToHash.remove(scriptId);
         if (scriptHash != null) {
             lock.lock();
@@ -260,6 +315,38 @@ public class DefaultTbelInvokeService extends AbstractScriptInvokeService implem
         return hasher.hash().toString();
     }
 
+    private record TbelScriptInvocation(ExecutionContext executionContext, Object[] args, SettableFuture<Object> resultFuture) {}
+
+    @RequiredArgsConstructor
+    private class TbelScriptInvocations {
+
+        private final UUID scriptId;
+        private final Queue<TbelScriptInvocation> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger tasks = new AtomicInteger();
+
+        void trySubmit() {
+            int current;
+            do {
+                current = tasks.get();
+                if (current >= threadPoolSize) {
+                    // the queued invocation will be picked up by one of the running tasks
+                    return;
+                }
+            } while (!tasks.compareAndSet(current, current + 1));
+            executor.execute(() -> {
+                try {
+                    executeBatch(this);
+                } finally {
+                    tasks.decrementAndGet();
+                    if (!queue.isEmpty()) {
+                        trySubmit();
+                    }
+                }
+            });
+        }
+
+    }
+
     @Override
     protected long getMaxEvalRequestsTimeout() {
         return maxInvokeRequestsTimeout * 2;
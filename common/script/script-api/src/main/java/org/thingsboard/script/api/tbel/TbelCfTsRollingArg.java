@@ -36,8 +36,15 @@ public class TbelCfTsRollingArg implements TbelCfArg, Iterable<TbelCfTsDoubleVal
 
     @Getter
     private final TbTimeWindow timeWindow;
-    @Getter
-    private final List<TbelCfTsDoubleVal> values;
+    private final long[] timestamps;
+    private final double[] values;
+
+    private List<TbelCfTsDoubleVal> valuesList;
+    private boolean statsCalculated;
+    private int nanCount;
+    private double nonNaNSum;
+    private double nonNaNMin;
+    private double nonNaNMax;
 
     @JsonCreator
     public TbelCfTsRollingArg(
@@ -45,23 +52,58 @@ public class TbelCfTsRollingArg implements TbelCfArg, Iterable<TbelCfTsDoubleVal
             @JsonProperty("values") List<TbelCfTsDoubleVal> values
     ) {
         this.timeWindow = timeWindow;
-        this.values = Collections.unmodifiableList(values);
+        this.valuesList = Collections.unmodifiableList(values);
+        this.timestamps = new long[values.size()];
+        this.values = new double[values.size()];
+        for (int i = 0; i < values.size(); i++) {
+            TbelCfTsDoubleVal value = values.get(i);
+            this.timestamps[i] = value.getTs();
+            this.values[i] = value.getValue();
+        }
     }
 
     public TbelCfTsRollingArg(long timeWindow, List<TbelCfTsDoubleVal> values) {
+        this(toTimeWindow(timeWindow), values);
+    }
+
+    /**
+     * Wraps time-ordered primitive arrays without copying them, the caller must not modify the arrays afterwards.
+     */
+    public TbelCfTsRollingArg(long timeWindow, long[] timestamps, double[] values) {
+        if (timestamps.length != values.length) {
+            throw new IllegalArgumentException("Timestamps and values must have the same length.");
+        }
+        this.timeWindow = toTimeWindow(timeWindow);
+        this.timestamps = timestamps;
+        this.values = values;
+    }
+
+    private static TbTimeWindow toTimeWindow(long timeWindow) {
         long ts = System.currentTimeMillis();
-        this.timeWindow = new TbTimeWindow(ts - timeWindow, ts);
-        this.values = Collections.unmodifiableList(values);
+        return new TbTimeWindow(ts - timeWindow, ts);
     }
 
     @Override
     public long memorySize() {
-        return 12 + values.size() * OBJ_SIZE;
+        return 12 + values.length * OBJ_SIZE;
+    }
+
+    public List<TbelCfTsDoubleVal> getValues() {
+        List<TbelCfTsDoubleVal> list = valuesList;
+        if (list == null) {
+            List<TbelCfTsDoubleVal> result = new ArrayList<>(values.length);
+            for (int i = 0; i < values.length; i++) {
+                result.add(new TbelCfTsDoubleVal(timestamps[i], values[i]));
+            }
+            list = Collections.unmodifiableList(result);
+            valuesList = list;
+        }
+        return list;
     }
 
     @JsonIgnore
     public List<TbelCfTsDoubleVal> getValue() {
-        return values;
+        return getValues();
     }
 
     public double max() {
@@ -69,21 +111,9 @@ public class TbelCfTsRollingArg implements TbelCfArg, Iterable<TbelCfTsDoubleVal
     }
 
     public double max(boolean ignoreNaN) {
-        if (values.isEmpty()) {
-            throw new IllegalArgumentException("Rolling argument values are empty.");
-        }
-
-        double max = Double.MIN_VALUE;
-        for (TbelCfTsDoubleVal value : values) {
-            double val = value.getValue();
-            if (!ignoreNaN && Double.isNaN(val)) {
-                return val;
-            }
-            if (max < val) {
-                max = val;
-            }
-        }
-        return max;
+        checkNotEmpty();
+        calculateStats();
+        return !ignoreNaN && nanCount > 0 ? Double.NaN : nonNaNMax;
     }
 
     public double min() {
@@ -91,21 +121,9 @@ public class TbelCfTsRollingArg implements TbelCfArg, Iterable<TbelCfTsDoubleVal
     }
 
     public double min(boolean ignoreNaN) {
-        if (values.isEmpty()) {
-            throw new IllegalArgumentException("Rolling argument values are empty.");
-        }
-
-        double min = Double.MAX_VALUE;
-        for (TbelCfTsDoubleVal value : values) {
-            double val = value.getValue();
-            if (!ignoreNaN && Double.isNaN(val)) {
-                return Double.NaN;
-            }
-            if (min > val) {
-                min = val;
-            }
-        }
-        return min;
+        checkNotEmpty();
+        calculateStats();
+        return !ignoreNaN && nanCount > 0 ? Double.NaN : nonNaNMin;
     }
 
     public double avg() {
@@ -121,9 +139,7 @@ public class TbelCfTsRollingArg implements TbelCfArg, Iterable<TbelCfTsDoubleVal
     }
 
     public double mean(boolean ignoreNaN) {
-        if (values.isEmpty()) {
-            throw new IllegalArgumentException("Rolling argument values are empty.");
-        }
+        checkNotEmpty();
 
         return sum(ignoreNaN) / count(ignoreNaN);
     }
@@ -133,9 +149,7 @@ public class TbelCfTsRollingArg implements TbelCfArg, Iterable<TbelCfTsDoubleVal
     }
 
     public double std(boolean ignoreNaN) {
-        if (values.isEmpty()) {
-            throw new IllegalArgumentException("Rolling argument values are empty.");
-        }
+        checkNotEmpty();
 
         double mean = mean(ignoreNaN);
         if (!ignoreNaN && Double.isNaN(mean)) {
@@ -143,8 +157,7 @@ public class TbelCfTsRollingArg implements TbelCfArg, Iterable<TbelCfTsDoubleVal
         }
 
         double sum = 0;
-        for (TbelCfTsDoubleVal value : values) {
-            double val = value.getValue();
+        for (double val : values) {
             if (Double.isNaN(val)) {
                 if (!ignoreNaN) {
                     return Double.NaN;
@@ -161,27 +174,25 @@ public class TbelCfTsRollingArg implements TbelCfArg, Iterable<TbelCfTsDoubleVal
     }
 
     public double median(boolean ignoreNaN) {
-        if (values.isEmpty()) {
-            throw new IllegalArgumentException("Rolling argument values are empty.");
+        checkNotEmpty();
+        calculateStats();
+        if (!ignoreNaN && nanCount > 0) {
+            return Double.NaN;
         }
 
-        List<Double> sortedValues = new ArrayList<>();
-        for (TbelCfTsDoubleVal value : values) {
-            double val = value.getValue();
-            if (Double.isNaN(val)) {
-                if (!ignoreNaN) {
-                    return Double.NaN;
-                }
-            } else {
-                sortedValues.add(val);
+        double[] sortedValues = new double[values.length - nanCount];
+        int idx = 0;
+        for (double val : values) {
+            if (!Double.isNaN(val)) {
+                sortedValues[idx++] = val;
             }
         }
-        Collections.sort(sortedValues);
+        Arrays.sort(sortedValues);
 
-        int size = sortedValues.size();
+        int size = sortedValues.length;
         return (size % 2 == 1)
-                ? sortedValues.get(size / 2)
-                : (sortedValues.get(size / 2 - 1) + sortedValues.get(size / 2)) / 2.0;
+                ? sortedValues[size / 2]
+                : (sortedValues[size / 2 - 1] + sortedValues[size / 2]) / 2.0;
     }
 
     public int count() {
@@ -189,16 +200,11 @@ public class TbelCfTsRollingArg implements TbelCfArg, Iterable<TbelCfTsDoubleVal
     }
 
     public int count(boolean ignoreNaN) {
-        int count = 0;
         if (ignoreNaN) {
-            for (TbelCfTsDoubleVal value : values) {
-                if (!Double.isNaN(value.getValue())) {
-                    count++;
-                }
-            }
-            return count;
+            calculateStats();
+            return values.length - nanCount;
         }
-        return values.size();
+        return values.length;
     }
 
     public double last() {
@@ -206,16 +212,14 @@ public class TbelCfTsRollingArg implements TbelCfArg, Iterable<TbelCfTsDoubleVal
     }
 
     public double last(boolean ignoreNaN) {
-        if (values.isEmpty()) {
-            throw new IllegalArgumentException("Rolling argument values are empty.");
-        }
+        checkNotEmpty();
 
-        double value = values.get(values.size() - 1).getValue();
+        double value = values[values.length - 1];
         if (!Double.isNaN(value) || !ignoreNaN) {
             return value;
         }
-        for (int i = values.size() - 2; i >= 0; i--) {
-            double prevValue = values.get(i).getValue();
+        for (int i = values.length - 2; i >= 0; i--) {
+            double prevValue = values[i];
             if (!Double.isNaN(prevValue)) {
                 return prevValue;
             }
@@ -228,16 +232,14 @@ public class TbelCfTsRollingArg implements TbelCfArg, Iterable<TbelCfTsDoubleVal
     }
 
     public double first(boolean ignoreNaN) {
-        if (values.isEmpty()) {
-            throw new IllegalArgumentException("Rolling argument values are empty.");
-        }
+        checkNotEmpty();
 
-        double firstValue = values.get(0).getValue();
+        double firstValue = values[0];
         if (!Double.isNaN(firstValue) || !ignoreNaN) {
             return firstValue;
         }
-        for (int i = 1; i < values.size(); i++) {
-            double nextValue = values.get(i).getValue();
+        for (int i = 1; i < values.length; i++) {
+            double nextValue = values[i];
             if (!Double.isNaN(nextValue)) {
                 return nextValue;
             }
@@ -250,22 +252,9 @@ public class TbelCfTsRollingArg implements TbelCfArg, Iterable<TbelCfTsDoubleVal
     }
 
     public double sum(boolean ignoreNaN) {
-        if (values.isEmpty()) {
-            throw new IllegalArgumentException("Rolling argument values are empty.");
-        }
-
-        double sum = 0;
-        for (TbelCfTsDoubleVal value : values) {
-            double val = value.getValue();
-            if (Double.isNaN(val)) {
-                if (!ignoreNaN) {
-                    return Double.NaN;
-                }
-            } else {
-                sum += val;
-            }
-        }
-        return sum;
+        checkNotEmpty();
+        calculateStats();
+        return !ignoreNaN && nanCount > 0 ? Double.NaN : nonNaNSum;
     }
 
     public TbelCfTsRollingData merge(TbelCfTsRollingArg other) {
@@ -306,8 +295,8 @@ public class TbelCfTsRollingArg implements TbelCfArg, Iterable<TbelCfTsDoubleVal
         long startTs = Long.MAX_VALUE;
         long endTs = Long.MIN_VALUE;
         for (TbelCfTsRollingArg arg : args) {
-            for (TbelCfTsDoubleVal val : arg.getValues()) {
-                allTimestamps.add(val.getTs());
+            for (long ts : arg.timestamps) {
+                allTimestamps.add(ts);
             }
             startTs = Math.min(startTs, arg.getTimeWindow().getStartTs());
             endTs = Math.max(endTs, arg.getTimeWindow().getEndTs());
@@ -322,9 +311,8 @@ public class TbelCfTsRollingArg implements TbelCfArg, Iterable<TbelCfTsDoubleVal
         for (long ts : allTimestamps) {
             for (int i = 0; i < args.size(); i++) {
                 var arg = args.get(i);
-                var values = arg.getValues();
-                while (lastIndex[i] < values.size() && values.get(lastIndex[i]).getTs() <= ts) {
-                    result[i] = values.get(lastIndex[i]).getValue();
+                while (lastIndex[i] < arg.timestamps.length && arg.timestamps[lastIndex[i]] <= ts) {
+                    result[i] = arg.values[lastIndex[i]];
                     lastIndex[i]++;
                 }
             }
@@ -352,12 +340,12 @@ public class TbelCfTsRollingArg implements TbelCfArg, Iterable<TbelCfTsDoubleVal
 
     @JsonIgnore
     public int getSize() {
-        return values.size();
+        return values.length;
     }
 
     @Override
     public Iterator<TbelCfTsDoubleVal> iterator() {
-        return values.iterator();
+        return getValues().iterator();
     }
 
     @Override
@@ -365,4 +353,41 @@ public class TbelCfTsRollingArg implements TbelCfArg, Iterable<TbelCfTsDoubleVal
         return "TS_ROLLING";
     }
 
+    private void checkNotEmpty() {
+        if (values.length == 0) {
+            throw new IllegalArgumentException("Rolling argument values are empty.");
+        }
+    }
+
+    /**
+     * Single pass over the values, summing in the same order as the values go to keep results stable.
+     */
+    private void calculateStats() {
+        if (statsCalculated) {
+            return;
+        }
+        int nans = 0;
+        double sum = 0;
+        double min = Double.MAX_VALUE;
+        double max = Double.MIN_VALUE;
+        for (double val : values) {
+            if (Double.isNaN(val)) {
+                nans++;
+            } else {
+                sum += val;
+                if (min > val) {
+                    min = val;
+                }
+                if (max < val) {
+                    max = val;
+                }
+            }
+        }
+        nanCount = nans;
+        nonNaNSum = sum;
+        nonNaNMin = min;
+        nonNaNMax = max;
+        statsCalculated = true;
+    }
+
 }
@@ -16,15 +16,21 @@
 package org.thingsboard.script.api.tbel;
 
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
 
 @Data
 public class TbelScript {
 
     private final String scriptBody;
     private final String[] argNames;
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final LongAdder invocations = new LongAdder();
 
     public Map createVars(Object[] args) {
         if (args == null || args.length != argNames.length) {
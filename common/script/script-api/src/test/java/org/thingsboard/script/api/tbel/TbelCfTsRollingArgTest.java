@@ -120,6 +120,30 @@ public class TbelCfTsRollingArgTest {
         assertThat(rollingArg.sum(false)).isNaN();
     }
 
+    @Test
+    void testPrimitiveArraysMatchList() {
+        TbelCfTsRollingArg primitiveArg = new TbelCfTsRollingArg(30000,
+                new long[]{ts - 70, ts - 60, ts - 50, ts - 40, ts - 30},
+                new double[]{Double.NaN, 9.0, 3.0, Double.NaN, 8.0});
+
+        assertThat(primitiveArg.getSize()).isEqualTo(5);
+        assertThat(primitiveArg.getValues()).containsExactly(
+                new TbelCfTsDoubleVal(ts - 70, Double.NaN),
+                new TbelCfTsDoubleVal(ts - 60, 9.0),
+                new TbelCfTsDoubleVal(ts - 50, 3.0),
+                new TbelCfTsDoubleVal(ts - 40, Double.NaN),
+                new TbelCfTsDoubleVal(ts - 30, 8.0)
+        );
+        assertThat(primitiveArg.sum()).isEqualTo(20.0);
+        assertThat(primitiveArg.count()).isEqualTo(3);
+        assertThat(primitiveArg.count(false)).isEqualTo(5);
+        assertThat(primitiveArg.min()).isEqualTo(3.0);
+        assertThat(primitiveArg.max(false)).isNaN();
+        assertThat(primitiveArg.median()).isEqualTo(8.0);
+        assertThat(primitiveArg.first()).isEqualTo(9.0);
+        assertThat(primitiveArg.last()).isEqualTo(8.0);
+    }
+
     @Test
     void testEmptyValues() {
         rollingArg = new TbelCfTsRollingArg(new TbTimeWindow(0, 10), List.of());
@@ -44,6 +44,12 @@ public class DummyEdqsStatsService implements EdqsStatsService {
     @Override
     public void reportEdqsCountQuery(TenantId tenantId, EntityCountQuery query, long timingNanos) {}
 
+    @Override
+    public void reportEdqsQueryExecution(String operation, boolean parallel, int segments, long cpuNanos, long timingNanos) {}
+
+    @Override
+    public void reportEdqsQueryBudgetExceeded() {}
+
     @Override
     public void reportStringCompressed() {}
 
@@ -34,6 +34,10 @@ public interface EdqsStatsService {
 
     void reportEdqsCountQuery(TenantId tenantId, EntityCountQuery query, long timingNanos);
 
+    void reportEdqsQueryExecution(String operation, boolean parallel, int segments, long cpuNanos, long timingNanos);
+
+    void reportEdqsQueryBudgetExceeded();
+
     void reportStringCompressed();
 
     void reportStringUncompressed();
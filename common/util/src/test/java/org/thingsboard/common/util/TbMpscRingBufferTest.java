@@ -0,0 +1,110 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.common.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class TbMpscRingBufferTest {
+
+    @Test
+    public void givenCapacity_whenCreated_thenRoundedToPowerOfTwo() {
+        assertThat(new TbMpscRingBuffer<>(1).capacity()).isEqualTo(1);
+        assertThat(new TbMpscRingBuffer<>(5).capacity()).isEqualTo(8);
+        assertThat(new TbMpscRingBuffer<>(1024).capacity()).isEqualTo(1024);
+        assertThatThrownBy(() -> new TbMpscRingBuffer<>(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void givenFullBuffer_whenOffer_thenRejectedUntilPolled() {
+        TbMpscRingBuffer<Integer> buffer = new TbMpscRingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertThat(buffer.offer(i)).isTrue();
+        }
+        assertThat(buffer.offer(4)).isFalse();
+        assertThat(buffer.offer(4, 1, TimeUnit.MILLISECONDS)).isFalse();
+        assertThat(buffer.size()).isEqualTo(4);
+
+        assertThat(buffer.poll()).isEqualTo(0);
+        assertThat(buffer.offer(4)).isTrue();
+
+        List<Integer> drained = new ArrayList<>();
+        assertThat(buffer.drain(drained::add, 10)).isEqualTo(4);
+        assertThat(drained).containsExactly(1, 2, 3, 4);
+        assertThat(buffer.isEmpty()).isTrue();
+        assertThat(buffer.poll()).isNull();
+    }
+
+    @Test
+    public void givenEmptyBuffer_whenAwait_thenTimesOut() throws Exception {
+        TbMpscRingBuffer<Integer> buffer = new TbMpscRingBuffer<>(4);
+        assertThat(buffer.await(10, TimeUnit.MILLISECONDS)).isFalse();
+        buffer.offer(1);
+        assertThat(buffer.await(10, TimeUnit.MILLISECONDS)).isTrue();
+    }
+
+    @Test
+    public void givenConcurrentProducers_whenDrained_thenAllElementsReceivedInPerProducerOrder() throws Exception {
+        int producers = 4;
+        int perProducer = 50_000;
+        TbMpscRingBuffer<long[]> buffer = new TbMpscRingBuffer<>(128);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch started = new CountDownLatch(1);
+        try {
+            for (int p = 0; p < producers; p++) {
+                long producerId = p;
+                executor.submit(() -> {
+                    started.await();
+                    for (long i = 0; i < perProducer; i++) {
+                        while (!buffer.offer(new long[]{producerId, i}, 1, TimeUnit.SECONDS)) {
+                            Thread.yield();
+                        }
+                    }
+                    return null;
+                });
+            }
+            started.countDown();
+
+            long[] lastSeen = new long[producers];
+            Arrays.fill(lastSeen, -1);
+            int received = 0;
+            while (received < producers * perProducer) {
+                assertThat(buffer.await(5, TimeUnit.SECONDS)).isTrue();
+                long[] element;
+                while ((element = buffer.poll()) != null) {
+                    int producerId = (int) element[0];
+                    assertThat(element[1]).isEqualTo(lastSeen[producerId] + 1);
+                    lastSeen[producerId] = element[1];
+                    received++;
+                }
+            }
+            assertThat(buffer.isEmpty()).isTrue();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+}
@@ -42,6 +42,7 @@ import org.thingsboard.server.common.data.util.TbPair;
 import org.thingsboard.server.common.msg.edqs.EdqsService;
 import org.thingsboard.server.common.stats.DefaultCounter;
 import org.thingsboard.server.common.stats.StatsFactory;
+import org.thingsboard.server.dao.cache.CacheBatchStats;
 import org.thingsboard.server.dao.cache.CacheExecutorService;
 import org.thingsboard.server.dao.service.Validator;
 import org.thingsboard.server.dao.sql.JpaExecutorService;
@@ -74,6 +75,7 @@ public class CachedAttributesService implements AttributesService {
     private final EdqsService edqsService;
     private final DefaultCounter hitCounter;
     private final DefaultCounter missCounter;
+    private final CacheBatchStats batchStats;
     private final VersionedTbCache<AttributeCacheKey, AttributeKvEntry> cache;
     private ListeningExecutorService cacheExecutor;
 
@@ -95,6 +97,7 @@ public class CachedAttributesService implements AttributesService {
 
         this.hitCounter = statsFactory.createDefaultCounter(STATS_NAME, "result", "hit");
         this.missCounter = statsFactory.createDefaultCounter(STATS_NAME, "result", "miss");
+        this.batchStats = new CacheBatchStats(statsFactory, STATS_NAME);
     }
 
     @PostConstruct
@@ -165,13 +168,15 @@ public class CachedAttributesService implements AttributesService {
                     return jpaExecutorService.submit(() -> {
                         log.trace("[{}][{}] Lookup attributes from db: {}", entityId, scope, notFoundAttributeKeys);
                         List<AttributeKvEntry> result = attributesDao.find(tenantId, entityId, scope, notFoundAttributeKeys);
+                        Map<AttributeCacheKey, AttributeKvEntry> foundAttributes = new HashMap<>();
                         for (AttributeKvEntry foundInDbAttribute : result) {
-                            put(entityId, scope, foundInDbAttribute);
+                            foundAttributes.put(new AttributeCacheKey(scope, entityId, foundInDbAttribute.getKey()), foundInDbAttribute);
                             notFoundAttributeKeys.remove(foundInDbAttribute.getKey());
                         }
                         for (String key : notFoundAttributeKeys) {
-                            cache.put(new AttributeCacheKey(scope, entityId, key), null);
+                            foundAttributes.put(new AttributeCacheKey(scope, entityId, key), null);
                         }
+                        cache.putAll(foundAttributes);
                         List<AttributeKvEntry> mergedAttributes = new ArrayList<>(cachedAttributes);
                         mergedAttributes.addAll(result);
                         log.trace("[{}][{}] Commit cache transaction: {}", entityId, scope, notFoundAttributeKeys);
@@ -182,16 +187,15 @@ public class CachedAttributesService implements AttributesService {
     }
 
     private Map<String, TbCacheValueWrapper<AttributeKvEntry>> findCachedAttributes(EntityId entityId, AttributeScope scope, Collection<String> attributeKeys) {
+        List<AttributeCacheKey> cacheKeys = attributeKeys.stream().map(k -> new AttributeCacheKey(scope, entityId, k)).toList();
+        long startTime = System.nanoTime();
+        Map<AttributeCacheKey, TbCacheValueWrapper<AttributeKvEntry>> cachedValues = cache.getAll(cacheKeys);
+        batchStats.record(cacheKeys.size(), startTime);
+
         Map<String, TbCacheValueWrapper<AttributeKvEntry>> cachedAttributes = new HashMap<>();
-        for (String attributeKey : attributeKeys) {
-            var cachedAttributeValue = cache.get(new AttributeCacheKey(scope, entityId, attributeKey));
-            if (cachedAttributeValue != null) {
-                hitCounter.increment();
-                cachedAttributes.put(attributeKey, cachedAttributeValue);
-            } else {
-                missCounter.increment();
-            }
-        }
+        cachedValues.forEach((cacheKey, cachedAttributeValue) -> cachedAttributes.put(cacheKey.getKey(), cachedAttributeValue));
+        hitCounter.add(cachedAttributes.size());
+        missCounter.add(cacheKeys.size() - cachedAttributes.size());
         return cachedAttributes;
     }
 
@@ -0,0 +1,47 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.dao.cache;
+
+import io.micrometer.core.instrument.Timer;
+import org.thingsboard.server.common.stats.StatsFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the batch cache lookups, tagged by the range of the batch size to keep the number of timers small.
+ * */
+public class CacheBatchStats {
+
+    private static final int[] BATCH_SIZE_LIMITS = {1, 4, 16, 64};
+    private static final String[] BATCH_SIZE_TAGS = {"1", "2-4", "5-16", "17-64", "65+"};
+
+    private final Timer[] timers = new Timer[BATCH_SIZE_TAGS.length];
+
+    public CacheBatchStats(StatsFactory statsFactory, String statsName) {
+        for (int i = 0; i < BATCH_SIZE_TAGS.length; i++) {
+            timers[i] = statsFactory.createTimer(statsName + ".batch", "batchSize", BATCH_SIZE_TAGS[i]);
+        }
+    }
+
+    public void record(int batchSize, long startTimeNanos) {
+        int i = 0;
+        while (i < BATCH_SIZE_LIMITS.length && batchSize > BATCH_SIZE_LIMITS[i]) {
+            i++;
+        }
+        timers[i].record(System.nanoTime() - startTimeNanos, TimeUnit.NANOSECONDS);
+    }
+
+}
@@ -51,6 +51,8 @@ public abstract class AbstractTsKvEntity implements ToData<TsKvEntry> {
     protected static final String MIN = "MIN";
     protected static final String MAX = "MAX";
 
+    private static final int ESTIMATED_ROW_OVERHEAD = 64;
+
     @Id
     @Column(name = ENTITY_ID_COLUMN, columnDefinition = "uuid")
     protected UUID entityId;
@@ -128,4 +130,11 @@ public abstract class AbstractTsKvEntity implements ToData<TsKvEntry> {
     public Long getVersion() {
         return null;
     }
+
+    /**
+     * Rough size of the row in bytes, used to limit the size of the insert batches.
+     */
+    public int estimateSize() {
+        return ESTIMATED_ROW_OVERHEAD + (strValue != null ? strValue.length() : 0) + (jsonValue != null ? jsonValue.length() : 0);
+    }
 }
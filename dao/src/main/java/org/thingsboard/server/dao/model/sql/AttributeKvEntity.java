@@ -46,6 +46,8 @@ import static org.thingsboard.server.dao.model.ModelConstants.VERSION_COLUMN;
 @Table(name = "attribute_kv")
 public class AttributeKvEntity implements ToData<AttributeKvEntry>, Serializable {
 
+    private static final int ESTIMATED_ROW_OVERHEAD = 64;
+
     @EmbeddedId
     private AttributeKvCompositeKey id;
 
@@ -90,4 +92,11 @@ public class AttributeKvEntity implements ToData<AttributeKvEntry>, Serializable
 
         return new BaseAttributeKvEntry(kvEntry, lastUpdateTs, version);
     }
+
+    /**
+     * Rough size of the row in bytes, used to limit the size of the insert batches.
+     */
+    public int estimateSize() {
+        return ESTIMATED_ROW_OVERHEAD + (strValue != null ? strValue.length() : 0) + (jsonValue != null ? jsonValue.length() : 0);
+    }
 }
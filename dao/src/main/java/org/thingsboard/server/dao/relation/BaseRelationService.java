@@ -33,6 +33,7 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.event.TransactionalEventListener;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.thingsboard.common.util.ThingsBoardExecutors;
+import org.thingsboard.server.cache.TbCacheValueWrapper;
 import org.thingsboard.server.cache.TbTransactionalCache;
 import org.thingsboard.server.common.data.StringUtils;
 import org.thingsboard.server.common.data.audit.ActionType;
@@ -46,6 +47,8 @@ import org.thingsboard.server.common.data.relation.RelationEntityTypeFilter;
 import org.thingsboard.server.common.data.relation.RelationTypeGroup;
 import org.thingsboard.server.common.data.relation.RelationsSearchParameters;
 import org.thingsboard.server.common.data.rule.RuleChainType;
+import org.thingsboard.server.common.stats.StatsFactory;
+import org.thingsboard.server.dao.cache.CacheBatchStats;
 import org.thingsboard.server.dao.entity.EntityService;
 import org.thingsboard.server.dao.eventsourcing.RelationActionEvent;
 import org.thingsboard.server.dao.exception.DataValidationException;
@@ -81,6 +84,7 @@ public class BaseRelationService implements RelationService {
     private final ApplicationEventPublisher eventPublisher;
     private final JpaExecutorService executor;
     private final JpaRelationQueryExecutorService relationsExecutor;
+    private final CacheBatchStats batchStats;
     protected ScheduledExecutorService timeoutExecutorService;
 
     @Value("${sql.relations.query_timeout:20}")
@@ -89,13 +93,14 @@ public class BaseRelationService implements RelationService {
     public BaseRelationService(RelationDao relationDao, @Lazy EntityService entityService,
                                TbTransactionalCache<RelationCacheKey, RelationCacheValue> cache,
                                ApplicationEventPublisher eventPublisher, JpaExecutorService executor,
-                               JpaRelationQueryExecutorService relationsExecutor) {
+                               JpaRelationQueryExecutorService relationsExecutor, StatsFactory statsFactory) {
         this.relationDao = relationDao;
         this.entityService = entityService;
         this.cache = cache;
         this.eventPublisher = eventPublisher;
         this.executor = executor;
         this.relationsExecutor = relationsExecutor;
+        this.batchStats = new CacheBatchStats(statsFactory, "relations.cache");
     }
 
     @PostConstruct
@@ -579,40 +584,71 @@ public class BaseRelationService implements RelationService {
     private void processQueue(RelationQueueCtx ctx) {
         RelationTask task = ctx.tasks.poll();
         while (task != null) {
-            List<EntityRelation> relations = findRelations(ctx.tenantId, task.root, ctx.direction, ctx.relationTypeGroup);
-            Map<EntityId, List<EntityRelation>> newChildrenRelations = new HashMap<>();
-            for (EntityRelation childRelation : relations) {
-                log.trace("Found Relation: {}", childRelation);
-                EntityId childId = ctx.direction == EntitySearchDirection.FROM ? childRelation.getTo() : childRelation.getFrom();
-                if (ctx.uniqueMap.putIfAbsent(childId, Boolean.TRUE) == null) {
-                    log.trace("Adding Relation: {}", childId);
-                    newChildrenRelations.put(childId, new ArrayList<>());
-                }
-                if (ctx.fetchLastLevelOnly) {
-                    var list = newChildrenRelations.get(childId);
-                    if (list != null) {
-                        list.add(childRelation);
-                    }
-                }
+            // the relations of all the queued tasks are looked up in the cache with one call
+            List<RelationTask> tasks = new ArrayList<>();
+            for (; task != null; task = ctx.tasks.poll()) {
+                tasks.add(task);
+            }
+            RelationTypeGroup relationTypeGroup = ctx.relationTypeGroup != null ? ctx.relationTypeGroup : RelationTypeGroup.COMMON;
+            Map<EntityId, RelationCacheKey> cacheKeys = new HashMap<>();
+            for (RelationTask queuedTask : tasks) {
+                cacheKeys.computeIfAbsent(queuedTask.root, root -> toRelationsCacheKey(root, ctx.direction, relationTypeGroup));
+            }
+            long startTime = System.nanoTime();
+            Map<RelationCacheKey, TbCacheValueWrapper<RelationCacheValue>> cachedRelations = cache.getAll(cacheKeys.values());
+            batchStats.record(cacheKeys.size(), startTime);
+            for (RelationTask queuedTask : tasks) {
+                processTask(ctx, queuedTask, cachedRelations.get(cacheKeys.get(queuedTask.root)));
+            }
+            task = ctx.tasks.poll();
+        }
+        ctx.future.set(ctx.result);
+    }
+
+    private void processTask(RelationQueueCtx ctx, RelationTask task, TbCacheValueWrapper<RelationCacheValue> cacheValue) {
+        List<EntityRelation> relations;
+        if (cacheValue != null && cacheValue.get() != null) {
+            relations = cacheValue.get().getRelations();
+        } else {
+            relations = findRelations(ctx.tenantId, task.root, ctx.direction, ctx.relationTypeGroup);
+        }
+        Map<EntityId, List<EntityRelation>> newChildrenRelations = new HashMap<>();
+        for (EntityRelation childRelation : relations) {
+            log.trace("Found Relation: {}", childRelation);
+            EntityId childId = ctx.direction == EntitySearchDirection.FROM ? childRelation.getTo() : childRelation.getFrom();
+            if (ctx.uniqueMap.putIfAbsent(childId, Boolean.TRUE) == null) {
+                log.trace("Adding Relation: {}", childId);
+                newChildrenRelations.put(childId, new ArrayList<>());
             }
             if (ctx.fetchLastLevelOnly) {
-                if (relations.isEmpty()) {
-                    ctx.result.addAll(task.prevRelations);
-                } else if (task.currentLvl == ctx.maxLvl) {
-                    ctx.result.addAll(relations);
+                var list = newChildrenRelations.get(childId);
+                if (list != null) {
+                    list.add(childRelation);
                 }
-            } else {
+            }
+        }
+        if (ctx.fetchLastLevelOnly) {
+            if (relations.isEmpty()) {
+                ctx.result.addAll(task.prevRelations);
+            } else if (task.currentLvl == ctx.maxLvl) {
                 ctx.result.addAll(relations);
             }
-            var finalTask = task;
-            newChildrenRelations.forEach((child, childRelations) -> {
-                var newLvl = finalTask.currentLvl + 1;
-                if (newLvl <= ctx.maxLvl)
-                    ctx.tasks.add(new RelationTask(newLvl, child, childRelations));
-            });
-            task = ctx.tasks.poll();
+        } else {
+            ctx.result.addAll(relations);
+        }
+        newChildrenRelations.forEach((child, childRelations) -> {
+            var newLvl = task.currentLvl + 1;
+            if (newLvl <= ctx.maxLvl)
+                ctx.tasks.add(new RelationTask(newLvl, child, childRelations));
+        });
+    }
+
+    private RelationCacheKey toRelationsCacheKey(EntityId rootId, EntitySearchDirection direction, RelationTypeGroup relationTypeGroup) {
+        if (direction == EntitySearchDirection.FROM) {
+            return RelationCacheKey.builder().from(rootId).typeGroup(relationTypeGroup).direction(EntitySearchDirection.FROM).build();
+        } else {
+            return RelationCacheKey.builder().to(rootId).typeGroup(relationTypeGroup).direction(EntitySearchDirection.TO).build();
         }
-        ctx.future.set(ctx.result);
     }
 
     private ListenableFuture<Set<EntityRelation>> findRelationsRecursively(final TenantId tenantId, final EntityId rootId, final EntitySearchDirection direction,
@@ -31,4 +31,16 @@ public class TbSqlBlockingQueueParams {
     private final String statsNamePrefix;
     private final boolean batchSortEnabled;
     private final boolean withResponse;
+
+    @Builder.Default
+    private final TbSqlQueueType queueType = TbSqlQueueType.BLOCKING;
+    /** Ring buffer size per queue thread, rounded up to the next power of two. */
+    @Builder.Default
+    private final int capacity = 65536;
+    /** Estimated batch size in bytes that triggers a flush; 0 disables the byte budget. */
+    private final long maxBatchBytes;
+    /** Time without new elements after which a partial batch is flushed; 0 flushes as soon as the queue is drained. */
+    private final long idleDelay;
+    /** Time producer waits for free space before the element is rejected; 0 rejects immediately. */
+    private final long offerTimeout;
 }
@@ -20,21 +20,29 @@ import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
 import org.thingsboard.server.common.stats.MessagesStats;
 import org.thingsboard.server.common.stats.StatsFactory;
+import org.thingsboard.server.common.stats.StatsTimer;
 
 import java.util.Comparator;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.ToIntFunction;
 
 @Slf4j
 @Data
 public class TbSqlBlockingQueueWrapper<E, R> {
-    private final CopyOnWriteArrayList<TbSqlBlockingQueue<E, R>> queues = new CopyOnWriteArrayList<>();
+    private static final String LATENCY_STATS_TYPE = "sqlQueueLatency";
+
+    private final CopyOnWriteArrayList<TbSqlQueue<E, R>> queues = new CopyOnWriteArrayList<>();
     private final TbSqlBlockingQueueParams params;
     private final Function<E, Integer> hashCodeFunction;
     private final int maxThreads;
     private final StatsFactory statsFactory;
+    /**
+     * Optional estimation of element size in bytes, used by {@link TbSqlQueueType#RING_BUFFER} queues to flush on byte budget.
+     */
+    private ToIntFunction<E> sizeFunction;
 
     /**
      * Starts TbSqlBlockingQueues.
@@ -51,18 +59,26 @@ public class TbSqlBlockingQueueWrapper<E, R> {
     public void init(ScheduledLogExecutorComponent logExecutor, Function<List<E>, List<R>> saveFunction, Comparator<E> batchUpdateComparator, Function<List<TbSqlQueueElement<E, R>>, List<TbSqlQueueElement<E, R>>> filter) {
         for (int i = 0; i < maxThreads; i++) {
             MessagesStats stats = statsFactory.createMessagesStats(params.getStatsNamePrefix() + ".queue." + i);
-            TbSqlBlockingQueue<E, R> queue = new TbSqlBlockingQueue<>(params, stats);
+            TbSqlQueue<E, R> queue = createQueue(stats, i);
             queues.add(queue);
             queue.init(logExecutor, saveFunction, batchUpdateComparator, filter, i);
         }
     }
 
+    private TbSqlQueue<E, R> createQueue(MessagesStats stats, int index) {
+        if (params.getQueueType() == TbSqlQueueType.RING_BUFFER) {
+            StatsTimer latencyTimer = statsFactory.createStatsTimer(LATENCY_STATS_TYPE, params.getStatsNamePrefix(), "queue", String.valueOf(index));
+            return new TbSqlRingBufferQueue<>(params, stats, latencyTimer, sizeFunction);
+        }
+        return new TbSqlBlockingQueue<>(params, stats);
+    }
+
     public ListenableFuture<R> add(E element) {
         int queueIndex = element != null ? (hashCodeFunction.apply(element) & 0x7FFFFFFF) % maxThreads : 0;
         return queues.get(queueIndex).add(element);
     }
 
     public void destroy() {
-        queues.forEach(TbSqlBlockingQueue::destroy);
+        queues.forEach(TbSqlQueue::destroy);
     }
 }
@@ -25,10 +25,17 @@ public final class TbSqlQueueElement<E, R> {
     private final SettableFuture<R> future;
     @Getter
     private final E entity;
+    @Getter
+    private final long createdNanos;
 
     public TbSqlQueueElement(SettableFuture<R> future, E entity) {
+        this(future, entity, 0L);
+    }
+
+    public TbSqlQueueElement(SettableFuture<R> future, E entity, long createdNanos) {
         this.future = future;
         this.entity = entity;
+        this.createdNanos = createdNanos;
     }
 }
 
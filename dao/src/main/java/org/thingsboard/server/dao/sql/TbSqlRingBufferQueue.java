@@ -0,0 +1,185 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.dao.sql;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import lombok.extern.slf4j.Slf4j;
+import org.thingsboard.common.util.TbMpscRingBuffer;
+import org.thingsboard.common.util.ThingsBoardThreadFactory;
+import org.thingsboard.server.common.data.util.CollectionsUtil;
+import org.thingsboard.server.common.stats.MessagesStats;
+import org.thingsboard.server.common.stats.StatsTimer;
+import org.thingsboard.server.dao.exception.SqlQueueFullException;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Alternative to {@link TbSqlBlockingQueue} that keeps pending elements in a bounded lock-free ring buffer.
+ * A batch is flushed as soon as it reaches batch size or byte budget, when no new elements arrived for idle delay,
+ * or when the oldest element waited for max delay. Producers get a failed future once the buffer is full.
+ */
+@Slf4j
+public class TbSqlRingBufferQueue<E, R> implements TbSqlQueue<E, R> {
+
+    private final TbSqlBlockingQueueParams params;
+    private final MessagesStats stats;
+    private final StatsTimer latencyTimer;
+    private final ToIntFunction<E> sizeFunction;
+    private final TbMpscRingBuffer<TbSqlQueueElement<E, R>> buffer;
+    private final AtomicInteger rejected = new AtomicInteger();
+
+    private ExecutorService executor;
+
+    public TbSqlRingBufferQueue(TbSqlBlockingQueueParams params, MessagesStats stats, StatsTimer latencyTimer, ToIntFunction<E> sizeFunction) {
+        this.params = params;
+        this.stats = stats;
+        this.latencyTimer = latencyTimer;
+        this.sizeFunction = sizeFunction;
+        this.buffer = new TbMpscRingBuffer<>(params.getCapacity());
+    }
+
+    @Override
+    public void init(ScheduledLogExecutorComponent logExecutor, Function<List<E>, List<R>> saveFunction, Comparator<E> batchUpdateComparator, Function<List<TbSqlQueueElement<E, R>>, List<TbSqlQueueElement<E, R>>> filter, int index) {
+        executor = Executors.newSingleThreadExecutor(ThingsBoardThreadFactory.forName("sql-queue-" + index + "-" + params.getLogName().toLowerCase()));
+        executor.submit(() -> {
+            String logName = params.getLogName();
+            int batchSize = params.getBatchSize();
+            long maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(params.getMaxDelay());
+            long idleDelayNanos = TimeUnit.MILLISECONDS.toNanos(params.getIdleDelay());
+            long maxBatchBytes = sizeFunction != null ? params.getMaxBatchBytes() : 0;
+            final List<TbSqlQueueElement<E, R>> entities = new ArrayList<>(batchSize);
+            while (!Thread.interrupted()) {
+                try {
+                    if (!buffer.await(maxDelayNanos, TimeUnit.NANOSECONDS)) {
+                        continue;
+                    }
+                    long now = System.nanoTime();
+                    long flushDeadline = now + maxDelayNanos;
+                    long idleDeadline = now + idleDelayNanos;
+                    long batchBytes = 0;
+                    while (entities.size() < batchSize && (maxBatchBytes <= 0 || batchBytes < maxBatchBytes)) {
+                        TbSqlQueueElement<E, R> element = buffer.poll();
+                        if (element != null) {
+                            entities.add(element);
+                            if (maxBatchBytes > 0) {
+                                batchBytes += sizeFunction.applyAsInt(element.getEntity());
+                            }
+                            if (idleDelayNanos > 0) {
+                                idleDeadline = System.nanoTime() + idleDelayNanos;
+                            }
+                            continue;
+                        }
+                        long waitUntil = Math.min(flushDeadline, idleDeadline);
+                        long remaining = waitUntil - System.nanoTime();
+                        if (remaining <= 0 || !buffer.await(remaining, TimeUnit.NANOSECONDS)) {
+                            break;
+                        }
+                    }
+                    if (log.isDebugEnabled()) {
+                        log.debug("[{}] Going to save {} entities", logName, entities.size());
+                        log.trace("[{}] Going to save entities: {}", logName, entities);
+                    }
+                    save(entities, saveFunction, batchUpdateComparator, filter);
+                    stats.incrementSuccessful(entities.size());
+                    latencyTimer.record(System.nanoTime() - entities.get(0).getCreatedNanos(), TimeUnit.NANOSECONDS);
+                } catch (Throwable t) {
+                    if (t instanceof InterruptedException) {
+                        log.info("[{}] Queue polling was interrupted", logName);
+                        break;
+                    } else {
+                        log.error("[{}] Failed to save {} entities", logName, entities.size(), t);
+                        try {
+                            stats.incrementFailed(entities.size());
+                            entities.forEach(entityFutureWrapper -> entityFutureWrapper.getFuture().setException(t));
+                        } catch (Throwable th) {
+                            log.error("[{}] Failed to set future exception", logName, th);
+                        }
+                    }
+                } finally {
+                    entities.clear();
+                }
+            }
+            log.info("[{}] Queue polling completed", logName);
+        });
+
+        logExecutor.scheduleAtFixedRate(() -> {
+            int rejectedCount = rejected.getAndSet(0);
+            if (!buffer.isEmpty() || stats.getTotal() > 0 || stats.getSuccessful() > 0 || stats.getFailed() > 0 || rejectedCount > 0) {
+                log.info("Queue-{} [{}] queueSize [{}/{}] totalAdded [{}] totalSaved [{}] totalFailed [{}] totalRejected [{}] avgLatencyMs [{}]", index,
+                        params.getLogName(), buffer.size(), buffer.capacity(), stats.getTotal(), stats.getSuccessful(), stats.getFailed(),
+                        rejectedCount, String.format("%.2f", latencyTimer.getAvg()));
+                stats.reset();
+                latencyTimer.reset();
+            }
+        }, params.getStatsPrintIntervalMs(), params.getStatsPrintIntervalMs(), TimeUnit.MILLISECONDS);
+    }
+
+    private void save(List<TbSqlQueueElement<E, R>> entities, Function<List<E>, List<R>> saveFunction, Comparator<E> batchUpdateComparator,
+                      Function<List<TbSqlQueueElement<E, R>>, List<TbSqlQueueElement<E, R>>> filter) {
+        List<TbSqlQueueElement<E, R>> entitiesToSave = filter.apply(entities);
+
+        if (params.isBatchSortEnabled()) {
+            entitiesToSave = entitiesToSave.stream().sorted((o1, o2) -> batchUpdateComparator.compare(o1.getEntity(), o2.getEntity())).toList();
+        }
+
+        List<R> result = saveFunction.apply(entitiesToSave.stream().map(TbSqlQueueElement::getEntity).collect(Collectors.toList()));
+
+        if (params.isWithResponse()) {
+            for (int i = 0; i < entitiesToSave.size(); i++) {
+                entitiesToSave.get(i).getFuture().set(result.get(i));
+            }
+
+            if (entities.size() > entitiesToSave.size()) {
+                CollectionsUtil.diffLists(entitiesToSave, entities).forEach(v -> v.getFuture().set(null));
+            }
+        } else {
+            entities.forEach(v -> v.getFuture().set(null));
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    @Override
+    public ListenableFuture<R> add(E element) {
+        SettableFuture<R> future = SettableFuture.create();
+        TbSqlQueueElement<E, R> queueElement = new TbSqlQueueElement<>(future, element, System.nanoTime());
+        boolean added = params.getOfferTimeout() > 0 ?
+                buffer.offer(queueElement, params.getOfferTimeout(), TimeUnit.MILLISECONDS) :
+                buffer.offer(queueElement);
+        if (!added) {
+            rejected.incrementAndGet();
+            return Futures.immediateFailedFuture(new SqlQueueFullException(params.getLogName()));
+        }
+        stats.incrementTotal();
+        return future;
+    }
+}
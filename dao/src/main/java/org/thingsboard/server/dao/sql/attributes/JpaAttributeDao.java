@@ -42,6 +42,7 @@ import org.thingsboard.server.dao.sql.JpaAbstractDaoListeningExecutorService;
 import org.thingsboard.server.dao.sql.ScheduledLogExecutorComponent;
 import org.thingsboard.server.dao.sql.TbSqlBlockingQueueParams;
 import org.thingsboard.server.dao.sql.TbSqlBlockingQueueWrapper;
+import org.thingsboard.server.dao.sql.TbSqlQueueType;
 import org.thingsboard.server.dao.util.SqlDao;
 
 import java.util.ArrayList;
@@ -85,6 +86,21 @@ public class JpaAttributeDao extends JpaAbstractDaoListeningExecutorService impl
     @Value("${sql.attributes.batch_threads:4}")
     private int batchThreads;
 
+    @Value("${sql.attributes.queue_type:BLOCKING}")
+    private TbSqlQueueType queueType;
+
+    @Value("${sql.attributes.queue_capacity:65536}")
+    private int queueCapacity;
+
+    @Value("${sql.attributes.batch_max_bytes:0}")
+    private long maxBatchBytes;
+
+    @Value("${sql.attributes.batch_idle_delay:0}")
+    private long idleDelay;
+
+    @Value("${sql.attributes.queue_offer_timeout_ms:0}")
+    private long offerTimeout;
+
     @Value("${sql.batch_sort:true}")
     private boolean batchSortEnabled;
 
@@ -100,10 +116,16 @@ public class JpaAttributeDao extends JpaAbstractDaoListeningExecutorService impl
                 .statsNamePrefix("attributes")
                 .batchSortEnabled(batchSortEnabled)
                 .withResponse(true)
+                .queueType(queueType)
+                .capacity(queueCapacity)
+                .maxBatchBytes(maxBatchBytes)
+                .idleDelay(idleDelay)
+                .offerTimeout(offerTimeout)
                 .build();
 
         Function<AttributeKvEntity, Integer> hashcodeFunction = entity -> entity.getId().getEntityId().hashCode();
         queue = new TbSqlBlockingQueueWrapper<>(params, hashcodeFunction, batchThreads, statsFactory);
+        queue.setSizeFunction(AttributeKvEntity::estimateSize);
         queue.init(logExecutor, v -> attributeKvInsertRepository.saveOrUpdate(v),
                 Comparator.comparing((AttributeKvEntity attributeKvEntity) -> attributeKvEntity.getId().getEntityId())
                         .thenComparing(attributeKvEntity -> attributeKvEntity.getId().getAttributeType())
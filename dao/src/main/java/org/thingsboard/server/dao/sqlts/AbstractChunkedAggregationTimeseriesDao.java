@@ -39,6 +39,7 @@ import org.thingsboard.server.dao.model.sqlts.ts.TsKvEntity;
 import org.thingsboard.server.dao.sql.TbSqlBlockingQueueParams;
 import org.thingsboard.server.dao.sql.TbSqlBlockingQueueWrapper;
 import org.thingsboard.server.dao.sqlts.insert.InsertTsRepository;
+import org.thingsboard.server.dao.sqlts.rollup.SqlTimeseriesRollupDao;
 import org.thingsboard.server.dao.sqlts.ts.TsKvRepository;
 import org.thingsboard.server.dao.timeseries.TimeseriesDao;
 import org.thingsboard.server.dao.util.TimeUtils;
@@ -48,6 +49,7 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
 @SuppressWarnings("UnstableApiUsage")
@@ -67,6 +69,9 @@ public abstract class AbstractChunkedAggregationTimeseriesDao extends AbstractSq
     @Autowired
     private KeyDictionaryDao keyDictionaryDao;
 
+    @Autowired(required = false)
+    private SqlTimeseriesRollupDao rollupDao;
+
     @PostConstruct
     protected void init() {
         TbSqlBlockingQueueParams tsParams = TbSqlBlockingQueueParams.builder()
@@ -76,11 +81,22 @@ public abstract class AbstractChunkedAggregationTimeseriesDao extends AbstractSq
                 .statsPrintIntervalMs(tsStatsPrintIntervalMs)
                 .statsNamePrefix("ts")
                 .batchSortEnabled(batchSortEnabled)
+                .queueType(tsQueueType)
+                .capacity(tsQueueCapacity)
+                .maxBatchBytes(tsMaxBatchBytes)
+                .idleDelay(tsIdleDelay)
+                .offerTimeout(tsOfferTimeout)
                 .build();
 
         Function<TsKvEntity, Integer> hashcodeFunction = entity -> entity.getEntityId().hashCode();
         tsQueue = new TbSqlBlockingQueueWrapper<>(tsParams, hashcodeFunction, tsBatchThreads, statsFactory);
-        tsQueue.init(logExecutor, v -> insertRepository.saveOrUpdate(v),
+        tsQueue.setSizeFunction(AbstractTsKvEntity::estimateSize);
+        tsQueue.init(logExecutor, v -> {
+                    insertRepository.saveOrUpdate(v);
+                    if (rollupDao != null) {
+                        rollupDao.onSaved(v);
+                    }
+                },
                 Comparator.comparing((Function<TsKvEntity, UUID>) AbstractTsKvEntity::getEntityId)
                         .thenComparing(AbstractTsKvEntity::getKey)
                         .thenComparing(AbstractTsKvEntity::getTs)
@@ -97,11 +113,15 @@ public abstract class AbstractChunkedAggregationTimeseriesDao extends AbstractSq
     @Override
     public ListenableFuture<Void> remove(TenantId tenantId, EntityId entityId, DeleteTsKvQuery query) {
         return service.submit(() -> {
+            int keyId = keyDictionaryDao.getOrSaveKeyId(query.getKey());
             tsKvRepository.delete(
                     entityId.getId(),
-                    keyDictionaryDao.getOrSaveKeyId(query.getKey()),
+                    keyId,
                     query.getStartTs(),
                     query.getEndTs());
+            if (rollupDao != null) {
+                rollupDao.onRemoved(entityId.getId(), keyId, query.getStartTs(), query.getEndTs());
+            }
             return null;
         });
     }
@@ -121,6 +141,10 @@ public abstract class AbstractChunkedAggregationTimeseriesDao extends AbstractSq
         var aggParams = query.getAggParameters();
         if (Aggregation.NONE.equals(aggParams.getAggregation()) || aggParams.getInterval() < 1) {
             return Futures.immediateFuture(findAllAsyncWithLimit(entityId, query));
+        }
+        ListenableFuture<List<Optional<? extends AbstractTsKvEntity>>> groupedFuture = findAllAndAggregateGroupedAsync(entityId, query);
+        if (groupedFuture != null) {
+            return getReadTsKvQueryResultFuture(query, groupedFuture);
         } else {
             List<ListenableFuture<Optional<TsKvEntity>>> futures = new ArrayList<>();
             var intervalType = aggParams.getIntervalType();
@@ -144,6 +168,13 @@ public abstract class AbstractChunkedAggregationTimeseriesDao extends AbstractSq
         }
     }
 
+    @Override
+    public void exportAll(TenantId tenantId, EntityId entityId, ReadTsKvQuery query, int chunkSize, Consumer<List<TsKvEntry>> consumer) {
+        int keyId = keyDictionaryDao.getOrSaveKeyId(query.getKey());
+        exportAll(query, chunkSize, consumer, (startTs, endTs, pageable) ->
+                tsKvRepository.findAllWithLimit(entityId.getId(), keyId, startTs, endTs, pageable));
+    }
+
     ReadTsKvQueryResult findAllAsyncWithLimit(EntityId entityId, ReadTsKvQuery query) {
         Integer keyId = keyDictionaryDao.getOrSaveKeyId(query.getKey());
         List<TsKvEntity> tsKvEntities = tsKvRepository.findAllWithLimit(
@@ -158,6 +189,14 @@ public abstract class AbstractChunkedAggregationTimeseriesDao extends AbstractSq
         return new ReadTsKvQueryResult(query.getId(), tsKvEntries, lastTs);
     }
 
+    /**
+     * Computes all aggregation intervals of the query at once.
+     * Returns null if the combination of parameters is not supported, so the query is executed interval by interval.
+     */
+    protected ListenableFuture<List<Optional<? extends AbstractTsKvEntity>>> findAllAndAggregateGroupedAsync(EntityId entityId, ReadTsKvQuery query) {
+        return null;
+    }
+
     ListenableFuture<Optional<TsKvEntity>> findAndAggregateAsync(EntityId entityId, String key, long startTs, long endTs, long ts, Aggregation aggregation) {
         return service.submit(() -> {
             TsKvEntity entity = switchAggregation(entityId, key, startTs, endTs, aggregation);
@@ -22,13 +22,19 @@ import jakarta.annotation.Nullable;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.thingsboard.server.common.data.id.EntityId;
 import org.thingsboard.server.common.data.id.TenantId;
 import org.thingsboard.server.common.data.kv.ReadTsKvQuery;
 import org.thingsboard.server.common.data.kv.ReadTsKvQueryResult;
 import org.thingsboard.server.common.data.kv.TsKvEntry;
+import org.thingsboard.server.dao.DaoUtil;
 import org.thingsboard.server.dao.model.ModelConstants;
+import org.thingsboard.server.dao.model.sql.AbstractTsKvEntity;
 import org.thingsboard.server.dao.sql.ScheduledLogExecutorComponent;
+import org.thingsboard.server.dao.sql.TbSqlQueueType;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -37,6 +43,7 @@ import java.sql.SQLException;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -59,6 +66,21 @@ public abstract class AbstractSqlTimeseriesDao extends BaseAbstractSqlTimeseries
     @Value("${sql.ts.batch_threads:4}")
     protected int tsBatchThreads;
 
+    @Value("${sql.ts.queue_type:BLOCKING}")
+    protected TbSqlQueueType tsQueueType;
+
+    @Value("${sql.ts.queue_capacity:65536}")
+    protected int tsQueueCapacity;
+
+    @Value("${sql.ts.batch_max_bytes:0}")
+    protected long tsMaxBatchBytes;
+
+    @Value("${sql.ts.batch_idle_delay:0}")
+    protected long tsIdleDelay;
+
+    @Value("${sql.ts.queue_offer_timeout_ms:0}")
+    protected long tsOfferTimeout;
+
     @Value("${sql.timescale.batch_threads:4}")
     protected int timescaleBatchThreads;
 
@@ -104,6 +126,45 @@ public abstract class AbstractSqlTimeseriesDao extends BaseAbstractSqlTimeseries
         }, service);
     }
 
+    /**
+     * Reads the query range page by page, each page starting right after the last timestamp of the previous one.
+     * Unlike offset based paging, every page is a short index range scan, and no connection or transaction is held
+     * between the pages while the consumer is busy.
+     */
+    protected <E extends AbstractTsKvEntity> void exportAll(ReadTsKvQuery query, int chunkSize, Consumer<List<TsKvEntry>> consumer,
+                                                             TsKvChunkReader<E> reader) {
+        Sort.Direction direction = Sort.Direction.fromString(query.getOrder());
+        long startTs = query.getStartTs();
+        long endTs = query.getEndTs();
+        int remaining = query.getLimit();
+        while (remaining > 0 && startTs < endTs) {
+            int pageSize = Math.min(chunkSize, remaining);
+            List<E> entities = reader.read(startTs, endTs, PageRequest.ofSize(pageSize).withSort(direction, "ts"));
+            if (entities.isEmpty()) {
+                break;
+            }
+            entities.forEach(entity -> entity.setStrKey(query.getKey()));
+            long lastTs = entities.get(entities.size() - 1).getTs();
+            consumer.accept(DaoUtil.convertDataList(entities));
+            if (entities.size() < pageSize) {
+                break;
+            }
+            remaining -= entities.size();
+            if (direction.isAscending()) {
+                startTs = lastTs + 1;
+            } else {
+                endTs = lastTs;
+            }
+        }
+    }
+
+    @FunctionalInterface
+    protected interface TsKvChunkReader<E extends AbstractTsKvEntity> {
+
+        List<E> read(long startTs, long endTs, Pageable pageable);
+
+    }
+
     protected long computeTtl(long ttl) {
         if (systemTtl > 0) {
             if (ttl == 0) {
@@ -35,12 +35,17 @@ import org.thingsboard.server.common.data.kv.TsKvEntry;
 import org.thingsboard.server.common.data.kv.TsKvLatestRemovingResult;
 import org.thingsboard.server.common.stats.DefaultCounter;
 import org.thingsboard.server.common.stats.StatsFactory;
+import org.thingsboard.server.dao.cache.CacheBatchStats;
 import org.thingsboard.server.dao.cache.CacheExecutorService;
 import org.thingsboard.server.dao.timeseries.TimeseriesLatestDao;
 import org.thingsboard.server.dao.timeseries.TsLatestCacheKey;
 import org.thingsboard.server.dao.util.SqlTsLatestAnyDaoCachedRedis;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Slf4j
@@ -56,12 +61,14 @@ public class CachedRedisSqlTimeseriesLatestDao extends BaseAbstractSqlTimeseries
     final VersionedTbCache<TsLatestCacheKey, TsKvEntry> cache;
     DefaultCounter hitCounter;
     DefaultCounter missCounter;
+    CacheBatchStats batchStats;
 
     @PostConstruct
     public void init() {
         log.info("Init Redis cache-aside SQL Timeseries Latest DAO");
         this.hitCounter = statsFactory.createDefaultCounter(STATS_NAME, "result", "hit");
         this.missCounter = statsFactory.createDefaultCounter(STATS_NAME, "result", "miss");
+        this.batchStats = new CacheBatchStats(statsFactory, STATS_NAME);
     }
 
     @Override
@@ -152,6 +159,47 @@ public class CachedRedisSqlTimeseriesLatestDao extends BaseAbstractSqlTimeseries
         }, MoreExecutors.directExecutor());
     }
 
+    @Override
+    public ListenableFuture<List<TsKvEntry>> findLatest(TenantId tenantId, EntityId entityId, Collection<String> keys) {
+        List<TsLatestCacheKey> cacheKeys = keys.stream().distinct().map(key -> new TsLatestCacheKey(entityId, key)).toList();
+        ListenableFuture<Map<TsLatestCacheKey, TbCacheValueWrapper<TsKvEntry>>> cacheFuture = cacheExecutorService.submit(() -> {
+            long startTime = System.nanoTime();
+            Map<TsLatestCacheKey, TbCacheValueWrapper<TsKvEntry>> cachedValues = cache.getAll(cacheKeys);
+            batchStats.record(cacheKeys.size(), startTime);
+            return cachedValues;
+        });
+
+        return Futures.transformAsync(cacheFuture, cachedValues -> {
+            List<TsLatestCacheKey> missedKeys = new ArrayList<>();
+            List<ListenableFuture<Optional<TsKvEntry>>> daoFutures = new ArrayList<>();
+            for (TsLatestCacheKey cacheKey : cacheKeys) {
+                if (!cachedValues.containsKey(cacheKey)) {
+                    missedKeys.add(cacheKey);
+                    daoFutures.add(sqlDao.findLatestOpt(tenantId, entityId, cacheKey.getKey()));
+                }
+            }
+            log.debug("findLatest cache hit {} of {} keys [{}]", cacheKeys.size() - missedKeys.size(), cacheKeys.size(), entityId);
+
+            return Futures.transform(Futures.allAsList(daoFutures), daoValues -> {
+                Map<TsLatestCacheKey, TsKvEntry> missedValues = new HashMap<>();
+                for (int i = 0; i < missedKeys.size(); i++) {
+                    missedValues.put(missedKeys.get(i), daoValues.get(i).orElse(null));
+                }
+                if (!missedValues.isEmpty()) {
+                    cache.putAll(missedValues);
+                }
+                List<TsKvEntry> result = new ArrayList<>(keys.size());
+                for (String key : keys) {
+                    TsLatestCacheKey cacheKey = new TsLatestCacheKey(entityId, key);
+                    TbCacheValueWrapper<TsKvEntry> cacheValueWrap = cachedValues.get(cacheKey);
+                    TsKvEntry tsKvEntry = cacheValueWrap != null ? cacheValueWrap.get() : missedValues.get(cacheKey);
+                    result.add(sqlDao.wrapNullTsKvEntry(key, tsKvEntry));
+                }
+                return result;
+            }, MoreExecutors.directExecutor());
+        }, MoreExecutors.directExecutor());
+    }
+
     @Override
     public ListenableFuture<List<TsKvEntry>> findAllLatest(TenantId tenantId, EntityId entityId) {
         return sqlDao.findAllLatest(tenantId, entityId);
@@ -50,6 +50,7 @@ import org.thingsboard.server.dao.sql.ScheduledLogExecutorComponent;
 import org.thingsboard.server.dao.sql.TbSqlBlockingQueueParams;
 import org.thingsboard.server.dao.sql.TbSqlBlockingQueueWrapper;
 import org.thingsboard.server.dao.sql.TbSqlQueueElement;
+import org.thingsboard.server.dao.sql.TbSqlQueueType;
 import org.thingsboard.server.dao.sqlts.insert.latest.InsertLatestTsRepository;
 import org.thingsboard.server.dao.sqlts.latest.SearchTsKvLatestRepository;
 import org.thingsboard.server.dao.sqlts.latest.TsKvLatestRepository;
@@ -99,6 +100,21 @@ public class SqlTimeseriesLatestDao extends BaseAbstractSqlTimeseriesDao impleme
     @Value("${sql.ts_latest.batch_threads:4}")
     private int tsLatestBatchThreads;
 
+    @Value("${sql.ts_latest.queue_type:BLOCKING}")
+    private TbSqlQueueType tsLatestQueueType;
+
+    @Value("${sql.ts_latest.queue_capacity:65536}")
+    private int tsLatestQueueCapacity;
+
+    @Value("${sql.ts_latest.batch_max_bytes:0}")
+    private long tsLatestMaxBatchBytes;
+
+    @Value("${sql.ts_latest.batch_idle_delay:0}")
+    private long tsLatestIdleDelay;
+
+    @Value("${sql.ts_latest.queue_offer_timeout_ms:0}")
+    private long tsLatestOfferTimeout;
+
     @Value("${sql.batch_sort:true}")
     protected boolean batchSortEnabled;
 
@@ -121,10 +137,16 @@ public class SqlTimeseriesLatestDao extends BaseAbstractSqlTimeseriesDao impleme
                 .statsNamePrefix("ts.latest")
                 .batchSortEnabled(batchSortEnabled)
                 .withResponse(true)
+                .queueType(tsLatestQueueType)
+                .capacity(tsLatestQueueCapacity)
+                .maxBatchBytes(tsLatestMaxBatchBytes)
+                .idleDelay(tsLatestIdleDelay)
+                .offerTimeout(tsLatestOfferTimeout)
                 .build();
 
         java.util.function.Function<TsKvLatestEntity, Integer> hashcodeFunction = entity -> entity.getEntityId().hashCode();
         tsLatestQueue = new TbSqlBlockingQueueWrapper<>(tsLatestParams, hashcodeFunction, tsLatestBatchThreads, statsFactory);
+        tsLatestQueue.setSizeFunction(AbstractTsKvEntity::estimateSize);
 
         tsLatestQueue.init(logExecutor,
                 v -> insertLatestTsRepository.saveOrUpdate(v),
@@ -0,0 +1,158 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.dao.sqlts.insert.copy;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.thingsboard.server.dao.model.sql.AbstractTsKvEntity;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.UnaryOperator;
+
+/**
+ * Bulk insert of time series rows using the PostgreSQL binary COPY protocol.
+ * Rows are streamed into a session-local staging table and then merged into the target table with a single
+ * INSERT ... ON CONFLICT statement, so the batch is sent to the database without per-row statement overhead.
+ * Must be called inside a transaction: the staging table is cleared on commit.
+ */
+public class TsKvCopyInserter {
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+    private static final int STAGING_COLUMNS_COUNT = 9;
+
+    private static final String TS_STAGING_TABLE = "ts_kv_copy_staging";
+    private static final String LATEST_STAGING_TABLE = "ts_kv_latest_copy_staging";
+
+    private static final String CREATE_STAGING_TABLE = "CREATE TEMP TABLE IF NOT EXISTS %s (seq int NOT NULL, entity_id uuid NOT NULL, key int NOT NULL, " +
+            "ts bigint NOT NULL, bool_v boolean, str_v varchar, long_v bigint, dbl_v double precision, json_v json) ON COMMIT DELETE ROWS";
+
+    private static final String COPY_TO_STAGING_TABLE = "COPY %s (seq, entity_id, key, ts, bool_v, str_v, long_v, dbl_v, json_v) FROM STDIN WITH (FORMAT binary)";
+
+    private static final String MERGE_TS = "INSERT INTO ts_kv (entity_id, key, ts, bool_v, str_v, long_v, dbl_v, json_v) " +
+            "SELECT DISTINCT ON (entity_id, key, ts) entity_id, key, ts, bool_v, str_v, long_v, dbl_v, json_v FROM " + TS_STAGING_TABLE +
+            " ORDER BY entity_id, key, ts, seq DESC " +
+            "ON CONFLICT (entity_id, key, ts) DO UPDATE SET bool_v = excluded.bool_v, str_v = excluded.str_v, long_v = excluded.long_v, " +
+            "dbl_v = excluded.dbl_v, json_v = excluded.json_v";
+
+    private static final String MERGE_LATEST = "INSERT INTO ts_kv_latest AS l (entity_id, key, ts, bool_v, str_v, long_v, dbl_v, json_v, version) " +
+            "SELECT entity_id, key, ts, bool_v, str_v, long_v, dbl_v, json_v, nextval('ts_kv_latest_version_seq') FROM (" +
+            "SELECT DISTINCT ON (entity_id, key) entity_id, key, ts, bool_v, str_v, long_v, dbl_v, json_v FROM " + LATEST_STAGING_TABLE +
+            " ORDER BY entity_id, key, seq DESC) s " +
+            "ON CONFLICT (entity_id, key) DO UPDATE SET ts = excluded.ts, bool_v = excluded.bool_v, str_v = excluded.str_v, " +
+            "long_v = excluded.long_v, dbl_v = excluded.dbl_v, json_v = excluded.json_v, version = excluded.version";
+
+    private static final String MERGE_LATEST_BY_LATEST_TS = MERGE_LATEST + " WHERE l.ts <= excluded.ts";
+
+    private static final String RETURNING = " RETURNING entity_id, key, version";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UnaryOperator<String> valueSanitizer;
+
+    public TsKvCopyInserter(JdbcTemplate jdbcTemplate, UnaryOperator<String> valueSanitizer) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.valueSanitizer = valueSanitizer;
+    }
+
+    /**
+     * Inserts or updates rows of the ts_kv table. If the batch contains several rows with the same primary key, the last one wins.
+     */
+    public void saveOrUpdate(List<? extends AbstractTsKvEntity> entities) {
+        if (entities.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) con -> {
+            copyToStaging(con, TS_STAGING_TABLE, entities);
+            try (Statement stmt = con.createStatement()) {
+                stmt.executeUpdate(MERGE_TS);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Inserts or updates rows of the ts_kv_latest table.
+     *
+     * @return new version for each of the entities, or null if the row was not updated
+     * because of the newer value in the database or the later row for the same key in the batch.
+     */
+    public List<Long> saveOrUpdateLatest(List<? extends AbstractTsKvEntity> entities, boolean updateByLatestTs) {
+        if (entities.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return jdbcTemplate.execute((ConnectionCallback<List<Long>>) con -> {
+            copyToStaging(con, LATEST_STAGING_TABLE, entities);
+            Map<LatestKey, Long> versions = new HashMap<>(entities.size());
+            String mergeQuery = (updateByLatestTs ? MERGE_LATEST_BY_LATEST_TS : MERGE_LATEST) + RETURNING;
+            try (PreparedStatement stmt = con.prepareStatement(mergeQuery); ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    versions.put(new LatestKey(rs.getObject(1, UUID.class), rs.getInt(2)), rs.getLong(3));
+                }
+            }
+            List<Long> result = new ArrayList<>(Collections.nCopies(entities.size(), null));
+            for (int i = entities.size() - 1; i >= 0 && !versions.isEmpty(); i--) {
+                AbstractTsKvEntity entity = entities.get(i);
+                result.set(i, versions.remove(new LatestKey(entity.getEntityId(), entity.getKey())));
+            }
+            return result;
+        });
+    }
+
+    private void copyToStaging(Connection con, String stagingTable, List<? extends AbstractTsKvEntity> entities) throws SQLException {
+        try (Statement stmt = con.createStatement()) {
+            stmt.execute(String.format(CREATE_STAGING_TABLE, stagingTable));
+        }
+        PGConnection pgConnection = con.unwrap(PGConnection.class);
+        PGCopyOutputStream copyOut = new PGCopyOutputStream(pgConnection, String.format(COPY_TO_STAGING_TABLE, stagingTable), COPY_BUFFER_SIZE);
+        try {
+            PgBinaryCopyWriter writer = new PgBinaryCopyWriter(copyOut);
+            for (int i = 0; i < entities.size(); i++) {
+                AbstractTsKvEntity entity = entities.get(i);
+                writer.startRow(STAGING_COLUMNS_COUNT);
+                writer.writeInt(i);
+                writer.writeUuid(entity.getEntityId());
+                writer.writeInt(entity.getKey());
+                writer.writeLong(entity.getTs());
+                writer.writeBoolean(entity.getBooleanValue());
+                writer.writeText(valueSanitizer.apply(entity.getStrValue()));
+                writer.writeLong(entity.getLongValue());
+                writer.writeDouble(entity.getDoubleValue());
+                writer.writeText(valueSanitizer.apply(entity.getJsonValue()));
+            }
+            writer.close();
+        } catch (IOException | RuntimeException e) {
+            if (copyOut.isActive()) {
+                copyOut.cancelCopy();
+            }
+            throw new SQLException("Failed to copy time series batch to " + stagingTable, e);
+        }
+    }
+
+    private record LatestKey(UUID entityId, int key) {}
+
+}
@@ -21,6 +21,7 @@ import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 import org.thingsboard.server.dao.AbstractVersionedInsertRepository;
 import org.thingsboard.server.dao.model.sqlts.latest.TsKvLatestEntity;
+import org.thingsboard.server.dao.sqlts.insert.copy.TsKvCopyInserter;
 import org.thingsboard.server.dao.sqlts.insert.latest.InsertLatestTsRepository;
 import org.thingsboard.server.dao.util.SqlDao;
 import org.thingsboard.server.dao.util.SqlTsLatestAnyDao;
@@ -39,6 +40,9 @@ public class SqlLatestInsertTsRepository extends AbstractVersionedInsertReposito
     @Value("${sql.ts_latest.update_by_latest_ts:true}")
     private Boolean updateByLatestTs;
 
+    @Value("${sql.ts_latest.copy_insert_enabled:false}")
+    private boolean copyInsertEnabled;
+
     private static final String BATCH_UPDATE =
             "UPDATE ts_kv_latest SET ts = ?, bool_v = ?, str_v = ?, long_v = ?, dbl_v = ?, json_v = cast(? AS json), version = nextval('ts_kv_latest_version_seq') WHERE entity_id = ? AND key = ?";
 
@@ -54,11 +58,21 @@ public class SqlLatestInsertTsRepository extends AbstractVersionedInsertReposito
 
     private String batchUpdateQuery;
     private String insertOrUpdateQuery;
+    private TsKvCopyInserter copyInserter;
 
     @PostConstruct
     private void init() {
         this.batchUpdateQuery = (updateByLatestTs ? BATCH_UPDATE_BY_LATEST_TS : BATCH_UPDATE) + RETURNING;
         this.insertOrUpdateQuery = (updateByLatestTs ? INSERT_OR_UPDATE_BY_LATEST_TS : INSERT_OR_UPDATE) + RETURNING;
+        this.copyInserter = new TsKvCopyInserter(jdbcTemplate, this::replaceNullChars);
+    }
+
+    @Override
+    public List<Long> saveOrUpdate(List<TsKvLatestEntity> entities) {
+        if (copyInsertEnabled) {
+            return transactionTemplate.execute(status -> copyInserter.saveOrUpdateLatest(entities, updateByLatestTs));
+        }
+        return super.saveOrUpdate(entities);
     }
 
     @Override
@@ -0,0 +1,272 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.dao.sqlts.rollup;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.thingsboard.common.util.ThingsBoardExecutors;
+import org.thingsboard.server.common.data.id.EntityId;
+import org.thingsboard.server.common.data.id.TenantId;
+import org.thingsboard.server.common.data.kv.Aggregation;
+import org.thingsboard.server.common.data.kv.IntervalType;
+import org.thingsboard.server.common.data.kv.ReadTsKvQuery;
+import org.thingsboard.server.common.data.kv.ReadTsKvQueryResult;
+import org.thingsboard.server.dao.dictionary.KeyDictionaryDao;
+import org.thingsboard.server.dao.model.sql.AbstractTsKvEntity;
+import org.thingsboard.server.dao.model.sqlts.ts.TsKvEntity;
+import org.thingsboard.server.dao.sqlts.BaseAbstractSqlTimeseriesDao;
+import org.thingsboard.server.dao.timeseries.TimeseriesRollupDao;
+import org.thingsboard.server.dao.util.SqlTsDao;
+import org.thingsboard.server.dao.util.TimeUtils;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps hourly and daily rollups of the PostgreSQL time series.
+ * <p>
+ * Every saved batch marks the affected hourly granules as dirty; the marks are recalculated from {@code ts_kv}
+ * in the background and right before the rollups of the entity key are read, so the rollups always reflect the persisted data.
+ * Granules before the coverage start are aggregated from the raw time series until the backfill reaches them.
+ * <p>
+ * The granules are aligned to UTC, so the rollups serve only the buckets that contain whole granules:
+ * daily buckets of a time zone with a non-zero UTC offset never contain a whole daily granule and are always aggregated from the raw time series.
+ */
+@Slf4j
+@Component
+@SqlTsDao
+@ConditionalOnProperty(prefix = "sql.ts.rollup", value = "enabled", havingValue = "true")
+public class SqlTimeseriesRollupDao extends BaseAbstractSqlTimeseriesDao implements TimeseriesRollupDao {
+
+    @Autowired
+    private TsRollupRepository rollupRepository;
+
+    @Autowired
+    private KeyDictionaryDao keyDictionaryDao;
+
+    @Value("${sql.ts.rollup.flush_interval_ms:1000}")
+    private long flushIntervalMs;
+
+    @Value("${sql.ts.rollup.flush_batch_size:1000}")
+    private int flushBatchSize;
+
+    @Value("${sql.ts.rollup.backfill_days:30}")
+    private int backfillDays;
+
+    @Value("${sql.ts.rollup.ttl:0}")
+    private long rollupTtl;
+
+    @Value("${sql.ttl.ts.ts_key_value_ttl:0}")
+    private long systemTtl;
+
+    private volatile long coverageStartTs;
+
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    public void init() {
+        coverageStartTs = rollupRepository.initCoverageStartTs(TsRollupGranularity.DAY.ceil(System.currentTimeMillis()));
+        scheduler = ThingsBoardExecutors.newSingleThreadScheduledExecutor("ts-rollup");
+        scheduler.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        log.info("Initialized time series rollups, coverage start: {}", coverageStartTs);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    public void onSaved(List<TsKvEntity> entities) {
+        Set<TsRollupMark> marks = new HashSet<>();
+        for (TsKvEntity entity : entities) {
+            marks.add(new TsRollupMark(entity.getEntityId(), entity.getKey(), TsRollupGranularity.HOUR.floor(entity.getTs())));
+        }
+        rollupRepository.markDirty(marks);
+    }
+
+    public void onRemoved(UUID entityId, int key, long startTs, long endTs) {
+        if (startTs >= endTs) {
+            return;
+        }
+        for (TsRollupGranularity granularity : TsRollupGranularity.values()) {
+            rollupRepository.deleteRange(entityId, key, granularity, startTs, endTs);
+        }
+        rollupRepository.markDirty(Set.of(
+                new TsRollupMark(entityId, key, TsRollupGranularity.HOUR.floor(startTs)),
+                new TsRollupMark(entityId, key, TsRollupGranularity.HOUR.floor(endTs - 1))));
+    }
+
+    @Override
+    public boolean canServe(ReadTsKvQuery query) {
+        Aggregation aggregation = query.getAggregation();
+        if (aggregation == null || Aggregation.NONE.equals(aggregation)) {
+            return false;
+        }
+        TsRollupGranularity granularity = TsRollupGranularity.forBucketLength(query.getAggParameters().getInterval());
+        return granularity != null && query.getEndTs() - Math.max(query.getStartTs(), coverageStartTs) >= granularity.getDurationMs();
+    }
+
+    @Override
+    public ListenableFuture<ReadTsKvQueryResult> findAllAsync(TenantId tenantId, EntityId entityId, ReadTsKvQuery query) {
+        return getReadTsKvQueryResultFuture(query, service.submit(() -> findAndAggregate(entityId, query)));
+    }
+
+    private List<Optional<? extends AbstractTsKvEntity>> findAndAggregate(EntityId entityId, ReadTsKvQuery query) {
+        var aggParams = query.getAggParameters();
+        long endTs = Math.max(query.getStartTs() + 1, query.getEndTs());
+        long[] bucketStarts = calculateBucketStarts(query.getStartTs(), endTs, aggParams.getIntervalType(), aggParams.getInterval(), aggParams.getTzId());
+        TsRollupQueryPlan plan = new TsRollupQueryPlan(TsRollupGranularity.forBucketLength(aggParams.getInterval()), bucketStarts, endTs, coverageStartTs);
+        if (plan.getCoveredGranules() == 0) {
+            return null;
+        }
+        int keyId = keyDictionaryDao.getOrSaveKeyId(query.getKey());
+        transactionTemplate.executeWithoutResult(status -> recalculate(rollupRepository.claimDirty(entityId.getId(), keyId)));
+
+        TsRollupAggregate[] aggregates = new TsRollupAggregate[bucketStarts.length];
+        rollupRepository.findAggregates(entityId.getId(), keyId, plan, (aggregate, bucket) -> {
+            if (aggregates[bucket] == null) {
+                aggregates[bucket] = aggregate;
+            } else {
+                aggregates[bucket].merge(aggregate);
+            }
+        });
+        List<Optional<? extends AbstractTsKvEntity>> result = new ArrayList<>(aggregates.length);
+        for (int i = 0; i < aggregates.length; i++) {
+            TsRollupAggregate aggregate = aggregates[i];
+            if (aggregate == null || aggregate.isEmpty()) {
+                result.add(Optional.empty());
+                continue;
+            }
+            if (!aggregate.isSupported(query.getAggregation())) {
+                return null;
+            }
+            TsKvEntity entity = aggregate.toEntity(query.getAggregation());
+            if (entity.isNotEmpty()) {
+                entity.setEntityId(entityId.getId());
+                entity.setStrKey(query.getKey());
+                entity.setTs(bucketStarts[i] + (plan.getBucketEnd(i) - bucketStarts[i]) / 2);
+                result.add(Optional.of(entity));
+            } else {
+                result.add(Optional.empty());
+            }
+        }
+        return result;
+    }
+
+    private static long[] calculateBucketStarts(long startTs, long endTs, IntervalType intervalType, long interval, ZoneId tzId) {
+        List<Long> bucketStarts = new ArrayList<>();
+        long bucketStart = startTs;
+        while (bucketStart < endTs) {
+            bucketStarts.add(bucketStart);
+            if (IntervalType.MILLISECONDS.equals(intervalType)) {
+                bucketStart += interval;
+            } else {
+                bucketStart = TimeUtils.calculateIntervalEnd(bucketStart, intervalType, tzId);
+            }
+        }
+        return bucketStarts.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    @Override
+    public boolean backfill() {
+        long ttl = getTtl(systemTtl);
+        long minStartTs = TsRollupGranularity.DAY.floor(System.currentTimeMillis()) - TimeUnit.DAYS.toMillis(backfillDays);
+        if (ttl > 0) {
+            minStartTs = Math.max(minStartTs, TsRollupGranularity.DAY.ceil(System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(ttl)));
+        }
+        long endTs = rollupRepository.getCoverageStartTs();
+        long startTs = endTs - TsRollupGranularity.DAY.getDurationMs();
+        if (startTs < minStartTs) {
+            coverageStartTs = endTs;
+            return false;
+        }
+        Boolean updated = transactionTemplate.execute(status -> {
+            for (TsRollupGranularity granularity : TsRollupGranularity.values()) {
+                rollupRepository.backfill(granularity, startTs, endTs);
+            }
+            if (!rollupRepository.updateCoverageStartTs(endTs, startTs)) {
+                status.setRollbackOnly();
+                return false;
+            }
+            return true;
+        });
+        if (Boolean.TRUE.equals(updated)) {
+            log.info("Backfilled time series rollups for [{}-{}]", startTs, endTs);
+            coverageStartTs = startTs;
+        }
+        return true;
+    }
+
+    @Override
+    public void cleanup(long systemTtl) {
+        long ttl = getTtl(systemTtl);
+        if (ttl <= 0) {
+            return;
+        }
+        long expirationTs = System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(ttl);
+        rollupRepository.raiseCoverageStartTs(TsRollupGranularity.DAY.ceil(expirationTs));
+        int deleted = rollupRepository.deleteBefore(expirationTs);
+        coverageStartTs = rollupRepository.getCoverageStartTs();
+        log.info("Removed {} time series rollups by ttl: {}s", deleted, ttl);
+    }
+
+    private long getTtl(long systemTtl) {
+        return rollupTtl > 0 ? rollupTtl : systemTtl;
+    }
+
+    private void flush() {
+        try {
+            int claimed;
+            do {
+                claimed = transactionTemplate.execute(status -> recalculate(rollupRepository.claimDirty(flushBatchSize)));
+            } while (claimed >= flushBatchSize);
+            coverageStartTs = rollupRepository.getCoverageStartTs();
+        } catch (Exception e) {
+            log.warn("Failed to recalculate time series rollups", e);
+        }
+    }
+
+    private int recalculate(Collection<TsRollupMark> marks) {
+        if (marks.isEmpty()) {
+            return 0;
+        }
+        for (TsRollupGranularity granularity : TsRollupGranularity.values()) {
+            Set<TsRollupMark> granules = new HashSet<>();
+            for (TsRollupMark mark : marks) {
+                granules.add(new TsRollupMark(mark.entityId(), mark.key(), granularity.floor(mark.ts())));
+            }
+            rollupRepository.recalculate(granularity, granules);
+        }
+        return marks.size();
+    }
+
+}
@@ -0,0 +1,107 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.dao.sqlts.rollup;
+
+import lombok.Data;
+import org.thingsboard.server.common.data.kv.Aggregation;
+import org.thingsboard.server.dao.model.sqlts.ts.TsKvEntity;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Partial aggregation state of a bucket: either a rollup row or a group of raw time series values.
+ * States of the same bucket are merged before the final value is calculated.
+ */
+@Data
+public class TsRollupAggregate {
+
+    private long longSum;
+    private double dblSum;
+    private long longCount;
+    private long dblCount;
+    private Long longMin;
+    private Long longMax;
+    private Double dblMin;
+    private Double dblMax;
+    private long boolCount;
+    private long strCount;
+    private long jsonCount;
+    private Long lastTs;
+
+    public static TsRollupAggregate fromResultSet(ResultSet rs) throws SQLException {
+        TsRollupAggregate aggregate = new TsRollupAggregate();
+        aggregate.longSum = rs.getLong("long_sum");
+        aggregate.dblSum = rs.getDouble("dbl_sum");
+        aggregate.longCount = rs.getLong("long_count");
+        aggregate.dblCount = rs.getLong("dbl_count");
+        aggregate.longMin = rs.getObject("long_min", Long.class);
+        aggregate.longMax = rs.getObject("long_max", Long.class);
+        aggregate.dblMin = rs.getObject("dbl_min", Double.class);
+        aggregate.dblMax = rs.getObject("dbl_max", Double.class);
+        aggregate.boolCount = rs.getLong("bool_count");
+        aggregate.strCount = rs.getLong("str_count");
+        aggregate.jsonCount = rs.getLong("json_count");
+        aggregate.lastTs = rs.getObject("last_ts", Long.class);
+        return aggregate;
+    }
+
+    public void merge(TsRollupAggregate other) {
+        longSum += other.longSum;
+        dblSum += other.dblSum;
+        longCount += other.longCount;
+        dblCount += other.dblCount;
+        longMin = min(longMin, other.longMin);
+        longMax = max(longMax, other.longMax);
+        dblMin = min(dblMin, other.dblMin);
+        dblMax = max(dblMax, other.dblMax);
+        boolCount += other.boolCount;
+        strCount += other.strCount;
+        jsonCount += other.jsonCount;
+        lastTs = max(lastTs, other.lastTs);
+    }
+
+    public boolean isEmpty() {
+        return boolCount + strCount + longCount + dblCount + jsonCount == 0;
+    }
+
+    /**
+     * Whether the final value can be calculated from the state.
+     * Minimum and maximum of the string values are not kept, so such buckets are served from the raw time series.
+     */
+    public boolean isSupported(Aggregation aggregation) {
+        return !(Aggregation.MIN.equals(aggregation) || Aggregation.MAX.equals(aggregation)) || longCount + dblCount > 0 || strCount == 0;
+    }
+
+    public TsKvEntity toEntity(Aggregation aggregation) {
+        return switch (aggregation) {
+            case AVG, SUM -> new TsKvEntity(longSum, dblSum, longCount, dblCount, aggregation.name(), lastTs);
+            case MIN -> new TsKvEntity(longMin, dblMin, longCount, dblCount, aggregation.name(), lastTs);
+            case MAX -> new TsKvEntity(longMax, dblMax, longCount, dblCount, aggregation.name(), lastTs);
+            case COUNT -> new TsKvEntity(boolCount, strCount, longCount, dblCount, jsonCount, lastTs);
+            default -> throw new IllegalArgumentException("Not supported aggregation type: " + aggregation);
+        };
+    }
+
+    private static <T extends Comparable<T>> T min(T a, T b) {
+        return a == null ? b : b == null ? a : a.compareTo(b) <= 0 ? a : b;
+    }
+
+    private static <T extends Comparable<T>> T max(T a, T b) {
+        return a == null ? b : b == null ? a : a.compareTo(b) >= 0 ? a : b;
+    }
+
+}
@@ -0,0 +1,59 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.dao.sqlts.rollup;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.concurrent.TimeUnit;
+
+@RequiredArgsConstructor
+public enum TsRollupGranularity {
+
+    HOUR(TimeUnit.HOURS.toMillis(1), null),
+    DAY(TimeUnit.DAYS.toMillis(1), HOUR);
+
+    @Getter
+    private final long durationMs;
+    /**
+     * Finer rollup the values are aggregated from, null if aggregated from the raw time series.
+     */
+    @Getter
+    private final TsRollupGranularity source;
+
+    public long floor(long ts) {
+        return ts - Math.floorMod(ts, durationMs);
+    }
+
+    public long ceil(long ts) {
+        long floor = floor(ts);
+        return floor == ts ? ts : floor + durationMs;
+    }
+
+    /**
+     * Coarsest granularity that fits into the bucket of the given length, null if the bucket is shorter than an hour.
+     */
+    public static TsRollupGranularity forBucketLength(long bucketLengthMs) {
+        TsRollupGranularity result = null;
+        for (TsRollupGranularity granularity : values()) {
+            if (granularity.durationMs <= bucketLengthMs) {
+                result = granularity;
+            }
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,82 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.dao.sqlts.rollup;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * Splits the aggregation buckets of a query into the granules that are read from the rollups
+ * and the ranges at the bucket edges that are aggregated from the raw time series.
+ * A granule is read from the rollups only if it starts after the coverage start and lies within a single bucket.
+ */
+@Getter
+public class TsRollupQueryPlan {
+
+    private final TsRollupGranularity granularity;
+    private final long[] bucketStarts;
+    private final long endTs;
+    private final long rollupStartTs;
+    private final long coveredGranules;
+    private final long[] rawStarts;
+    private final long[] rawEnds;
+
+    public TsRollupQueryPlan(TsRollupGranularity granularity, long[] bucketStarts, long endTs, long coverageStartTs) {
+        this.granularity = granularity;
+        this.bucketStarts = bucketStarts;
+        this.endTs = endTs;
+        this.rollupStartTs = granularity.ceil(Math.max(bucketStarts[0], coverageStartTs));
+        long[] starts = new long[bucketStarts.length * 2];
+        long[] ends = new long[bucketStarts.length * 2];
+        int rawCount = 0;
+        long granules = 0;
+        for (int i = 0; i < bucketStarts.length; i++) {
+            long bucketStart = bucketStarts[i];
+            long bucketEnd = getBucketEnd(i);
+            long coveredStart = granularity.ceil(Math.max(bucketStart, coverageStartTs));
+            long coveredEnd = granularity.floor(bucketEnd);
+            if (coveredStart >= coveredEnd) {
+                coveredStart = coveredEnd = bucketEnd;
+            } else {
+                granules += (coveredEnd - coveredStart) / granularity.getDurationMs();
+            }
+            rawCount = addRange(starts, ends, rawCount, bucketStart, coveredStart);
+            rawCount = addRange(starts, ends, rawCount, coveredEnd, bucketEnd);
+        }
+        this.coveredGranules = granules;
+        this.rawStarts = Arrays.copyOf(starts, rawCount);
+        this.rawEnds = Arrays.copyOf(ends, rawCount);
+    }
+
+    public long getBucketEnd(int bucket) {
+        return bucket + 1 < bucketStarts.length ? bucketStarts[bucket + 1] : endTs;
+    }
+
+    private static int addRange(long[] starts, long[] ends, int count, long start, long end) {
+        if (start >= end) {
+            return count;
+        }
+        if (count > 0 && ends[count - 1] == start) {
+            ends[count - 1] = end;
+            return count;
+        }
+        starts[count] = start;
+        ends[count] = end;
+        return count + 1;
+    }
+
+}
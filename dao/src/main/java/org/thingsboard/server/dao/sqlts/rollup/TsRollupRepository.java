@@ -0,0 +1,260 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.dao.sqlts.rollup;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.thingsboard.server.dao.util.SqlTsDao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.ObjIntConsumer;
+
+@SqlTsDao
+@Repository
+@RequiredArgsConstructor
+public class TsRollupRepository {
+
+    private static final int FETCH_SIZE = 1000;
+
+    private static final String INIT_COVERAGE = "INSERT INTO ts_rollup_coverage (id, start_ts) VALUES (0, ?) ON CONFLICT DO NOTHING";
+    private static final String SELECT_COVERAGE = "SELECT start_ts FROM ts_rollup_coverage WHERE id = 0";
+    private static final String UPDATE_COVERAGE = "UPDATE ts_rollup_coverage SET start_ts = ? WHERE id = 0 AND start_ts = ?";
+    private static final String RAISE_COVERAGE = "UPDATE ts_rollup_coverage SET start_ts = GREATEST(start_ts, ?) WHERE id = 0";
+
+    private static final String MARKS = "unnest(?::uuid[], ?::int[], ?::bigint[]) AS d(entity_id, key, ts)";
+    private static final String INSERT_DIRTY = "INSERT INTO ts_rollup_dirty (entity_id, key, ts) SELECT * FROM " + MARKS +
+            " ON CONFLICT DO NOTHING";
+    private static final String CLAIM_DIRTY = "DELETE FROM ts_rollup_dirty WHERE ctid = ANY(ARRAY(" +
+            "SELECT ctid FROM ts_rollup_dirty LIMIT ? FOR UPDATE SKIP LOCKED)) RETURNING entity_id, key, ts";
+    private static final String CLAIM_ENTITY_DIRTY = "DELETE FROM ts_rollup_dirty WHERE entity_id = ? AND key = ? RETURNING entity_id, key, ts";
+
+    private static final String ROLLUP_COLUMNS = "long_sum, dbl_sum, long_count, dbl_count, long_min, long_max, dbl_min, dbl_max, " +
+            "bool_count, str_count, json_count, last_ts";
+    private static final String RAW_AGGREGATES = "SUM(t.long_v) AS long_sum, SUM(t.dbl_v) AS dbl_sum, " +
+            "COUNT(t.long_v) AS long_count, COUNT(t.dbl_v) AS dbl_count, " +
+            "MIN(t.long_v) AS long_min, MAX(t.long_v) AS long_max, MIN(t.dbl_v) AS dbl_min, MAX(t.dbl_v) AS dbl_max, " +
+            "COUNT(t.bool_v) AS bool_count, COUNT(t.str_v) AS str_count, COUNT(t.json_v) AS json_count, MAX(t.ts) AS last_ts";
+    private static final String ROLLUP_AGGREGATES = "SUM(t.long_sum) AS long_sum, SUM(t.dbl_sum) AS dbl_sum, " +
+            "SUM(t.long_count) AS long_count, SUM(t.dbl_count) AS dbl_count, " +
+            "MIN(t.long_min) AS long_min, MAX(t.long_max) AS long_max, MIN(t.dbl_min) AS dbl_min, MAX(t.dbl_max) AS dbl_max, " +
+            "SUM(t.bool_count) AS bool_count, SUM(t.str_count) AS str_count, SUM(t.json_count) AS json_count, MAX(t.last_ts) AS last_ts";
+    private static final String ON_CONFLICT_UPDATE = " ON CONFLICT (entity_id, key, granularity, ts) DO UPDATE SET " +
+            "long_sum = EXCLUDED.long_sum, dbl_sum = EXCLUDED.dbl_sum, long_count = EXCLUDED.long_count, dbl_count = EXCLUDED.dbl_count, " +
+            "long_min = EXCLUDED.long_min, long_max = EXCLUDED.long_max, dbl_min = EXCLUDED.dbl_min, dbl_max = EXCLUDED.dbl_max, " +
+            "bool_count = EXCLUDED.bool_count, str_count = EXCLUDED.str_count, json_count = EXCLUDED.json_count, last_ts = EXCLUDED.last_ts";
+    private static final String INSERT_ROLLUP = "INSERT INTO ts_rollup (entity_id, key, granularity, ts, " + ROLLUP_COLUMNS + ") ";
+
+    private static final String RECALCULATE_FROM_RAW = INSERT_ROLLUP +
+            "SELECT d.entity_id, d.key, ?, d.ts, " + RAW_AGGREGATES + " FROM " + MARKS +
+            " JOIN ts_kv t ON t.entity_id = d.entity_id AND t.key = d.key AND t.ts >= d.ts AND t.ts < d.ts + ?" +
+            " GROUP BY d.entity_id, d.key, d.ts" + ON_CONFLICT_UPDATE;
+    private static final String RECALCULATE_FROM_ROLLUP = INSERT_ROLLUP +
+            "SELECT d.entity_id, d.key, ?, d.ts, " + ROLLUP_AGGREGATES + " FROM " + MARKS +
+            " JOIN ts_rollup t ON t.entity_id = d.entity_id AND t.key = d.key AND t.granularity = ? AND t.ts >= d.ts AND t.ts < d.ts + ?" +
+            " GROUP BY d.entity_id, d.key, d.ts" + ON_CONFLICT_UPDATE;
+    private static final String DELETE_EMPTY_FROM_RAW = "DELETE FROM ts_rollup r USING " + MARKS +
+            " WHERE r.entity_id = d.entity_id AND r.key = d.key AND r.granularity = ? AND r.ts = d.ts" +
+            " AND NOT EXISTS (SELECT 1 FROM ts_kv t WHERE t.entity_id = d.entity_id AND t.key = d.key AND t.ts >= d.ts AND t.ts < d.ts + ?)";
+    private static final String DELETE_EMPTY_FROM_ROLLUP = "DELETE FROM ts_rollup r USING " + MARKS +
+            " WHERE r.entity_id = d.entity_id AND r.key = d.key AND r.granularity = ? AND r.ts = d.ts" +
+            " AND NOT EXISTS (SELECT 1 FROM ts_rollup t WHERE t.entity_id = d.entity_id AND t.key = d.key AND t.granularity = ? AND t.ts >= d.ts AND t.ts < d.ts + ?)";
+
+    private static final String BACKFILL_FROM_RAW = INSERT_ROLLUP +
+            "SELECT t.entity_id, t.key, ?, t.ts - t.ts % ? AS bucket, " + RAW_AGGREGATES + " FROM ts_kv t" +
+            " WHERE t.ts >= ? AND t.ts < ? GROUP BY t.entity_id, t.key, bucket" + ON_CONFLICT_UPDATE;
+    private static final String BACKFILL_FROM_ROLLUP = INSERT_ROLLUP +
+            "SELECT t.entity_id, t.key, ?, t.ts - t.ts % ? AS bucket, " + ROLLUP_AGGREGATES + " FROM ts_rollup t" +
+            " WHERE t.granularity = ? AND t.ts >= ? AND t.ts < ? GROUP BY t.entity_id, t.key, bucket" + ON_CONFLICT_UPDATE;
+
+    private static final String DELETE_RANGE = "DELETE FROM ts_rollup WHERE entity_id = ? AND key = ? AND granularity = ? AND ts >= ? AND ts + granularity <= ?";
+    private static final String DELETE_BEFORE = "DELETE FROM ts_rollup WHERE ts + granularity <= ?";
+    private static final String DELETE_DIRTY_BEFORE = "DELETE FROM ts_rollup_dirty WHERE ts < ?";
+
+    private static final String FIND_ROLLUP_AGGREGATES = "SELECT width_bucket(t.ts, ?::bigint[]) - 1 AS bucket, " + ROLLUP_AGGREGATES +
+            " FROM ts_rollup t WHERE t.entity_id = ? AND t.key = ? AND t.granularity = ? AND t.ts >= ? AND t.ts + t.granularity <= ?" +
+            " AND width_bucket(t.ts, ?::bigint[]) = width_bucket(t.ts + t.granularity - 1, ?::bigint[]) GROUP BY bucket";
+    private static final String FIND_RAW_AGGREGATES = "SELECT width_bucket(t.ts, ?::bigint[]) - 1 AS bucket, " + RAW_AGGREGATES +
+            " FROM unnest(?::bigint[], ?::bigint[]) AS r(start_ts, end_ts)" +
+            " JOIN ts_kv t ON t.entity_id = ? AND t.key = ? AND t.ts >= r.start_ts AND t.ts < r.end_ts GROUP BY bucket";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public long initCoverageStartTs(long startTs) {
+        jdbcTemplate.update(INIT_COVERAGE, startTs);
+        return getCoverageStartTs();
+    }
+
+    public long getCoverageStartTs() {
+        return jdbcTemplate.queryForObject(SELECT_COVERAGE, Long.class);
+    }
+
+    public boolean updateCoverageStartTs(long expectedStartTs, long startTs) {
+        return jdbcTemplate.update(UPDATE_COVERAGE, startTs, expectedStartTs) > 0;
+    }
+
+    public void raiseCoverageStartTs(long startTs) {
+        jdbcTemplate.update(RAISE_COVERAGE, startTs);
+    }
+
+    public void markDirty(Collection<TsRollupMark> marks) {
+        if (!marks.isEmpty()) {
+            jdbcTemplate.update(con -> {
+                PreparedStatement ps = con.prepareStatement(INSERT_DIRTY);
+                setMarks(con, ps, 1, marks);
+                return ps;
+            });
+        }
+    }
+
+    public List<TsRollupMark> claimDirty(int limit) {
+        return jdbcTemplate.query(CLAIM_DIRTY, (rs, rowNum) -> toMark(rs), limit);
+    }
+
+    public List<TsRollupMark> claimDirty(UUID entityId, int key) {
+        return jdbcTemplate.query(CLAIM_ENTITY_DIRTY, (rs, rowNum) -> toMark(rs), entityId, key);
+    }
+
+    /**
+     * Recalculates the granules from the source data. The marks must be aligned to the granularity.
+     */
+    public void recalculate(TsRollupGranularity granularity, Collection<TsRollupMark> marks) {
+        if (marks.isEmpty()) {
+            return;
+        }
+        TsRollupGranularity source = granularity.getSource();
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(source == null ? RECALCULATE_FROM_RAW : RECALCULATE_FROM_ROLLUP);
+            ps.setLong(1, granularity.getDurationMs());
+            int idx = setMarks(con, ps, 2, marks);
+            if (source != null) {
+                ps.setLong(idx++, source.getDurationMs());
+            }
+            ps.setLong(idx, granularity.getDurationMs());
+            return ps;
+        });
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(source == null ? DELETE_EMPTY_FROM_RAW : DELETE_EMPTY_FROM_ROLLUP);
+            int idx = setMarks(con, ps, 1, marks);
+            ps.setLong(idx++, granularity.getDurationMs());
+            if (source != null) {
+                ps.setLong(idx++, source.getDurationMs());
+            }
+            ps.setLong(idx, granularity.getDurationMs());
+            return ps;
+        });
+    }
+
+    /**
+     * Calculates the granules of all entities and keys in the time range. The range must be aligned to the granularity.
+     */
+    public int backfill(TsRollupGranularity granularity, long startTs, long endTs) {
+        TsRollupGranularity source = granularity.getSource();
+        if (source == null) {
+            return jdbcTemplate.update(BACKFILL_FROM_RAW, granularity.getDurationMs(), granularity.getDurationMs(), startTs, endTs);
+        } else {
+            return jdbcTemplate.update(BACKFILL_FROM_ROLLUP, granularity.getDurationMs(), granularity.getDurationMs(), source.getDurationMs(), startTs, endTs);
+        }
+    }
+
+    /**
+     * Deletes the granules that lie within the time range completely.
+     */
+    public void deleteRange(UUID entityId, int key, TsRollupGranularity granularity, long startTs, long endTs) {
+        jdbcTemplate.update(DELETE_RANGE, entityId, key, granularity.getDurationMs(), startTs, endTs);
+    }
+
+    public int deleteBefore(long ts) {
+        jdbcTemplate.update(DELETE_DIRTY_BEFORE, ts);
+        return jdbcTemplate.update(DELETE_BEFORE, ts);
+    }
+
+    /**
+     * Reads the partial aggregates of the query buckets: covered granules from the rollups and the rest from the raw time series.
+     * A bucket may be reported more than once.
+     */
+    public void findAggregates(UUID entityId, int key, TsRollupQueryPlan plan, ObjIntConsumer<TsRollupAggregate> consumer) {
+        Long[] buckets = toArray(plan.getBucketStarts());
+        RowCallbackHandler handler = rs -> consumer.accept(TsRollupAggregate.fromResultSet(rs), rs.getInt("bucket"));
+        if (plan.getCoveredGranules() > 0) {
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = prepareStatement(con, FIND_ROLLUP_AGGREGATES);
+                ps.setArray(1, con.createArrayOf("bigint", buckets));
+                ps.setObject(2, entityId);
+                ps.setInt(3, key);
+                ps.setLong(4, plan.getGranularity().getDurationMs());
+                ps.setLong(5, plan.getRollupStartTs());
+                ps.setLong(6, plan.getEndTs());
+                ps.setArray(7, con.createArrayOf("bigint", buckets));
+                ps.setArray(8, con.createArrayOf("bigint", buckets));
+                return ps;
+            }, handler);
+        }
+        if (plan.getRawStarts().length > 0) {
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = prepareStatement(con, FIND_RAW_AGGREGATES);
+                ps.setArray(1, con.createArrayOf("bigint", buckets));
+                ps.setArray(2, con.createArrayOf("bigint", toArray(plan.getRawStarts())));
+                ps.setArray(3, con.createArrayOf("bigint", toArray(plan.getRawEnds())));
+                ps.setObject(4, entityId);
+                ps.setInt(5, key);
+                return ps;
+            }, handler);
+        }
+    }
+
+    private static PreparedStatement prepareStatement(Connection con, String sql) throws SQLException {
+        PreparedStatement ps = con.prepareStatement(sql);
+        ps.setFetchSize(FETCH_SIZE);
+        return ps;
+    }
+
+    private static int setMarks(Connection con, PreparedStatement ps, int idx, Collection<TsRollupMark> marks) throws SQLException {
+        List<UUID> entityIds = new ArrayList<>(marks.size());
+        List<Integer> keys = new ArrayList<>(marks.size());
+        List<Long> timestamps = new ArrayList<>(marks.size());
+        for (TsRollupMark mark : marks) {
+            entityIds.add(mark.entityId());
+            keys.add(mark.key());
+            timestamps.add(mark.ts());
+        }
+        ps.setArray(idx++, con.createArrayOf("uuid", entityIds.toArray()));
+        ps.setArray(idx++, con.createArrayOf("integer", keys.toArray()));
+        ps.setArray(idx++, con.createArrayOf("bigint", timestamps.toArray()));
+        return idx;
+    }
+
+    private static TsRollupMark toMark(ResultSet rs) throws SQLException {
+        return new TsRollupMark(rs.getObject("entity_id", UUID.class), rs.getInt("key"), rs.getLong("ts"));
+    }
+
+    private static Long[] toArray(long[] values) {
+        Long[] result = new Long[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = values[i];
+        }
+        return result;
+    }
+
+}
@@ -26,14 +26,18 @@ import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Component;
 import org.thingsboard.server.common.data.id.EntityId;
 import org.thingsboard.server.common.data.id.TenantId;
+import org.thingsboard.server.common.data.kv.IntervalType;
+import org.thingsboard.server.common.data.kv.ReadTsKvQuery;
 import org.thingsboard.server.common.data.kv.TsKvEntry;
 import org.thingsboard.server.dao.dictionary.KeyDictionaryDao;
+import org.thingsboard.server.dao.model.sql.AbstractTsKvEntity;
 import org.thingsboard.server.dao.model.sqlts.ts.TsKvEntity;
 import org.thingsboard.server.dao.sqlts.AbstractChunkedAggregationTimeseriesDao;
 import org.thingsboard.server.dao.sqlts.insert.sql.SqlPartitioningRepository;
 import org.thingsboard.server.dao.timeseries.SqlPartition;
 import org.thingsboard.server.dao.timeseries.SqlTsPartitionDate;
 import org.thingsboard.server.dao.util.SqlTsDao;
+import org.thingsboard.server.dao.util.TimeUtils;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -41,9 +45,12 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
@@ -65,9 +72,18 @@ public class JpaSqlTimeseriesDao extends AbstractChunkedAggregationTimeseriesDao
 
     private SqlTsPartitionDate tsFormat;
 
+    @Autowired
+    private TsKvAggregationRepository aggregationRepository;
+
     @Value("${sql.postgres.ts_key_value_partitioning:MONTHS}")
     private String partitioning;
 
+    @Value("${sql.ts.grouped_aggregation.enabled:true}")
+    private boolean groupedAggregationEnabled;
+
+    @Value("${sql.ts.grouped_aggregation.max_calendar_buckets:10000}")
+    private int maxCalendarBuckets;
+
 
     @Override
     protected void init() {
@@ -100,6 +116,52 @@ public class JpaSqlTimeseriesDao extends AbstractChunkedAggregationTimeseriesDao
         return Futures.transform(tsQueue.add(entity), v -> dataPointDays, MoreExecutors.directExecutor());
     }
 
+    @Override
+    protected ListenableFuture<List<Optional<? extends AbstractTsKvEntity>>> findAllAndAggregateGroupedAsync(EntityId entityId, ReadTsKvQuery query) {
+        if (!groupedAggregationEnabled) {
+            return null;
+        }
+        var aggParams = query.getAggParameters();
+        long startTs = query.getStartTs();
+        long endTs = Math.max(query.getStartTs() + 1, query.getEndTs());
+        long[] bucketStarts = null;
+        if (!IntervalType.MILLISECONDS.equals(aggParams.getIntervalType())) {
+            bucketStarts = calculateCalendarBuckets(startTs, endTs, aggParams.getIntervalType(), aggParams.getTzId());
+            if (bucketStarts == null) {
+                return null;
+            }
+        }
+        long[] calendarBuckets = bucketStarts;
+        return service.submit(() -> {
+            int keyId = keyDictionaryDao.getOrSaveKeyId(query.getKey());
+            List<TsKvEntity> entities = calendarBuckets == null ?
+                    aggregationRepository.findAggregatesByInterval(entityId.getId(), keyId, query.getAggregation(), startTs, endTs, aggParams.getInterval()) :
+                    aggregationRepository.findAggregatesByBuckets(entityId.getId(), keyId, query.getAggregation(), calendarBuckets, endTs);
+            List<Optional<? extends AbstractTsKvEntity>> result = new ArrayList<>(entities.size());
+            for (TsKvEntity entity : entities) {
+                if (entity.isNotEmpty()) {
+                    entity.setEntityId(entityId.getId());
+                    entity.setStrKey(query.getKey());
+                    result.add(Optional.of(entity));
+                }
+            }
+            return result;
+        });
+    }
+
+    private long[] calculateCalendarBuckets(long startTs, long endTs, IntervalType intervalType, ZoneId tzId) {
+        List<Long> bucketStarts = new ArrayList<>();
+        long bucketStart = startTs;
+        while (bucketStart < endTs) {
+            if (bucketStarts.size() >= maxCalendarBuckets) {
+                return null;
+            }
+            bucketStarts.add(bucketStart);
+            bucketStart = TimeUtils.calculateIntervalEnd(bucketStart, intervalType, tzId);
+        }
+        return bucketStarts.stream().mapToLong(Long::longValue).toArray();
+    }
+
     @Override
     public void cleanup(long systemTtl) {
         if (systemTtl > 0) {
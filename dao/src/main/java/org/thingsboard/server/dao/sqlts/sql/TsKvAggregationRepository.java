@@ -0,0 +1,152 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.dao.sqlts.sql;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.thingsboard.server.common.data.kv.Aggregation;
+import org.thingsboard.server.dao.model.sqlts.ts.TsKvEntity;
+import org.thingsboard.server.dao.util.SqlTsDao;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Aggregates all intervals of a time series query with a single grouped query over ts_kv.
+ * The rows are mapped to entities while the result set is being read, one row per non-empty interval.
+ */
+@SqlTsDao
+@Repository
+@RequiredArgsConstructor
+public class TsKvAggregationRepository {
+
+    private static final int FETCH_SIZE = 1000;
+
+    private static final String INTERVAL_BUCKET = "(ts - ?) / ?";
+    private static final String CALENDAR_BUCKET = "width_bucket(ts, ?::bigint[]) - 1";
+
+    private static final String NUMERIC_SUM_COLUMNS = "SUM(COALESCE(long_v, 0)) AS long_value, " +
+            "SUM(COALESCE(dbl_v, 0.0)) AS dbl_value, " +
+            "COUNT(long_v) AS long_count, COUNT(dbl_v) AS dbl_count, MAX(ts) AS max_ts";
+    private static final String MAX_COLUMNS = "MAX(COALESCE(long_v, -9223372036854775807)) AS long_value, " +
+            "MAX(COALESCE(dbl_v, -1.79769E+308)) AS dbl_value, " +
+            "COUNT(long_v) AS long_count, COUNT(dbl_v) AS dbl_count, MAX(ts) AS max_ts, " +
+            "MAX(str_v) AS str_value, MAX(CASE WHEN str_v IS NOT NULL THEN ts END) AS str_max_ts";
+    private static final String MIN_COLUMNS = "MIN(COALESCE(long_v, 9223372036854775807)) AS long_value, " +
+            "MIN(COALESCE(dbl_v, 1.79769E+308)) AS dbl_value, " +
+            "COUNT(long_v) AS long_count, COUNT(dbl_v) AS dbl_count, MAX(ts) AS max_ts, " +
+            "MIN(str_v) AS str_value, MAX(CASE WHEN str_v IS NOT NULL THEN ts END) AS str_max_ts";
+    private static final String COUNT_COLUMNS = "COUNT(bool_v) AS bool_count, COUNT(str_v) AS str_count, " +
+            "COUNT(long_v) AS long_count, COUNT(dbl_v) AS dbl_count, COUNT(json_v) AS json_count, MAX(ts) AS max_ts";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Aggregates fixed-length intervals starting at {@code startTs}; the last interval is cut at {@code endTs}.
+     */
+    public List<TsKvEntity> findAggregatesByInterval(UUID entityId, int keyId, Aggregation aggregation, long startTs, long endTs, long interval) {
+        return findAggregates(INTERVAL_BUCKET, aggregation, ps -> {
+            ps.setLong(1, startTs);
+            ps.setLong(2, interval);
+            setRangeParams(ps, 3, entityId, keyId, startTs, endTs);
+        }, bucket -> startTs + bucket * interval, bucket -> Math.min(startTs + (bucket + 1) * interval, endTs));
+    }
+
+    /**
+     * Aggregates intervals with the given start timestamps (sorted); the last interval ends at {@code endTs}.
+     */
+    public List<TsKvEntity> findAggregatesByBuckets(UUID entityId, int keyId, Aggregation aggregation, long[] bucketStarts, long endTs) {
+        Long[] thresholds = new Long[bucketStarts.length];
+        for (int i = 0; i < bucketStarts.length; i++) {
+            thresholds[i] = bucketStarts[i];
+        }
+        return findAggregates(CALENDAR_BUCKET, aggregation, ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("bigint", thresholds));
+            setRangeParams(ps, 2, entityId, keyId, bucketStarts[0], endTs);
+        }, bucket -> bucketStarts[(int) bucket], bucket -> bucket + 1 < bucketStarts.length ? bucketStarts[(int) bucket + 1] : endTs);
+    }
+
+    private List<TsKvEntity> findAggregates(String bucketExpression, Aggregation aggregation, ParamsSetter paramsSetter,
+                                            LongUnaryOperator bucketStart, LongUnaryOperator bucketEnd) {
+        String sql = "SELECT " + bucketExpression + " AS bucket, " + getAggregationColumns(aggregation) + " FROM ts_kv " +
+                "WHERE entity_id = ? AND key = ? AND ts >= ? AND ts < ? GROUP BY bucket ORDER BY bucket";
+        List<TsKvEntity> result = new ArrayList<>();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            ps.setFetchSize(FETCH_SIZE);
+            paramsSetter.setParams(ps);
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            long bucket = rs.getLong("bucket");
+            long startTs = bucketStart.applyAsLong(bucket);
+            long endTs = bucketEnd.applyAsLong(bucket);
+            TsKvEntity entity = toEntity(rs, aggregation);
+            entity.setTs(startTs + (endTs - startTs) / 2);
+            result.add(entity);
+        });
+        return result;
+    }
+
+    private static TsKvEntity toEntity(ResultSet rs, Aggregation aggregation) throws SQLException {
+        return switch (aggregation) {
+            case AVG, SUM -> toNumericEntity(rs, aggregation);
+            case MIN, MAX -> {
+                TsKvEntity numeric = toNumericEntity(rs, aggregation);
+                yield numeric.isNotEmpty() ? numeric : new TsKvEntity(rs.getString("str_value"), rs.getObject("str_max_ts", Long.class));
+            }
+            case COUNT -> new TsKvEntity(rs.getLong("bool_count"), rs.getLong("str_count"), rs.getLong("long_count"),
+                    rs.getLong("dbl_count"), rs.getLong("json_count"), rs.getLong("max_ts"));
+            default -> throw new IllegalArgumentException("Not supported aggregation type: " + aggregation);
+        };
+    }
+
+    private static TsKvEntity toNumericEntity(ResultSet rs, Aggregation aggregation) throws SQLException {
+        return new TsKvEntity(rs.getLong("long_value"), rs.getDouble("dbl_value"), rs.getLong("long_count"),
+                rs.getLong("dbl_count"), aggregation.name(), rs.getLong("max_ts"));
+    }
+
+    private static String getAggregationColumns(Aggregation aggregation) {
+        return switch (aggregation) {
+            case AVG, SUM -> NUMERIC_SUM_COLUMNS;
+            case MAX -> MAX_COLUMNS;
+            case MIN -> MIN_COLUMNS;
+            case COUNT -> COUNT_COLUMNS;
+            default -> throw new IllegalArgumentException("Not supported aggregation type: " + aggregation);
+        };
+    }
+
+    private static void setRangeParams(PreparedStatement ps, int idx, UUID entityId, int keyId, long startTs, long endTs) throws SQLException {
+        ps.setObject(idx, entityId);
+        ps.setInt(idx + 1, keyId);
+        ps.setLong(idx + 2, startTs);
+        ps.setLong(idx + 3, endTs);
+    }
+
+    @FunctionalInterface
+    private interface ParamsSetter {
+
+        void setParams(PreparedStatement ps) throws SQLException;
+
+    }
+
+}
@@ -53,6 +53,7 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
 @Component
@@ -86,10 +87,16 @@ public class TimescaleTimeseriesDao extends AbstractSqlTimeseriesDao implements
                 .statsPrintIntervalMs(tsStatsPrintIntervalMs)
                 .statsNamePrefix("ts.timescale")
                 .batchSortEnabled(batchSortEnabled)
+                .queueType(tsQueueType)
+                .capacity(tsQueueCapacity)
+                .maxBatchBytes(tsMaxBatchBytes)
+                .idleDelay(tsIdleDelay)
+                .offerTimeout(tsOfferTimeout)
                 .build();
 
         Function<TimescaleTsKvEntity, Integer> hashcodeFunction = entity -> entity.getEntityId().hashCode();
         tsQueue = new TbSqlBlockingQueueWrapper<>(tsParams, hashcodeFunction, timescaleBatchThreads, statsFactory);
+        tsQueue.setSizeFunction(AbstractTsKvEntity::estimateSize);
 
         tsQueue.init(logExecutor, v -> insertRepository.saveOrUpdate(v),
                 Comparator.comparing((Function<TimescaleTsKvEntity, UUID>) AbstractTsKvEntity::getEntityId)
@@ -179,6 +186,13 @@ public class TimescaleTimeseriesDao extends AbstractSqlTimeseriesDao implements
         super.cleanup(systemTtl);
     }
 
+    @Override
+    public void exportAll(TenantId tenantId, EntityId entityId, ReadTsKvQuery query, int chunkSize, Consumer<List<TsKvEntry>> consumer) {
+        int keyId = keyDictionaryDao.getOrSaveKeyId(query.getKey());
+        exportAll(query, chunkSize, consumer, (startTs, endTs, pageable) ->
+                tsKvRepository.findAllWithLimit(entityId.getId(), keyId, startTs, endTs, pageable));
+    }
+
     private ReadTsKvQueryResult findAllAsyncWithLimit(EntityId entityId, ReadTsKvQuery query) {
         String strKey = query.getKey();
         Integer keyId = keyDictionaryDao.getOrSaveKeyId(strKey);
@@ -16,9 +16,6 @@
 package org.thingsboard.server.dao.timeseries;
 
 import com.datastax.oss.driver.api.core.cql.Row;
-import com.google.common.util.concurrent.Futures;
-import com.google.common.util.concurrent.ListenableFuture;
-import jakarta.annotation.Nullable;
 import lombok.extern.slf4j.Slf4j;
 import org.thingsboard.server.common.data.kv.AggTsKvEntry;
 import org.thingsboard.server.common.data.kv.Aggregation;
@@ -31,18 +28,15 @@ import org.thingsboard.server.common.data.kv.LongDataEntry;
 import org.thingsboard.server.common.data.kv.StringDataEntry;
 import org.thingsboard.server.common.data.kv.TsKvEntry;
 import org.thingsboard.server.common.data.kv.TsKvEntryAggWrapper;
-import org.thingsboard.server.dao.nosql.TbResultSet;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.Executor;
-import java.util.stream.Collectors;
 
 /**
  * Created by ashvayka on 20.02.17.
  */
 @Slf4j
-public class AggregatePartitionsFunction implements com.google.common.util.concurrent.AsyncFunction<List<TbResultSet>, Optional<TsKvEntryAggWrapper>> {
+public class AggregatePartitionsFunction {
 
     private static final int LONG_CNT_POS = 0;
     private static final int DOUBLE_CNT_POS = 1;
@@ -60,39 +54,31 @@ public class AggregatePartitionsFunction implements com.google.common.util.concu
     private final Aggregation aggregation;
     private final String key;
     private final long ts;
-    private final Executor executor;
+    private final AggregationResult aggResult = new AggregationResult();
+    private boolean failed;
 
-    public AggregatePartitionsFunction(Aggregation aggregation, String key, long ts, Executor executor) {
+    public AggregatePartitionsFunction(Aggregation aggregation, String key, long ts) {
         this.aggregation = aggregation;
         this.key = key;
         this.ts = ts;
-        this.executor = executor;
     }
 
-    @Override
-    public ListenableFuture<Optional<TsKvEntryAggWrapper>> apply(@Nullable List<TbResultSet> rsList) {
-        log.trace("[{}][{}][{}] Going to aggregate data", key, ts, aggregation);
-        if (rsList == null || rsList.isEmpty()) {
-            return Futures.immediateFuture(Optional.empty());
+    /**
+     * Adds the rows of one more partition to the aggregation, so partitions are aggregated as soon as they are read.
+     */
+    public synchronized void process(List<Row> rows) {
+        try {
+            for (Row row : rows) {
+                processResultSetRow(row, aggResult);
+            }
+        } catch (Exception e) {
+            log.error("[{}][{}][{}] Failed to aggregate data", key, ts, aggregation, e);
+            failed = true;
         }
-        return Futures.transform(
-                Futures.allAsList(
-                        rsList.stream().map(rs -> rs.allRows(this.executor))
-                                .collect(Collectors.toList())),
-                rowsList -> {
-                    try {
-                        AggregationResult aggResult = new AggregationResult();
-                        for (List<Row> rs : rowsList) {
-                            for (Row row : rs) {
-                                processResultSetRow(row, aggResult);
-                            }
-                        }
-                        return processAggregationResult(aggResult);
-                    } catch (Exception e) {
-                        log.error("[{}][{}][{}] Failed to aggregate data", key, ts, aggregation, e);
-                        return Optional.empty();
-                    }
-                }, this.executor);
+    }
+
+    public synchronized Optional<TsKvEntryAggWrapper> getResult() {
+        return failed ? Optional.empty() : processAggregationResult(aggResult);
     }
 
     private void processResultSetRow(Row row, AggregationResult aggResult) {
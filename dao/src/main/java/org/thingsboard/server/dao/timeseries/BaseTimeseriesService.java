@@ -50,7 +50,9 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import static org.thingsboard.server.common.data.StringUtils.isBlank;
@@ -89,6 +91,9 @@ public class BaseTimeseriesService implements TimeseriesService {
     @Autowired
     private TimeseriesLatestDao timeseriesLatestDao;
 
+    @Autowired(required = false)
+    private TimeseriesRollupDao timeseriesRollupDao;
+
     @Autowired
     private EntityViewService entityViewService;
 
@@ -107,9 +112,32 @@ public class BaseTimeseriesService implements TimeseriesService {
                     queries.stream()
                             .filter(query -> keys.isEmpty() || keys.contains(query.getKey()))
                             .collect(Collectors.toList());
-            return timeseriesDao.findAllAsync(tenantId, entityView.getEntityId(), updateQueriesForEntityView(entityView, filteredQueries));
+            return findAllAsync(tenantId, entityView.getEntityId(), updateQueriesForEntityView(entityView, filteredQueries));
+        }
+        return findAllAsync(tenantId, entityId, queries);
+    }
+
+    private ListenableFuture<List<ReadTsKvQueryResult>> findAllAsync(TenantId tenantId, EntityId entityId, List<ReadTsKvQuery> queries) {
+        if (timeseriesRollupDao == null || queries.stream().noneMatch(timeseriesRollupDao::canServe)) {
+            return timeseriesDao.findAllAsync(tenantId, entityId, queries);
+        }
+        List<ListenableFuture<ReadTsKvQueryResult>> futures = new ArrayList<>(queries.size());
+        for (ReadTsKvQuery query : queries) {
+            if (timeseriesRollupDao.canServe(query)) {
+                futures.add(Futures.transformAsync(timeseriesRollupDao.findAllAsync(tenantId, entityId, query),
+                        result -> result != null ? Futures.immediateFuture(result) : findAllRawAsync(tenantId, entityId, query),
+                        MoreExecutors.directExecutor()));
+            } else {
+                futures.add(findAllRawAsync(tenantId, entityId, query));
+            }
         }
-        return timeseriesDao.findAllAsync(tenantId, entityId, queries);
+        return Futures.transform(Futures.allAsList(futures),
+                results -> results.stream().filter(Objects::nonNull).collect(Collectors.toList()), MoreExecutors.directExecutor());
+    }
+
+    private ListenableFuture<ReadTsKvQueryResult> findAllRawAsync(TenantId tenantId, EntityId entityId, ReadTsKvQuery query) {
+        return Futures.transform(timeseriesDao.findAllAsync(tenantId, entityId, List.of(query)),
+                results -> results != null && !results.isEmpty() ? results.get(0) : null, MoreExecutors.directExecutor());
     }
 
     @Override
@@ -123,6 +151,28 @@ public class BaseTimeseriesService implements TimeseriesService {
                 }, MoreExecutors.directExecutor());
     }
 
+    @Override
+    public void exportAll(TenantId tenantId, EntityId entityId, ReadTsKvQuery query, int chunkSize, Consumer<List<TsKvEntry>> consumer) {
+        validate(entityId);
+        validate(query);
+        if (!Aggregation.NONE.equals(query.getAggregation())) {
+            throw new IncorrectParameterException("Incorrect ReadTsKvQuery. Only not aggregated time series can be exported");
+        }
+        if (chunkSize < 1) {
+            throw new IncorrectParameterException("Incorrect chunk size " + chunkSize + ". Chunk size must be greater than 0");
+        }
+        if (entityId.getEntityType().equals(EntityType.ENTITY_VIEW)) {
+            EntityView entityView = entityViewService.findEntityViewById(tenantId, (EntityViewId) entityId);
+            List<String> keys = entityView.getKeys() != null && entityView.getKeys().getTimeseries() != null ?
+                    entityView.getKeys().getTimeseries() : Collections.emptyList();
+            if (keys.isEmpty() || keys.contains(query.getKey())) {
+                timeseriesDao.exportAll(tenantId, entityView.getEntityId(), updateQueriesForEntityView(entityView, List.of(query)).get(0), chunkSize, consumer);
+            }
+            return;
+        }
+        timeseriesDao.exportAll(tenantId, entityId, query, chunkSize, consumer);
+    }
+
     @Override
     public ListenableFuture<Optional<TsKvEntry>> findLatest(TenantId tenantId, EntityId entityId, String key) {
         validate(entityId);
@@ -132,12 +182,8 @@ public class BaseTimeseriesService implements TimeseriesService {
     @Override
     public ListenableFuture<List<TsKvEntry>> findLatest(TenantId tenantId, EntityId entityId, Collection<String> keys) {
         validate(entityId);
-        List<ListenableFuture<TsKvEntry>> futures = new ArrayList<>(keys.size());
         keys.forEach(key -> Validator.validateString(key, k -> "Incorrect key " + k));
-        for (String key : keys) {
-            futures.add(timeseriesLatestDao.findLatest(tenantId, entityId, key));
-        }
-        return Futures.allAsList(futures);
+        return timeseriesLatestDao.findLatest(tenantId, entityId, keys);
     }
 
     @Override
@@ -159,6 +205,9 @@ public class BaseTimeseriesService implements TimeseriesService {
     @Override
     public void cleanup(long systemTtl) {
         timeseriesDao.cleanup(systemTtl);
+        if (timeseriesRollupDao != null) {
+            timeseriesRollupDao.cleanup(systemTtl);
+        }
     }
 
     @Override
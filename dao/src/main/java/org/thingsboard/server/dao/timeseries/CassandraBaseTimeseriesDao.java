@@ -23,6 +23,7 @@ import com.datastax.oss.driver.api.core.cql.Row;
 import com.datastax.oss.driver.api.querybuilder.QueryBuilder;
 import com.datastax.oss.driver.api.querybuilder.select.Select;
 import com.google.common.base.Function;
+import com.google.common.collect.Lists;
 import com.google.common.util.concurrent.AsyncFunction;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
@@ -70,6 +71,7 @@ import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import static com.datastax.oss.driver.api.querybuilder.QueryBuilder.literal;
@@ -122,6 +124,9 @@ public class CassandraBaseTimeseriesDao extends AbstractCassandraBaseTimeseriesD
     @Value("${cassandra.query.set_null_values_enabled}")
     private boolean setNullValuesEnabled;
 
+    @Value("${cassandra.query.partitions_read_concurrency:4}")
+    private int partitionsReadConcurrency;
+
     private NoSqlTsPartitionDate tsFormat;
 
     private PreparedStatement partitionInsertStmt;
@@ -312,86 +317,107 @@ public class CassandraBaseTimeseriesDao extends AbstractCassandraBaseTimeseriesD
     }
 
     private ListenableFuture<ReadTsKvQueryResult> findAllAsyncWithLimit(TenantId tenantId, EntityId entityId, ReadTsKvQuery query) {
+        List<TsKvEntry> tsKvEntries = new ArrayList<>();
+        return Futures.transform(findAllAsync(tenantId, entityId, query, tsKvEntries::addAll), v -> {
+            long lastTs = tsKvEntries.stream().map(TsKvEntry::getTs).max(Long::compare).orElse(query.getStartTs());
+            return new ReadTsKvQueryResult(query.getId(), tsKvEntries, lastTs);
+        }, MoreExecutors.directExecutor());
+    }
+
+    /**
+     * Streams the raw (not aggregated) time series of the query to the consumer, partition by partition in the query order,
+     * without collecting the whole result. Up to {@code cassandra.query.partitions_read_concurrency} partitions are read ahead,
+     * the reading stops as soon as the query limit is reached. The consumer is never called concurrently.
+     */
+    public ListenableFuture<Void> findAllAsync(TenantId tenantId, EntityId entityId, ReadTsKvQuery query, Consumer<List<TsKvEntry>> consumer) {
         long minPartition = toPartitionTs(query.getStartTs());
         long maxPartition = toPartitionTs(query.getEndTs());
-        final ListenableFuture<List<Long>> partitionsListFuture = getPartitionsFuture(tenantId, query, entityId, minPartition, maxPartition);
-        final SimpleListenableFuture<List<TsKvEntry>> resultFuture = new SimpleListenableFuture<>();
-
-        Futures.addCallback(partitionsListFuture, new FutureCallback<>() {
-            @Override
-            public void onSuccess(@Nullable List<Long> partitions) {
-                TsKvQueryCursor cursor = new TsKvQueryCursor(entityId.getEntityType().name(), entityId.getId(), query, partitions);
-                findAllAsyncSequentiallyWithLimit(tenantId, cursor, resultFuture);
-            }
-
-            @Override
-            public void onFailure(Throwable t) {
-                log.error("[{}][{}] Failed to fetch partitions for interval {}-{}", entityId.getEntityType().name(), entityId.getId(), toPartitionTs(query.getStartTs()), toPartitionTs(query.getEndTs()), t);
+        ListenableFuture<List<Long>> partitionsListFuture = getPartitionsFuture(tenantId, query, entityId, minPartition, maxPartition);
+        return Futures.transformAsync(partitionsListFuture, partitions -> {
+            TsKvQueryCursor cursor = new TsKvQueryCursor(entityId.getEntityType().name(), entityId.getId(), query, partitions);
+            if (cursor.isFull()) {
+                return Futures.immediateVoidFuture();
             }
+            return TsPartitionReader.read(cursor, partitionsReadConcurrency, partition -> fetchPartitionAsync(tenantId, cursor, partition), tsKvEntries -> {
+                List<TsKvEntry> chunk = tsKvEntries.size() > cursor.getCurrentLimit() ? tsKvEntries.subList(0, cursor.getCurrentLimit()) : tsKvEntries;
+                cursor.consume(chunk.size());
+                if (!chunk.isEmpty()) {
+                    consumer.accept(chunk);
+                }
+                return !cursor.isFull();
+            }, readResultsProcessingExecutor);
         }, readResultsProcessingExecutor);
+    }
 
-        return Futures.transform(resultFuture, tsKvEntries -> {
-            long lastTs = query.getStartTs();
-            if (tsKvEntries != null) {
-                lastTs = tsKvEntries.stream().map(TsKvEntry::getTs).max(Long::compare).orElse(query.getStartTs());
+    /**
+     * Pages through the partitions one by one on the calling thread, using the native Cassandra paging with {@code chunkSize}
+     * rows per page. The next page is requested before the current one is passed to the consumer,
+     * so at most two pages are held in memory.
+     */
+    @Override
+    public void exportAll(TenantId tenantId, EntityId entityId, ReadTsKvQuery query, int chunkSize, Consumer<List<TsKvEntry>> consumer) {
+        long minPartition = toPartitionTs(query.getStartTs());
+        long maxPartition = toPartitionTs(query.getEndTs());
+        List<Long> partitions = Futures.getUnchecked(getPartitionsFuture(tenantId, query, entityId, minPartition, maxPartition));
+        TsKvQueryCursor cursor = new TsKvQueryCursor(entityId.getEntityType().name(), entityId.getId(), query, partitions);
+        while (!cursor.isFull() && cursor.hasNextPartition()) {
+            BoundStatement stmt = getFetchPartitionStmt(cursor, cursor.getNextPartition()).setPageSize(chunkSize);
+            TbResultSetFuture pageFuture = executeAsyncRead(tenantId, stmt);
+            while (pageFuture != null) {
+                TbResultSet page = pageFuture.getUninterruptibly();
+                if (page == null) {
+                    break;
+                }
+                if (page.hasMorePages()) {
+                    stmt = stmt.setPagingState(page.getExecutionInfo().getPagingState());
+                    pageFuture = executeAsyncRead(tenantId, stmt);
+                } else {
+                    pageFuture = null;
+                }
+                List<TsKvEntry> chunk = convertResultToTsKvEntryList(Lists.newArrayList(page.currentPage()));
+                cursor.consume(chunk.size());
+                try {
+                    if (!chunk.isEmpty()) {
+                        consumer.accept(chunk);
+                    }
+                } catch (RuntimeException e) {
+                    if (pageFuture != null) {
+                        pageFuture.cancel(false);
+                    }
+                    throw e;
+                }
             }
-            return new ReadTsKvQueryResult(query.getId(), tsKvEntries, lastTs);
-        }, MoreExecutors.directExecutor());
+        }
     }
 
-    long toPartitionTs(long ts) {
-        LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochMilli(ts), ZoneOffset.UTC);
-        return tsFormat.truncatedTo(time).toInstant(ZoneOffset.UTC).toEpochMilli();
+    private ListenableFuture<List<TsKvEntry>> fetchPartitionAsync(TenantId tenantId, TsKvQueryCursor cursor, long partition) {
+        BoundStatement stmt = getFetchPartitionStmt(cursor, partition);
+        return Futures.transformAsync(executeAsyncRead(tenantId, stmt), result -> {
+            if (result == null) {
+                return Futures.immediateFuture(Collections.emptyList());
+            }
+            return Futures.transform(result.allRows(readResultsProcessingExecutor), this::convertResultToTsKvEntryList, readResultsProcessingExecutor);
+        }, readResultsProcessingExecutor);
     }
 
-    private void findAllAsyncSequentiallyWithLimit(TenantId tenantId, final TsKvQueryCursor cursor, final SimpleListenableFuture<List<TsKvEntry>> resultFuture) {
-        if (cursor.isFull() || !cursor.hasNextPartition()) {
-            resultFuture.set(cursor.getData());
-        } else {
-            PreparedStatement proto = getFetchStmt(Aggregation.NONE, cursor.getOrderBy());
-            BoundStatementBuilder stmtBuilder = new BoundStatementBuilder(proto.bind());
-
-            stmtBuilder.setString(0, cursor.getEntityType());
-            stmtBuilder.setUuid(1, cursor.getEntityId());
-            stmtBuilder.setString(2, cursor.getKey());
-            stmtBuilder.setLong(3, cursor.getNextPartition());
-            stmtBuilder.setLong(4, cursor.getStartTs());
-            stmtBuilder.setLong(5, cursor.getEndTs());
-            stmtBuilder.setInt(6, cursor.getCurrentLimit());
-
-            BoundStatement stmt = stmtBuilder.build();
-
-            Futures.addCallback(executeAsyncRead(tenantId, stmt), new FutureCallback<TbResultSet>() {
-                @Override
-                public void onSuccess(@Nullable TbResultSet result) {
-                    if (result == null) {
-                        cursor.addData(convertResultToTsKvEntryList(Collections.emptyList()));
-                        findAllAsyncSequentiallyWithLimit(tenantId, cursor, resultFuture);
-                    } else {
-                        Futures.addCallback(result.allRows(readResultsProcessingExecutor), new FutureCallback<List<Row>>() {
-
-                            @Override
-                            public void onSuccess(@Nullable List<Row> result) {
-                                cursor.addData(convertResultToTsKvEntryList(result == null ? Collections.emptyList() : result));
-                                findAllAsyncSequentiallyWithLimit(tenantId, cursor, resultFuture);
-                            }
-
-                            @Override
-                            public void onFailure(Throwable t) {
-                                log.error("[{}][{}] Failed to fetch data for query {}-{}", stmt, t);
-                            }
-                        }, readResultsProcessingExecutor);
+    private BoundStatement getFetchPartitionStmt(TsKvQueryCursor cursor, long partition) {
+        PreparedStatement proto = getFetchStmt(Aggregation.NONE, cursor.getOrderBy());
+        BoundStatementBuilder stmtBuilder = new BoundStatementBuilder(proto.bind());
 
+        stmtBuilder.setString(0, cursor.getEntityType());
+        stmtBuilder.setUuid(1, cursor.getEntityId());
+        stmtBuilder.setString(2, cursor.getKey());
+        stmtBuilder.setLong(3, partition);
+        stmtBuilder.setLong(4, cursor.getStartTs());
+        stmtBuilder.setLong(5, cursor.getEndTs());
+        stmtBuilder.setInt(6, cursor.getCurrentLimit());
 
-                    }
-                }
+        return stmtBuilder.build();
+    }
 
-                @Override
-                public void onFailure(Throwable t) {
-                    log.error("[{}][{}] Failed to fetch data for query {}-{}", stmt, t);
-                }
-            }, readResultsProcessingExecutor);
-        }
+    long toPartitionTs(long ts) {
+        LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochMilli(ts), ZoneOffset.UTC);
+        return tsFormat.truncatedTo(time).toInstant(ZoneOffset.UTC).toEpochMilli();
     }
 
     private ListenableFuture<Optional<TsKvEntryAggWrapper>> findAndAggregateAsync(TenantId tenantId, EntityId entityId, ReadTsKvQuery query, long minPartition, long maxPartition) {
@@ -401,10 +427,17 @@ public class CassandraBaseTimeseriesDao extends AbstractCassandraBaseTimeseriesD
         final long endTs = query.getEndTs();
         final long ts = startTs + (endTs - startTs) / 2;
         ListenableFuture<List<Long>> partitionsListFuture = getPartitionsFuture(tenantId, query, entityId, minPartition, maxPartition);
-        ListenableFuture<List<TbResultSet>> aggregationChunks = Futures.transformAsync(partitionsListFuture,
-                getFetchChunksAsyncFunction(tenantId, entityId, key, aggregation, startTs, endTs), readResultsProcessingExecutor);
-
-        return Futures.transformAsync(aggregationChunks, new AggregatePartitionsFunction(aggregation, key, ts, readResultsProcessingExecutor), readResultsProcessingExecutor);
+        return Futures.transformAsync(partitionsListFuture, partitions -> {
+            AggregatePartitionsFunction aggregateFunction = new AggregatePartitionsFunction(aggregation, key, ts);
+            QueryCursor cursor = new QueryCursor(entityId.getEntityType().name(), entityId.getId(), query, partitions);
+            ListenableFuture<Void> aggregated = TsPartitionReader.read(cursor, partitionsReadConcurrency,
+                    partition -> fetchAggregatedPartitionAsync(tenantId, entityId, key, aggregation, startTs, endTs, partition),
+                    rows -> {
+                        aggregateFunction.process(rows);
+                        return true;
+                    }, readResultsProcessingExecutor);
+            return Futures.transform(aggregated, v -> aggregateFunction.getResult(), MoreExecutors.directExecutor());
+        }, readResultsProcessingExecutor);
     }
 
     private AsyncFunction<TbResultSet, List<Long>> getPartitionsArrayFunction() {
@@ -450,30 +483,22 @@ public class CassandraBaseTimeseriesDao extends AbstractCassandraBaseTimeseriesD
         return time.plus(1, tsFormat.getTruncateUnit());
     }
 
-    private AsyncFunction<List<Long>, List<TbResultSet>> getFetchChunksAsyncFunction(TenantId tenantId, EntityId entityId, String key, Aggregation aggregation, long startTs, long endTs) {
-        return partitions -> {
-            try {
-                PreparedStatement proto = getFetchStmt(aggregation, DESC_ORDER);
-                List<TbResultSetFuture> futures = new ArrayList<>(partitions.size());
-                for (Long partition : partitions) {
-                    log.trace("Fetching data for partition [{}] for entityType {} and entityId {}", partition, entityId.getEntityType(), entityId.getId());
-                    BoundStatementBuilder stmtBuilder = new BoundStatementBuilder(proto.bind());
-                    stmtBuilder.setString(0, entityId.getEntityType().name());
-                    stmtBuilder.setUuid(1, entityId.getId());
-                    stmtBuilder.setString(2, key);
-                    stmtBuilder.setLong(3, partition);
-                    stmtBuilder.setLong(4, startTs);
-                    stmtBuilder.setLong(5, endTs);
-                    BoundStatement stmt = stmtBuilder.build();
-                    log.debug(GENERATED_QUERY_FOR_ENTITY_TYPE_AND_ENTITY_ID, stmt, entityId.getEntityType(), entityId.getId());
-                    futures.add(executeAsyncRead(tenantId, stmt));
-                }
-                return Futures.allAsList(futures);
-            } catch (Throwable e) {
-                log.error("Failed to fetch data", e);
-                throw e;
-            }
-        };
+    private ListenableFuture<List<Row>> fetchAggregatedPartitionAsync(TenantId tenantId, EntityId entityId, String key, Aggregation aggregation,
+                                                                      long startTs, long endTs, long partition) {
+        log.trace("Fetching data for partition [{}] for entityType {} and entityId {}", partition, entityId.getEntityType(), entityId.getId());
+        PreparedStatement proto = getFetchStmt(aggregation, DESC_ORDER);
+        BoundStatementBuilder stmtBuilder = new BoundStatementBuilder(proto.bind());
+        stmtBuilder.setString(0, entityId.getEntityType().name());
+        stmtBuilder.setUuid(1, entityId.getId());
+        stmtBuilder.setString(2, key);
+        stmtBuilder.setLong(3, partition);
+        stmtBuilder.setLong(4, startTs);
+        stmtBuilder.setLong(5, endTs);
+        BoundStatement stmt = stmtBuilder.build();
+        log.debug(GENERATED_QUERY_FOR_ENTITY_TYPE_AND_ENTITY_ID, stmt, entityId.getEntityType(), entityId.getId());
+        return Futures.transformAsync(executeAsyncRead(tenantId, stmt),
+                rs -> rs == null ? Futures.<List<Row>>immediateFuture(Collections.emptyList()) : rs.allRows(readResultsProcessingExecutor),
+                readResultsProcessingExecutor);
     }
 
     private boolean isFixedPartitioning() {
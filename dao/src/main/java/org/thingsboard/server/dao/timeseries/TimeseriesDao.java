@@ -24,6 +24,7 @@ import org.thingsboard.server.common.data.kv.ReadTsKvQueryResult;
 import org.thingsboard.server.common.data.kv.TsKvEntry;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * @author Andrew Shvayka
@@ -32,6 +33,14 @@ public interface TimeseriesDao {
 
     ListenableFuture<List<ReadTsKvQueryResult>> findAllAsync(TenantId tenantId, EntityId entityId, List<ReadTsKvQuery> queries);
 
+    /**
+     * Reads the raw time series of the query on the calling thread and passes them to the consumer in chunks of at most
+     * {@code chunkSize} entries, in the query order. The next chunk is read only after the consumer returns,
+     * so at most a couple of chunks are held in memory regardless of the time range.
+     * An exception thrown by the consumer stops the reading and is rethrown to the caller.
+     */
+    void exportAll(TenantId tenantId, EntityId entityId, ReadTsKvQuery query, int chunkSize, Consumer<List<TsKvEntry>> consumer);
+
     ListenableFuture<Integer> save(TenantId tenantId, EntityId entityId, TsKvEntry tsKvEntry, long ttl);
 
     ListenableFuture<Integer> savePartition(TenantId tenantId, EntityId entityId, long tsKvEntryTs, String key);
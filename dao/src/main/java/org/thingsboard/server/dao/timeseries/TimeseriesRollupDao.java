@@ -0,0 +1,48 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.dao.timeseries;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import org.thingsboard.server.common.data.id.EntityId;
+import org.thingsboard.server.common.data.id.TenantId;
+import org.thingsboard.server.common.data.kv.ReadTsKvQuery;
+import org.thingsboard.server.common.data.kv.ReadTsKvQueryResult;
+
+/**
+ * Pre-aggregated (rolled up) time series used to serve aggregation queries over long time ranges.
+ */
+public interface TimeseriesRollupDao {
+
+    /**
+     * Fast check whether the query may be served from the rollups. Does not access the database.
+     */
+    boolean canServe(ReadTsKvQuery query);
+
+    /**
+     * Completes with null if the query turned out to be not servable from the rollups and has to be executed over the raw data.
+     */
+    ListenableFuture<ReadTsKvQueryResult> findAllAsync(TenantId tenantId, EntityId entityId, ReadTsKvQuery query);
+
+    /**
+     * Extends the rollups coverage by one more step back in time.
+     *
+     * @return true if there is more data to backfill
+     */
+    boolean backfill();
+
+    void cleanup(long systemTtl);
+
+}
@@ -17,9 +17,7 @@ package org.thingsboard.server.dao.timeseries;
 
 import lombok.Getter;
 import org.thingsboard.server.common.data.kv.ReadTsKvQuery;
-import org.thingsboard.server.common.data.kv.TsKvEntry;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -30,8 +28,6 @@ import static org.thingsboard.server.dao.timeseries.CassandraBaseTimeseriesDao.D
  */
 public class TsKvQueryCursor extends QueryCursor {
 
-    @Getter
-    private final List<TsKvEntry> data;
     @Getter
     private final String orderBy;
 
@@ -42,7 +38,6 @@ public class TsKvQueryCursor extends QueryCursor {
         super(entityType, entityId, baseQuery, partitions);
         this.orderBy = baseQuery.getOrder();
         this.partitionIndex = isDesc() ? partitions.size() - 1 : 0;
-        this.data = new ArrayList<>();
         this.currentLimit = baseQuery.getLimit();
     }
 
@@ -70,9 +65,8 @@ public class TsKvQueryCursor extends QueryCursor {
         return currentLimit;
     }
 
-    public void addData(List<TsKvEntry> newData) {
-        currentLimit -= newData.size();
-        data.addAll(newData);
+    public void consume(int count) {
+        currentLimit -= count;
     }
 
     private boolean isDesc() {
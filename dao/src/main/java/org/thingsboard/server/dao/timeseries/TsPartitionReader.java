@@ -0,0 +1,142 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.dao.timeseries;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Reads the partitions of a cursor with at most {@code concurrency} reads in flight.
+ * <p>
+ * Results are passed to the consumer one at a time and in the cursor order, so the consumer doesn't need to be thread safe
+ * and may rely on the state updated by the previous partitions. Returning false from the consumer stops the reading:
+ * no more partitions are requested and the reads in flight are cancelled.
+ */
+public class TsPartitionReader<T> {
+
+    private final QueryCursor cursor;
+    private final int concurrency;
+    private final Function<Long, ListenableFuture<T>> fetcher;
+    private final Predicate<T> consumer;
+    private final Executor executor;
+
+    private final SettableFuture<Void> result = SettableFuture.create();
+    private final Deque<ListenableFuture<T>> inFlight = new ArrayDeque<>();
+    private final AtomicInteger wip = new AtomicInteger();
+    private boolean done;
+
+    private TsPartitionReader(QueryCursor cursor, int concurrency, Function<Long, ListenableFuture<T>> fetcher, Predicate<T> consumer, Executor executor) {
+        this.cursor = cursor;
+        this.concurrency = Math.max(1, concurrency);
+        this.fetcher = fetcher;
+        this.consumer = consumer;
+        this.executor = executor;
+    }
+
+    public static <T> ListenableFuture<Void> read(QueryCursor cursor, int concurrency, Function<Long, ListenableFuture<T>> fetcher,
+                                                  Predicate<T> consumer, Executor executor) {
+        TsPartitionReader<T> reader = new TsPartitionReader<>(cursor, concurrency, fetcher, consumer, executor);
+        reader.result.addListener(() -> {
+            if (reader.result.isCancelled()) {
+                reader.drain();
+            }
+        }, MoreExecutors.directExecutor());
+        reader.drain();
+        return reader.result;
+    }
+
+    private void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            drainLoop();
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void drainLoop() {
+        if (done) {
+            return;
+        }
+        if (result.isCancelled()) {
+            finish(null);
+            return;
+        }
+        while (!inFlight.isEmpty() && inFlight.peekFirst().isDone()) {
+            T value;
+            try {
+                value = Futures.getDone(inFlight.pollFirst());
+            } catch (ExecutionException e) {
+                finish(e.getCause());
+                return;
+            } catch (Exception e) {
+                finish(e);
+                return;
+            }
+            boolean proceed;
+            try {
+                proceed = consumer.test(value);
+            } catch (Exception e) {
+                finish(e);
+                return;
+            }
+            if (!proceed) {
+                finish(null);
+                return;
+            }
+        }
+        while (inFlight.size() < concurrency && cursor.hasNextPartition()) {
+            ListenableFuture<T> future;
+            try {
+                future = fetcher.apply(cursor.getNextPartition());
+            } catch (Exception e) {
+                finish(e);
+                return;
+            }
+            inFlight.addLast(future);
+            future.addListener(this::drain, executor);
+        }
+        if (inFlight.isEmpty()) {
+            finish(null);
+        }
+    }
+
+    private void finish(Throwable error) {
+        done = true;
+        ListenableFuture<T> future;
+        while ((future = inFlight.pollFirst()) != null) {
+            future.cancel(false);
+        }
+        if (error != null) {
+            result.setException(error);
+        } else {
+            result.set(null);
+        }
+    }
+
+}
@@ -32,6 +32,7 @@ import org.thingsboard.server.common.data.relation.RelationTypeGroup;
 import org.thingsboard.server.dao.relation.RelationCacheKey;
 import org.thingsboard.server.dao.relation.RelationRedisCache;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 
@@ -67,6 +68,8 @@ public class RedisTbTransactionalCacheTest {
         relationRedisCache.putIfAbsent(createRelationCacheKey(), null);
         relationRedisCache.evict(createRelationCacheKey());
         relationRedisCache.evict(List.of(createRelationCacheKey()));
+        relationRedisCache.getAll(List.of(createRelationCacheKey()));
+        relationRedisCache.putAll(Collections.singletonMap(createRelationCacheKey(), null));
         relationRedisCache.getAndPutInTransaction(createRelationCacheKey(), null, false);
         relationRedisCache.getAndPutInTransaction(createRelationCacheKey(), null, null, null, false);
         relationRedisCache.getOrFetchFromDB(createRelationCacheKey(), null, false, false);
@@ -28,9 +28,13 @@ import org.thingsboard.server.dao.attributes.AttributeCacheKey;
 import org.thingsboard.server.dao.service.AbstractServiceTest;
 import org.thingsboard.server.dao.service.DaoSqlTest;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 
@@ -74,6 +78,26 @@ public class AttributeCacheServiceSqlTest extends AbstractServiceTest {
         cache.evict(testKey);
     }
 
+    @Test
+    public void testPutAllAndGetAll() {
+        AttributeCacheKey testKey = new AttributeCacheKey(AttributeScope.CLIENT_SCOPE, DEVICE_ID, TEST_KEY);
+        AttributeCacheKey nullKey = new AttributeCacheKey(AttributeScope.CLIENT_SCOPE, DEVICE_ID, "nullKey");
+        AttributeCacheKey missingKey = new AttributeCacheKey(AttributeScope.CLIENT_SCOPE, DEVICE_ID, "missingKey");
+        AttributeKvEntry testValue = new BaseAttributeKvEntry(new StringDataEntry(TEST_KEY, TEST_VALUE), 1, 1L);
+        Map<AttributeCacheKey, AttributeKvEntry> values = new HashMap<>();
+        values.put(testKey, testValue);
+        values.put(nullKey, null);
+        cache.putAll(values);
+
+        Map<AttributeCacheKey, TbCacheValueWrapper<AttributeKvEntry>> wrappers = cache.getAll(List.of(testKey, nullKey, missingKey));
+        assertEquals(2, wrappers.size());
+        assertEquals(testValue, wrappers.get(testKey).get());
+        assertNull(wrappers.get(nullKey).get());
+        assertFalse(wrappers.containsKey(missingKey));
+
+        cache.evict(List.of(testKey, nullKey));
+    }
+
     @Test
     public void testEvictWithVersion() {
         AttributeCacheKey testKey = new AttributeCacheKey(AttributeScope.CLIENT_SCOPE, DEVICE_ID, TEST_KEY);
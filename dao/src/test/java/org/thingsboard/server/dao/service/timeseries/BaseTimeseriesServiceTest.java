@@ -16,6 +16,7 @@
 package org.thingsboard.server.dao.service.timeseries;
 
 import com.datastax.oss.driver.api.core.uuid.Uuids;
+import com.google.common.collect.Lists;
 import lombok.extern.slf4j.Slf4j;
 import org.assertj.core.data.Offset;
 import org.junit.After;
@@ -30,12 +31,14 @@ import org.thingsboard.server.common.data.id.DeviceId;
 import org.thingsboard.server.common.data.id.EntityId;
 import org.thingsboard.server.common.data.id.TenantId;
 import org.thingsboard.server.common.data.kv.Aggregation;
+import org.thingsboard.server.common.data.kv.AggregationParams;
 import org.thingsboard.server.common.data.kv.BaseDeleteTsKvQuery;
 import org.thingsboard.server.common.data.kv.BaseReadTsKvQuery;
 import org.thingsboard.server.common.data.kv.BasicTsKvEntry;
 import org.thingsboard.server.common.data.kv.BooleanDataEntry;
 import org.thingsboard.server.common.data.kv.DataType;
 import org.thingsboard.server.common.data.kv.DoubleDataEntry;
+import org.thingsboard.server.common.data.kv.IntervalType;
 import org.thingsboard.server.common.data.kv.JsonDataEntry;
 import org.thingsboard.server.common.data.kv.KvEntry;
 import org.thingsboard.server.common.data.kv.LongDataEntry;
@@ -49,6 +52,8 @@ import org.thingsboard.server.dao.exception.IncorrectParameterException;
 import org.thingsboard.server.dao.service.AbstractServiceTest;
 import org.thingsboard.server.dao.timeseries.TimeseriesService;
 
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -758,6 +763,40 @@ public abstract class BaseTimeseriesServiceTest extends AbstractServiceTest {
         assertThat(fullList).containsOnlyOnceElementsOf(timeseries);
     }
 
+    @Test
+    public void testFindByQuery_withMonthIntervals() throws Exception {
+        long jan = ZonedDateTime.of(2024, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC).toInstant().toEpochMilli();
+        long feb = ZonedDateTime.of(2024, 2, 1, 0, 0, 0, 0, ZoneOffset.UTC).toInstant().toEpochMilli();
+        long mar = ZonedDateTime.of(2024, 3, 1, 0, 0, 0, 0, ZoneOffset.UTC).toInstant().toEpochMilli();
+        save(deviceId, jan + TimeUnit.DAYS.toMillis(9), 10L);
+        save(deviceId, jan + TimeUnit.DAYS.toMillis(19), 20L);
+        save(deviceId, feb + TimeUnit.DAYS.toMillis(4), 5L);
+        save(deviceId, mar, 100L);
+
+        List<TsKvEntry> entries = tsService.findAll(tenantId, deviceId, List.of(new BaseReadTsKvQuery(LONG_KEY, jan, mar,
+                AggregationParams.calendar(Aggregation.MAX, IntervalType.MONTH, ZoneOffset.UTC), 10))).get(MAX_TIMEOUT, TimeUnit.SECONDS);
+        assertThat(entries).containsExactlyInAnyOrder(
+                toTsEntry(jan + (feb - jan) / 2, new LongDataEntry(LONG_KEY, 20L)),
+                toTsEntry(feb + (mar - feb) / 2, new LongDataEntry(LONG_KEY, 5L)));
+    }
+
+    @Test
+    public void testExportAll() throws Exception {
+        List<TsKvEntry> saved = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            saved.add(save(deviceId, TS + i, (long) i));
+        }
+
+        List<List<TsKvEntry>> chunks = new ArrayList<>();
+        tsService.exportAll(tenantId, deviceId, new BaseReadTsKvQuery(LONG_KEY, TS, TS + 7, Integer.MAX_VALUE, "ASC"), 3, chunks::add);
+        assertThat(chunks).allSatisfy(chunk -> assertThat(chunk).hasSizeLessThanOrEqualTo(3));
+        assertThat(chunks.stream().flatMap(List::stream).toList()).containsExactlyElementsOf(saved);
+
+        chunks.clear();
+        tsService.exportAll(tenantId, deviceId, new BaseReadTsKvQuery(LONG_KEY, TS, TS + 7, 5, "DESC"), 3, chunks::add);
+        assertThat(chunks.stream().flatMap(List::stream).toList()).containsExactlyElementsOf(Lists.reverse(saved).subList(0, 5));
+    }
+
     @Test
     public void testFindAllByQueriesWithAggregationAndZeroInterval() throws Exception {
         testFindAllByQueriesWithAggregationAndInvalidInterval(0);
@@ -0,0 +1,125 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.dao.service.timeseries.sql;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.thingsboard.server.common.data.id.DeviceId;
+import org.thingsboard.server.common.data.kv.BasicTsKvEntry;
+import org.thingsboard.server.common.data.kv.DoubleDataEntry;
+import org.thingsboard.server.dao.dictionary.KeyDictionaryDao;
+import org.thingsboard.server.dao.model.sqlts.ts.TsKvEntity;
+import org.thingsboard.server.dao.service.AbstractServiceTest;
+import org.thingsboard.server.dao.service.DaoSqlTest;
+import org.thingsboard.server.dao.sqlts.insert.InsertTsRepository;
+import org.thingsboard.server.dao.sqlts.insert.copy.TsKvCopyInserter;
+import org.thingsboard.server.dao.timeseries.TimeseriesDao;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Compares throughput of the prepared statement upsert and the binary COPY insert paths for ts_kv.
+ * Excluded from the regular build, run it with {@code mvn test -pl dao -Dtest=TimeseriesInsertPerformanceTest}.
+ */
+@DaoSqlTest
+@Slf4j
+public class TimeseriesInsertPerformanceTest extends AbstractServiceTest {
+
+    private static final String KEY = "copyBenchmarkKey";
+    private static final int ENTITIES = 100;
+    private static final int BATCH_SIZE = 5_000;
+    private static final int BATCHES = 10;
+    private static final int TIMEOUT = 30;
+
+    private final Random random = new Random();
+
+    @Autowired
+    private TimeseriesDao timeseriesDao;
+
+    @Autowired
+    private InsertTsRepository<TsKvEntity> insertTsRepository;
+
+    @Autowired
+    private KeyDictionaryDao keyDictionaryDao;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final List<UUID> entityIds = new ArrayList<>();
+    private int keyId;
+
+    @Before
+    public void before() throws Exception {
+        for (int i = 0; i < ENTITIES; i++) {
+            entityIds.add(UUID.randomUUID());
+        }
+        // creates the partition for all the timestamps used below
+        timeseriesDao.save(tenantId, new DeviceId(entityIds.get(0)), new BasicTsKvEntry(1L, new DoubleDataEntry(KEY, 0.0)), 0)
+                .get(TIMEOUT, TimeUnit.SECONDS);
+        keyId = keyDictionaryDao.getOrSaveKeyId(KEY);
+    }
+
+    @Test
+    public void test_upsert_vs_copy_insert() {
+        TsKvCopyInserter copyInserter = new TsKvCopyInserter(jdbcTemplate, s -> s);
+
+        long upsertRate = measure("UPSERT", 0, insertTsRepository::saveOrUpdate);
+        long copyRate = measure("COPY", 2 * BATCH_SIZE * BATCHES, batch -> transactionTemplate.executeWithoutResult(status -> copyInserter.saveOrUpdate(batch)));
+
+        Integer rows = jdbcTemplate.queryForObject("SELECT count(*) FROM ts_kv WHERE key = ?", Integer.class, keyId);
+        Assert.assertNotNull(rows);
+        Assert.assertTrue(rows >= BATCH_SIZE * BATCHES * 2);
+        log.warn("Insert rate, rows per 1 sec: UPSERT [{}], COPY [{}]", upsertRate, copyRate);
+    }
+
+    private long measure(String name, int tsOffset, Consumer<List<TsKvEntity>> saveFunction) {
+        saveFunction.accept(generateBatch(tsOffset + BATCH_SIZE * BATCHES));
+        long startTime = System.nanoTime();
+        for (int i = 0; i < BATCHES; i++) {
+            saveFunction.accept(generateBatch(tsOffset + i * BATCH_SIZE));
+        }
+        long totalTimeMs = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+        log.info("[{}] Saved {} rows in {} ms", name, BATCH_SIZE * BATCHES, totalTimeMs);
+        return (long) BATCH_SIZE * BATCHES * 1000 / totalTimeMs;
+    }
+
+    private List<TsKvEntity> generateBatch(int tsOffset) {
+        List<TsKvEntity> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            TsKvEntity entity = new TsKvEntity();
+            entity.setEntityId(entityIds.get(i % ENTITIES));
+            entity.setKey(keyId);
+            entity.setTs(2L + tsOffset + i);
+            entity.setDoubleValue(random.nextDouble());
+            batch.add(entity);
+        }
+        return batch;
+    }
+
+}
@@ -0,0 +1,135 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.dao.sql;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.thingsboard.server.common.stats.MessagesStats;
+import org.thingsboard.server.common.stats.StatsTimer;
+import org.thingsboard.server.dao.exception.SqlQueueFullException;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+public class TbSqlRingBufferQueueTest {
+
+    private ScheduledLogExecutorComponent logExecutor;
+    private TbSqlRingBufferQueue<Integer, Integer> queue;
+
+    @Before
+    public void setUp() {
+        logExecutor = new ScheduledLogExecutorComponent();
+        logExecutor.init();
+    }
+
+    @After
+    public void tearDown() {
+        if (queue != null) {
+            queue.destroy();
+        }
+        logExecutor.stop();
+    }
+
+    @Test
+    public void givenElements_whenAdded_thenSavedInBatchesWithResponse() throws Exception {
+        List<List<Integer>> batches = new CopyOnWriteArrayList<>();
+        queue = createQueue(TbSqlBlockingQueueParams.builder().batchSize(10).maxDelay(50).capacity(1024), batches, null);
+
+        List<ListenableFuture<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            futures.add(queue.add(i));
+        }
+        for (int i = 0; i < futures.size(); i++) {
+            assertThat(futures.get(i).get(5, TimeUnit.SECONDS)).isEqualTo(i * 2);
+        }
+        assertThat(batches).allSatisfy(batch -> assertThat(batch.size()).isLessThanOrEqualTo(10));
+        assertThat(batches.stream().mapToInt(List::size).sum()).isEqualTo(25);
+    }
+
+    @Test
+    public void givenByteBudget_whenExceeded_thenBatchFlushedBeforeBatchSize() throws Exception {
+        List<List<Integer>> batches = new CopyOnWriteArrayList<>();
+        queue = createQueue(TbSqlBlockingQueueParams.builder().batchSize(1000).maxDelay(1000).idleDelay(1000).maxBatchBytes(300).capacity(1024), batches, null);
+
+        List<ListenableFuture<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            futures.add(queue.add(100));
+        }
+        for (ListenableFuture<Integer> future : futures) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+        assertThat(batches).allSatisfy(batch -> assertThat(batch.size()).isLessThanOrEqualTo(3));
+    }
+
+    @Test
+    public void givenFullQueue_whenAdded_thenRejected() throws Exception {
+        CountDownLatch saveStarted = new CountDownLatch(1);
+        CountDownLatch releaseSave = new CountDownLatch(1);
+        queue = createQueue(TbSqlBlockingQueueParams.builder().batchSize(1).maxDelay(10).capacity(2), new ArrayList<>(), () -> {
+            saveStarted.countDown();
+            try {
+                releaseSave.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        ListenableFuture<Integer> inProgress = queue.add(1);
+        assertThat(saveStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        ListenableFuture<Integer> second = queue.add(2);
+        ListenableFuture<Integer> third = queue.add(3);
+        ListenableFuture<Integer> rejected = queue.add(4);
+
+        assertThat(rejected.isDone()).isTrue();
+        assertThatThrownBy(rejected::get).isInstanceOf(ExecutionException.class).hasCauseInstanceOf(SqlQueueFullException.class);
+
+        releaseSave.countDown();
+        assertThat(inProgress.get(5, TimeUnit.SECONDS)).isEqualTo(2);
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo(4);
+        assertThat(third.get(5, TimeUnit.SECONDS)).isEqualTo(6);
+    }
+
+    private TbSqlRingBufferQueue<Integer, Integer> createQueue(TbSqlBlockingQueueParams.TbSqlBlockingQueueParamsBuilder paramsBuilder,
+                                                               List<List<Integer>> batches, Runnable onSave) {
+        TbSqlBlockingQueueParams params = paramsBuilder
+                .logName("Test")
+                .statsPrintIntervalMs(10000)
+                .queueType(TbSqlQueueType.RING_BUFFER)
+                .withResponse(true)
+                .build();
+        TbSqlRingBufferQueue<Integer, Integer> queue = new TbSqlRingBufferQueue<>(params, mock(MessagesStats.class), mock(StatsTimer.class), Integer::intValue);
+        queue.init(logExecutor, entities -> {
+            if (onSave != null) {
+                onSave.run();
+            }
+            batches.add(new ArrayList<>(entities));
+            return entities.stream().map(e -> e * 2).toList();
+        }, Comparator.naturalOrder(), l -> l, 0);
+        return queue;
+    }
+
+}
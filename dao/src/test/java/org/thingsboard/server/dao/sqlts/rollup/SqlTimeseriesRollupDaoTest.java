@@ -0,0 +1,154 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.dao.sqlts.rollup;
+
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.thingsboard.server.common.data.id.DeviceId;
+import org.thingsboard.server.common.data.kv.Aggregation;
+import org.thingsboard.server.common.data.kv.AggregationParams;
+import org.thingsboard.server.common.data.kv.BaseReadTsKvQuery;
+import org.thingsboard.server.common.data.kv.BasicTsKvEntry;
+import org.thingsboard.server.common.data.kv.DoubleDataEntry;
+import org.thingsboard.server.common.data.kv.LongDataEntry;
+import org.thingsboard.server.common.data.kv.ReadTsKvQuery;
+import org.thingsboard.server.common.data.kv.ReadTsKvQueryResult;
+import org.thingsboard.server.common.data.kv.TsKvEntry;
+import org.thingsboard.server.dao.service.AbstractServiceTest;
+import org.thingsboard.server.dao.service.DaoSqlTest;
+import org.thingsboard.server.dao.timeseries.TimeseriesDao;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+@DaoSqlTest
+@TestPropertySource(properties = {
+        "sql.ts.rollup.enabled=true",
+        "sql.ts.rollup.backfill_days=3"
+})
+public class SqlTimeseriesRollupDaoTest extends AbstractServiceTest {
+
+    private static final String DOUBLE_KEY = "rollupDoubleKey";
+    private static final String LONG_KEY = "rollupLongKey";
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+    private static final long DAY = TimeUnit.DAYS.toMillis(1);
+    private static final int TIMEOUT = 30;
+    private static final List<Aggregation> AGGREGATIONS = List.of(Aggregation.AVG, Aggregation.MIN, Aggregation.MAX, Aggregation.SUM, Aggregation.COUNT);
+
+    private final Random random = new Random();
+
+    @Autowired
+    private TimeseriesDao timeseriesDao;
+
+    @Autowired
+    private SqlTimeseriesRollupDao rollupDao;
+
+    @Autowired
+    private TsRollupRepository rollupRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void givenDataAfterCoverageStart_whenRecalculated_thenAggregatesAreSameAsRaw() throws Exception {
+        DeviceId deviceId = new DeviceId(UUID.randomUUID());
+        long startTs = TsRollupGranularity.DAY.ceil(rollupRepository.getCoverageStartTs());
+        saveRandomData(deviceId, startTs, startTs + 2 * DAY);
+        // overwritten points must replace their values in the rollups
+        saveRandomData(deviceId, startTs, startTs + 2 * HOUR);
+
+        assertSameAsRaw(deviceId, startTs, startTs + 2 * DAY, DAY);
+        assertSameAsRaw(deviceId, startTs, startTs + 2 * DAY, HOUR);
+        // the bucket edges are aggregated from the raw data
+        assertSameAsRaw(deviceId, startTs + HOUR / 2, startTs + 2 * DAY - HOUR / 3, 3 * HOUR);
+        assertSameAsRaw(deviceId, startTs + 5 * HOUR + 7, startTs + 2 * DAY, DAY);
+    }
+
+    @Test
+    public void givenDataBeforeCoverageStart_whenBackfilled_thenAggregatesAreSameAsRaw() throws Exception {
+        DeviceId deviceId = new DeviceId(UUID.randomUUID());
+        long startTs = TsRollupGranularity.DAY.floor(System.currentTimeMillis()) - 2 * DAY;
+        saveRandomData(deviceId, startTs, startTs + DAY);
+        // leave the data to the backfill only
+        jdbcTemplate.update("DELETE FROM ts_rollup_dirty WHERE entity_id = ?", deviceId.getId());
+        jdbcTemplate.update("DELETE FROM ts_rollup WHERE entity_id = ?", deviceId.getId());
+        while (rollupRepository.getCoverageStartTs() > startTs) {
+            assertTrue(rollupDao.backfill());
+        }
+
+        for (TsRollupGranularity granularity : TsRollupGranularity.values()) {
+            rollupRepository.backfill(granularity, startTs, startTs + DAY);
+        }
+
+        Integer rollups = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM ts_rollup WHERE entity_id = ?", Integer.class, deviceId.getId());
+        assertEquals(2 * (24 + 1), rollups.intValue());
+        assertSameAsRaw(deviceId, startTs, startTs + DAY, DAY);
+        assertSameAsRaw(deviceId, startTs, startTs + DAY, 2 * HOUR);
+        assertSameAsRaw(deviceId, startTs - 3 * HOUR, startTs + DAY + HOUR / 2, 4 * HOUR);
+    }
+
+    private void saveRandomData(DeviceId deviceId, long startTs, long endTs) throws Exception {
+        for (long hourTs = startTs; hourTs < endTs; hourTs += HOUR) {
+            for (int i = 0; i < 5; i++) {
+                long ts = hourTs + random.nextInt((int) HOUR);
+                timeseriesDao.save(tenantId, deviceId, new BasicTsKvEntry(ts, new DoubleDataEntry(DOUBLE_KEY, random.nextDouble() * 100)), 0)
+                        .get(TIMEOUT, TimeUnit.SECONDS);
+                timeseriesDao.save(tenantId, deviceId, new BasicTsKvEntry(ts, new LongDataEntry(LONG_KEY, (long) random.nextInt(1000) - 500)), 0)
+                        .get(TIMEOUT, TimeUnit.SECONDS);
+            }
+        }
+    }
+
+    private void assertSameAsRaw(DeviceId deviceId, long startTs, long endTs, long interval) throws Exception {
+        for (String key : List.of(DOUBLE_KEY, LONG_KEY)) {
+            for (Aggregation aggregation : AGGREGATIONS) {
+                ReadTsKvQuery query = new BaseReadTsKvQuery(key, startTs, endTs, AggregationParams.milliseconds(aggregation, interval), 1000, "ASC");
+                assertTrue(rollupDao.canServe(query));
+                ReadTsKvQueryResult rollupResult = rollupDao.findAllAsync(tenantId, deviceId, query).get(TIMEOUT, TimeUnit.SECONDS);
+                assertNotNull(rollupResult);
+                ReadTsKvQueryResult rawResult = timeseriesDao.findAllAsync(tenantId, deviceId, query).get(TIMEOUT, TimeUnit.SECONDS);
+
+                List<TsKvEntry> expected = rawResult.getData();
+                List<TsKvEntry> actual = rollupResult.getData();
+                String message = key + " " + aggregation + " [" + startTs + "-" + endTs + "] / " + interval;
+                assertEquals(message, toTimestamps(expected), toTimestamps(actual));
+                for (int i = 0; i < expected.size(); i++) {
+                    assertEquals(message, toDouble(expected.get(i)), toDouble(actual.get(i)), 1e-6);
+                }
+            }
+        }
+    }
+
+    private static List<Long> toTimestamps(List<TsKvEntry> entries) {
+        List<Long> result = new ArrayList<>(entries.size());
+        entries.forEach(entry -> result.add(entry.getTs()));
+        return result;
+    }
+
+    private static double toDouble(TsKvEntry entry) {
+        return entry.getDoubleValue().orElseGet(() -> entry.getLongValue().map(Long::doubleValue).orElseThrow());
+    }
+
+}
@@ -0,0 +1,77 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.dao.sqlts.rollup;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TsRollupQueryPlanTest {
+
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+    private static final long HALF_HOUR = HOUR / 2;
+
+    @Test
+    public void givenAlignedBuckets_whenPlan_thenAllGranulesAreReadFromRollups() {
+        TsRollupQueryPlan plan = new TsRollupQueryPlan(TsRollupGranularity.HOUR, new long[]{0, 2 * HOUR}, 4 * HOUR, 0);
+
+        assertThat(plan.getCoveredGranules()).isEqualTo(4);
+        assertThat(plan.getRollupStartTs()).isZero();
+        assertThat(plan.getRawStarts()).isEmpty();
+        assertThat(plan.getRawEnds()).isEmpty();
+    }
+
+    @Test
+    public void givenUnalignedBuckets_whenPlan_thenBucketEdgesAreReadFromRawData() {
+        long start = HALF_HOUR;
+        TsRollupQueryPlan plan = new TsRollupQueryPlan(TsRollupGranularity.HOUR, new long[]{start, start + 2 * HOUR}, start + 4 * HOUR, 0);
+
+        assertThat(plan.getCoveredGranules()).isEqualTo(2);
+        assertThat(plan.getRollupStartTs()).isEqualTo(HOUR);
+        assertThat(plan.getRawStarts()).containsExactly(HALF_HOUR, 2 * HOUR, 4 * HOUR);
+        assertThat(plan.getRawEnds()).containsExactly(HOUR, 3 * HOUR, 4 * HOUR + HALF_HOUR);
+    }
+
+    @Test
+    public void givenCoverageStartWithinRange_whenPlan_thenOlderDataIsReadFromRawData() {
+        TsRollupQueryPlan plan = new TsRollupQueryPlan(TsRollupGranularity.HOUR, new long[]{0, 2 * HOUR}, 4 * HOUR, 3 * HOUR);
+
+        assertThat(plan.getCoveredGranules()).isEqualTo(1);
+        assertThat(plan.getRollupStartTs()).isEqualTo(3 * HOUR);
+        assertThat(plan.getRawStarts()).containsExactly(0L);
+        assertThat(plan.getRawEnds()).containsExactly(3 * HOUR);
+    }
+
+    @Test
+    public void givenBucketShorterThanGranule_whenPlan_thenNothingIsReadFromRollups() {
+        TsRollupQueryPlan plan = new TsRollupQueryPlan(TsRollupGranularity.HOUR, new long[]{HALF_HOUR}, HALF_HOUR + HOUR, 0);
+
+        assertThat(plan.getCoveredGranules()).isZero();
+        assertThat(plan.getRawStarts()).containsExactly(HALF_HOUR);
+        assertThat(plan.getRawEnds()).containsExactly(HALF_HOUR + HOUR);
+    }
+
+    @Test
+    public void givenBucketLength_whenChooseGranularity_thenCoarsestFittingIsUsed() {
+        assertThat(TsRollupGranularity.forBucketLength(HALF_HOUR)).isNull();
+        assertThat(TsRollupGranularity.forBucketLength(HOUR)).isEqualTo(TsRollupGranularity.HOUR);
+        assertThat(TsRollupGranularity.forBucketLength(TimeUnit.HOURS.toMillis(12))).isEqualTo(TsRollupGranularity.HOUR);
+        assertThat(TsRollupGranularity.forBucketLength(TimeUnit.DAYS.toMillis(7))).isEqualTo(TsRollupGranularity.DAY);
+    }
+
+}
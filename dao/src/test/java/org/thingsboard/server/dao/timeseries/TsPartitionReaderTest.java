@@ -0,0 +1,91 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.dao.timeseries;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import org.junit.Test;
+import org.thingsboard.server.common.data.kv.BaseReadTsKvQuery;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TsPartitionReaderTest {
+
+    private final Map<Long, SettableFuture<Long>> requested = new LinkedHashMap<>();
+
+    @Test
+    public void givenPartitionsCompletedOutOfOrder_whenRead_thenResultsAreConsumedInCursorOrder() {
+        List<Long> consumed = new ArrayList<>();
+        ListenableFuture<Void> result = read(List.of(1L, 2L, 3L, 4L), 2, value -> consumed.add(value));
+
+        assertThat(requested).containsOnlyKeys(4L, 3L);
+        requested.get(3L).set(3L);
+        assertThat(consumed).isEmpty();
+        assertThat(requested).containsOnlyKeys(4L, 3L);
+
+        requested.get(4L).set(4L);
+        assertThat(consumed).containsExactly(4L, 3L);
+        assertThat(requested).containsOnlyKeys(4L, 3L, 2L, 1L);
+
+        requested.get(1L).set(1L);
+        requested.get(2L).set(2L);
+        assertThat(consumed).containsExactly(4L, 3L, 2L, 1L);
+        assertThat(result).isDone();
+    }
+
+    @Test
+    public void givenConsumerStops_whenRead_thenReadsInFlightAreCancelled() {
+        ListenableFuture<Void> result = read(List.of(1L, 2L, 3L), 2, value -> false);
+
+        requested.get(3L).set(3L);
+
+        assertThat(result).isDone();
+        assertThat(requested.get(2L)).isCancelled();
+        assertThat(requested).doesNotContainKey(1L);
+    }
+
+    @Test
+    public void givenReadFailed_whenRead_thenResultFails() {
+        ListenableFuture<Void> result = read(List.of(1L, 2L), 1, value -> true);
+
+        requested.get(2L).setException(new RuntimeException("failed"));
+
+        assertThat(result).isDone();
+        assertThat(result).failsWithin(Duration.ZERO).withThrowableOfType(ExecutionException.class)
+                .withMessageContaining("failed");
+        assertThat(requested).doesNotContainKey(1L);
+    }
+
+    private ListenableFuture<Void> read(List<Long> partitions, int concurrency, Predicate<Long> consumer) {
+        QueryCursor cursor = new QueryCursor("DEVICE", UUID.randomUUID(), new BaseReadTsKvQuery("key", 0, 1), partitions);
+        return TsPartitionReader.read(cursor, concurrency, partition -> {
+            SettableFuture<Long> future = SettableFuture.create();
+            requested.put(partition, future);
+            return future;
+        }, consumer, MoreExecutors.directExecutor());
+    }
+
+}
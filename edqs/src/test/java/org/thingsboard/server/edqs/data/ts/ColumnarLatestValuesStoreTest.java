@@ -0,0 +1,91 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.edqs.data.ts;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.thingsboard.server.common.data.edqs.DataPoint;
+import org.thingsboard.server.common.data.kv.DataType;
+import org.thingsboard.server.edqs.data.dp.BoolDataPoint;
+import org.thingsboard.server.edqs.data.dp.DoubleDataPoint;
+import org.thingsboard.server.edqs.data.dp.LongDataPoint;
+import org.thingsboard.server.edqs.data.dp.StringDataPoint;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ColumnarLatestValuesStoreTest {
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    public void testPutGetRemove(boolean offHeap) {
+        ColumnarLatestValuesStore store = new ColumnarLatestValuesStore(4, offHeap);
+        LatestValues values = store.allocate();
+
+        assertThat(values.put(1, new LongDataPoint(10, 42))).isTrue();
+        assertThat(values.put(2, new DoubleDataPoint(11, 1.5))).isTrue();
+        assertThat(values.put(3, new BoolDataPoint(12, true))).isTrue();
+        assertThat(values.put(4, new StringDataPoint(13, "on", false))).isTrue();
+
+        assertDataPoint(values.get(1), DataType.LONG, 10, "42");
+        assertDataPoint(values.get(2), DataType.DOUBLE, 11, "1.5");
+        assertDataPoint(values.get(3), DataType.BOOLEAN, 12, "true");
+        assertDataPoint(values.get(4), DataType.STRING, 13, "on");
+        assertThat(values.get(5)).isNull();
+
+        assertThat(values.put(4, new LongDataPoint(14, -1))).isFalse();
+        assertDataPoint(values.get(4), DataType.LONG, 14, "-1");
+
+        assertThat(values.remove(1)).isTrue();
+        assertThat(values.remove(1)).isFalse();
+        assertThat(values.get(1)).isNull();
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    public void testSlotsAcrossShardsAndReuse(boolean offHeap) {
+        ColumnarLatestValuesStore store = new ColumnarLatestValuesStore(4, offHeap);
+        LatestValues[] entities = new LatestValues[10];
+        for (int i = 0; i < entities.length; i++) {
+            entities[i] = store.allocate();
+            entities[i].put(1, new LongDataPoint(i, i));
+        }
+        for (int i = 0; i < entities.length; i++) {
+            assertThat(entities[i].get(1).getLong()).isEqualTo(i);
+        }
+        assertThat(store.size()).isEqualTo(10);
+
+        entities[5].release();
+        assertThat(entities[5].get(1)).isNull();
+        assertThat(entities[5].put(1, new LongDataPoint(1, 1))).isFalse();
+        assertThat(store.size()).isEqualTo(9);
+
+        LatestValues reused = store.allocate();
+        assertThat(reused.get(1)).isNull();
+        reused.put(1, new LongDataPoint(100, 100));
+        assertThat(entities[5].get(1)).isNull();
+        assertThat(entities[4].get(1).getLong()).isEqualTo(4);
+        assertThat(entities[6].get(1).getLong()).isEqualTo(6);
+        assertThat(store.getColumnsSizeInBytes()).isGreaterThan(0);
+    }
+
+    private static void assertDataPoint(DataPoint dp, DataType type, long ts, String value) {
+        assertThat(dp).isNotNull();
+        assertThat(dp.getType()).isEqualTo(type);
+        assertThat(dp.getTs()).isEqualTo(ts);
+        assertThat(dp.valueToString()).isEqualTo(value);
+    }
+
+}
@@ -0,0 +1,114 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.edqs.query;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.thingsboard.server.common.data.edqs.fields.DeviceFields;
+import org.thingsboard.server.common.stats.DummyEdqsStatsService;
+import org.thingsboard.server.edqs.data.DeviceData;
+import org.thingsboard.server.edqs.data.EntityData;
+import org.thingsboard.server.edqs.data.dp.LongDataPoint;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.thingsboard.server.edqs.util.RepositoryUtils.SORT_ASC;
+import static org.thingsboard.server.edqs.util.RepositoryUtils.SORT_DESC;
+
+public class EdqsQueryExecutorTest {
+
+    private final EdqsQueryExecutor serialExecutor = EdqsQueryExecutor.serial(new DummyEdqsStatsService());
+    private final EdqsQueryExecutor parallelExecutor = EdqsQueryExecutor.create(4, 100, 64, 0, new DummyEdqsStatsService());
+
+    private static final Predicate<EntityData<?>> EVEN = ed -> ed.getFields().getCreatedTime() % 2 == 0;
+    private static final Function<EntityData<?>, SortableEntityData> BY_CREATED_TIME = ed -> {
+        SortableEntityData sd = new SortableEntityData(ed);
+        sd.setSortValue(new LongDataPoint(0, ed.getFields().getCreatedTime()));
+        return sd;
+    };
+
+    @AfterEach
+    public void after() {
+        parallelExecutor.shutdown();
+    }
+
+    @Test
+    public void testParallelCountAndTopMatchSerial() {
+        List<EntityData<?>> entities = createDevices(10000);
+
+        assertThat(parallelExecutor.count(entities, entities.size(), EVEN)).isEqualTo(5000);
+        assertThat(serialExecutor.count(entities, entities.size(), EVEN)).isEqualTo(5000);
+
+        TopEntities parallelTop = parallelExecutor.top(entities, entities.size(), EVEN, BY_CREATED_TIME, 30, SORT_DESC);
+        TopEntities serialTop = serialExecutor.top(entities, entities.size(), EVEN, BY_CREATED_TIME, 30, SORT_DESC);
+        assertThat(parallelTop.totalSize()).isEqualTo(5000);
+        assertThat(createdTimes(parallelTop)).isEqualTo(createdTimes(serialTop));
+        assertThat(createdTimes(parallelTop)).startsWith(9998L, 9996L, 9994L).hasSize(30);
+    }
+
+    @Test
+    public void testSort() {
+        List<SortableEntityData> data = new ArrayList<>();
+        for (EntityData<?> ed : createDevices(1000)) {
+            data.add(BY_CREATED_TIME.apply(ed));
+        }
+        TopEntities top = parallelExecutor.sort(data, 5, SORT_ASC);
+        assertThat(top.totalSize()).isEqualTo(1000);
+        assertThat(createdTimes(top)).containsExactly(0L, 1L, 2L, 3L, 4L);
+
+        assertThat(parallelExecutor.sort(data, 0, SORT_ASC).entities()).isEmpty();
+    }
+
+    @Test
+    public void testCpuBudgetExceeded() {
+        EdqsQueryExecutor executor = EdqsQueryExecutor.create(2, 100, 64, 1, new DummyEdqsStatsService());
+        try {
+            List<EntityData<?>> entities = createDevices(10000);
+            Predicate<EntityData<?>> slowFilter = ed -> {
+                double value = ed.getFields().getCreatedTime();
+                for (int i = 0; i < 10000; i++) {
+                    value = Math.sqrt(value + i);
+                }
+                return value > 0;
+            };
+            assertThatThrownBy(() -> executor.count(entities, entities.size(), slowFilter))
+                    .isInstanceOf(EdqsQueryBudgetExceededException.class);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static List<EntityData<?>> createDevices(int count) {
+        List<EntityData<?>> entities = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            DeviceData deviceData = new DeviceData(UUID.randomUUID());
+            deviceData.setFields(DeviceFields.builder().createdTime(i).name("Device " + i).build());
+            entities.add(deviceData);
+        }
+        return entities;
+    }
+
+    private static List<Long> createdTimes(TopEntities top) {
+        return top.entities().stream().map(sd -> sd.getEntityData().getFields().getCreatedTime()).toList();
+    }
+
+}
@@ -30,6 +30,8 @@ import org.springframework.http.HttpRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.http.client.support.HttpRequestWrapper;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.LinkedMultiValueMap;
@@ -39,6 +41,7 @@ import org.springframework.web.client.RestTemplate;
 import org.thingsboard.common.util.JacksonUtil;
 import org.thingsboard.common.util.ThingsBoardExecutors;
 import org.thingsboard.rest.client.utils.RestJsonConverter;
+import org.thingsboard.rest.client.utils.TimeseriesExportIterator;
 import org.thingsboard.server.common.data.AdminSettings;
 import org.thingsboard.server.common.data.ClaimRequest;
 import org.thingsboard.server.common.data.Customer;
@@ -123,6 +126,7 @@ import org.thingsboard.server.common.data.id.WidgetTypeId;
 import org.thingsboard.server.common.data.id.WidgetsBundleId;
 import org.thingsboard.server.common.data.kv.Aggregation;
 import org.thingsboard.server.common.data.kv.AttributeKvEntry;
+import org.thingsboard.server.common.data.kv.TimeseriesExportFormat;
 import org.thingsboard.server.common.data.kv.TsKvEntry;
 import org.thingsboard.server.common.data.mobile.app.MobileApp;
 import org.thingsboard.server.common.data.mobile.bundle.MobileAppBundle;
@@ -184,6 +188,7 @@ import org.thingsboard.server.common.data.widget.WidgetsBundle;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.util.Collections;
 import java.util.HashMap;
@@ -2496,6 +2501,52 @@ public class RestClient implements Closeable {
         return RestJsonConverter.toTimeseries(timeseries);
     }
 
+    /**
+     * Streams the raw time series of the entity for the whole time range using the export API.
+     * The records are parsed lazily while iterating, so the range may be arbitrarily large.
+     * The iterator must be closed if it is not iterated to the end.
+     */
+    public TimeseriesExportIterator exportTimeseries(EntityId entityId, List<String> keys, long startTime, long endTime,
+                                                     SortOrder.Direction sortOrder, Integer limit, boolean useStrictDataTypes) {
+        Map<String, String> params = new HashMap<>();
+        params.put("entityType", entityId.getEntityType().name());
+        params.put("entityId", entityId.getId().toString());
+        params.put("keys", listToString(keys));
+        params.put("startTs", String.valueOf(startTime));
+        params.put("endTs", String.valueOf(endTime));
+        params.put("orderBy", sortOrder != null ? sortOrder.name() : "ASC");
+        params.put("useStrictDataTypes", Boolean.toString(useStrictDataTypes));
+
+        StringBuilder urlBuilder = new StringBuilder(baseURL);
+        urlBuilder.append("/api/plugins/telemetry/{entityType}/{entityId}/values/timeseries/export?keys={keys}&startTs={startTs}&endTs={endTs}&orderBy={orderBy}&format=NDJSON&useStrictDataTypes={useStrictDataTypes}");
+        if (limit != null) {
+            urlBuilder.append("&limit={limit}");
+            params.put("limit", limit.toString());
+        }
+
+        URI uri = restTemplate.getUriTemplateHandler().expand(urlBuilder.toString(), params);
+        ClientHttpResponse response = null;
+        try {
+            ClientHttpRequest request = restTemplate.getRequestFactory().createRequest(uri, HttpMethod.GET);
+            request.getHeaders().setAccept(List.of(MediaType.parseMediaType(TimeseriesExportFormat.NDJSON.getContentType())));
+            response = request.execute();
+            if (restTemplate.getErrorHandler().hasError(response)) {
+                restTemplate.getErrorHandler().handleError(uri, HttpMethod.GET, response);
+            }
+            return new TimeseriesExportIterator(response);
+        } catch (IOException e) {
+            if (response != null) {
+                response.close();
+            }
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            if (response != null) {
+                response.close();
+            }
+            throw e;
+        }
+    }
+
     public boolean saveDeviceAttributes(DeviceId deviceId, String scope, JsonNode request) {
         return restTemplate
                 .postForEntity(baseURL + "/api/plugins/telemetry/{deviceId}/{scope}", request, Object.class, deviceId.getId().toString(), scope)
@@ -70,6 +70,11 @@ public class RestJsonConverter {
         }
     }
 
+    public static TsKvEntry toTimeseriesEntry(JsonNode record) {
+        KvEntry entry = parseValue(record.get(KEY).asText(), record.get(VALUE));
+        return new BasicTsKvEntry(record.get(TS).asLong(), entry);
+    }
+
     private static KvEntry parseValue(String key, JsonNode value) {
         if (!value.isContainerNode()) {
             if (value.isBoolean()) {
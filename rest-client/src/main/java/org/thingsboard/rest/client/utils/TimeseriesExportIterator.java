@@ -0,0 +1,90 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.rest.client.utils;
+
+import org.springframework.http.client.ClientHttpResponse;
+import org.thingsboard.common.util.JacksonUtil;
+import org.thingsboard.server.common.data.kv.TsKvEntry;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterates over the NDJSON time series export response, parsing the records lazily as they arrive.
+ * The underlying connection is released when the iteration is over or when the iterator is closed.
+ */
+public class TimeseriesExportIterator implements Iterator<TsKvEntry>, Closeable {
+
+    private final ClientHttpResponse response;
+    private final BufferedReader reader;
+    private String nextLine;
+    private boolean closed;
+
+    public TimeseriesExportIterator(ClientHttpResponse response) throws IOException {
+        this.response = response;
+        this.reader = new BufferedReader(new InputStreamReader(response.getBody(), StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (nextLine != null) {
+            return true;
+        }
+        if (closed) {
+            return false;
+        }
+        try {
+            String line;
+            do {
+                line = reader.readLine();
+            } while (line != null && line.isBlank());
+            if (line == null) {
+                close();
+                return false;
+            }
+            nextLine = line;
+            return true;
+        } catch (IOException e) {
+            close();
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public TsKvEntry next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        String line = nextLine;
+        nextLine = null;
+        return RestJsonConverter.toTimeseriesEntry(JacksonUtil.toJsonNode(line));
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            response.close();
+        }
+    }
+
+}
@@ -24,7 +24,6 @@ import lombok.extern.slf4j.Slf4j;
 import net.objecthunter.exp4j.Expression;
 import net.objecthunter.exp4j.ExpressionBuilder;
 import org.springframework.util.ConcurrentReferenceHashMap;
-import org.thingsboard.common.util.JacksonUtil;
 import org.thingsboard.rule.engine.api.AttributesSaveRequest;
 import org.thingsboard.rule.engine.api.RuleNode;
 import org.thingsboard.rule.engine.api.TbContext;
@@ -190,9 +189,9 @@ public class TbMathNode implements TbNode {
     private Optional<ObjectNode> convertMsgBodyIfRequired(TbMsg msg) {
         Optional<ObjectNode> msgBodyOpt;
         if (msgBodyToJsonConversionRequired) {
-            var jsonNode = JacksonUtil.toJsonNode(msg.getData());
+            var jsonNode = msg.getDataAsJson();
             if (jsonNode.isObject()) {
-                msgBodyOpt = Optional.of((ObjectNode) jsonNode);
+                msgBodyOpt = Optional.of(((ObjectNode) jsonNode).deepCopy());
             } else {
                 throw new RuntimeException("Message body is not a JSON object!");
             }
@@ -221,7 +220,7 @@ public class TbMathNode implements TbNode {
             body.put(mathResultKey, toDoubleValue(mathResultDef, result));
         }
         return msg.transform()
-                .data(JacksonUtil.toString(body))
+                .jsonData(body)
                 .build();
     }
 
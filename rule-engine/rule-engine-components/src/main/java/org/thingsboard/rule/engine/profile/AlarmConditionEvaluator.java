@@ -0,0 +1,476 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.rule.engine.profile;
+
+import lombok.extern.slf4j.Slf4j;
+import org.thingsboard.server.common.data.device.profile.AlarmCondition;
+import org.thingsboard.server.common.data.device.profile.AlarmConditionFilter;
+import org.thingsboard.server.common.data.device.profile.AlarmConditionFilterKey;
+import org.thingsboard.server.common.data.device.profile.AlarmConditionKeyType;
+import org.thingsboard.server.common.data.query.BooleanFilterPredicate;
+import org.thingsboard.server.common.data.query.ComplexFilterPredicate;
+import org.thingsboard.server.common.data.query.DynamicValue;
+import org.thingsboard.server.common.data.query.DynamicValueSourceType;
+import org.thingsboard.server.common.data.query.FilterPredicateValue;
+import org.thingsboard.server.common.data.query.KeyFilterPredicate;
+import org.thingsboard.server.common.data.query.NumericFilterPredicate;
+import org.thingsboard.server.common.data.query.StringFilterPredicate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.thingsboard.server.common.data.StringUtils.equalsAny;
+import static org.thingsboard.server.common.data.StringUtils.splitByCommaWithoutQuotes;
+
+/**
+ * Alarm condition compiled into the tree of evaluators, so the filters are not interpreted on every message.
+ * <p>
+ * Constant predicate values are converted to the primitive or prepared values once, the keys of the snapshot are built once
+ * and the filters are ordered by the estimated cost, so the cheap filters short-circuit the evaluation of the expensive ones.
+ * The result of the evaluation is the same as the result of the interpretation of the condition.
+ */
+@Slf4j
+class AlarmConditionEvaluator {
+
+    private static final int DEVICE_DYNAMIC_VALUE_COST = 1;
+    private static final int OWNER_DYNAMIC_VALUE_COST = 10;
+
+    private static final PredicateEvaluator FALSE = new PredicateEvaluator() {
+        @Override
+        public boolean eval(EntityKeyValue value, DataSnapshot data, DynamicPredicateValueCtx ctx) {
+            return false;
+        }
+
+        @Override
+        public int cost() {
+            return 0;
+        }
+    };
+
+    private final FilterEvaluator[] filters;
+
+    private AlarmConditionEvaluator(FilterEvaluator[] filters) {
+        this.filters = filters;
+    }
+
+    static AlarmConditionEvaluator compile(AlarmCondition condition) {
+        List<FilterEvaluator> filters = new ArrayList<>();
+        for (AlarmConditionFilter filter : condition.getCondition()) {
+            filters.add(compileFilter(filter));
+        }
+        filters.sort(Comparator.comparingInt(FilterEvaluator::cost));
+        return new AlarmConditionEvaluator(filters.toArray(new FilterEvaluator[0]));
+    }
+
+    boolean eval(DataSnapshot data, DynamicPredicateValueCtx ctx) {
+        for (FilterEvaluator filter : filters) {
+            if (!filter.eval(data, ctx)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static FilterEvaluator compileFilter(AlarmConditionFilter filter) {
+        boolean constantKey = filter.getKey().getType() == AlarmConditionKeyType.CONSTANT;
+        EntityKeyValue constantValue = null;
+        if (constantKey) {
+            try {
+                constantValue = getConstantValue(filter);
+            } catch (RuntimeException e) {
+                log.warn("Failed to parse constant value from filter: {}", filter, e);
+            }
+        }
+        PredicateEvaluator predicate = compilePredicate(filter.getPredicate(), constantKey);
+        return new FilterEvaluator(constantKey ? null : filter.getKey(), constantKey, constantValue, predicate, predicate.cost());
+    }
+
+    private static EntityKeyValue getConstantValue(AlarmConditionFilter filter) {
+        EntityKeyValue value = new EntityKeyValue();
+        String valueStr = filter.getValue().toString();
+        switch (filter.getValueType()) {
+            case STRING:
+                value.setStrValue(valueStr);
+                break;
+            case DATE_TIME:
+                value.setLngValue(Long.valueOf(valueStr));
+                break;
+            case NUMERIC:
+                value.setDblValue(Double.valueOf(valueStr));
+                break;
+            case BOOLEAN:
+                value.setBoolValue(Boolean.valueOf(valueStr));
+                break;
+        }
+        return value;
+    }
+
+    private static PredicateEvaluator compilePredicate(KeyFilterPredicate predicate, boolean constantKey) {
+        switch (predicate.getType()) {
+            case STRING:
+                return new StringEvaluator((StringFilterPredicate) predicate, constantKey);
+            case NUMERIC:
+                return new NumericEvaluator((NumericFilterPredicate) predicate, constantKey);
+            case BOOLEAN:
+                return new BooleanEvaluator((BooleanFilterPredicate) predicate, constantKey);
+            case COMPLEX:
+                ComplexFilterPredicate complex = (ComplexFilterPredicate) predicate;
+                List<PredicateEvaluator> children = new ArrayList<>();
+                for (KeyFilterPredicate child : complex.getPredicates()) {
+                    children.add(compilePredicate(child, constantKey));
+                }
+                children.sort(Comparator.comparingInt(PredicateEvaluator::cost));
+                return new ComplexEvaluator(complex.getOperation(), children.toArray(new PredicateEvaluator[0]));
+            default:
+                return FALSE;
+        }
+    }
+
+    private record FilterEvaluator(AlarmConditionFilterKey key, boolean constantKey, EntityKeyValue constantValue,
+                                   PredicateEvaluator predicate, int cost) {
+
+        boolean eval(DataSnapshot data, DynamicPredicateValueCtx ctx) {
+            EntityKeyValue value = constantKey ? constantValue : data.getValue(key);
+            return value != null && predicate.eval(value, data, ctx);
+        }
+
+    }
+
+    private interface PredicateEvaluator {
+
+        boolean eval(EntityKeyValue value, DataSnapshot data, DynamicPredicateValueCtx ctx);
+
+        int cost();
+
+    }
+
+    /**
+     * Value of the predicate: either the constant resolved on compilation or the dynamic value with the default value as a fallback.
+     */
+    private static class PredicateValue<T> {
+
+        private final T staticValue;
+        private final T defaultValue;
+        private final DynamicValue<T> dynamicValue;
+        private final AlarmConditionFilterKey deviceKey;
+        private final Function<EntityKeyValue, T> transformFunction;
+
+        PredicateValue(FilterPredicateValue<T> value, boolean constantKey, Function<EntityKeyValue, T> transformFunction) {
+            this.dynamicValue = value.getDynamicValue();
+            // for the constant keys, the default value is ignored
+            this.defaultValue = constantKey ? null : value.getDefaultValue();
+            this.staticValue = dynamicValue == null ? defaultValue : null;
+            this.deviceKey = dynamicValue != null ? new AlarmConditionFilterKey(AlarmConditionKeyType.ATTRIBUTE, dynamicValue.getSourceAttribute()) : null;
+            this.transformFunction = transformFunction;
+        }
+
+        boolean isDynamic() {
+            return dynamicValue != null;
+        }
+
+        T get(DataSnapshot data, DynamicPredicateValueCtx ctx) {
+            if (dynamicValue == null) {
+                return staticValue;
+            }
+            EntityKeyValue ekv = getDynamicValue(data, ctx);
+            if (ekv != null) {
+                T result = transformFunction.apply(ekv);
+                if (result != null) {
+                    return result;
+                }
+            }
+            return defaultValue;
+        }
+
+        private EntityKeyValue getDynamicValue(DataSnapshot data, DynamicPredicateValueCtx ctx) {
+            EntityKeyValue ekv = null;
+            switch (dynamicValue.getSourceType()) {
+                case CURRENT_DEVICE:
+                    ekv = data.getValue(deviceKey);
+                    if (ekv != null || !dynamicValue.isInherit()) {
+                        break;
+                    }
+                case CURRENT_CUSTOMER:
+                    ekv = ctx.getCustomerValue(dynamicValue.getSourceAttribute());
+                    if (ekv != null || !dynamicValue.isInherit()) {
+                        break;
+                    }
+                case CURRENT_TENANT:
+                    ekv = ctx.getTenantValue(dynamicValue.getSourceAttribute());
+            }
+            return ekv;
+        }
+
+        int cost() {
+            if (dynamicValue == null) {
+                return 0;
+            }
+            if (dynamicValue.getSourceType() == DynamicValueSourceType.CURRENT_DEVICE && !dynamicValue.isInherit()) {
+                return DEVICE_DYNAMIC_VALUE_COST;
+            }
+            return OWNER_DYNAMIC_VALUE_COST;
+        }
+
+    }
+
+    private static class BooleanEvaluator implements PredicateEvaluator {
+
+        private final BooleanFilterPredicate.BooleanOperation operation;
+        private final PredicateValue<Boolean> value;
+
+        BooleanEvaluator(BooleanFilterPredicate predicate, boolean constantKey) {
+            this.operation = predicate.getOperation();
+            this.value = new PredicateValue<>(predicate.getValue(), constantKey, AlarmRuleState::getBoolValue);
+        }
+
+        @Override
+        public boolean eval(EntityKeyValue ekv, DataSnapshot data, DynamicPredicateValueCtx ctx) {
+            Boolean val = AlarmRuleState.getBoolValue(ekv);
+            if (val == null) {
+                return false;
+            }
+            Boolean predicateValue = value.get(data, ctx);
+            if (predicateValue == null) {
+                return false;
+            }
+            if (operation == BooleanFilterPredicate.BooleanOperation.EQUAL) {
+                return val.booleanValue() == predicateValue.booleanValue();
+            } else if (operation == BooleanFilterPredicate.BooleanOperation.NOT_EQUAL) {
+                return val.booleanValue() != predicateValue.booleanValue();
+            }
+            throw new RuntimeException("Operation not supported: " + operation);
+        }
+
+        @Override
+        public int cost() {
+            return 1 + value.cost();
+        }
+
+    }
+
+    private static class NumericEvaluator implements PredicateEvaluator {
+
+        private final NumericFilterPredicate.NumericOperation operation;
+        private final PredicateValue<Double> value;
+        private final boolean hasStaticValue;
+        private final double staticValue;
+
+        NumericEvaluator(NumericFilterPredicate predicate, boolean constantKey) {
+            this.operation = predicate.getOperation();
+            this.value = new PredicateValue<>(predicate.getValue(), constantKey, AlarmRuleState::getDblValue);
+            Double staticValue = value.isDynamic() ? null : value.get(null, null);
+            this.hasStaticValue = staticValue != null;
+            this.staticValue = hasStaticValue ? staticValue : 0.0;
+        }
+
+        @Override
+        public boolean eval(EntityKeyValue ekv, DataSnapshot data, DynamicPredicateValueCtx ctx) {
+            double val;
+            switch (ekv.getDataType()) {
+                case DOUBLE:
+                    if (ekv.getDblValue() == null) {
+                        return false;
+                    }
+                    val = ekv.getDblValue();
+                    break;
+                case LONG:
+                    if (ekv.getLngValue() == null) {
+                        return false;
+                    }
+                    val = ekv.getLngValue();
+                    break;
+                default:
+                    Double converted = AlarmRuleState.getDblValue(ekv);
+                    if (converted == null) {
+                        return false;
+                    }
+                    val = converted;
+            }
+            double predicateValue;
+            if (value.isDynamic()) {
+                Double resolved = value.get(data, ctx);
+                if (resolved == null) {
+                    return false;
+                }
+                predicateValue = resolved;
+            } else if (hasStaticValue) {
+                predicateValue = staticValue;
+            } else {
+                return false;
+            }
+            switch (operation) {
+                case NOT_EQUAL:
+                    // same as Double.equals
+                    return Double.compare(val, predicateValue) != 0;
+                case EQUAL:
+                    return Double.compare(val, predicateValue) == 0;
+                case GREATER:
+                    return val > predicateValue;
+                case GREATER_OR_EQUAL:
+                    return val >= predicateValue;
+                case LESS:
+                    return val < predicateValue;
+                case LESS_OR_EQUAL:
+                    return val <= predicateValue;
+                default:
+                    throw new RuntimeException("Operation not supported: " + operation);
+            }
+        }
+
+        @Override
+        public int cost() {
+            return 2 + value.cost();
+        }
+
+    }
+
+    private static class StringEvaluator implements PredicateEvaluator {
+
+        private final StringFilterPredicate.StringOperation operation;
+        private final boolean ignoreCase;
+        private final PredicateValue<String> value;
+        private final String staticValue;
+        private final Set<String> staticValues;
+
+        StringEvaluator(StringFilterPredicate predicate, boolean constantKey) {
+            this.operation = predicate.getOperation();
+            this.ignoreCase = predicate.isIgnoreCase();
+            this.value = new PredicateValue<>(predicate.getValue(), constantKey, AlarmRuleState::getStrValue);
+            String staticValue = value.isDynamic() ? null : value.get(null, null);
+            if (staticValue != null && ignoreCase) {
+                staticValue = staticValue.toLowerCase();
+            }
+            this.staticValue = staticValue;
+            Set<String> staticValues = null;
+            if (staticValue != null && (operation == StringFilterPredicate.StringOperation.IN || operation == StringFilterPredicate.StringOperation.NOT_IN)) {
+                try {
+                    staticValues = new HashSet<>(splitByCommaWithoutQuotes(staticValue));
+                } catch (RuntimeException e) {
+                    // the list is split on evaluation, the same way as the dynamic value
+                }
+            }
+            this.staticValues = staticValues;
+        }
+
+        @Override
+        public boolean eval(EntityKeyValue ekv, DataSnapshot data, DynamicPredicateValueCtx ctx) {
+            String val = AlarmRuleState.getStrValue(ekv);
+            if (val == null) {
+                return false;
+            }
+            String predicateValue;
+            if (value.isDynamic()) {
+                predicateValue = value.get(data, ctx);
+                if (predicateValue == null) {
+                    return false;
+                }
+                if (ignoreCase) {
+                    predicateValue = predicateValue.toLowerCase();
+                }
+            } else {
+                predicateValue = staticValue;
+                if (predicateValue == null) {
+                    return false;
+                }
+            }
+            if (ignoreCase) {
+                val = val.toLowerCase();
+            }
+            switch (operation) {
+                case CONTAINS:
+                    return val.contains(predicateValue);
+                case EQUAL:
+                    return val.equals(predicateValue);
+                case STARTS_WITH:
+                    return val.startsWith(predicateValue);
+                case ENDS_WITH:
+                    return val.endsWith(predicateValue);
+                case NOT_EQUAL:
+                    return !val.equals(predicateValue);
+                case NOT_CONTAINS:
+                    return !val.contains(predicateValue);
+                case IN:
+                    return isAnyOf(val, predicateValue);
+                case NOT_IN:
+                    return !isAnyOf(val, predicateValue);
+                default:
+                    throw new RuntimeException("Operation not supported: " + operation);
+            }
+        }
+
+        private boolean isAnyOf(String val, String predicateValue) {
+            if (staticValues != null) {
+                return staticValues.contains(val);
+            }
+            return equalsAny(val, splitByCommaWithoutQuotes(predicateValue));
+        }
+
+        @Override
+        public int cost() {
+            boolean list = operation == StringFilterPredicate.StringOperation.IN || operation == StringFilterPredicate.StringOperation.NOT_IN;
+            return (list && staticValues == null ? 6 : 3) + value.cost();
+        }
+
+    }
+
+    private static class ComplexEvaluator implements PredicateEvaluator {
+
+        private final ComplexFilterPredicate.ComplexOperation operation;
+        private final PredicateEvaluator[] predicates;
+        private final int cost;
+
+        ComplexEvaluator(ComplexFilterPredicate.ComplexOperation operation, PredicateEvaluator[] predicates) {
+            this.operation = operation;
+            this.predicates = predicates;
+            int cost = 0;
+            for (PredicateEvaluator predicate : predicates) {
+                cost += predicate.cost();
+            }
+            this.cost = cost;
+        }
+
+        @Override
+        public boolean eval(EntityKeyValue ekv, DataSnapshot data, DynamicPredicateValueCtx ctx) {
+            if (operation == ComplexFilterPredicate.ComplexOperation.OR) {
+                for (PredicateEvaluator predicate : predicates) {
+                    if (predicate.eval(ekv, data, ctx)) {
+                        return true;
+                    }
+                }
+                return false;
+            } else if (operation == ComplexFilterPredicate.ComplexOperation.AND) {
+                for (PredicateEvaluator predicate : predicates) {
+                    if (!predicate.eval(ekv, data, ctx)) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            throw new RuntimeException("Operation not supported: " + operation);
+        }
+
+        @Override
+        public int cost() {
+            return cost;
+        }
+
+    }
+
+}
@@ -15,6 +15,11 @@
  */
 package org.thingsboard.rule.engine.profile;
 
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonParser;
 import lombok.extern.slf4j.Slf4j;
 import org.thingsboard.common.util.JacksonUtil;
@@ -49,10 +54,14 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 import static org.thingsboard.server.common.data.msg.TbMsgType.ACTIVITY_EVENT;
@@ -67,6 +76,13 @@ import static org.thingsboard.server.common.data.msg.TbMsgType.INACTIVITY_EVENT;
 import static org.thingsboard.server.common.data.msg.TbMsgType.POST_ATTRIBUTES_REQUEST;
 import static org.thingsboard.server.common.data.msg.TbMsgType.POST_TELEMETRY_REQUEST;
 
+/**
+ * Alarm rules state of a single device.
+ * <p>
+ * Messages, alarm harvesting and profile updates are queued and executed one by one once the data required by the alarm rules is loaded:
+ * the latest values snapshot on the first message and the tenant and customer attributes used by the dynamic values before each batch of tasks.
+ * The data is loaded asynchronously, so the rule engine thread is never blocked by the database calls.
+ */
 @Slf4j
 class DeviceState {
 
@@ -76,8 +92,13 @@ class DeviceState {
     private RuleNodeState state;
     private PersistedDeviceState pds;
     private DataSnapshot latestValues;
+    private final Set<AlarmConditionFilterKey> keysToFetch = new HashSet<>();
     private final ConcurrentMap<String, AlarmState> alarmStates = new ConcurrentHashMap<>();
     private final DynamicPredicateValueCtx dynamicPredicateValueCtx;
+    private final Queue<PendingTask> pendingTasks = new ConcurrentLinkedQueue<>();
+    // tasks that follow the change of the device customer, executed by the next batch after the customer values are prefetched
+    private final List<PendingTask> deferredTasks = new ArrayList<>();
+    private final AtomicBoolean busy = new AtomicBoolean();
 
     DeviceState(TbContext ctx, TbDeviceProfileNodeConfiguration config, DeviceId deviceId, ProfileState deviceProfile, RuleNodeState state) {
         this.persistState = config.isPersistAlarmRulesState();
@@ -110,15 +131,167 @@ class DeviceState {
         }
     }
 
-    public void updateProfile(TbContext ctx, DeviceProfile deviceProfile) throws ExecutionException, InterruptedException {
+    public void updateProfile(TbContext ctx, DeviceProfile deviceProfile) {
+        submit(ctx, new PendingTask(null, null, deviceProfile, 0L));
+    }
+
+    public void harvestAlarms(TbContext ctx, long ts) {
+        submit(ctx, new PendingTask(null, null, null, ts));
+    }
+
+    public void process(TbContext ctx, TbMsg msg) {
+        JsonElement data = null;
+        if (msg.isTypeOneOf(POST_TELEMETRY_REQUEST, POST_ATTRIBUTES_REQUEST, ACTIVITY_EVENT, INACTIVITY_EVENT, ATTRIBUTES_UPDATED, ATTRIBUTES_DELETED)) {
+            data = JsonParser.parseString(msg.getData());
+        }
+        submit(ctx, new PendingTask(msg, data, null, 0L));
+    }
+
+    private void submit(TbContext ctx, PendingTask task) {
+        pendingTasks.add(task);
+        if (busy.compareAndSet(false, true)) {
+            processPendingTasks(ctx);
+        }
+    }
+
+    /**
+     * Executed by the single owner of the busy flag. Completed prefetches are handled in a loop on the current thread,
+     * the rest are continued by the db callback executor.
+     */
+    private void processPendingTasks(TbContext ctx) {
+        while (true) {
+            List<PendingTask> tasks = new ArrayList<>(deferredTasks);
+            deferredTasks.clear();
+            PendingTask task;
+            while ((task = pendingTasks.poll()) != null) {
+                tasks.add(task);
+            }
+            ListenableFuture<Void> prefetchFuture = prefetch(ctx, tasks);
+            if (!prefetchFuture.isDone()) {
+                Futures.addCallback(prefetchFuture, new FutureCallback<>() {
+                    @Override
+                    public void onSuccess(Void result) {
+                        executeTasks(ctx, tasks, null);
+                        release(ctx);
+                    }
+
+                    @Override
+                    public void onFailure(Throwable t) {
+                        executeTasks(ctx, tasks, t);
+                        release(ctx);
+                    }
+                }, ctx.getDbCallbackExecutor());
+                return;
+            }
+            executeTasks(ctx, tasks, getPrefetchError(prefetchFuture));
+            if (!deferredTasks.isEmpty()) {
+                continue;
+            }
+            busy.set(false);
+            if (pendingTasks.isEmpty() || !busy.compareAndSet(false, true)) {
+                return;
+            }
+        }
+    }
+
+    private void release(TbContext ctx) {
+        if (!deferredTasks.isEmpty()) {
+            processPendingTasks(ctx);
+            return;
+        }
+        busy.set(false);
+        if (!pendingTasks.isEmpty() && busy.compareAndSet(false, true)) {
+            processPendingTasks(ctx);
+        }
+    }
+
+    private ListenableFuture<Void> prefetch(TbContext ctx, List<PendingTask> tasks) {
+        try {
+            List<ListenableFuture<Void>> futures = new ArrayList<>();
+            if (tasks.stream().anyMatch(task -> task.msg() != null)) {
+                if (latestValues == null) {
+                    keysToFetch.clear();
+                    latestValues = new DataSnapshot(deviceProfile.getEntityKeys());
+                    futures.add(addEntityKeysToSnapshot(ctx, deviceId, Set.copyOf(deviceProfile.getEntityKeys()), latestValues));
+                } else if (!keysToFetch.isEmpty()) {
+                    Set<AlarmConditionFilterKey> keys = Set.copyOf(keysToFetch);
+                    keysToFetch.clear();
+                    futures.add(addEntityKeysToSnapshot(ctx, deviceId, keys, latestValues));
+                }
+            }
+            futures.add(dynamicPredicateValueCtx.prefetch(deviceProfile.getTenantDynamicValueKeys(), deviceProfile.getCustomerDynamicValueKeys()));
+            return Futures.transform(Futures.allAsList(futures), list -> null, MoreExecutors.directExecutor());
+        } catch (Exception e) {
+            return Futures.immediateFailedFuture(e);
+        }
+    }
+
+    private static Throwable getPrefetchError(ListenableFuture<Void> prefetchFuture) {
+        try {
+            Futures.getDone(prefetchFuture);
+            return null;
+        } catch (ExecutionException e) {
+            return e.getCause();
+        } catch (CancellationException e) {
+            return e;
+        }
+    }
+
+    private void executeTasks(TbContext ctx, List<PendingTask> tasks, Throwable prefetchError) {
+        if (prefetchError != null) {
+            log.warn("[{}] Failed to fetch the data for the alarm rules", deviceId, prefetchError);
+            // the snapshot may be incomplete, so it is fetched again by the next message
+            latestValues = null;
+        }
+        for (int i = 0; i < tasks.size(); i++) {
+            PendingTask task = tasks.get(i);
+            if (prefetchError != null) {
+                onTaskFailure(ctx, task, prefetchError);
+                continue;
+            }
+            try {
+                executeTask(ctx, task);
+            } catch (Exception e) {
+                onTaskFailure(ctx, task, e);
+            }
+            if (isCustomerChange(task) && !deviceProfile.getCustomerDynamicValueKeys().isEmpty()) {
+                // the customer values are reset, so the rest of the batch waits for them to be prefetched again
+                deferredTasks.addAll(tasks.subList(i + 1, tasks.size()));
+                return;
+            }
+        }
+    }
+
+    private static boolean isCustomerChange(PendingTask task) {
+        return task.msg() != null && task.msg().isTypeOneOf(ENTITY_ASSIGNED, ENTITY_UNASSIGNED);
+    }
+
+    private void onTaskFailure(TbContext ctx, PendingTask task, Throwable t) {
+        if (task.msg() != null) {
+            ctx.tellFailure(task.msg(), t);
+        } else {
+            log.warn("[{}] Failed to process alarm rules state", deviceId, t);
+        }
+    }
+
+    private void executeTask(TbContext ctx, PendingTask task) {
+        if (task.msg() != null) {
+            process(ctx, task.msg(), task.data());
+        } else if (task.deviceProfile() != null) {
+            doUpdateProfile(task.deviceProfile());
+        } else {
+            doHarvestAlarms(ctx, task.harvestTs());
+        }
+    }
+
+    private void doUpdateProfile(DeviceProfile deviceProfile) {
         Set<AlarmConditionFilterKey> oldKeys = Set.copyOf(this.deviceProfile.getEntityKeys());
         this.deviceProfile.updateDeviceProfile(deviceProfile);
         if (latestValues != null) {
-            Set<AlarmConditionFilterKey> keysToFetch = new HashSet<>(this.deviceProfile.getEntityKeys());
-            keysToFetch.removeAll(oldKeys);
-            if (!keysToFetch.isEmpty()) {
-                addEntityKeysToSnapshot(ctx, deviceId, keysToFetch, latestValues);
-            }
+            Set<AlarmConditionFilterKey> newKeys = new HashSet<>(this.deviceProfile.getEntityKeys());
+            newKeys.removeAll(oldKeys);
+            // fetched before the next message is processed
+            keysToFetch.addAll(newKeys);
         }
         Set<String> newAlarmStateIds = this.deviceProfile.getAlarmSettings().stream().map(DeviceProfileAlarm::getId).collect(Collectors.toSet());
         alarmStates.keySet().removeIf(id -> !newAlarmStateIds.contains(id));
@@ -131,7 +304,7 @@ class DeviceState {
         }
     }
 
-    public void harvestAlarms(TbContext ctx, long ts) throws ExecutionException, InterruptedException {
+    private void doHarvestAlarms(TbContext ctx, long ts) {
         log.debug("[{}] Going to harvest alarms: {}", ctx.getSelfId(), ts);
         boolean stateChanged = false;
         for (AlarmState state : alarmStates.values()) {
@@ -143,21 +316,18 @@ class DeviceState {
         }
     }
 
-    public void process(TbContext ctx, TbMsg msg) throws ExecutionException, InterruptedException {
-        if (latestValues == null) {
-            latestValues = fetchLatestValues(ctx, deviceId);
-        }
+    private void process(TbContext ctx, TbMsg msg, JsonElement data) {
         boolean stateChanged = false;
         if (msg.isTypeOf(POST_TELEMETRY_REQUEST)) {
-            stateChanged = processTelemetry(ctx, msg);
+            stateChanged = processTelemetry(ctx, msg, data);
         } else if (msg.isTypeOf(POST_ATTRIBUTES_REQUEST)) {
-            stateChanged = processAttributesUpdateRequest(ctx, msg);
+            stateChanged = processAttributesUpdateRequest(ctx, msg, data);
         } else if (msg.isTypeOneOf(ACTIVITY_EVENT, INACTIVITY_EVENT)) {
-            stateChanged = processDeviceActivityEvent(ctx, msg);
+            stateChanged = processDeviceActivityEvent(ctx, msg, data);
         } else if (msg.isTypeOf(ATTRIBUTES_UPDATED)) {
-            stateChanged = processAttributesUpdateNotification(ctx, msg);
+            stateChanged = processAttributesUpdateNotification(ctx, msg, data);
         } else if (msg.isTypeOf(ATTRIBUTES_DELETED)) {
-            stateChanged = processAttributesDeleteNotification(ctx, msg);
+            stateChanged = processAttributesDeleteNotification(ctx, msg, data);
         } else if (msg.isTypeOf(ALARM_CLEAR)) {
             stateChanged = processAlarmClearNotification(ctx, msg);
         } else if (msg.isTypeOf(ALARM_ACK)) {
@@ -176,12 +346,12 @@ class DeviceState {
         }
     }
 
-    private boolean processDeviceActivityEvent(TbContext ctx, TbMsg msg) throws ExecutionException, InterruptedException {
+    private boolean processDeviceActivityEvent(TbContext ctx, TbMsg msg, JsonElement data) {
         String scope = msg.getMetaData().getValue(DataConstants.SCOPE);
         if (StringUtils.isEmpty(scope)) {
-            return processTelemetry(ctx, msg);
+            return processTelemetry(ctx, msg, data);
         } else {
-            return processAttributes(ctx, msg, scope);
+            return processAttributes(ctx, msg, data, scope);
         }
     }
 
@@ -214,18 +384,18 @@ class DeviceState {
         ctx.tellSuccess(msg);
     }
 
-    private boolean processAttributesUpdateNotification(TbContext ctx, TbMsg msg) throws ExecutionException, InterruptedException {
+    private boolean processAttributesUpdateNotification(TbContext ctx, TbMsg msg, JsonElement data) {
         String scope = msg.getMetaData().getValue(DataConstants.SCOPE);
         if (StringUtils.isEmpty(scope)) {
             scope = DataConstants.CLIENT_SCOPE;
         }
-        return processAttributes(ctx, msg, scope);
+        return processAttributes(ctx, msg, data, scope);
     }
 
-    private boolean processAttributesDeleteNotification(TbContext ctx, TbMsg msg) throws ExecutionException, InterruptedException {
+    private boolean processAttributesDeleteNotification(TbContext ctx, TbMsg msg, JsonElement data) {
         boolean stateChanged = false;
         List<String> keys = new ArrayList<>();
-        JsonParser.parseString(msg.getData()).getAsJsonObject().get("attributes").getAsJsonArray().forEach(e -> keys.add(e.getAsString()));
+        data.getAsJsonObject().get("attributes").getAsJsonArray().forEach(e -> keys.add(e.getAsString()));
         String scope = msg.getMetaData().getValue(DataConstants.SCOPE);
         if (StringUtils.isEmpty(scope)) {
             scope = DataConstants.CLIENT_SCOPE;
@@ -247,13 +417,13 @@ class DeviceState {
         return stateChanged;
     }
 
-    protected boolean processAttributesUpdateRequest(TbContext ctx, TbMsg msg) throws ExecutionException, InterruptedException {
-        return processAttributes(ctx, msg, DataConstants.CLIENT_SCOPE);
+    protected boolean processAttributesUpdateRequest(TbContext ctx, TbMsg msg, JsonElement data) {
+        return processAttributes(ctx, msg, data, DataConstants.CLIENT_SCOPE);
     }
 
-    private boolean processAttributes(TbContext ctx, TbMsg msg, String scope) throws ExecutionException, InterruptedException {
+    private boolean processAttributes(TbContext ctx, TbMsg msg, JsonElement data, String scope) {
         boolean stateChanged = false;
-        Set<AttributeKvEntry> attributes = JsonConverter.convertToAttributes(JsonParser.parseString(msg.getData()));
+        Set<AttributeKvEntry> attributes = JsonConverter.convertToAttributes(data);
         if (!attributes.isEmpty()) {
             SnapshotUpdate update = merge(latestValues, attributes, scope);
             for (DeviceProfileAlarm alarm : deviceProfile.getAlarmSettings()) {
@@ -266,14 +436,13 @@ class DeviceState {
         return stateChanged;
     }
 
-    protected boolean processTelemetry(TbContext ctx, TbMsg msg) throws ExecutionException, InterruptedException {
+    protected boolean processTelemetry(TbContext ctx, TbMsg msg, JsonElement data) {
         boolean stateChanged = false;
-        Map<Long, List<KvEntry>> tsKvMap = JsonConverter.convertToSortedTelemetry(JsonParser.parseString(msg.getData()), msg.getMetaDataTs());
+        Map<Long, List<KvEntry>> tsKvMap = JsonConverter.convertToSortedTelemetry(data, msg.getMetaDataTs());
         // iterate over data by ts (ASC order).
         for (Map.Entry<Long, List<KvEntry>> entry : tsKvMap.entrySet()) {
             Long ts = entry.getKey();
-            List<KvEntry> data = entry.getValue();
-            SnapshotUpdate update = merge(latestValues, ts, data);
+            SnapshotUpdate update = merge(latestValues, ts, entry.getValue());
             if (update.hasUpdate()) {
                 for (DeviceProfileAlarm alarm : deviceProfile.getAlarmSettings()) {
                     AlarmState alarmState = alarmStates.computeIfAbsent(alarm.getId(),
@@ -329,18 +498,11 @@ class DeviceState {
         return EntityKeyType.ATTRIBUTE;
     }
 
-    private DataSnapshot fetchLatestValues(TbContext ctx, EntityId originator) throws ExecutionException, InterruptedException {
-        Set<AlarmConditionFilterKey> entityKeysToFetch = deviceProfile.getEntityKeys();
-        DataSnapshot result = new DataSnapshot(entityKeysToFetch);
-        addEntityKeysToSnapshot(ctx, originator, entityKeysToFetch, result);
-        return result;
-    }
-
-    private void addEntityKeysToSnapshot(TbContext ctx, EntityId originator, Set<AlarmConditionFilterKey> entityKeysToFetch, DataSnapshot result) throws InterruptedException, ExecutionException {
+    private ListenableFuture<Void> addEntityKeysToSnapshot(TbContext ctx, EntityId originator, Set<AlarmConditionFilterKey> entityKeysToFetch, DataSnapshot result) {
         Set<String> attributeKeys = new HashSet<>();
         Set<String> latestTsKeys = new HashSet<>();
+        Set<AlarmConditionFilterKey> entityFields = new HashSet<>();
 
-        Device device = null;
         for (AlarmConditionFilterKey entityKey : entityKeysToFetch) {
             String key = entityKey.getKey();
             switch (entityKey.getType()) {
@@ -351,41 +513,55 @@ class DeviceState {
                     latestTsKeys.add(key);
                     break;
                 case ENTITY_FIELD:
-                    if (device == null) {
-                        device = ctx.getDeviceService().findDeviceById(ctx.getTenantId(), new DeviceId(originator.getId()));
-                    }
-                    if (device != null) {
-                        switch (key) {
-                            case EntityKeyMapping.NAME:
-                                result.putValue(entityKey, device.getCreatedTime(), EntityKeyValue.fromString(device.getName()));
-                                break;
-                            case EntityKeyMapping.TYPE:
-                                result.putValue(entityKey, device.getCreatedTime(), EntityKeyValue.fromString(device.getType()));
-                                break;
-                            case EntityKeyMapping.CREATED_TIME:
-                                result.putValue(entityKey, device.getCreatedTime(), EntityKeyValue.fromLong(device.getCreatedTime()));
-                                break;
-                            case EntityKeyMapping.LABEL:
-                                result.putValue(entityKey, device.getCreatedTime(), EntityKeyValue.fromString(device.getLabel()));
-                                break;
-                        }
-                    }
+                    entityFields.add(entityKey);
                     break;
             }
         }
 
-        if (!latestTsKeys.isEmpty()) {
-            List<TsKvEntry> data = ctx.getTimeseriesService().findLatest(ctx.getTenantId(), originator, latestTsKeys).get();
-            for (TsKvEntry entry : data) {
+        ListenableFuture<Device> deviceFuture = entityFields.isEmpty() ? Futures.immediateFuture(null) :
+                ctx.getDeviceService().findDeviceByIdAsync(ctx.getTenantId(), new DeviceId(originator.getId()));
+        ListenableFuture<List<TsKvEntry>> latestTsFuture = latestTsKeys.isEmpty() ? Futures.immediateFuture(List.of()) :
+                ctx.getTimeseriesService().findLatest(ctx.getTenantId(), originator, latestTsKeys);
+        List<ListenableFuture<List<AttributeKvEntry>>> attributeFutures = new ArrayList<>();
+        if (!attributeKeys.isEmpty()) {
+            attributeFutures.add(ctx.getAttributesService().find(ctx.getTenantId(), originator, AttributeScope.CLIENT_SCOPE, attributeKeys));
+            attributeFutures.add(ctx.getAttributesService().find(ctx.getTenantId(), originator, AttributeScope.SHARED_SCOPE, attributeKeys));
+            attributeFutures.add(ctx.getAttributesService().find(ctx.getTenantId(), originator, AttributeScope.SERVER_SCOPE, attributeKeys));
+        }
+        ListenableFuture<List<List<AttributeKvEntry>>> attributesFuture = Futures.allAsList(attributeFutures);
+
+        // the snapshot is updated once all the data is loaded, in the same order as the data was fetched before
+        return Futures.whenAllSucceed(deviceFuture, latestTsFuture, attributesFuture).call(() -> {
+            Device device = Futures.getDone(deviceFuture);
+            if (device != null) {
+                addToSnapshot(result, device, entityFields);
+            }
+            for (TsKvEntry entry : Futures.getDone(latestTsFuture)) {
                 if (entry.getValue() != null) {
                     result.putValue(new AlarmConditionFilterKey(AlarmConditionKeyType.TIME_SERIES, entry.getKey()), entry.getTs(), toEntityValue(entry));
                 }
             }
-        }
-        if (!attributeKeys.isEmpty()) {
-            addToSnapshot(result, ctx.getAttributesService().find(ctx.getTenantId(), originator, AttributeScope.CLIENT_SCOPE, attributeKeys).get());
-            addToSnapshot(result, ctx.getAttributesService().find(ctx.getTenantId(), originator, AttributeScope.SHARED_SCOPE, attributeKeys).get());
-            addToSnapshot(result, ctx.getAttributesService().find(ctx.getTenantId(), originator, AttributeScope.SERVER_SCOPE, attributeKeys).get());
+            Futures.getDone(attributesFuture).forEach(attributes -> addToSnapshot(result, attributes));
+            return null;
+        }, MoreExecutors.directExecutor());
+    }
+
+    private static void addToSnapshot(DataSnapshot snapshot, Device device, Set<AlarmConditionFilterKey> entityFields) {
+        for (AlarmConditionFilterKey entityKey : entityFields) {
+            switch (entityKey.getKey()) {
+                case EntityKeyMapping.NAME:
+                    snapshot.putValue(entityKey, device.getCreatedTime(), EntityKeyValue.fromString(device.getName()));
+                    break;
+                case EntityKeyMapping.TYPE:
+                    snapshot.putValue(entityKey, device.getCreatedTime(), EntityKeyValue.fromString(device.getType()));
+                    break;
+                case EntityKeyMapping.CREATED_TIME:
+                    snapshot.putValue(entityKey, device.getCreatedTime(), EntityKeyValue.fromLong(device.getCreatedTime()));
+                    break;
+                case EntityKeyMapping.LABEL:
+                    snapshot.putValue(entityKey, device.getCreatedTime(), EntityKeyValue.fromString(device.getLabel()));
+                    break;
+            }
         }
     }
 
@@ -419,6 +595,8 @@ class DeviceState {
         return deviceProfile.getProfileId();
     }
 
+    private record PendingTask(TbMsg msg, JsonElement data, DeviceProfile deviceProfile, long harvestTs) {}
+
     private PersistedAlarmState getOrInitPersistedAlarmState(DeviceProfileAlarm alarm) {
         if (pds != null) {
             PersistedAlarmState alarmState = pds.getAlarmStates().get(alarm.getId());
@@ -15,8 +15,19 @@
  */
 package org.thingsboard.rule.engine.profile;
 
+import com.google.common.util.concurrent.ListenableFuture;
+
+import java.util.Set;
+
 public interface DynamicPredicateValueCtx {
 
+    /**
+     * Loads the tenant and customer attributes used by the dynamic values,
+     * so the following lookups of these keys do not access the database.
+     * The loaded values are reused by the following calls until they expire or the customer is reset.
+     */
+    ListenableFuture<Void> prefetch(Set<String> tenantKeys, Set<String> customerKeys);
+
     EntityKeyValue getTenantValue(String key);
 
     EntityKeyValue getCustomerValue(String key);
@@ -15,49 +15,151 @@
  */
 package org.thingsboard.rule.engine.profile;
 
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
 import lombok.extern.slf4j.Slf4j;
 import org.thingsboard.rule.engine.api.TbContext;
 import org.thingsboard.server.common.data.AttributeScope;
-import org.thingsboard.server.common.data.Device;
 import org.thingsboard.server.common.data.id.CustomerId;
 import org.thingsboard.server.common.data.id.DeviceId;
 import org.thingsboard.server.common.data.id.EntityId;
 import org.thingsboard.server.common.data.id.TenantId;
 import org.thingsboard.server.common.data.kv.AttributeKvEntry;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 public class DynamicPredicateValueCtxImpl implements DynamicPredicateValueCtx {
+    // prefetched values are reused by the following batches and refreshed after this interval
+    static final long PREFETCHED_VALUES_TTL_MS = TimeUnit.SECONDS.toMillis(10);
+
     private final TenantId tenantId;
-    private CustomerId customerId;
+    private volatile CustomerId customerId;
+    private volatile boolean customerResolved;
     private final DeviceId deviceId;
     private final TbContext ctx;
+    // prefetched values, the key is present even if the attribute does not exist
+    private volatile Map<String, EntityKeyValue> tenantValues = Collections.emptyMap();
+    private volatile long tenantValuesTs;
+    private volatile Map<String, EntityKeyValue> customerValues = Collections.emptyMap();
+    private volatile long customerValuesTs;
 
     public DynamicPredicateValueCtxImpl(TenantId tenantId, DeviceId deviceId, TbContext ctx) {
         this.tenantId = tenantId;
         this.deviceId = deviceId;
         this.ctx = ctx;
-        resetCustomer();
+    }
+
+    @Override
+    public ListenableFuture<Void> prefetch(Set<String> tenantKeys, Set<String> customerKeys) {
+        long ts = System.currentTimeMillis();
+        ListenableFuture<Void> tenantFuture = Futures.immediateVoidFuture();
+        if (!isUpToDate(tenantValues, tenantValuesTs, tenantKeys, ts)) {
+            tenantFuture = Futures.transform(fetchValues(tenantId, tenantKeys), fetched -> {
+                tenantValues = fetched.values();
+                tenantValuesTs = fetched.complete() ? ts : 0L;
+                return null;
+            }, MoreExecutors.directExecutor());
+        }
+        ListenableFuture<Void> customerFuture = Futures.immediateVoidFuture();
+        if (!customerKeys.isEmpty() && !(customerResolved && isUpToDate(customerValues, customerValuesTs, customerKeys, ts))) {
+            customerFuture = Futures.transformAsync(resolveCustomer(), customerId -> Futures.transform(fetchValues(customerId, customerKeys), fetched -> {
+                customerValues = fetched.values();
+                customerValuesTs = fetched.complete() ? ts : 0L;
+                return null;
+            }, MoreExecutors.directExecutor()), MoreExecutors.directExecutor());
+        }
+        return Futures.whenAllSucceed(tenantFuture, customerFuture).call(() -> null, MoreExecutors.directExecutor());
+    }
+
+    private static boolean isUpToDate(Map<String, EntityKeyValue> values, long valuesTs, Set<String> keys, long ts) {
+        return ts - valuesTs < PREFETCHED_VALUES_TTL_MS && values.keySet().containsAll(keys);
     }
 
     @Override
     public EntityKeyValue getTenantValue(String key) {
-        return getValue(tenantId, key);
+        Map<String, EntityKeyValue> values = tenantValues;
+        return values.containsKey(key) ? values.get(key) : getValue(tenantId, key);
     }
 
     @Override
     public EntityKeyValue getCustomerValue(String key) {
+        Map<String, EntityKeyValue> values = customerValues;
+        if (values.containsKey(key)) {
+            return values.get(key);
+        }
+        if (!customerResolved) {
+            resolveCustomerSync();
+        }
         return customerId == null || customerId.isNullUid() ? null : getValue(customerId, key);
     }
 
     @Override
     public void resetCustomer() {
-        Device device = ctx.getDeviceService().findDeviceById(tenantId, deviceId);
-        if (device != null) {
-            this.customerId = device.getCustomerId();
+        customerResolved = false;
+        customerValues = Collections.emptyMap();
+        customerValuesTs = 0L;
+    }
+
+    private ListenableFuture<CustomerId> resolveCustomer() {
+        if (customerResolved) {
+            return Futures.immediateFuture(customerId);
         }
+        return Futures.transform(ctx.getDeviceService().findDeviceByIdAsync(tenantId, deviceId), device -> {
+            if (device != null) {
+                this.customerId = device.getCustomerId();
+            }
+            customerResolved = true;
+            return customerId;
+        }, MoreExecutors.directExecutor());
+    }
+
+    private void resolveCustomerSync() {
+        try {
+            resolveCustomer().get();
+        } catch (InterruptedException | ExecutionException e) {
+            log.warn("Failed to get customer of the device: [{}]", deviceId.getId());
+        }
+    }
+
+    /**
+     * Failed keys are mapped to null values, like the keys of the missing attributes, but the result is not complete
+     * and is fetched again by the next batch.
+     */
+    private ListenableFuture<FetchedValues> fetchValues(EntityId entityId, Set<String> keys) {
+        if (entityId == null || entityId.isNullUid() || keys.isEmpty()) {
+            return Futures.immediateFuture(new FetchedValues(Collections.emptyMap(), true));
+        }
+        List<String> keyList = new ArrayList<>(keys);
+        List<ListenableFuture<Optional<AttributeKvEntry>>> futures = new ArrayList<>(keyList.size());
+        for (String key : keyList) {
+            futures.add(ctx.getAttributesService().find(tenantId, entityId, AttributeScope.SERVER_SCOPE, key));
+        }
+        return Futures.whenAllComplete(futures).call(() -> {
+            Map<String, EntityKeyValue> values = new HashMap<>();
+            boolean complete = true;
+            for (int i = 0; i < keyList.size(); i++) {
+                String key = keyList.get(i);
+                EntityKeyValue value = null;
+                try {
+                    value = Futures.getDone(futures.get(i)).map(DeviceState::toEntityValue).orElse(null);
+                } catch (Exception e) {
+                    log.warn("Failed to get attribute by key: {} for {}: [{}]", key, entityId.getEntityType(), entityId.getId());
+                    complete = false;
+                }
+                values.put(key, value);
+            }
+            return new FetchedValues(values, complete);
+        }, MoreExecutors.directExecutor());
     }
 
     private EntityKeyValue getValue(EntityId entityId, String key) {
@@ -71,4 +173,7 @@ public class DynamicPredicateValueCtxImpl implements DynamicPredicateValueCtx {
         }
         return null;
     }
+
+    private record FetchedValues(Map<String, EntityKeyValue> values, boolean complete) {}
+
 }
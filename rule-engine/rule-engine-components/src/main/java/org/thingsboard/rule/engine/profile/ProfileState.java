@@ -52,9 +52,16 @@ class ProfileState {
     private final List<DeviceProfileAlarm> alarmSettings = new CopyOnWriteArrayList<>();
     @Getter(AccessLevel.PACKAGE)
     private final Set<AlarmConditionFilterKey> entityKeys = ConcurrentHashMap.newKeySet();
+    @Getter(AccessLevel.PACKAGE)
+    private final Set<String> tenantDynamicValueKeys = ConcurrentHashMap.newKeySet();
+    @Getter(AccessLevel.PACKAGE)
+    private final Set<String> customerDynamicValueKeys = ConcurrentHashMap.newKeySet();
 
     private final Map<String, Map<AlarmSeverity, Set<AlarmConditionFilterKey>>> alarmCreateKeys = new HashMap<>();
     private final Map<String, Set<AlarmConditionFilterKey>> alarmClearKeys = new HashMap<>();
+    // compiled on each update of the profile and shared by the alarm rule states
+    private final Map<String, Map<AlarmSeverity, AlarmConditionEvaluator>> alarmCreateConditions = new HashMap<>();
+    private final Map<String, AlarmConditionEvaluator> alarmClearConditions = new HashMap<>();
 
     ProfileState(DeviceProfile deviceProfile) {
         updateDeviceProfile(deviceProfile);
@@ -65,12 +72,18 @@ class ProfileState {
         alarmSettings.clear();
         alarmCreateKeys.clear();
         alarmClearKeys.clear();
+        alarmCreateConditions.clear();
+        alarmClearConditions.clear();
         entityKeys.clear();
+        tenantDynamicValueKeys.clear();
+        customerDynamicValueKeys.clear();
         if (deviceProfile.getProfileData().getAlarms() != null) {
             alarmSettings.addAll(deviceProfile.getProfileData().getAlarms());
             for (DeviceProfileAlarm alarm : deviceProfile.getProfileData().getAlarms()) {
                 Map<AlarmSeverity, Set<AlarmConditionFilterKey>> createAlarmKeys = alarmCreateKeys.computeIfAbsent(alarm.getId(), id -> new HashMap<>());
+                Map<AlarmSeverity, AlarmConditionEvaluator> createConditions = alarmCreateConditions.computeIfAbsent(alarm.getId(), id -> new HashMap<>());
                 alarm.getCreateRules().forEach(((severity, alarmRule) -> {
+                    createConditions.put(severity, AlarmConditionEvaluator.compile(alarmRule.getCondition()));
                     var ruleKeys = createAlarmKeys.computeIfAbsent(severity, id -> new HashSet<>());
                     for (var keyFilter : alarmRule.getCondition().getCondition()) {
                         entityKeys.add(keyFilter.getKey());
@@ -84,6 +97,7 @@ class ProfileState {
                     }
                 }));
                 if (alarm.getClearRule() != null) {
+                    alarmClearConditions.put(alarm.getId(), AlarmConditionEvaluator.compile(alarm.getClearRule().getCondition()));
                     var clearAlarmKeys = alarmClearKeys.computeIfAbsent(alarm.getId(), id -> new HashSet<>());
                     for (var keyFilter : alarm.getClearRule().getCondition().getCondition()) {
                         entityKeys.add(keyFilter.getKey());
@@ -103,6 +117,7 @@ class ProfileState {
                     new AlarmConditionFilterKey(AlarmConditionKeyType.ATTRIBUTE,
                             dynamicValue.getSourceAttribute())
             );
+            addDynamicValueKey(dynamicValue);
         }
     }
 
@@ -121,6 +136,7 @@ class ProfileState {
                             new AlarmConditionFilterKey(AlarmConditionKeyType.ATTRIBUTE,
                                     duration.getPredicate().getDynamicValue().getSourceAttribute())
                     );
+                    addDynamicValueKey(duration.getPredicate().getDynamicValue());
                 }
                 break;
             case REPEATING:
@@ -131,6 +147,7 @@ class ProfileState {
                             new AlarmConditionFilterKey(AlarmConditionKeyType.ATTRIBUTE,
                                     repeating.getPredicate().getDynamicValue().getSourceAttribute())
                     );
+                    addDynamicValueKey(repeating.getPredicate().getDynamicValue());
                 }
                 break;
         }
@@ -150,6 +167,7 @@ class ProfileState {
                     AlarmConditionFilterKey entityKey = new AlarmConditionFilterKey(AlarmConditionKeyType.ATTRIBUTE, value.getSourceAttribute());
                     entityKeys.add(entityKey);
                     ruleKeys.add(entityKey);
+                    addDynamicValueKey(value);
                 }
                 break;
             case COMPLEX:
@@ -160,6 +178,31 @@ class ProfileState {
         }
     }
 
+    /**
+     * Collects the tenant and customer attributes the dynamic value may be resolved from,
+     * following the same inheritance as the evaluation of the value.
+     */
+    private void addDynamicValueKey(DynamicValue<?> value) {
+        String key = value.getSourceAttribute();
+        if (key == null || value.getSourceType() == null) {
+            return;
+        }
+        switch (value.getSourceType()) {
+            case CURRENT_DEVICE:
+                if (!value.isInherit()) {
+                    break;
+                }
+            case CURRENT_CUSTOMER:
+                customerDynamicValueKeys.add(key);
+                if (!value.isInherit()) {
+                    break;
+                }
+            case CURRENT_TENANT:
+                tenantDynamicValueKeys.add(key);
+                break;
+        }
+    }
+
     DeviceProfileId getProfileId() {
         return deviceProfile.getId();
     }
@@ -186,4 +229,13 @@ class ProfileState {
             return keys;
         }
     }
+
+    AlarmConditionEvaluator getCreateAlarmCondition(String id, AlarmSeverity severity) {
+        Map<AlarmSeverity, AlarmConditionEvaluator> conditions = alarmCreateConditions.get(id);
+        return conditions != null ? conditions.get(severity) : null;
+    }
+
+    AlarmConditionEvaluator getClearAlarmCondition(String id) {
+        return alarmClearConditions.get(id);
+    }
 }
@@ -116,7 +116,7 @@ public class TbDeviceProfileNode implements TbNode {
         } else if (msg.isTypeOf(TbMsgType.DEVICE_PROFILE_UPDATE_SELF_MSG)) {
             updateProfile(ctx, new DeviceProfileId(UUID.fromString(msg.getData())));
         } else if (msg.isTypeOf(TbMsgType.DEVICE_UPDATE_SELF_MSG)) {
-            JsonNode data = JacksonUtil.toJsonNode(msg.getData());
+            JsonNode data = msg.getDataAsJson();
             DeviceId deviceId = new DeviceId(UUID.fromString(data.get("deviceId").asText()));
             if (data.has("profileId")) {
                 invalidateDeviceProfileCache(deviceId, new DeviceProfileId(UUID.fromString(data.get("deviceProfileId").asText())));
@@ -187,13 +187,13 @@ public class TbDeviceProfileNode implements TbNode {
         ctx.tellSelf(periodicCheck, TimeUnit.MINUTES.toMillis(1));
     }
 
-    protected void harvestAlarms(TbContext ctx, long ts) throws ExecutionException, InterruptedException {
+    protected void harvestAlarms(TbContext ctx, long ts) {
         for (DeviceState state : deviceStates.values()) {
             state.harvestAlarms(ctx, ts);
         }
     }
 
-    protected void updateProfile(TbContext ctx, DeviceProfileId deviceProfileId) throws ExecutionException, InterruptedException {
+    protected void updateProfile(TbContext ctx, DeviceProfileId deviceProfileId) {
         DeviceProfile deviceProfile = cache.get(ctx.getTenantId(), deviceProfileId);
         if (deviceProfile != null) {
             log.debug("[{}] Received device profile update notification: {}", ctx.getSelfId(), deviceProfile);
@@ -18,7 +18,6 @@ package org.thingsboard.rule.engine.transform;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import lombok.extern.slf4j.Slf4j;
-import org.thingsboard.common.util.JacksonUtil;
 import org.thingsboard.rule.engine.api.RuleNode;
 import org.thingsboard.rule.engine.api.TbContext;
 import org.thingsboard.rule.engine.api.TbNodeConfiguration;
@@ -68,7 +67,7 @@ public class TbRenameKeysNode extends TbAbstractTransformNodeWithTbMsgSource {
     @Override
     public void onMsg(TbContext ctx, TbMsg msg) throws ExecutionException, InterruptedException, TbNodeException {
         TbMsgMetaData metaDataCopy = msg.getMetaData().copy();
-        String data = msg.getData();
+        ObjectNode newData = null;
         boolean msgChanged = false;
         switch (renameIn) {
             case METADATA:
@@ -86,29 +85,40 @@ public class TbRenameKeysNode extends TbAbstractTransformNodeWithTbMsgSource {
                 metaDataCopy = new TbMsgMetaData(metaDataMap);
                 break;
             case DATA:
-                JsonNode dataNode = JacksonUtil.toJsonNode(data);
+                JsonNode dataNode = msg.getDataAsJson();
                 if (dataNode.isObject()) {
+                    // parsed data is shared with the original message, so it's copied only if some key is renamed
                     ObjectNode msgData = (ObjectNode) dataNode;
                     for (Map.Entry<String, String> entry : renameKeysMapping.entrySet()) {
                         String currentKeyName = entry.getKey();
                         String newKeyName = entry.getValue();
                         if (msgData.has(currentKeyName)) {
-                            msgChanged = true;
+                            if (!msgChanged) {
+                                msgChanged = true;
+                                msgData = msgData.deepCopy();
+                            }
                             JsonNode value = msgData.get(currentKeyName);
                             msgData.set(newKeyName, value);
                             msgData.remove(currentKeyName);
                         }
                     }
-                    data = JacksonUtil.toString(msgData);
+                    if (msgChanged) {
+                        newData = msgData;
+                    }
                 }
                 break;
             default:
                 log.debug("Unexpected RenameIn value: {}. Allowed values: {}", renameIn, TbMsgSource.values());
         }
-        ctx.tellSuccess(msgChanged ? msg.transform()
-                .metaData(metaDataCopy)
-                .data(data)
-                .build() : msg);
+        if (!msgChanged) {
+            ctx.tellSuccess(msg);
+            return;
+        }
+        TbMsg.TbMsgBuilder renamedMsg = msg.transform().metaData(metaDataCopy);
+        if (newData != null) {
+            renamedMsg.jsonData(newData);
+        }
+        ctx.tellSuccess(renamedMsg.build());
     }
 
     @Override
@@ -0,0 +1,159 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.rule.engine.profile;
+
+import org.junit.jupiter.api.Test;
+import org.thingsboard.server.common.data.device.profile.AlarmCondition;
+import org.thingsboard.server.common.data.device.profile.AlarmConditionFilter;
+import org.thingsboard.server.common.data.device.profile.AlarmConditionFilterKey;
+import org.thingsboard.server.common.data.device.profile.AlarmConditionKeyType;
+import org.thingsboard.server.common.data.query.BooleanFilterPredicate;
+import org.thingsboard.server.common.data.query.ComplexFilterPredicate;
+import org.thingsboard.server.common.data.query.DynamicValue;
+import org.thingsboard.server.common.data.query.DynamicValueSourceType;
+import org.thingsboard.server.common.data.query.EntityKeyValueType;
+import org.thingsboard.server.common.data.query.FilterPredicateValue;
+import org.thingsboard.server.common.data.query.KeyFilterPredicate;
+import org.thingsboard.server.common.data.query.NumericFilterPredicate;
+import org.thingsboard.server.common.data.query.StringFilterPredicate;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class AlarmConditionEvaluatorTest {
+
+    private final AlarmConditionFilterKey temperatureKey = new AlarmConditionFilterKey(AlarmConditionKeyType.TIME_SERIES, "temperature");
+    private final AlarmConditionFilterKey enabledKey = new AlarmConditionFilterKey(AlarmConditionKeyType.ATTRIBUTE, "enabled");
+    private final AlarmConditionFilterKey stateKey = new AlarmConditionFilterKey(AlarmConditionKeyType.ATTRIBUTE, "state");
+
+    @Test
+    public void testCheapFilterIsEvaluatedFirst() {
+        NumericFilterPredicate threshold = new NumericFilterPredicate();
+        threshold.setOperation(NumericFilterPredicate.NumericOperation.GREATER);
+        threshold.setValue(new FilterPredicateValue<>(0.0, null, new DynamicValue<>(DynamicValueSourceType.CURRENT_TENANT, "threshold")));
+        AlarmConditionEvaluator evaluator = compile(
+                filter(temperatureKey, EntityKeyValueType.NUMERIC, threshold),
+                filter(enabledKey, EntityKeyValueType.BOOLEAN, bool(true)));
+
+        DynamicPredicateValueCtx ctx = mock(DynamicPredicateValueCtx.class);
+        when(ctx.getTenantValue("threshold")).thenReturn(EntityKeyValue.fromDouble(30.0));
+
+        DataSnapshot data = snapshot();
+        data.putValue(temperatureKey, 1L, EntityKeyValue.fromLong(40L));
+        data.putValue(enabledKey, 1L, EntityKeyValue.fromBool(false));
+        assertThat(evaluator.eval(data, ctx)).isFalse();
+        verify(ctx, never()).getTenantValue(anyString());
+
+        data.putValue(enabledKey, 2L, EntityKeyValue.fromBool(true));
+        assertThat(evaluator.eval(data, ctx)).isTrue();
+        data.putValue(temperatureKey, 3L, EntityKeyValue.fromLong(20L));
+        assertThat(evaluator.eval(data, ctx)).isFalse();
+    }
+
+    @Test
+    public void testNumericValuesOfDifferentTypes() {
+        AlarmConditionEvaluator evaluator = compile(filter(temperatureKey, EntityKeyValueType.NUMERIC,
+                numeric(NumericFilterPredicate.NumericOperation.EQUAL, 25.0)));
+
+        DataSnapshot data = snapshot();
+        data.putValue(temperatureKey, 1L, EntityKeyValue.fromLong(25L));
+        assertThat(evaluator.eval(data, null)).isTrue();
+        data.putValue(temperatureKey, 2L, EntityKeyValue.fromString("25.0"));
+        assertThat(evaluator.eval(data, null)).isTrue();
+        data.putValue(temperatureKey, 3L, EntityKeyValue.fromString("warm"));
+        assertThat(evaluator.eval(data, null)).isFalse();
+        data.putValue(temperatureKey, 4L, EntityKeyValue.fromDouble(25.5));
+        assertThat(evaluator.eval(data, null)).isFalse();
+    }
+
+    @Test
+    public void testComplexPredicateWithIgnoreCaseList() {
+        StringFilterPredicate in = new StringFilterPredicate();
+        in.setOperation(StringFilterPredicate.StringOperation.IN);
+        in.setIgnoreCase(true);
+        in.setValue(new FilterPredicateValue<>("\"Active\", \"Stand By\""));
+        StringFilterPredicate endsWith = new StringFilterPredicate();
+        endsWith.setOperation(StringFilterPredicate.StringOperation.ENDS_WITH);
+        endsWith.setValue(new FilterPredicateValue<>("error"));
+        ComplexFilterPredicate or = new ComplexFilterPredicate();
+        or.setOperation(ComplexFilterPredicate.ComplexOperation.OR);
+        or.setPredicates(List.of(in, endsWith));
+        AlarmConditionEvaluator evaluator = compile(filter(stateKey, EntityKeyValueType.STRING, or));
+
+        DataSnapshot data = snapshot();
+        data.putValue(stateKey, 1L, EntityKeyValue.fromString("ACTIVE"));
+        assertThat(evaluator.eval(data, null)).isTrue();
+        data.putValue(stateKey, 2L, EntityKeyValue.fromString("stand by"));
+        assertThat(evaluator.eval(data, null)).isTrue();
+        data.putValue(stateKey, 3L, EntityKeyValue.fromString("disk error"));
+        assertThat(evaluator.eval(data, null)).isTrue();
+        data.putValue(stateKey, 4L, EntityKeyValue.fromString("idle"));
+        assertThat(evaluator.eval(data, null)).isFalse();
+    }
+
+    @Test
+    public void testMissingValueAndConstantKey() {
+        AlarmConditionFilter constantFilter = filter(new AlarmConditionFilterKey(AlarmConditionKeyType.CONSTANT, "limit"),
+                EntityKeyValueType.NUMERIC, numeric(NumericFilterPredicate.NumericOperation.GREATER, 10.0));
+        constantFilter.setValue(50);
+        // the default value of the predicate is not used for the constant keys
+        assertThat(compile(constantFilter).eval(snapshot(), null)).isFalse();
+
+        AlarmConditionEvaluator evaluator = compile(filter(enabledKey, EntityKeyValueType.BOOLEAN, bool(true)));
+        assertThat(evaluator.eval(snapshot(), null)).isFalse();
+    }
+
+    private DataSnapshot snapshot() {
+        return new DataSnapshot(new HashSet<>(Set.of(temperatureKey, enabledKey, stateKey)));
+    }
+
+    private static AlarmConditionEvaluator compile(AlarmConditionFilter... filters) {
+        AlarmCondition condition = new AlarmCondition();
+        condition.setCondition(List.of(filters));
+        return AlarmConditionEvaluator.compile(condition);
+    }
+
+    private static AlarmConditionFilter filter(AlarmConditionFilterKey key, EntityKeyValueType valueType, KeyFilterPredicate predicate) {
+        AlarmConditionFilter filter = new AlarmConditionFilter();
+        filter.setKey(key);
+        filter.setValueType(valueType);
+        filter.setPredicate(predicate);
+        return filter;
+    }
+
+    private static NumericFilterPredicate numeric(NumericFilterPredicate.NumericOperation operation, double value) {
+        NumericFilterPredicate predicate = new NumericFilterPredicate();
+        predicate.setOperation(operation);
+        predicate.setValue(new FilterPredicateValue<>(value));
+        return predicate;
+    }
+
+    private static BooleanFilterPredicate bool(boolean value) {
+        BooleanFilterPredicate predicate = new BooleanFilterPredicate();
+        predicate.setOperation(BooleanFilterPredicate.BooleanOperation.EQUAL);
+        predicate.setValue(new FilterPredicateValue<>(value));
+        return predicate;
+    }
+
+}
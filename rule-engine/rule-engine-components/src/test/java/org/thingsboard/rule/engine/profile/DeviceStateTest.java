@@ -16,13 +16,17 @@
 package org.thingsboard.rule.engine.profile;
 
 import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.SettableFuture;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.thingsboard.common.util.JacksonUtil;
+import org.thingsboard.rule.engine.TestDbCallbackExecutor;
 import org.thingsboard.rule.engine.api.RuleEngineAlarmService;
 import org.thingsboard.rule.engine.api.TbContext;
 import org.thingsboard.server.common.data.AttributeScope;
+import org.thingsboard.server.common.data.Device;
 import org.thingsboard.server.common.data.DeviceProfile;
 import org.thingsboard.server.common.data.alarm.Alarm;
 import org.thingsboard.server.common.data.alarm.AlarmApiCallResult;
@@ -38,9 +42,15 @@ import org.thingsboard.server.common.data.device.profile.DeviceProfileAlarm;
 import org.thingsboard.server.common.data.device.profile.DeviceProfileData;
 import org.thingsboard.server.common.data.device.profile.SimpleAlarmConditionSpec;
 import org.thingsboard.server.common.data.id.AlarmId;
+import org.thingsboard.server.common.data.id.CustomerId;
 import org.thingsboard.server.common.data.id.DeviceId;
+import org.thingsboard.server.common.data.kv.AttributeKvEntry;
+import org.thingsboard.server.common.data.kv.BaseAttributeKvEntry;
+import org.thingsboard.server.common.data.kv.BooleanDataEntry;
 import org.thingsboard.server.common.data.msg.TbMsgType;
 import org.thingsboard.server.common.data.query.BooleanFilterPredicate;
+import org.thingsboard.server.common.data.query.DynamicValue;
+import org.thingsboard.server.common.data.query.DynamicValueSourceType;
 import org.thingsboard.server.common.data.query.EntityKeyValueType;
 import org.thingsboard.server.common.data.query.FilterPredicateValue;
 import org.thingsboard.server.common.msg.TbMsg;
@@ -51,6 +61,7 @@ import org.thingsboard.server.dao.device.DeviceService;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.TreeMap;
 import java.util.UUID;
 
@@ -59,9 +70,11 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -178,6 +191,95 @@ public class DeviceStateTest {
         });
     }
 
+    @Test
+    public void whenLatestValuesAreLoading_thenMessagesAreProcessedInOrderOnceLoaded() {
+        SettableFuture<List<AttributeKvEntry>> serverAttributesFuture = SettableFuture.create();
+        when(ctx.getAttributesService().find(any(), any(), eq(AttributeScope.SERVER_SCOPE), anyCollection())).thenReturn(serverAttributesFuture);
+        when(ctx.getDbCallbackExecutor()).thenReturn(new TestDbCallbackExecutor());
+
+        DeviceProfileAlarm alarmConfig = createAlarmConfigWithBoolAttrCondition("enabled", false);
+        DeviceId deviceId = new DeviceId(UUID.randomUUID());
+        DeviceState deviceState = createDeviceState(deviceId, alarmConfig);
+
+        TbMsg enabledMsg = TbMsg.newMsg()
+                .type(TbMsgType.POST_ATTRIBUTES_REQUEST)
+                .originator(deviceId)
+                .copyMetaData(TbMsgMetaData.EMPTY)
+                .data("{ \"enabled\": true }")
+                .build();
+        TbMsg disabledMsg = TbMsg.newMsg()
+                .type(TbMsgType.POST_ATTRIBUTES_REQUEST)
+                .originator(deviceId)
+                .copyMetaData(TbMsgMetaData.EMPTY)
+                .data("{ \"enabled\": false }")
+                .build();
+
+        deviceState.process(ctx, enabledMsg);
+        deviceState.process(ctx, disabledMsg);
+        verify(ctx, never()).tellSuccess(any());
+
+        serverAttributesFuture.set(Collections.emptyList());
+
+        InOrder inOrder = inOrder(ctx);
+        inOrder.verify(ctx).tellSuccess(enabledMsg);
+        inOrder.verify(ctx).tellSuccess(disabledMsg);
+        verify(ctx).enqueueForTellNext(any(), eq("Alarm Created"));
+    }
+
+    @Test
+    public void whenCustomerIsChangedInBatch_thenFollowingMessagesWaitForNewCustomerValues() {
+        when(ctx.getDbCallbackExecutor()).thenReturn(new TestDbCallbackExecutor());
+        DeviceId deviceId = new DeviceId(UUID.randomUUID());
+        CustomerId oldCustomerId = new CustomerId(UUID.randomUUID());
+        CustomerId newCustomerId = new CustomerId(UUID.randomUUID());
+        Device oldDevice = new Device(deviceId);
+        oldDevice.setCustomerId(oldCustomerId);
+        Device newDevice = new Device(deviceId);
+        newDevice.setCustomerId(newCustomerId);
+        SettableFuture<Device> oldDeviceFuture = SettableFuture.create();
+        when(ctx.getDeviceService().findDeviceByIdAsync(any(), eq(deviceId)))
+                .thenReturn(oldDeviceFuture, Futures.immediateFuture(newDevice));
+
+        AttributesService attributesService = ctx.getAttributesService();
+        when(attributesService.find(any(), eq(oldCustomerId), eq(AttributeScope.SERVER_SCOPE), eq("alarmEnabled")))
+                .thenReturn(Futures.immediateFuture(Optional.of(new BaseAttributeKvEntry(new BooleanDataEntry("alarmEnabled", false), 0L))));
+        SettableFuture<Optional<AttributeKvEntry>> newCustomerAttributeFuture = SettableFuture.create();
+        when(attributesService.find(any(), eq(newCustomerId), eq(AttributeScope.SERVER_SCOPE), eq("alarmEnabled"))).thenReturn(newCustomerAttributeFuture);
+
+        DeviceProfileAlarm alarmConfig = createAlarmConfigWithBoolAttrCondition("enabled", false);
+        BooleanFilterPredicate predicate = (BooleanFilterPredicate) alarmConfig.getCreateRules().get(AlarmSeverity.CRITICAL)
+                .getCondition().getCondition().get(0).getPredicate();
+        predicate.setValue(new FilterPredicateValue<>(false, null, new DynamicValue<>(DynamicValueSourceType.CURRENT_CUSTOMER, "alarmEnabled")));
+        DeviceState deviceState = createDeviceState(deviceId, alarmConfig);
+
+        TbMsg assignedMsg = TbMsg.newMsg()
+                .type(TbMsgType.ENTITY_ASSIGNED)
+                .originator(deviceId)
+                .copyMetaData(TbMsgMetaData.EMPTY)
+                .data("{}")
+                .build();
+        TbMsg enabledMsg = TbMsg.newMsg()
+                .type(TbMsgType.POST_ATTRIBUTES_REQUEST)
+                .originator(deviceId)
+                .copyMetaData(TbMsgMetaData.EMPTY)
+                .data("{ \"enabled\": true }")
+                .build();
+
+        // the customer is still being resolved, so the messages are executed by the next batch
+        deviceState.harvestAlarms(ctx, System.currentTimeMillis());
+        deviceState.process(ctx, assignedMsg);
+        deviceState.process(ctx, enabledMsg);
+        oldDeviceFuture.set(oldDevice);
+
+        verify(ctx).tellSuccess(assignedMsg);
+        verify(ctx, never()).tellSuccess(enabledMsg);
+
+        newCustomerAttributeFuture.set(Optional.of(new BaseAttributeKvEntry(new BooleanDataEntry("alarmEnabled", true), 0L)));
+
+        verify(ctx).tellSuccess(enabledMsg);
+        verify(ctx).enqueueForTellNext(any(), eq("Alarm Created"));
+        verify(attributesService, times(1)).find(any(), eq(newCustomerId), eq(AttributeScope.SERVER_SCOPE), eq("alarmEnabled"));
+    }
 
     private DeviceState createDeviceState(DeviceId deviceId, DeviceProfileAlarm... alarmConfigs) {
         DeviceProfile deviceProfile = new DeviceProfile();
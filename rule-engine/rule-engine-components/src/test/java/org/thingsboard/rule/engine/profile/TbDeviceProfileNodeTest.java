@@ -513,7 +513,7 @@ public class TbDeviceProfileNodeTest extends AbstractRuleNodeUpgradeTest {
         deviceProfileData.setAlarms(Collections.singletonList(dpa));
         deviceProfile.setProfileData(deviceProfileData);
 
-        Mockito.when(deviceService.findDeviceById(tenantId, deviceId)).thenReturn(device);
+        Mockito.when(deviceService.findDeviceByIdAsync(tenantId, deviceId)).thenReturn(Futures.immediateFuture(device));
         Mockito.when(cache.get(tenantId, deviceId)).thenReturn(deviceProfile);
         Mockito.when(timeseriesService.findLatest(tenantId, deviceId, Collections.singleton("temperature")))
                 .thenReturn(Futures.immediateFuture(Collections.emptyList()));
@@ -848,8 +848,8 @@ public class TbDeviceProfileNodeTest extends AbstractRuleNodeUpgradeTest {
         Mockito.when(ctx.getAttributesService()).thenReturn(attributesService);
         Mockito.when(attributesService.find(eq(tenantId), eq(tenantId), Mockito.any(AttributeScope.class), Mockito.anyString()))
                 .thenReturn(optionalDurationAttribute);
-        Mockito.when(ctx.getDeviceService().findDeviceById(tenantId, deviceId))
-                .thenReturn(device);
+        Mockito.when(ctx.getDeviceService().findDeviceByIdAsync(tenantId, deviceId))
+                .thenReturn(Futures.immediateFuture(device));
         Mockito.when(attributesService.find(eq(tenantId), eq(customerId), eq(AttributeScope.SERVER_SCOPE), Mockito.anyString()))
                 .thenReturn(emptyOptional);
         Mockito.when(attributesService.find(eq(tenantId), eq(deviceId), Mockito.any(AttributeScope.class), Mockito.anySet()))
@@ -1107,8 +1107,8 @@ public class TbDeviceProfileNodeTest extends AbstractRuleNodeUpgradeTest {
         Mockito.when(ctx.getAttributesService()).thenReturn(attributesService);
         Mockito.when(attributesService.find(eq(tenantId), eq(tenantId), Mockito.any(AttributeScope.class), Mockito.anyString()))
                 .thenReturn(optionalDurationAttribute);
-        Mockito.when(ctx.getDeviceService().findDeviceById(tenantId, deviceId))
-                .thenReturn(device);
+        Mockito.when(ctx.getDeviceService().findDeviceByIdAsync(tenantId, deviceId))
+                .thenReturn(Futures.immediateFuture(device));
         Mockito.when(attributesService.find(eq(tenantId), eq(customerId), eq(AttributeScope.SERVER_SCOPE), Mockito.anyString()))
                 .thenReturn(emptyOptional);
         Mockito.when(attributesService.find(eq(tenantId), eq(deviceId), Mockito.any(AttributeScope.class), Mockito.anySet()))
@@ -1625,8 +1625,8 @@ public class TbDeviceProfileNodeTest extends AbstractRuleNodeUpgradeTest {
         Mockito.when(ctx.getAttributesService()).thenReturn(attributesService);
         Mockito.when(attributesService.find(eq(tenantId), eq(deviceId), Mockito.any(AttributeScope.class), Mockito.anySet()))
                 .thenReturn(listListenableFutureWithLess);
-        Mockito.when(ctx.getDeviceService().findDeviceById(tenantId, deviceId))
-                .thenReturn(device);
+        Mockito.when(ctx.getDeviceService().findDeviceByIdAsync(tenantId, deviceId))
+                .thenReturn(Futures.immediateFuture(device));
         Mockito.when(attributesService.find(eq(tenantId), eq(customerId), eq(AttributeScope.SERVER_SCOPE), Mockito.anyString()))
                 .thenReturn(optionalListenableFutureWithLess);
 
@@ -1799,8 +1799,8 @@ public class TbDeviceProfileNodeTest extends AbstractRuleNodeUpgradeTest {
                 .thenReturn(null);
         registerCreateAlarmMock(alarmService.createAlarm(any()), true);
         Mockito.when(ctx.getAttributesService()).thenReturn(attributesService);
-        Mockito.when(ctx.getDeviceService().findDeviceById(tenantId, deviceId))
-                .thenReturn(device);
+        Mockito.when(ctx.getDeviceService().findDeviceByIdAsync(tenantId, deviceId))
+                .thenReturn(Futures.immediateFuture(device));
         Mockito.when(attributesService.find(eq(tenantId), eq(deviceId), Mockito.any(AttributeScope.class), Mockito.anySet()))
                 .thenReturn(listListenableFutureWithLess);
         Mockito.when(attributesService.find(eq(tenantId), eq(customerId), Mockito.any(AttributeScope.class), Mockito.anyString()))
@@ -1895,8 +1895,8 @@ public class TbDeviceProfileNodeTest extends AbstractRuleNodeUpgradeTest {
                 .thenReturn(null);
         registerCreateAlarmMock(alarmService.createAlarm(any()), true);
         Mockito.when(ctx.getAttributesService()).thenReturn(attributesService);
-        Mockito.when(ctx.getDeviceService().findDeviceById(tenantId, deviceId))
-                .thenReturn(device);
+        Mockito.when(ctx.getDeviceService().findDeviceByIdAsync(tenantId, deviceId))
+                .thenReturn(Futures.immediateFuture(device));
         Mockito.when(attributesService.find(eq(tenantId), eq(deviceId), Mockito.any(AttributeScope.class), Mockito.anySet()))
                 .thenReturn(listListenableFutureWithLess);
         Mockito.when(attributesService.find(eq(tenantId), eq(customerId), Mockito.any(AttributeScope.class), Mockito.anyString()))